@@ -0,0 +1,34 @@
+package com.banco.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Ejecuta las suites del camino de petición del BFF con el profiler de GC y deja
+ * los resultados en JSON para compararlos entre versiones. Acepta las mismas
+ * opciones que JMH (p. ej. un patrón de benchmarks o {@code -f 2}).
+ */
+public final class BffBenchmarks {
+
+    private BffBenchmarks() {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions lineaComandos = new CommandLineOptions(args);
+        OptionsBuilder opciones = new OptionsBuilder();
+        if (lineaComandos.getIncludes().isEmpty()) {
+            opciones.include("com\\.banco\\.benchmarks\\..*Benchmark");
+        }
+        opciones.parent(lineaComandos)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(lineaComandos.getResult().orElse("target/jmh-result.json"));
+
+        new Runner(opciones.build()).run();
+    }
+}
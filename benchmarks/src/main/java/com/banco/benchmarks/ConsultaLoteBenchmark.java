@@ -0,0 +1,105 @@
+package com.banco.benchmarks;
+
+import com.banco.productos.dto.ProductoDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Productos de {@code claves} clientes en Productos MS: una consulta por cliente (lo que cuestan
+ * N llamadas a /cliente/{codigo}, sin HTTP ni cache de segundo nivel), la consulta anterior con un
+ * IN de un parámetro por código, y ProductoService.obtenerPorCodigosCliente con el array (= ANY).
+ * Cada operación resuelve todos los códigos. Por defecto H2 en memoria; contra PostgreSQL pasar una
+ * base dedicada como en {@link ConsultaProductosBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConsultaLoteBenchmark {
+
+    private static final int PRODUCTOS_POR_CLIENTE = 5;
+
+    @Param({"1000"})
+    private int claves;
+
+    /**
+     * Clientes en la tabla; se consultan claves de ellos repartidos por toda la tabla
+     */
+    @Param({"20000"})
+    private int clientes;
+
+    @Param({"jdbc:h2:mem:productos_lote_bench;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"})
+    private String url;
+
+    @Param({"sa"})
+    private String usuario;
+
+    @Param({""})
+    private String clave;
+
+    private ProductosJpa jpa;
+    private List<String> codigos;
+
+    @Setup
+    public void setUp() {
+        jpa = new ProductosJpa(url, usuario, clave);
+        jpa.sembrar(clientes * PRODUCTOS_POR_CLIENTE, i -> codigo(i / PRODUCTOS_POR_CLIENTE));
+        codigos = IntStream.range(0, claves)
+                .mapToObj(i -> codigo((int) ((long) i * clientes / claves)))
+                .toList();
+    }
+
+    private static String codigo(int cliente) {
+        return "CLI" + String.format("%08d", cliente);
+    }
+
+    @TearDown
+    public void tearDown() {
+        jpa.close();
+    }
+
+    /**
+     * Una transacción y una consulta por código, como N peticiones de un solo cliente
+     */
+    @Benchmark
+    public int unoPorUno() {
+        int productos = 0;
+        for (String codigo : codigos) {
+            productos += jpa.soloLectura.execute(estado -> jpa.productoService.obtenerPorCodigoCliente(codigo)).size();
+        }
+        return productos;
+    }
+
+    /**
+     * Consulta anterior: un parámetro por código, otra sentencia (y otro plan) por cada tamaño de lote
+     */
+    @Benchmark
+    public List<ProductoDTO> listaIn() {
+        return jpa.soloLectura.execute(estado -> jpa.entityManager
+                .createQuery("select new com.banco.productos.dto.ProductoDTO(p.id, p.codigoCliente, p.tipoProducto, "
+                        + "p.nombre, p.saldo, p.estado) from Producto p where p.codigoCliente in :codigos", ProductoDTO.class)
+                .setParameter("codigos", codigos)
+                .getResultList());
+    }
+
+    @Benchmark
+    public List<ProductoDTO> arrayAny() {
+        return jpa.soloLectura.execute(estado -> jpa.productoService.obtenerPorCodigosCliente(codigos));
+    }
+}
@@ -0,0 +1,96 @@
+package com.banco.benchmarks;
+
+import com.banco.productos.dto.ProductoDTO;
+import com.banco.productos.entity.Producto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Productos de un cliente con N productos en Productos MS, dentro de una transacción de solo
+ * lectura como la del servicio: la consulta anterior (entidades gestionadas y copia campo a campo
+ * al DTO) frente a ProductoService.obtenerPorCodigoCliente con la proyección al DTO. Sin cache de
+ * segundo nivel, para medir siempre la base. Por defecto H2 en memoria; contra PostgreSQL (con las
+ * migraciones de Flyway) pasar una base dedicada, p. ej.
+ * {@code -p url=jdbc:postgresql://localhost:5432/productos_bench -p usuario=postgres -p clave=...}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConsultaProductosBenchmark {
+
+    private static final String CODIGO_CLIENTE = "CLI00000001";
+
+    @Param({"200"})
+    private int productos;
+
+    /**
+     * Productos de otros clientes, para que la consulta tenga que filtrar
+     */
+    @Param({"10000"})
+    private int otrosProductos;
+
+    @Param({"jdbc:h2:mem:productos_bench;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"})
+    private String url;
+
+    @Param({"sa"})
+    private String usuario;
+
+    @Param({""})
+    private String clave;
+
+    private ProductosJpa jpa;
+
+    @Setup
+    public void setUp() {
+        jpa = new ProductosJpa(url, usuario, clave);
+        jpa.sembrar(productos + otrosProductos,
+                i -> i < productos ? CODIGO_CLIENTE : "CLI" + String.format("%08d", 2 + i / 5));
+    }
+
+    @TearDown
+    public void tearDown() {
+        jpa.close();
+    }
+
+    /**
+     * Camino anterior: entidades en el contexto de persistencia y mapToDTO por cada una
+     */
+    @Benchmark
+    public List<ProductoDTO> entidad() {
+        return jpa.soloLectura.execute(estado -> jpa.entityManager
+                .createQuery("select p from Producto p where p.codigoCliente = :codigoCliente", Producto.class)
+                .setParameter("codigoCliente", CODIGO_CLIENTE)
+                .getResultList()
+                .stream()
+                .map(producto -> ProductoDTO.builder()
+                        .id(producto.getId())
+                        .codigoCliente(producto.getCodigoCliente())
+                        .tipoProducto(producto.getTipoProducto())
+                        .nombre(producto.getNombre())
+                        .saldo(producto.getSaldo())
+                        .estado(producto.getEstado())
+                        .build())
+                .toList());
+    }
+
+    @Benchmark
+    public List<ProductoDTO> proyeccion() {
+        return jpa.soloLectura.execute(estado -> jpa.productoService.obtenerPorCodigoCliente(CODIGO_CLIENTE));
+    }
+}
@@ -0,0 +1,28 @@
+package com.banco.benchmarks;
+
+import com.banco.bff.dto.ClienteDTO;
+import com.banco.bff.dto.ProductoDTO;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Datos de prueba compartidos por los benchmarks
+ */
+final class Datos {
+
+    private Datos() {
+    }
+
+    static ClienteDTO cliente(String codigo) {
+        return new ClienteDTO(1L, codigo, "Juan Carlos", "Pérez Gómez", "CC", "1234567890", "ACTIVO");
+    }
+
+    static List<ProductoDTO> productos(String codigo, int cantidad) {
+        return IntStream.range(0, cantidad)
+                .mapToObj(i -> new ProductoDTO((long) i, codigo, i % 2 == 0 ? "CUENTA_AHORROS" : "TARJETA_CREDITO",
+                        "Producto " + i, BigDecimal.valueOf(1_000_000L + i, 2), "ACTIVO"))
+                .toList();
+    }
+}
@@ -0,0 +1,61 @@
+package com.banco.benchmarks;
+
+import com.banco.bff.util.EncryptionUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ops/s y bytes asignados por decrypt ({@code gc.alloc.rate.norm} con {@code -prof gc})
+ * de la implementación anterior frente a la actual, en formato legado y en AES-GCM.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EncryptionBenchmark {
+
+    private static final String CLAVE = "MTIzNDU2Nzg5MDEyMzQ1Njc4OTAxMjM0NTY3ODkwMTI=";
+    private static final String CLAVE_GCM = "AAECAwQFBgcICQoLDA0ODxAREhMUFRYXGBkaGxwdHh8=";
+
+    private EncryptionUtilAnterior anterior;
+    private EncryptionUtil actual;
+    private EncryptionUtil actualGcm;
+    private String codigoLegado;
+    private String codigoGcm;
+
+    @Setup
+    public void setUp() {
+        anterior = new EncryptionUtilAnterior(CLAVE);
+        actual = new EncryptionUtil(CLAVE, "", "");
+        actualGcm = new EncryptionUtil(CLAVE, "v1:" + CLAVE_GCM, "v1");
+        codigoLegado = actual.encrypt("CLI001");
+        codigoGcm = actualGcm.encrypt("CLI001");
+    }
+
+    @Benchmark
+    public String decryptAnterior() {
+        return anterior.decrypt(codigoLegado);
+    }
+
+    @Benchmark
+    public String decryptLegado() {
+        return actual.decrypt(codigoLegado);
+    }
+
+    @Benchmark
+    public String decryptGcm() {
+        return actualGcm.decrypt(codigoGcm);
+    }
+}
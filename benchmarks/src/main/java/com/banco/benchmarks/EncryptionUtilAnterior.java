@@ -0,0 +1,41 @@
+package com.banco.benchmarks;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import java.util.Base64;
+
+/**
+ * Copia de EncryptionUtil previa a la cache de claves y ciphers, usada como línea base
+ */
+public class EncryptionUtilAnterior {
+
+    private static final String ALGORITHM = "AES";
+
+    private final String encryptionKey;
+
+    public EncryptionUtilAnterior(String encryptionKey) {
+        this.encryptionKey = encryptionKey;
+    }
+
+    private SecretKeySpec getKey() {
+        byte[] keyBytes = Base64.getDecoder().decode(encryptionKey);
+        return new SecretKeySpec(keyBytes, ALGORITHM);
+    }
+
+    public String decrypt(String encryptedText) {
+        try {
+            Cipher cipher = Cipher.getInstance("AES");
+            cipher.init(Cipher.DECRYPT_MODE, getKey());
+
+            byte[] decodedBytes =
+                    Base64.getUrlDecoder().decode(encryptedText);
+
+            byte[] decryptedBytes = cipher.doFinal(decodedBytes);
+
+            return new String(decryptedBytes);
+
+        } catch (Exception e) {
+            throw new RuntimeException("Error en desencriptación");
+        }
+    }
+}
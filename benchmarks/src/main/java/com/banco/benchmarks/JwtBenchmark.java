@@ -0,0 +1,79 @@
+package com.banco.benchmarks;
+
+import com.banco.bff.config.CachingReactiveJwtDecoder;
+import com.banco.bff.util.JwtUtil;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verificación de un bearer por petición: decoder del BFF con y sin cache de
+ * tokens verificados, y JwtUtil reconstruyendo clave y parser frente a la versión precomputada.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private static final String SECRETO = "12345678901234567890123456789012";
+
+    private ReactiveJwtDecoder sinCache;
+    private ReactiveJwtDecoder conCache;
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        SecretKeySpec clave = new SecretKeySpec(SECRETO.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        sinCache = NimbusReactiveJwtDecoder.withSecretKey(clave).build();
+        conCache = new CachingReactiveJwtDecoder(sinCache, 10_000, Duration.ofMinutes(5), new SimpleMeterRegistry());
+        jwtUtil = new JwtUtil(SECRETO, 3_600_000);
+        token = jwtUtil.generateToken("benchmark");
+    }
+
+    @Benchmark
+    public Jwt decoderSinCache() {
+        return sinCache.decode(token).block();
+    }
+
+    @Benchmark
+    public Jwt decoderConCache() {
+        return conCache.decode(token).block();
+    }
+
+    @Benchmark
+    public String jwtUtilAnterior() {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRETO.getBytes()))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload()
+                .getSubject();
+    }
+
+    @Benchmark
+    public String jwtUtilPrecomputado() {
+        return jwtUtil.getUsernameFromToken(token);
+    }
+}
@@ -0,0 +1,172 @@
+package com.banco.benchmarks;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.encoder.Encoder;
+import com.banco.comun.logging.MuestreoTurboFilter;
+import com.banco.bff.dto.ClienteDTO;
+import com.banco.bff.dto.ProductoDTO;
+import com.banco.comun.logging.CodigoHash;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.MDC;
+import org.springframework.boot.logging.logback.StructuredLogEncoder;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de logging por petición del BFF, con un LoggerContext propio que escribe a un stream nulo
+ * (se mide formatear y encolar, no la consola):
+ * <ul>
+ *     <li>actual: appender síncrono con patrón de texto, DEBUG activo y las líneas anteriores
+ *     (trackingId en el mensaje, código en claro y toString del ClienteDTO)</li>
+ *     <li>asincrono-json: AsyncAppender + StructuredLogEncoder (logstash), INFO y una sola
+ *     línea de acceso con campos clave-valor</li>
+ *     <li>asincrono-json-muestreo: lo anterior con el acceso muestreado 1 de cada 10</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoggingBenchmark {
+
+    private static final String TRACKING_ID = "trackingId";
+    private static final String CODIGO = "CLI001";
+
+    @Param({"actual", "asincrono-json", "asincrono-json-muestreo"})
+    public String escenario;
+
+    private LoggerContext contexto;
+    private Logger controlador;
+    private Logger servicio;
+    private Logger cliente;
+    private Logger acceso;
+    private ClienteDTO clienteDTO;
+    private List<ProductoDTO> productos;
+
+    @Setup
+    public void setUp() {
+        contexto = new LoggerContext();
+        contexto.putObject(Environment.class.getName(), new StandardEnvironment());
+
+        OutputStreamAppender<ILoggingEvent> salida = new OutputStreamAppender<>();
+        salida.setContext(contexto);
+        salida.setEncoder("actual".equals(escenario) ? texto() : json());
+        salida.setOutputStream(OutputStream.nullOutputStream());
+        salida.start();
+
+        ch.qos.logback.classic.Logger raiz = contexto.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        if ("actual".equals(escenario)) {
+            raiz.addAppender(salida);
+            contexto.getLogger("com.banco").setLevel(Level.DEBUG);
+        } else {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(contexto);
+            async.setQueueSize(8192);
+            async.setDiscardingThreshold(1638);
+            async.setNeverBlock(true);
+            async.setIncludeCallerData(false);
+            async.addAppender(salida);
+            async.start();
+            raiz.addAppender(async);
+            contexto.getLogger("com.banco").setLevel(Level.INFO);
+        }
+        raiz.setLevel(Level.INFO);
+
+        if ("asincrono-json-muestreo".equals(escenario)) {
+            MuestreoTurboFilter muestreo = new MuestreoTurboFilter();
+            muestreo.setLoggers("com.banco.bff.acceso:10");
+            muestreo.setContext(contexto);
+            muestreo.start();
+            contexto.addTurboFilter(muestreo);
+        }
+
+        controlador = contexto.getLogger("com.banco.bff.controller.BffController");
+        servicio = contexto.getLogger("com.banco.bff.service.BffService");
+        cliente = contexto.getLogger("com.banco.bff.client.ClienteClient");
+        acceso = contexto.getLogger("com.banco.bff.acceso");
+        clienteDTO = Datos.cliente(CODIGO);
+        productos = Datos.productos(CODIGO, 5);
+    }
+
+    @TearDown
+    public void tearDown() {
+        contexto.stop();
+        MDC.clear();
+    }
+
+    @Benchmark
+    public void peticion() {
+        MDC.put(TRACKING_ID, "tracking-1");
+        if ("actual".equals(escenario)) {
+            peticionActual();
+        } else {
+            peticionEstructurada();
+        }
+        MDC.remove(TRACKING_ID);
+    }
+
+    private void peticionActual() {
+        controlador.info("Tracking ID: {} - Solicitado cliente encriptado: {}", "tracking-1", "cifrado");
+        servicio.info("BFF: Orquestando llamadas para cliente: {}", CODIGO);
+        cliente.info("Cliente obtenido: {}", clienteDTO);
+        servicio.debug("Integrando respuesta. Cliente: {}, Productos: {}", clienteDTO.getNombres(), productos.size());
+    }
+
+    private void peticionEstructurada() {
+        long inicio = System.nanoTime();
+        servicio.atDebug()
+                .setMessage("BFF: Orquestando llamadas para cliente")
+                .addKeyValue("codigoClienteHash", () -> CodigoHash.de(CODIGO))
+                .log();
+        cliente.atDebug()
+                .setMessage("Cliente obtenido")
+                .addKeyValue("codigoClienteHash", () -> CodigoHash.de(CODIGO))
+                .log();
+        servicio.debug("Integrando respuesta. Productos: {}", productos.size());
+        acceso.atInfo()
+                .setMessage("GET /api/clientes/{codigo}")
+                .addKeyValue("codigoClienteHash", () -> CodigoHash.de(CODIGO))
+                .addKeyValue("estado", 200)
+                .addKeyValue("latenciaMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio))
+                .log();
+    }
+
+    private Encoder<ILoggingEvent> texto() {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(contexto);
+        encoder.setPattern("%d{yyyy-MM-dd HH:mm:ss} [%thread] %-5level %logger{36} - [%X{trackingId}] %msg%n");
+        encoder.start();
+        return encoder;
+    }
+
+    private Encoder<ILoggingEvent> json() {
+        StructuredLogEncoder encoder = new StructuredLogEncoder();
+        encoder.setContext(contexto);
+        encoder.setFormat("logstash");
+        encoder.start();
+        return encoder;
+    }
+}
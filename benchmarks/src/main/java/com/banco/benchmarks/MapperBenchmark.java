@@ -0,0 +1,52 @@
+package com.banco.benchmarks;
+
+import com.banco.bff.dto.ClienteDTO;
+import com.banco.bff.dto.ClienteProductoResponse;
+import com.banco.bff.dto.ProductoDTO;
+import com.banco.bff.mapper.ClienteProductoMapper;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapeo cliente + productos a la respuesta agregada con ClienteProductoMapper
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int productos;
+
+    private ClienteProductoMapper mapper;
+    private ClienteDTO cliente;
+    private List<ProductoDTO> listaProductos;
+
+    @Setup
+    public void setUp() {
+        mapper = Mappers.getMapper(ClienteProductoMapper.class);
+        cliente = Datos.cliente("CLI001");
+        listaProductos = Datos.productos("CLI001", productos);
+    }
+
+    @Benchmark
+    public ClienteProductoResponse toResponse() {
+        return mapper.toResponse(cliente, listaProductos);
+    }
+}
@@ -0,0 +1,95 @@
+package com.banco.benchmarks;
+
+import com.banco.bff.config.MdcContextPropagationConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.slf4j.MDC;
+import reactor.core.publisher.Hooks;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste por petición de llevar el trackingId al MDC: "manual" reproduce el patrón anterior
+ * (MDC.put en deferContextual y MDC.remove/clear en doFinally en controlador, servicio y
+ * clientes); "automatico" usa la propagación de contexto de Reactor con el accessor del MDC.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MdcBenchmark {
+
+    private static final String TRACKING_ID = "trackingId";
+
+    @Param({"manual", "automatico"})
+    public String modo;
+
+    private boolean manual;
+
+    @Setup
+    public void setUp() {
+        manual = "manual".equals(modo);
+        if (!manual) {
+            MdcContextPropagationConfig.registrar();
+            Hooks.enableAutomaticContextPropagation();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        Hooks.disableAutomaticContextPropagation();
+    }
+
+    /**
+     * Se suscribe como lo hace Netty con la respuesta, sin block(), que en modo automático
+     * captura todos los ThreadLocal registrados y no forma parte del camino real
+     */
+    @Benchmark
+    public void peticion(Blackhole blackhole) {
+        Mono<String> peticion = manual ? peticionManual("tracking-1") : peticionAutomatica("tracking-1");
+        peticion.subscribe(blackhole::consume);
+    }
+
+    private Mono<String> peticionAutomatica(String trackingId) {
+        Mono<String> cliente = Mono.fromCallable(() -> "cliente");
+        Mono<String> productos = Mono.fromCallable(() -> "productos");
+        return Mono.zip(cliente, productos)
+                .map(tuple -> tuple.getT1() + tuple.getT2())
+                .contextWrite(Context.of(TRACKING_ID, trackingId));
+    }
+
+    private Mono<String> peticionManual(String trackingId) {
+        MDC.put(TRACKING_ID, trackingId);
+        return Mono.deferContextual(ctx -> {
+                    MDC.put(TRACKING_ID, ctx.getOrDefault(TRACKING_ID, ""));
+                    return Mono.zip(llamadaManual("cliente"), llamadaManual("productos"))
+                            .map(tuple -> tuple.getT1() + tuple.getT2())
+                            .doFinally(signal -> MDC.remove(TRACKING_ID));
+                })
+                .doFinally(signal -> MDC.clear())
+                .contextWrite(Context.of(TRACKING_ID, trackingId));
+    }
+
+    private static Mono<String> llamadaManual(String valor) {
+        return Mono.deferContextual(ctx -> {
+            MDC.put(TRACKING_ID, ctx.getOrDefault(TRACKING_ID, ""));
+            return Mono.fromCallable(() -> valor)
+                    .doFinally(signal -> MDC.remove(TRACKING_ID));
+        });
+    }
+}
@@ -0,0 +1,70 @@
+package com.banco.benchmarks;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste por petición de registrar una latencia en un Timer de Prometheus, con y sin
+ * histograma HDR + buckets SLO (la configuración de bff.agregacion y http.client.requests).
+ * Se mide en nanosegundos porque el objetivo es que quede por debajo de unos cientos de ns; el
+ * coste de una petición completa instrumentada está en {@link PeticionInstrumentadaBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetricasBenchmark {
+
+    private Timer simple;
+    private Timer conHistograma;
+    private long latencia;
+
+    @Setup
+    public void setUp() {
+        PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        simple = Timer.builder("benchmark.simple")
+                .register(registry);
+        conHistograma = Timer.builder("benchmark.histograma")
+                .publishPercentileHistogram()
+                .serviceLevelObjectives(Duration.ofMillis(25), Duration.ofMillis(50), Duration.ofMillis(100),
+                        Duration.ofMillis(250), Duration.ofMillis(500), Duration.ofSeconds(1))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(registry);
+        latencia = TimeUnit.MILLISECONDS.toNanos(42);
+    }
+
+    /** Línea base: solo las dos lecturas de reloj que hace el servicio */
+    @Benchmark
+    public long sinMetricas() {
+        long inicio = System.nanoTime();
+        return System.nanoTime() - inicio + latencia;
+    }
+
+    @Benchmark
+    public void timerSimple() {
+        long inicio = System.nanoTime();
+        simple.record(System.nanoTime() - inicio + latencia, TimeUnit.NANOSECONDS);
+    }
+
+    @Benchmark
+    public void timerConHistograma() {
+        long inicio = System.nanoTime();
+        conHistograma.record(System.nanoTime() - inicio + latencia, TimeUnit.NANOSECONDS);
+    }
+}
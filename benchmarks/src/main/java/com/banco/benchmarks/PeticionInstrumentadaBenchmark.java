@@ -0,0 +1,214 @@
+package com.banco.benchmarks;
+
+import com.banco.bff.cache.ClienteProductoCache;
+import com.banco.bff.client.ClienteClient;
+import com.banco.bff.client.ProductosClient;
+import com.banco.bff.client.ResilienciaDownstream;
+import com.banco.bff.client.SingleFlight;
+import com.banco.bff.config.DownstreamObservationConvention;
+import com.banco.bff.config.WebClientConfig;
+import com.banco.bff.dto.ClienteProductoResponse;
+import com.banco.bff.mapper.ClienteProductoMapper;
+import com.banco.bff.service.BffService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.adapter.WebHttpHandlerBuilder;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+
+/**
+ * Una petición completa por el BFF: servidor WebFlux, BffService sin cache y los dos WebClient
+ * reales contra servicios simulados en un servidor Netty local. Con instrumentacion=true se
+ * activa lo que añade la exportación de latencias: observación http.server.requests, observación
+ * http.client.requests con el tag servicio, bff.agregacion y las métricas del pool, todo con los
+ * histogramas y SLOs de application.properties sobre un registro de Prometheus. La diferencia
+ * entre las dos variantes es el coste de la instrumentación por petición. Tracing no se incluye:
+ * con muestreo en cabecera solo se paga en la fracción muestreada.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PeticionInstrumentadaBenchmark {
+
+    private static final Duration[] SLO_SERVIDOR = {Duration.ofMillis(25), Duration.ofMillis(50),
+            Duration.ofMillis(100), Duration.ofMillis(250), Duration.ofMillis(500), Duration.ofSeconds(1)};
+    private static final Map<String, Duration[]> SLOS = Map.of(
+            "http.server.requests", SLO_SERVIDOR,
+            "bff.agregacion", SLO_SERVIDOR,
+            "http.client.requests", new Duration[]{Duration.ofMillis(10), Duration.ofMillis(25),
+                    Duration.ofMillis(50), Duration.ofMillis(100), Duration.ofMillis(250), Duration.ofMillis(500)});
+
+    @Param({"false", "true"})
+    private boolean instrumentacion;
+
+    @Param({"10"})
+    private int productos;
+
+    private PrometheusMeterRegistry meterRegistry;
+    private DisposableServer downstream;
+    private DisposableServer bff;
+    private HttpClient httpClientCliente;
+    private HttpClient httpClientProductos;
+    private HttpClient llamante;
+
+    @Setup
+    public void setUp() throws Exception {
+        ObjectMapper json = new ObjectMapper();
+        String cliente = json.writeValueAsString(Datos.cliente("CLI001"));
+        String listaProductos = json.writeValueAsString(Datos.productos("CLI001", productos));
+        downstream = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .route(rutas -> rutas
+                        .get("/cliente/api/clientes/{codigo}", (peticion, respuesta) -> respuesta
+                                .header("Content-Type", "application/json")
+                                .sendString(Mono.just(cliente), StandardCharsets.UTF_8))
+                        .get("/productos/api/productos/cliente/{codigo}", (peticion, respuesta) -> respuesta
+                                .header("Content-Type", "application/json")
+                                .sendString(Mono.just(listaProductos), StandardCharsets.UTF_8)))
+                .bindNow();
+        String base = "http://127.0.0.1:" + downstream.port();
+
+        meterRegistry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        meterRegistry.config().meterFilter(histogramas());
+        ObservationRegistry observationRegistry = ObservationRegistry.NOOP;
+        if (instrumentacion) {
+            observationRegistry = ObservationRegistry.create();
+            observationRegistry.observationConfig()
+                    .observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+            // Reactor Netty publica los gauges del pool en el registro global
+            Metrics.globalRegistry.add(meterRegistry);
+        }
+
+        WebClientConfig.PerfilTransporte perfil = WebClientConfig.PerfilTransporte.de("http1", 500, 4, 100,
+                Duration.ofSeconds(20), Duration.ofMinutes(5), true, Duration.ofSeconds(30));
+        httpClientCliente = WebClientConfig.httpClient("benchmark-cliente", perfil);
+        httpClientProductos = WebClientConfig.httpClient("benchmark-productos", perfil);
+        SingleFlight singleFlight = new SingleFlight(meterRegistry);
+        ClienteClient clienteClient = new ClienteClient(webClient(httpClientCliente, observationRegistry),
+                base + "/cliente", singleFlight, resiliencia("cliente", meterRegistry));
+        ProductosClient productosClient = new ProductosClient(webClient(httpClientProductos, observationRegistry),
+                base + "/productos", singleFlight, resiliencia("productos", meterRegistry));
+
+        ClienteProductoMapper mapper = Mappers.getMapper(ClienteProductoMapper.class);
+        ClienteProductoCache cache = new ClienteProductoCache(false, Duration.ofMinutes(5), 16_777_216, meterRegistry);
+        BffService bffService = new BffService(clienteClient, productosClient, mapper, cache,
+                observationRegistry, 200, 4, true);
+
+        RouterFunction<ServerResponse> rutas = RouterFunctions.route(GET("/api/clientes/{codigo}"), peticion ->
+                ServerResponse.ok().body(bffService.obtenerClienteConProductos(peticion.pathVariable("codigo")),
+                        ClienteProductoResponse.class));
+        bff = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .handle(new ReactorHttpHandlerAdapter(WebHttpHandlerBuilder
+                        .webHandler(RouterFunctions.toWebHandler(rutas))
+                        .observationRegistry(observationRegistry)
+                        .build()))
+                .bindNow();
+
+        llamante = HttpClient.create().baseUrl("http://127.0.0.1:" + bff.port());
+    }
+
+    private static WebClient webClient(HttpClient httpClient, ObservationRegistry observationRegistry) {
+        return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .observationRegistry(observationRegistry)
+                .observationConvention(new DownstreamObservationConvention())
+                .build();
+    }
+
+    /**
+     * Misma política que ResilienciaConfig por defecto, sin límite adaptativo para que el benchmark
+     * no dependa de su aprendizaje
+     */
+    private static ResilienciaDownstream resiliencia(String servicio, MeterRegistry meterRegistry) {
+        return new ResilienciaDownstream(servicio, CircuitBreaker.ofDefaults(servicio),
+                Bulkhead.of(servicio, BulkheadConfig.custom().maxConcurrentCalls(200).build()), null,
+                Duration.ofMillis(100), Duration.ofSeconds(2), 3, false, Duration.ofMillis(20), meterRegistry);
+    }
+
+    /**
+     * Histogramas y SLOs de management.metrics.distribution.* en application.properties
+     */
+    private static MeterFilter histogramas() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                Duration[] slos = SLOS.get(id.getName());
+                if (slos == null) {
+                    return config;
+                }
+                return DistributionStatisticConfig.builder()
+                        .percentilesHistogram(true)
+                        .serviceLevelObjectives(Arrays.stream(slos).mapToDouble(Duration::toNanos).toArray())
+                        .maximumExpectedValue((double) Duration.ofSeconds(10).toNanos())
+                        .build()
+                        .merge(config);
+            }
+        };
+    }
+
+    @TearDown
+    public void tearDown() {
+        bff.disposeNow();
+        httpClientCliente.configuration().connectionProvider().disposeLater().block();
+        httpClientProductos.configuration().connectionProvider().disposeLater().block();
+        downstream.disposeNow();
+        Metrics.globalRegistry.remove(meterRegistry);
+        meterRegistry.close();
+    }
+
+    @Benchmark
+    public String peticion() {
+        return llamante.get()
+                .uri("/api/clientes/CLI001")
+                .responseSingle((respuesta, cuerpo) -> respuesta.status().code() == 200
+                        ? cuerpo.asString()
+                        : Mono.error(new IllegalStateException("Respuesta " + respuesta.status())))
+                .block();
+    }
+}
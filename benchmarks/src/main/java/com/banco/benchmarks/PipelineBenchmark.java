@@ -0,0 +1,85 @@
+package com.banco.benchmarks;
+
+import com.banco.bff.cache.ClienteProductoCache;
+import com.banco.bff.client.ClienteClient;
+import com.banco.bff.client.ProductosClient;
+import com.banco.bff.dto.ClienteDTO;
+import com.banco.bff.dto.ClienteProductoResponse;
+import com.banco.bff.dto.ProductoDTO;
+import com.banco.bff.mapper.ClienteProductoMapper;
+import com.banco.bff.service.BffService;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BffService.obtenerClienteConProductos completo (cache, zip, mapeo) con clientes
+ * downstream simulados en memoria. Con cache=false se mide la orquestación en cada llamada.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PipelineBenchmark {
+
+    @Param({"false", "true"})
+    private boolean cache;
+
+    @Param({"10"})
+    private int productos;
+
+    private BffService bffService;
+
+    @Setup
+    public void setUp() {
+        ClienteDTO cliente = Datos.cliente("CLI001");
+        List<ProductoDTO> listaProductos = Datos.productos("CLI001", productos);
+
+        ClienteClient clienteClient = new ClienteClient(null, "http://cliente", null, null) {
+            @Override
+            public Mono<ClienteDTO> obtenerClientePorCodigo(String codigoUnico) {
+                return Mono.just(cliente);
+            }
+        };
+        ProductosClient productosClient = new ProductosClient(null, "http://productos", null, null) {
+            @Override
+            public Flux<ProductoDTO> obtenerProductosPorCodigoCliente(String codigoCliente) {
+                return Flux.fromIterable(listaProductos);
+            }
+        };
+
+        ClienteProductoMapper mapper = Mappers.getMapper(ClienteProductoMapper.class);
+        ClienteProductoCache clienteProductoCache = new ClienteProductoCache(cache, Duration.ofMinutes(5),
+                16_777_216, new SimpleMeterRegistry());
+        ObservationRegistry observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig()
+                .observationHandler(new DefaultMeterObservationHandler(new SimpleMeterRegistry()));
+        bffService = new BffService(clienteClient, productosClient, mapper, clienteProductoCache,
+                observationRegistry, 200, 4, true);
+    }
+
+    @Benchmark
+    public ClienteProductoResponse obtenerClienteConProductos() {
+        return bffService.obtenerClienteConProductos("CLI001").block();
+    }
+}
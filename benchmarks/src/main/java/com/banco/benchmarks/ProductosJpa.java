@@ -0,0 +1,109 @@
+package com.banco.benchmarks;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.banco.productos.entity.Producto;
+import com.banco.productos.repository.ProductoRepository;
+import com.banco.productos.service.ProductoService;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Productos MS sin Spring Boot para los benchmarks de consultas: pool, JPA con las mismas
+ * propiedades que la aplicación salvo la cache de segundo nivel, y ProductoService sobre el
+ * repositorio real. Con una url de PostgreSQL aplica antes las migraciones de Flyway.
+ */
+final class ProductosJpa implements AutoCloseable {
+
+    final boolean postgres;
+    final HikariDataSource dataSource;
+    final EntityManagerFactory entityManagerFactory;
+    final EntityManager entityManager;
+    final TransactionTemplate soloLectura;
+    final ProductoService productoService;
+
+    ProductosJpa(String url, String usuario, String clave) {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(usuario);
+        dataSource.setPassword(clave);
+        dataSource.setMaximumPoolSize(2);
+
+        postgres = url.startsWith("jdbc:postgresql:");
+        if (postgres) {
+            Flyway.configure()
+                    .dataSource(dataSource)
+                    .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+                    .load()
+                    .migrate();
+        }
+
+        LocalContainerEntityManagerFactoryBean fabrica = new LocalContainerEntityManagerFactoryBean();
+        fabrica.setDataSource(dataSource);
+        fabrica.setPackagesToScan(Producto.class.getPackageName());
+        fabrica.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        fabrica.setJpaPropertyMap(Map.of(
+                "hibernate.hbm2ddl.auto", postgres ? "none" : "create",
+                "hibernate.physical_naming_strategy", CamelCaseToUnderscoresNamingStrategy.class.getName(),
+                "hibernate.jdbc.fetch_size", "1000",
+                "hibernate.cache.use_second_level_cache", "false"));
+        fabrica.afterPropertiesSet();
+        entityManagerFactory = fabrica.getObject();
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+
+        soloLectura = new TransactionTemplate(new JpaTransactionManager(entityManagerFactory));
+        soloLectura.setReadOnly(true);
+
+        ProductoRepository repositorio = new JpaRepositoryFactory(entityManager).getRepository(ProductoRepository.class);
+        productoService = new ProductoService(repositorio, evento -> { }, 1000, 5000, 50, 500);
+    }
+
+    /**
+     * Reemplazar la tabla de productos por {@code filas} productos, con el código de cliente que
+     * indique {@code codigoCliente} para cada fila
+     */
+    void sembrar(int filas, IntFunction<String> codigoCliente) {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("DELETE FROM productos");
+        List<Object[]> valores = IntStream.range(0, filas)
+                .mapToObj(i -> new Object[]{
+                        i + 1L,
+                        codigoCliente.apply(i),
+                        i % 2 == 0 ? "CUENTA_AHORROS" : "TARJETA_CREDITO",
+                        "Producto " + i,
+                        BigDecimal.valueOf(1_000_000L + i, 2),
+                        "ACTIVO"})
+                .toList();
+        jdbc.batchUpdate("INSERT INTO productos (id, codigo_cliente, tipo_producto, nombre, saldo, estado, created_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)", valores);
+        if (postgres) {
+            // El index-only scan depende del mapa de visibilidad
+            jdbc.execute("VACUUM ANALYZE productos");
+        }
+    }
+
+    @Override
+    public void close() {
+        entityManagerFactory.close();
+        dataSource.close();
+    }
+}
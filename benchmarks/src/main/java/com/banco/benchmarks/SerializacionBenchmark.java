@@ -0,0 +1,56 @@
+package com.banco.benchmarks;
+
+import com.banco.bff.dto.ClienteProductoResponseConTracking;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialización Jackson de ClienteProductoResponseConTracking con 1, 10 y 100 productos,
+ * con el ObjectMapper configurado como en Spring Boot
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializacionBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int productos;
+
+    private ObjectWriter writer;
+    private ClienteProductoResponseConTracking respuesta;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writerFor(ClienteProductoResponseConTracking.class);
+        respuesta = ClienteProductoResponseConTracking.builder()
+                .trackingId("6f1c2a9e-3b5d-4e7f-8a90-1b2c3d4e5f60")
+                .cliente(Datos.cliente("CLI001"))
+                .productos(Datos.productos("CLI001", productos))
+                .cantidadProductos(productos)
+                .build();
+    }
+
+    @Benchmark
+    public byte[] serializar() throws JsonProcessingException {
+        return writer.writeValueAsBytes(respuesta);
+    }
+}
@@ -0,0 +1,120 @@
+package com.banco.benchmarks;
+
+import com.banco.bff.config.WebClientConfig;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ráfagas de enVuelo peticiones concurrentes del WebClient del BFF contra un servidor local que
+ * responde tras retrasoMs, con el perfil de transporte http1 o h2c. Además del tiempo por ráfaga
+ * (rps = ráfagas por ms * enVuelo * 1000) reporta las conexiones TCP abiertas en el servidor y
+ * las aceptadas en total: con http1 hace falta una conexión por petición en vuelo; con h2c
+ * las peticiones se multiplexan como streams de unas pocas conexiones.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransporteBenchmark {
+
+    private static final String CUERPO = "{\"codigoUnico\":\"CLI001\",\"nombres\":\"Juan\",\"apellidos\":\"Pérez\"}";
+
+    @Param({"http1", "h2c"})
+    private String protocolo;
+
+    @Param({"100"})
+    private int enVuelo;
+
+    @Param({"1"})
+    private long retrasoMs;
+
+    private final AtomicLong abiertas = new AtomicLong();
+    private final AtomicLong aceptadas = new AtomicLong();
+    private DisposableServer servidor;
+    private HttpClient httpClient;
+    private WebClient webClient;
+    private String url;
+
+    /**
+     * Conexiones del servidor al final de cada ráfaga; JMH suma el valor de cada iteración de
+     * medida, así que el resultado se divide entre el número de iteraciones
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Conexiones {
+        public long conexionesAbiertas;
+        public long conexionesAceptadas;
+    }
+
+    @Setup
+    public void setUp() {
+        Duration retraso = Duration.ofMillis(retrasoMs);
+        servidor = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .protocol(HttpProtocol.HTTP11, HttpProtocol.H2C)
+                .doOnChannelInit((observador, canal, direccion) -> {
+                    aceptadas.incrementAndGet();
+                    abiertas.incrementAndGet();
+                    canal.closeFuture().addListener(cerrado -> abiertas.decrementAndGet());
+                })
+                .route(rutas -> rutas.get("/cliente/api/clientes/{codigo}", (peticion, respuesta) -> respuesta
+                        .header("Content-Type", "application/json")
+                        .sendString(Mono.delay(retraso).thenReturn(CUERPO))))
+                .bindNow();
+        url = "http://127.0.0.1:" + servidor.port() + "/cliente/api/clientes/{codigo}";
+
+        WebClientConfig.PerfilTransporte perfil = WebClientConfig.PerfilTransporte.de(protocolo, 500, 4, 100,
+                Duration.ofSeconds(20), Duration.ofMinutes(5), true, Duration.ofSeconds(30));
+        httpClient = WebClientConfig.httpClient("benchmark-" + protocolo, perfil);
+        webClient = WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        httpClient.configuration().connectionProvider().disposeLater().block();
+        servidor.disposeNow();
+    }
+
+    @Benchmark
+    public long rafaga(Conexiones conexiones) {
+        Long bytes = Flux.range(0, enVuelo)
+                .flatMap(i -> webClient.get()
+                        .uri(url, "CLI001")
+                        .retrieve()
+                        .bodyToMono(String.class), enVuelo)
+                .map(String::length)
+                .reduce(0L, Long::sum)
+                .block();
+        conexiones.conexionesAbiertas = abiertas.get();
+        conexiones.conexionesAceptadas = aceptadas.get();
+        return bytes;
+    }
+}
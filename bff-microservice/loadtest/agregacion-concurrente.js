@@ -0,0 +1,72 @@
+// Agregación cliente + productos con miles de peticiones concurrentes contra el BFF.
+// Comparar el BFF sobre Netty/WebFlux con la versión anterior sobre Tomcat
+// (misma prueba, mismos microservicios downstream con datos):
+//
+//   k6 run -e MODO=netty  loadtest/agregacion-concurrente.js
+//   k6 run -e MODO=tomcat loadtest/agregacion-concurrente.js
+//
+// Además de p99 y throughput se reporta el pico de hilos de la JVM del BFF (jvm.threads.peak).
+import http from 'k6/http';
+import { check } from 'k6';
+import { Trend } from 'k6/metrics';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8081/bff';
+const MODO = __ENV.MODO || 'netty';
+const VUS = parseInt(__ENV.VUS || '5000', 10);
+const CODIGOS = (__ENV.CODIGOS || 'CLI001,CLI002,CLI003').split(',');
+
+const hilosPico = new Trend('bff_jvm_hilos_pico');
+
+export const options = {
+    setupTimeout: '60s',
+    scenarios: {
+        agregacion: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: '30s', target: VUS },
+                { duration: __ENV.DURACION || '2m', target: VUS },
+                { duration: '15s', target: 0 },
+            ],
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+export function setup() {
+    const login = http.post(`${BASE_URL}/api/auth/login`,
+        JSON.stringify({ username: 'loadtest', password: 'loadtest' }),
+        { headers: { 'Content-Type': 'application/json' } });
+    const headers = { Authorization: `Bearer ${login.json('access_token')}` };
+    const encriptados = CODIGOS.map((codigo) =>
+        http.get(`${BASE_URL}/api/clientes/test/encrypt/${codigo}`, { headers }).body);
+    return { headers, encriptados };
+}
+
+export default function (datos) {
+    const codigo = datos.encriptados[Math.floor(Math.random() * datos.encriptados.length)];
+    const res = http.get(`${BASE_URL}/api/clientes/${codigo}`, { headers: datos.headers });
+    check(res, { 'status 200': (r) => r.status === 200 });
+}
+
+export function teardown(datos) {
+    const res = http.get(`${BASE_URL}/actuator/metrics/jvm.threads.peak`, { headers: datos.headers });
+    if (res.status === 200) {
+        hilosPico.add(res.json('measurements.0.value'));
+    }
+}
+
+export function handleSummary(data) {
+    const resultado = JSON.stringify({
+        modo: MODO,
+        concurrencia: VUS,
+        p99: data.metrics.http_req_duration.values['p(99)'],
+        throughput: data.metrics.http_reqs.values.rate,
+        errores: data.metrics.http_req_failed.values.rate,
+        hilosPico: data.metrics.bff_jvm_hilos_pico ? data.metrics.bff_jvm_hilos_pico.values.max : null,
+    }, null, 2);
+    return {
+        stdout: resultado + '\n',
+        [`loadtest/agregacion-${MODO}.json`]: resultado,
+    };
+}
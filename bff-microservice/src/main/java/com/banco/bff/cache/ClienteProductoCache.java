@@ -0,0 +1,157 @@
+package com.banco.bff.cache;
+
+import com.banco.bff.dto.ClienteDTO;
+import com.banco.bff.dto.ClienteProductoResponse;
+import com.banco.bff.dto.ProductoDTO;
+import com.banco.comun.logging.CodigoHash;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Near-cache en memoria de las respuestas agregadas cliente + productos.
+ * Caffeine aplica W-TinyLFU sobre un límite en bytes estimados y comparte
+ * la misma carga entre las peticiones concurrentes de un mismo código.
+ */
+@Slf4j
+@Component
+public class ClienteProductoCache {
+
+    private final boolean habilitado;
+    private final AsyncCache<String, ClienteProductoResponse> cache;
+
+    public ClienteProductoCache(@Value("${bff.cache.enabled:true}") boolean habilitado,
+                                @Value("${bff.cache.ttl:30s}") Duration ttl,
+                                @Value("${bff.cache.max-bytes:16777216}") long maxBytes,
+                                MeterRegistry meterRegistry) {
+        this.habilitado = habilitado;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumWeight(maxBytes)
+                .weigher(ClienteProductoCache::estimarTamano)
+                .recordStats()
+                .buildAsync();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "bff.clientes-productos");
+        log.info("Cache cliente-productos habilitada: {} (ttl={}, maxBytes={})", habilitado, ttl, maxBytes);
+    }
+
+    /**
+     * Obtener la respuesta desde cache o cargarla una sola vez por código. Las respuestas
+     * degradadas se comparten con las peticiones concurrentes pero no se conservan.
+     * <p>
+     * La carga compartida corre con el contexto de Reactor de la petición que la inicia: las
+     * llamadas downstream llevan su trackingId y cuelgan de su traza, y solo ella queda marcada
+     * para el límite de concurrencia de entrada. Las peticiones que se unen mientras está en curso
+     * esperan ese resultado sin llamadas propias; su trackingId solo aparece en su propia línea
+     * de log, que registra la espera.
+     */
+    public Mono<ClienteProductoResponse> obtener(String codigoCliente,
+                                                 Function<String, Mono<ClienteProductoResponse>> cargador) {
+        if (!habilitado) {
+            return cargador.apply(codigoCliente);
+        }
+        // La cancelación de un suscriptor no debe cancelar la carga compartida con los demás
+        return Mono.deferContextual(ctx -> {
+            boolean[] propia = {false};
+            CompletableFuture<ClienteProductoResponse> carga = cache.get(codigoCliente, (codigo, executor) -> {
+                propia[0] = true;
+                return cargador.apply(codigo).contextWrite(ctx).toFuture();
+            });
+            if (!propia[0] && !carga.isDone()) {
+                log.atDebug()
+                        .setMessage("Esperando la carga en curso de otra petición")
+                        .addKeyValue("codigoClienteHash", () -> CodigoHash.de(codigoCliente))
+                        .log();
+            }
+            return Mono.fromFuture(carga, true)
+                    .doOnNext(response -> {
+                        if (Boolean.TRUE.equals(response.getDegradado())) {
+                            cache.asMap().remove(codigoCliente, carga);
+                        }
+                    });
+        });
+    }
+
+    /**
+     * Invalidar la entrada de un cliente
+     */
+    public void invalidar(String codigoCliente) {
+        log.atDebug()
+                .setMessage("Invalidando cache")
+                .addKeyValue("codigoClienteHash", () -> CodigoHash.de(codigoCliente))
+                .log();
+        cache.synchronous().invalidate(codigoCliente);
+    }
+
+    /**
+     * Invalidar las entradas de varios clientes
+     */
+    public void invalidar(Collection<String> codigosCliente) {
+        log.debug("Invalidando cache para {} clientes", codigosCliente.size());
+        cache.synchronous().invalidateAll(codigosCliente);
+    }
+
+    /**
+     * Invalidar todas las entradas
+     */
+    public void invalidarTodo() {
+        log.debug("Invalidando cache completa");
+        cache.synchronous().invalidateAll();
+    }
+
+    /**
+     * Estadísticas de uso para dimensionar la cache
+     */
+    public Map<String, Object> estadisticas() {
+        CacheStats stats = cache.synchronous().stats();
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("habilitado", habilitado);
+        body.put("entradas", cache.synchronous().estimatedSize());
+        body.put("bytesEstimados", cache.synchronous().policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L));
+        body.put("aciertos", stats.hitCount());
+        body.put("fallos", stats.missCount());
+        body.put("tasaAciertos", stats.hitRate());
+        body.put("desalojos", stats.evictionCount());
+        body.put("cargasFallidas", stats.loadFailureCount());
+        return body;
+    }
+
+    static int estimarTamano(String codigoCliente, ClienteProductoResponse response) {
+        long bytes = 64 + tamano(codigoCliente);
+
+        ClienteDTO cliente = response.getCliente();
+        if (cliente != null) {
+            bytes += 96 + tamano(cliente.getCodigoUnico()) + tamano(cliente.getNombres())
+                    + tamano(cliente.getApellidos()) + tamano(cliente.getTipoDocumento())
+                    + tamano(cliente.getNumeroDocumento()) + tamano(cliente.getEstado());
+        }
+        if (response.getProductos() != null) {
+            for (ProductoDTO producto : response.getProductos()) {
+                bytes += 144 + tamano(producto.getCodigoCliente()) + tamano(producto.getTipoProducto())
+                        + tamano(producto.getNombre()) + tamano(producto.getEstado());
+            }
+        }
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+
+    private static long tamano(String valor) {
+        return valor == null ? 0 : 40 + valor.length();
+    }
+}
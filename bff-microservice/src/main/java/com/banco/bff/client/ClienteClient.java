@@ -1,38 +1,58 @@
 package com.banco.bff.client;
 
+import com.banco.bff.config.DownstreamObservationConvention;
 import com.banco.bff.dto.ClienteDTO;
-import com.banco.bff.util.ReactiveMdcUtil;
+import com.banco.comun.logging.CodigoHash;
 import lombok.extern.slf4j.Slf4j;
-import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 @Slf4j
 @Component
 public class ClienteClient {
 
     private final WebClient webClient;
     private final String clienteServiceUrl;
+    private final SingleFlight singleFlight;
+    private final ResilienciaDownstream resiliencia;
 
-    public ClienteClient(WebClient webClient,
-                         @Value("${cliente.service.url}") String clienteServiceUrl) {
+    public ClienteClient(@Qualifier("webClientCliente") WebClient webClient,
+                         @Value("${cliente.service.url}") String clienteServiceUrl,
+                         SingleFlight singleFlight,
+                         @Qualifier("resilienciaCliente") ResilienciaDownstream resiliencia) {
         this.webClient = webClient;
         this.clienteServiceUrl = clienteServiceUrl;
+        this.singleFlight = singleFlight;
+        this.resiliencia = resiliencia;
     }
 
     public Mono<ClienteDTO> obtenerClientePorCodigo(String codigoUnico) {
-        return Mono.deferContextual(ctx -> {
-            // Colocar el trackingId en MDC desde el contexto
-            MDC.put("trackingId", ctx.getOrDefault("trackingId", ""));
-            return webClient.get()
-                    .uri(clienteServiceUrl + "/api/clientes/{codigo}", codigoUnico)
-                    .retrieve()
-                    .bodyToMono(ClienteDTO.class)
-                    .doOnSuccess(cliente -> log.info("Cliente obtenido: {}", cliente))
-                    .doOnError(error -> log.error("Error al llamar a Cliente MS", error))
-                    .doFinally(signal -> MDC.remove("trackingId"));
-        });
+        return singleFlight.ejecutar("cliente", "cliente:" + codigoUnico, () -> resiliencia.proteger(() -> webClient.get()
+                        .uri(clienteServiceUrl + "/api/clientes/{codigo}", codigoUnico)
+                        .attribute(DownstreamObservationConvention.SERVICIO, "cliente")
+                        .retrieve()
+                        .bodyToMono(ClienteDTO.class)))
+                .doOnSuccess(cliente -> log.atDebug()
+                        .setMessage("Cliente obtenido")
+                        .addKeyValue("codigoClienteHash", () -> CodigoHash.de(codigoUnico))
+                        .log())
+                .doOnError(error -> log.error("Error al llamar a Cliente MS", error));
+    }
+
+    public Flux<ClienteDTO> obtenerClientesPorCodigos(List<String> codigosUnicos) {
+        return resiliencia.protegerLote(webClient.post()
+                        .uri(clienteServiceUrl + "/api/clientes/lote")
+                        .attribute(DownstreamObservationConvention.SERVICIO, "cliente")
+                        .bodyValue(codigosUnicos)
+                        .retrieve()
+                        .bodyToFlux(ClienteDTO.class))
+                .doOnComplete(() -> log.debug("Lote de {} clientes consultado", codigosUnicos.size()))
+                .doOnError(error -> log.error("Error al llamar a Cliente MS (lote)", error));
     }
 }
\ No newline at end of file
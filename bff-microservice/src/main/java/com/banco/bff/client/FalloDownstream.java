@@ -0,0 +1,23 @@
+package com.banco.bff.client;
+
+import com.banco.bff.exception.LimiteConcurrenciaException;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.util.function.Predicate;
+
+/**
+ * Errores que cuentan como fallo para el circuit breaker: timeouts, errores de conexión y 5xx.
+ * Un 4xx (p. ej. 404 de cliente no encontrado) es una respuesta válida del servicio, y un
+ * bulkhead lleno o el límite de concurrencia alcanzado son rechazos locales del BFF.
+ */
+public class FalloDownstream implements Predicate<Throwable> {
+
+    @Override
+    public boolean test(Throwable error) {
+        if (error instanceof WebClientResponseException respuesta) {
+            return respuesta.getStatusCode().is5xxServerError();
+        }
+        return !(error instanceof BulkheadFullException || error instanceof LimiteConcurrenciaException);
+    }
+}
@@ -1,13 +1,15 @@
 package com.banco.bff.client;
 
+import com.banco.bff.config.DownstreamObservationConvention;
 import com.banco.bff.dto.ProductoDTO;
 import lombok.extern.slf4j.Slf4j;
-import org.jboss.logging.MDC;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Flux;
 
+import java.util.List;
 
 @Slf4j
 @Component
@@ -15,23 +17,40 @@ public class ProductosClient {
 
     private final WebClient webClient;
     private final String productosServiceUrl;
+    private final SingleFlight singleFlight;
+    private final ResilienciaDownstream resiliencia;
 
-    public ProductosClient(WebClient webClient,
-                           @Value("${productos.service.url}") String productosServiceUrl) {
+    public ProductosClient(@Qualifier("webClientProductos") WebClient webClient,
+                           @Value("${productos.service.url}") String productosServiceUrl,
+                           SingleFlight singleFlight,
+                           @Qualifier("resilienciaProductos") ResilienciaDownstream resiliencia) {
         this.webClient = webClient;
         this.productosServiceUrl = productosServiceUrl;
+        this.singleFlight = singleFlight;
+        this.resiliencia = resiliencia;
     }
 
     public Flux<ProductoDTO> obtenerProductosPorCodigoCliente(String codigoCliente) {
-        return Flux.deferContextual(ctx -> {
-            MDC.put("trackingId", ctx.getOrDefault("trackingId", ""));
-            return webClient.get()
-                    .uri(productosServiceUrl + "/api/productos/cliente/{codigoCliente}", codigoCliente)
-                    .retrieve()
-                    .bodyToFlux(ProductoDTO.class)
-                    .doOnComplete(() -> log.debug("Productos obtenidos correctamente"))
-                    .doOnError(error -> log.error("Error al llamar a Productos MS", error))
-                    .doFinally(signal -> MDC.remove("trackingId"));
-        });
+        // Se comparte la lista completa; cada suscriptor recibe su propio Flux
+        return singleFlight.ejecutar("productos", "productos:" + codigoCliente, () -> resiliencia.proteger(() -> webClient.get()
+                        .uri(productosServiceUrl + "/api/productos/cliente/{codigoCliente}", codigoCliente)
+                        .attribute(DownstreamObservationConvention.SERVICIO, "productos")
+                        .retrieve()
+                        .bodyToFlux(ProductoDTO.class)
+                        .collectList()))
+                .flatMapIterable(productos -> productos)
+                .doOnComplete(() -> log.debug("Productos obtenidos correctamente"))
+                .doOnError(error -> log.error("Error al llamar a Productos MS", error));
+    }
+
+    public Flux<ProductoDTO> obtenerProductosPorCodigosCliente(List<String> codigosCliente) {
+        return resiliencia.protegerLote(webClient.post()
+                        .uri(productosServiceUrl + "/api/productos/clientes/lote")
+                        .attribute(DownstreamObservationConvention.SERVICIO, "productos")
+                        .bodyValue(codigosCliente)
+                        .retrieve()
+                        .bodyToFlux(ProductoDTO.class))
+                .doOnComplete(() -> log.debug("Productos de {} clientes obtenidos", codigosCliente.size()))
+                .doOnError(error -> log.error("Error al llamar a Productos MS (lote)", error));
     }
 }
\ No newline at end of file
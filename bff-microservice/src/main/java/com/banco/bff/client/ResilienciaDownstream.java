@@ -0,0 +1,271 @@
+package com.banco.bff.client;
+
+import com.banco.bff.concurrencia.LimiteAdaptativo;
+import com.banco.bff.concurrencia.MarcaDownstream;
+import com.banco.bff.exception.LimiteConcurrenciaException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Signal;
+
+import java.time.Duration;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Protección de las llamadas a un servicio downstream. Cada intento ocupa un hueco del bulkhead
+ * del servicio (techo fijo) y del límite adaptativo de concurrencia, que baja en cuanto crece la
+ * latencia o hay timeouts. El timeout se deriva del p99 observado (acotado entre un mínimo y un
+ * máximo) y, si está habilitado, se lanza un segundo intento cuando el primero supera el p95. El
+ * circuit breaker envuelve todo: con el circuito abierto se falla sin llamar al servicio.
+ */
+public class ResilienciaDownstream {
+
+    private static final Duration REFRESCO = Duration.ofSeconds(1);
+    private static final FalloDownstream FALLO = new FalloDownstream();
+
+    private final String servicio;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final LimiteAdaptativo limite;
+    private final Duration timeoutMinimo;
+    private final Duration timeoutMaximo;
+    private final double multiplicadorTimeout;
+    private final boolean hedging;
+    private final Duration hedgingMinimo;
+    private final long refrescoNanos;
+    private final Timer latencia;
+    private final Counter hedgingLanzados;
+    private final AtomicLong proximoRefresco;
+
+    private volatile Duration timeout;
+    private volatile Duration retrasoHedging;
+
+    public ResilienciaDownstream(String servicio,
+                                 CircuitBreaker circuitBreaker,
+                                 Bulkhead bulkhead,
+                                 LimiteAdaptativo limite,
+                                 Duration timeoutMinimo,
+                                 Duration timeoutMaximo,
+                                 double multiplicadorTimeout,
+                                 boolean hedging,
+                                 Duration hedgingMinimo,
+                                 MeterRegistry meterRegistry) {
+        this(servicio, circuitBreaker, bulkhead, limite, timeoutMinimo, timeoutMaximo, multiplicadorTimeout, hedging,
+                hedgingMinimo, REFRESCO, meterRegistry);
+    }
+
+    ResilienciaDownstream(String servicio,
+                          CircuitBreaker circuitBreaker,
+                          Bulkhead bulkhead,
+                          LimiteAdaptativo limite,
+                          Duration timeoutMinimo,
+                          Duration timeoutMaximo,
+                          double multiplicadorTimeout,
+                          boolean hedging,
+                          Duration hedgingMinimo,
+                          Duration refresco,
+                          MeterRegistry meterRegistry) {
+        this.servicio = servicio;
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+        this.limite = limite;
+        this.timeoutMinimo = timeoutMinimo;
+        this.timeoutMaximo = timeoutMaximo;
+        this.multiplicadorTimeout = multiplicadorTimeout;
+        this.hedging = hedging;
+        this.hedgingMinimo = hedgingMinimo;
+        this.refrescoNanos = refresco.toNanos();
+        this.timeout = timeoutMaximo;
+        this.proximoRefresco = new AtomicLong(System.nanoTime());
+
+        this.latencia = Timer.builder("bff.downstream.latencia")
+                .description("Latencia de los intentos correctos, base del timeout adaptativo")
+                .tag("servicio", servicio)
+                .publishPercentiles(0.95, 0.99)
+                .distributionStatisticExpiry(Duration.ofSeconds(30))
+                .distributionStatisticBufferLength(3)
+                .register(meterRegistry);
+        this.hedgingLanzados = Counter.builder("bff.downstream.hedging")
+                .description("Segundos intentos lanzados al superar el p95")
+                .tag("servicio", servicio)
+                .register(meterRegistry);
+        Gauge.builder("bff.downstream.timeout", this, resiliencia -> resiliencia.timeout().toMillis())
+                .description("Timeout adaptativo vigente")
+                .baseUnit("milliseconds")
+                .tag("servicio", servicio)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Proteger una llamada idempotente: admite hedging y timeout adaptativo
+     */
+    public <T> Mono<T> proteger(Supplier<Mono<T>> llamada) {
+        return Mono.defer(() -> {
+                    refrescar();
+                    Duration retraso = retrasoHedging;
+                    Duration limiteIntento = timeout;
+                    Mono<T> primero = intento(llamada, limiteIntento);
+                    if (retraso == null) {
+                        return primero.timeout(limiteIntento);
+                    }
+                    Mono<T> segundo = Mono.delay(retraso).then(Mono.defer(() -> {
+                        hedgingLanzados.increment();
+                        return intento(llamada, limiteIntento);
+                    }));
+                    return primeroConValor(primero, segundo).timeout(limiteIntento);
+                })
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .doOnEach(ResilienciaDownstream::marcarSaturacion);
+    }
+
+    /**
+     * Gana el primer intento que responde; un error (por ejemplo el hedge rechazado por el bulkhead
+     * o el límite de concurrencia) solo se propaga si fallan los dos, y entonces el del primero. La
+     * respuesta vacía también cuenta como respuesta.
+     */
+    private static <T> Mono<T> primeroConValor(Mono<T> primero, Mono<T> segundo) {
+        return Mono.firstWithValue(
+                        primero.map(Optional::of).defaultIfEmpty(Optional.empty()),
+                        segundo.map(Optional::of).defaultIfEmpty(Optional.empty()))
+                .onErrorMap(NoSuchElementException.class, error -> error.getCause() == null
+                        ? error
+                        : Exceptions.unwrapMultiple(error.getCause()).get(0))
+                .flatMap(Mono::justOrEmpty);
+    }
+
+    /**
+     * Proteger una llamada de lote: su latencia depende del tamaño, así que no alimenta ni usa
+     * el timeout adaptativo; solo bulkhead y circuit breaker
+     */
+    public <T> Flux<T> protegerLote(Flux<T> llamada) {
+        return llamada
+                .doOnEach(senal -> {
+                    if (senal.isOnComplete()) {
+                        MarcaDownstream.marcar(senal.getContextView());
+                    }
+                })
+                .transformDeferred(BulkheadOperator.of(bulkhead))
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .doOnEach(ResilienciaDownstream::marcarSaturacion);
+    }
+
+    /**
+     * Un fallo del servicio (timeout, conexión, 5xx) o un rechazo local por falta de capacidad
+     * (circuito abierto, bulkhead lleno, límite alcanzado) marca la petición de entrada como
+     * saturada para que su límite baje; un 4xx no
+     */
+    private static void marcarSaturacion(Signal<?> senal) {
+        Throwable error = senal.getThrowable();
+        if (senal.isOnError() && (FALLO.test(error) || error instanceof BulkheadFullException
+                || error instanceof LimiteConcurrenciaException)) {
+            MarcaDownstream.marcarSaturado(senal.getContextView());
+        }
+    }
+
+    Duration timeout() {
+        refrescar();
+        return timeout;
+    }
+
+    Duration retrasoHedging() {
+        refrescar();
+        return retrasoHedging;
+    }
+
+    /**
+     * Un intento: el rtt de las respuestas (incluidos los 4xx) alimenta el límite adaptativo; los
+     * fallos del servicio y la cancelación por timeout lo bajan; la del hedging perdedor no cuenta.
+     * Una respuesta correcta marca además la petición de entrada como muestra para su límite.
+     */
+    private <T> Mono<T> intento(Supplier<Mono<T>> llamada, Duration limiteIntento) {
+        return Mono.defer(() -> {
+                    LimiteAdaptativo.Permiso permiso = limite == null ? null : limite.adquirir();
+                    if (limite != null && permiso == null) {
+                        return Mono.error(new LimiteConcurrenciaException(
+                                "Límite de concurrencia alcanzado hacia " + servicio));
+                    }
+                    long inicio = System.nanoTime();
+                    return llamada.get()
+                            .doOnSuccess(valor -> {
+                                latencia.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+                                liberar(permiso, false);
+                            })
+                            .doOnEach(senal -> {
+                                if (senal.isOnComplete()) {
+                                    MarcaDownstream.marcar(senal.getContextView());
+                                }
+                            })
+                            .doOnError(error -> liberar(permiso, FALLO.test(error)))
+                            .doOnCancel(() -> {
+                                if (permiso != null && permiso.transcurrido() >= limiteIntento.toNanos()) {
+                                    permiso.descarte();
+                                } else if (permiso != null) {
+                                    permiso.ignorar();
+                                }
+                            });
+                })
+                .transformDeferred(BulkheadOperator.of(bulkhead));
+    }
+
+    private static void liberar(LimiteAdaptativo.Permiso permiso, boolean descarte) {
+        if (permiso == null) {
+            return;
+        }
+        if (descarte) {
+            permiso.descarte();
+        } else {
+            permiso.exito();
+        }
+    }
+
+    /**
+     * Recalcular timeout y retraso de hedging como mucho una vez por intervalo de refresco (1s); sin
+     * muestras en la ventana se vuelve al timeout máximo y sin hedging
+     */
+    private void refrescar() {
+        long ahora = System.nanoTime();
+        long proximo = proximoRefresco.get();
+        if (ahora - proximo < 0 || !proximoRefresco.compareAndSet(proximo, ahora + refrescoNanos)) {
+            return;
+        }
+
+        double p95 = 0;
+        double p99 = 0;
+        for (ValueAtPercentile valor : latencia.takeSnapshot().percentileValues()) {
+            if (valor.percentile() == 0.95) {
+                p95 = valor.value(TimeUnit.NANOSECONDS);
+            } else if (valor.percentile() == 0.99) {
+                p99 = valor.value(TimeUnit.NANOSECONDS);
+            }
+        }
+
+        if (p99 <= 0) {
+            timeout = timeoutMaximo;
+            retrasoHedging = null;
+            return;
+        }
+        timeout = acotar(Duration.ofNanos((long) (p99 * multiplicadorTimeout)), timeoutMinimo, timeoutMaximo);
+        retrasoHedging = hedging ? acotar(Duration.ofNanos((long) p95), hedgingMinimo, timeout) : null;
+    }
+
+    private static Duration acotar(Duration valor, Duration minimo, Duration maximo) {
+        if (valor.compareTo(minimo) < 0) {
+            return minimo;
+        }
+        return valor.compareTo(maximo) > 0 ? maximo : valor;
+    }
+}
@@ -0,0 +1,78 @@
+package com.banco.bff.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Comparte una misma llamada downstream entre todos los suscriptores
+ * concurrentes de la misma clave hasta que termina. No guarda resultados:
+ * la siguiente petición tras completar vuelve a llamar al servicio.
+ */
+@Component
+public class SingleFlight {
+
+    private static final List<String> SERVICIOS = List.of("cliente", "productos");
+
+    private final ConcurrentMap<String, Mono<?>> enVuelo = new ConcurrentHashMap<>();
+    // Registrados una sola vez: no se busca en el registro en cada petición
+    private final Map<String, Counter> ejecutadas = new HashMap<>();
+    private final Map<String, Counter> coalescidas = new HashMap<>();
+
+    public SingleFlight(MeterRegistry meterRegistry) {
+        for (String servicio : SERVICIOS) {
+            ejecutadas.put(servicio, contador(meterRegistry, servicio, "ejecutada"));
+            coalescidas.put(servicio, contador(meterRegistry, servicio, "coalescida"));
+        }
+        Gauge.builder("bff.singleflight.en-vuelo", enVuelo, Map::size)
+                .description("Llamadas downstream en curso compartibles")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Ejecutar la llamada o unirse a la que ya está en curso para la misma clave. El servicio es
+     * {@code cliente} o {@code productos}
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> ejecutar(String servicio, String clave, Supplier<Mono<T>> llamada) {
+        return Mono.defer(() -> {
+            boolean[] nueva = {false};
+            Mono<T> compartida = (Mono<T>) enVuelo.computeIfAbsent(clave, k -> {
+                nueva[0] = true;
+                return compartir(k, llamada);
+            });
+            (nueva[0] ? ejecutadas : coalescidas).get(servicio).increment();
+            return compartida;
+        });
+    }
+
+    private <T> Mono<T> compartir(String clave, Supplier<Mono<T>> llamada) {
+        AtomicReference<Mono<T>> referencia = new AtomicReference<>();
+        // Se libera la clave antes de propagar la señal terminal: con doFinally un suscriptor
+        // que ya recibió la respuesta podía volver a unirse a la llamada terminada
+        Mono<T> compartida = Mono.defer(llamada)
+                .doOnTerminate(() -> enVuelo.remove(clave, referencia.get()))
+                .doOnCancel(() -> enVuelo.remove(clave, referencia.get()))
+                .share();
+        referencia.set(compartida);
+        return compartida;
+    }
+
+    private static Counter contador(MeterRegistry meterRegistry, String servicio, String resultado) {
+        return Counter.builder("bff.singleflight.llamadas")
+                .description("Llamadas downstream ejecutadas o coalescidas")
+                .tag("servicio", servicio)
+                .tag("resultado", resultado)
+                .register(meterRegistry);
+    }
+}
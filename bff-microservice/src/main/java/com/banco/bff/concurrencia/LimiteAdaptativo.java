@@ -0,0 +1,213 @@
+package com.banco.bff.concurrencia;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Límite de concurrencia adaptativo por gradiente: compara el rtt medio de cada ventana con una
+ * media móvil exponencial de las ventanas anteriores (rtt largo). Mientras el rtt de la ventana no
+ * supera el largo en más de la tolerancia el límite sube en la raíz del límite; si lo supera baja
+ * en proporción, y los descartes (timeouts, sobrecarga) lo bajan un 10%. Por encima del límite se
+ * rechaza al instante en lugar de encolar. A diferencia de un mínimo histórico, la media no se
+ * queda anclada en una muestra excepcionalmente rápida. Las muestras se acumulan sin bloqueo y solo
+ * el hilo que cierra la ventana recalcula el límite; el resto no espera.
+ */
+public class LimiteAdaptativo {
+
+    private static final int MUESTRAS_POR_VENTANA = 10;
+    private static final Duration VENTANA = Duration.ofMillis(100);
+    private static final int VENTANAS_CALENTAMIENTO = 10;
+    private static final double ALFA_RTT_LARGO = 2.0 / (60 + 1);
+    private static final double TOLERANCIA = 1.5;
+    private static final double SUAVIZADO = 0.2;
+    private static final double FACTOR_DESCARTE = 0.9;
+
+    private final int minimo;
+    private final int maximo;
+    private final long ventanaNanos;
+    private final AtomicInteger enVuelo = new AtomicInteger();
+    private final Counter rechazadas;
+
+    private final AtomicLong inicioVentana = new AtomicLong(System.nanoTime());
+    private final LongAdder sumaRttVentana = new LongAdder();
+    private final LongAdder muestrasVentana = new LongAdder();
+    private final LongAdder descartesVentana = new LongAdder();
+    private final AtomicInteger maximoEnVueloVentana = new AtomicInteger();
+    private final AtomicBoolean cerrandoVentana = new AtomicBoolean();
+
+    private volatile int limite;
+    // Solo los modifica el hilo que cierra la ventana; el CAS de cerrandoVentana los publica al siguiente
+    private double limiteEstimado;
+    private double rttLargo;
+    private int ventanasRttLargo;
+
+    public LimiteAdaptativo(String nombre, int inicial, int minimo, int maximo, MeterRegistry meterRegistry) {
+        this(nombre, inicial, minimo, maximo, VENTANA, meterRegistry);
+    }
+
+    LimiteAdaptativo(String nombre, int inicial, int minimo, int maximo, Duration ventana,
+                     MeterRegistry meterRegistry) {
+        this.ventanaNanos = ventana.toNanos();
+        this.minimo = minimo;
+        this.maximo = maximo;
+        this.limite = Math.max(minimo, Math.min(inicial, maximo));
+        this.limiteEstimado = limite;
+
+        this.rechazadas = Counter.builder("bff.concurrencia.rechazadas")
+                .description("Peticiones rechazadas por superar el límite de concurrencia")
+                .tag("limitador", nombre)
+                .register(meterRegistry);
+        Gauge.builder("bff.concurrencia.limite", this, LimiteAdaptativo::limite)
+                .description("Límite de concurrencia vigente")
+                .tag("limitador", nombre)
+                .register(meterRegistry);
+        Gauge.builder("bff.concurrencia.en-vuelo", enVuelo, AtomicInteger::get)
+                .description("Peticiones admitidas en curso")
+                .tag("limitador", nombre)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Adquirir un hueco; null si se alcanzó el límite
+     */
+    public Permiso adquirir() {
+        while (true) {
+            int actuales = enVuelo.get();
+            if (actuales >= limite) {
+                rechazadas.increment();
+                return null;
+            }
+            if (enVuelo.compareAndSet(actuales, actuales + 1)) {
+                return new Permiso(System.nanoTime(), actuales + 1);
+            }
+        }
+    }
+
+    public int limite() {
+        return limite;
+    }
+
+    public int enVuelo() {
+        return enVuelo.get();
+    }
+
+    /**
+     * Acumular la muestra en la ventana en curso; el límite se recalcula una vez por ventana con el
+     * rtt medio, porque decidir muestra a muestra lo arrastra hacia abajo con el ruido de latencia.
+     * Una muestra que llega mientras se cierra la ventana puede contarse en la siguiente
+     */
+    private void muestra(long rtt, int enVueloAlInicio, boolean descarte) {
+        if (descarte) {
+            descartesVentana.increment();
+        } else if (rtt > 0) {
+            sumaRttVentana.add(rtt);
+            muestrasVentana.increment();
+        }
+        if (maximoEnVueloVentana.get() < enVueloAlInicio) {
+            maximoEnVueloVentana.accumulateAndGet(enVueloAlInicio, Math::max);
+        }
+
+        long ahora = System.nanoTime();
+        if (!ventanaCompleta(ahora) || !cerrandoVentana.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            // Otro hilo pudo cerrarla entre la comprobación y el CAS
+            if (!ventanaCompleta(ahora)) {
+                return;
+            }
+            long muestras = muestrasVentana.sumThenReset();
+            long suma = sumaRttVentana.sumThenReset();
+            boolean conDescartes = descartesVentana.sumThenReset() > 0;
+            int maximoEnVuelo = maximoEnVueloVentana.getAndSet(0);
+            inicioVentana.set(ahora);
+            actualizar(muestras == 0 ? 0 : suma / muestras, conDescartes, maximoEnVuelo);
+        } finally {
+            cerrandoVentana.set(false);
+        }
+    }
+
+    private boolean ventanaCompleta(long ahora) {
+        return ahora - inicioVentana.get() >= ventanaNanos
+                && muestrasVentana.sum() + descartesVentana.sum() >= MUESTRAS_POR_VENTANA;
+    }
+
+    private void actualizar(long rtt, boolean descarte, int maximoEnVueloVentana) {
+        if (rtt > 0) {
+            // Media simple en las primeras ventanas y exponencial (unas 60 ventanas) después
+            if (ventanasRttLargo < VENTANAS_CALENTAMIENTO) {
+                ventanasRttLargo++;
+                rttLargo += (rtt - rttLargo) / ventanasRttLargo;
+            } else {
+                rttLargo += ALFA_RTT_LARGO * (rtt - rttLargo);
+            }
+            // Si la latencia baja de golpe la media larga se acerca rápido en lugar de frenar la subida
+            if (rttLargo > 2.0 * rtt) {
+                rttLargo *= 0.95;
+            }
+        }
+
+        double nuevo = limiteEstimado;
+        if (descarte) {
+            nuevo = limiteEstimado * FACTOR_DESCARTE;
+        } else if (rtt > 0 && maximoEnVueloVentana * 2 >= limiteEstimado) {
+            // Solo se aprende con carga: con pocos en vuelo el rtt no dice nada del límite
+            double gradiente = Math.max(0.5, Math.min(1.0, TOLERANCIA * rttLargo / rtt));
+            double objetivo = limiteEstimado * gradiente + Math.sqrt(limiteEstimado);
+            nuevo = limiteEstimado * (1 - SUAVIZADO) + objetivo * SUAVIZADO;
+        }
+        limiteEstimado = Math.max(minimo, Math.min(maximo, nuevo));
+        limite = (int) limiteEstimado;
+    }
+
+    /**
+     * Hueco adquirido; se libera una sola vez con el resultado de la llamada
+     */
+    public final class Permiso {
+
+        private final long inicio;
+        private final int enVueloAlInicio;
+        private final AtomicInteger liberado = new AtomicInteger();
+
+        private Permiso(long inicio, int enVueloAlInicio) {
+            this.inicio = inicio;
+            this.enVueloAlInicio = enVueloAlInicio;
+        }
+
+        /** Respuesta correcta: el rtt alimenta el límite */
+        public void exito() {
+            liberar(false, true);
+        }
+
+        /** Timeout o sobrecarga: baja el límite */
+        public void descarte() {
+            liberar(true, true);
+        }
+
+        /** Cancelación o error ajeno a la carga: libera sin aprender */
+        public void ignorar() {
+            liberar(false, false);
+        }
+
+        public long transcurrido() {
+            return System.nanoTime() - inicio;
+        }
+
+        private void liberar(boolean descarte, boolean aprender) {
+            if (!liberado.compareAndSet(0, 1)) {
+                return;
+            }
+            enVuelo.decrementAndGet();
+            if (aprender) {
+                muestra(transcurrido(), enVueloAlInicio, descarte);
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.banco.bff.concurrencia;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * Indica, a través del contexto de Reactor, que una petición de entrada obtuvo respuesta de un
+ * servicio downstream o que una llamada downstream falló por saturación (timeout, conexión, 5xx,
+ * circuito abierto, bulkhead o límite de concurrencia). LimiteConcurrenciaFilter la escribe en el
+ * contexto y ResilienciaDownstream la marca: el límite de entrada aprende de las respuestas y baja
+ * con las saturaciones, pero no del rtt casi nulo de un 401, un error de descifrado, un 404 o un
+ * acierto de cache.
+ */
+public final class MarcaDownstream {
+
+    private static final String CLAVE = MarcaDownstream.class.getName();
+
+    private volatile boolean respondido;
+    private volatile boolean saturado;
+
+    public Context escribir(Context contexto) {
+        return contexto.put(CLAVE, this);
+    }
+
+    public boolean respondido() {
+        return respondido;
+    }
+
+    public boolean saturado() {
+        return saturado;
+    }
+
+    /**
+     * Marcar la petición en curso; sin marca en el contexto (llamadas fuera de un filtro de entrada
+     * o suscriptores unidos a una llamada compartida) no hace nada
+     */
+    public static void marcar(ContextView contexto) {
+        contexto.<MarcaDownstream>getOrEmpty(CLAVE).ifPresent(marca -> marca.respondido = true);
+    }
+
+    /**
+     * Marcar la petición en curso como afectada por la saturación de un servicio downstream
+     */
+    public static void marcarSaturado(ContextView contexto) {
+        contexto.<MarcaDownstream>getOrEmpty(CLAVE).ifPresent(marca -> marca.saturado = true);
+    }
+}
@@ -0,0 +1,107 @@
+package com.banco.bff.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Decorador del decoder JWT que guarda los tokens ya verificados, indexados por
+ * su SHA-256, hasta su {@code exp} (acotado por un TTL máximo). Las peticiones
+ * repetidas con el mismo bearer no vuelven a verificar la firma ni a parsear los
+ * claims. Los tokens rechazados no se guardan.
+ */
+public class CachingReactiveJwtDecoder implements ReactiveJwtDecoder {
+
+    private final ReactiveJwtDecoder delegate;
+    private final Cache<String, Jwt> cache;
+    private final Clock clock;
+    private final ThreadLocal<MessageDigest> sha256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    });
+
+    public CachingReactiveJwtDecoder(ReactiveJwtDecoder delegate, long maxEntradas, Duration ttlMaximo,
+                                     MeterRegistry meterRegistry) {
+        this(delegate, maxEntradas, ttlMaximo, meterRegistry, Clock.systemUTC());
+    }
+
+    CachingReactiveJwtDecoder(ReactiveJwtDecoder delegate, long maxEntradas, Duration ttlMaximo,
+                              MeterRegistry meterRegistry, Clock clock) {
+        this.delegate = delegate;
+        this.clock = clock;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntradas)
+                .expireAfter(new HastaExpiracion(ttlMaximo, clock))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "bff.jwt-verificados");
+    }
+
+    @Override
+    public Mono<Jwt> decode(String token) {
+        String clave = hash(token);
+        Jwt verificado = cache.getIfPresent(clave);
+        if (verificado != null && vigente(verificado)) {
+            return Mono.just(verificado);
+        }
+        return delegate.decode(token)
+                .doOnNext(jwt -> {
+                    if (vigente(jwt)) {
+                        cache.put(clave, jwt);
+                    }
+                });
+    }
+
+    private boolean vigente(Jwt jwt) {
+        Instant expiracion = jwt.getExpiresAt();
+        return expiracion == null || expiracion.isAfter(clock.instant());
+    }
+
+    private String hash(String token) {
+        MessageDigest digest = sha256.get();
+        return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    /**
+     * Cada entrada vive hasta el exp del token, sin superar el TTL máximo
+     */
+    private record HastaExpiracion(Duration ttlMaximo, Clock clock) implements Expiry<String, Jwt> {
+
+        @Override
+        public long expireAfterCreate(String clave, Jwt jwt, long ahora) {
+            Duration ttl = ttlMaximo;
+            if (jwt.getExpiresAt() != null) {
+                Duration restante = Duration.between(clock.instant(), jwt.getExpiresAt());
+                ttl = restante.compareTo(ttlMaximo) < 0 ? restante : ttlMaximo;
+            }
+            return Math.max(0, ttl.toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String clave, Jwt jwt, long ahora, long duracionActual) {
+            return expireAfterCreate(clave, jwt, ahora);
+        }
+
+        @Override
+        public long expireAfterRead(String clave, Jwt jwt, long ahora, long duracionActual) {
+            return duracionActual;
+        }
+    }
+}
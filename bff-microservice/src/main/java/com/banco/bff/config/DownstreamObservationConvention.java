@@ -0,0 +1,25 @@
+package com.banco.bff.config;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequestObservationContext;
+import org.springframework.web.reactive.function.client.DefaultClientRequestObservationConvention;
+
+/**
+ * Añade el tag {@code servicio} (cliente, productos) a {@code http.client.requests}
+ * a partir del atributo que fija cada cliente en su petición
+ */
+@Component
+public class DownstreamObservationConvention extends DefaultClientRequestObservationConvention {
+
+    public static final String SERVICIO = "bff.servicio";
+
+    @Override
+    public KeyValues getLowCardinalityKeyValues(ClientRequestObservationContext context) {
+        Object servicio = context.getRequest() == null ? null
+                : context.getRequest().attribute(SERVICIO).orElse(null);
+        return super.getLowCardinalityKeyValues(context)
+                .and(KeyValue.of("servicio", servicio == null ? "desconocido" : servicio.toString()));
+    }
+}
@@ -0,0 +1,141 @@
+package com.banco.bff.config;
+
+import com.banco.bff.concurrencia.LimiteAdaptativo;
+import com.banco.bff.concurrencia.MarcaDownstream;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * Control de admisión antes de la seguridad: cada clase de petición tiene su propio límite
+ * adaptativo, así que un pico de consultas no deja sin hueco al login ni los lotes a las
+ * consultas individuales. Por encima del límite se responde 503 con Retry-After sin llegar a
+ * validar el JWT ni llamar a los servicios. Actuator, Swagger y el resto de rutas no se limitan.
+ * El límite aprende de respuestas 2xx y, salvo en auth, que no sale del BFF, solo de las que
+ * llegaron a un servicio downstream: los 401, errores de descifrado, 404 y aciertos de cache se
+ * resuelven en microsegundos y arrastrarían la referencia de rtt hacia cero. Un 5xx (o un error)
+ * de una petición marcada como saturada por ResilienciaDownstream es un descarte y baja el límite.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class LimiteConcurrenciaFilter implements WebFilter {
+
+    private static final byte[] SATURADO = "{\"status\":\"error\",\"message\":\"Servicio saturado, reintentar más tarde\"}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final boolean habilitado;
+    private final String retryAfter;
+    private final LimiteAdaptativo auth;
+    private final LimiteAdaptativo lote;
+    private final LimiteAdaptativo consultas;
+
+    public LimiteConcurrenciaFilter(MeterRegistry meterRegistry,
+                                    @Value("${bff.concurrencia.habilitado:true}") boolean habilitado,
+                                    @Value("${bff.concurrencia.retry-after:1s}") Duration retryAfter,
+                                    @Value("${bff.concurrencia.auth.inicial:10}") int authInicial,
+                                    @Value("${bff.concurrencia.auth.maximo:100}") int authMaximo,
+                                    @Value("${bff.concurrencia.lote.inicial:4}") int loteInicial,
+                                    @Value("${bff.concurrencia.lote.maximo:32}") int loteMaximo,
+                                    @Value("${bff.concurrencia.consultas.inicial:50}") int consultasInicial,
+                                    @Value("${bff.concurrencia.consultas.maximo:1000}") int consultasMaximo) {
+        this.habilitado = habilitado;
+        this.retryAfter = String.valueOf(Math.max(1, retryAfter.toSeconds()));
+        // Deshabilitado no se crean los límites ni sus métricas: el filtro deja pasar todo
+        this.auth = habilitado
+                ? new LimiteAdaptativo("entrada.auth", authInicial, 1, authMaximo, meterRegistry) : null;
+        this.lote = habilitado
+                ? new LimiteAdaptativo("entrada.lote", loteInicial, 1, loteMaximo, meterRegistry) : null;
+        this.consultas = habilitado
+                ? new LimiteAdaptativo("entrada.consultas", consultasInicial, 1, consultasMaximo, meterRegistry)
+                : null;
+        log.info("Límite de concurrencia de entrada habilitado: {}", habilitado);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        LimiteAdaptativo limite = habilitado ? clase(exchange.getRequest().getPath().pathWithinApplication().value()) : null;
+        if (limite == null) {
+            return chain.filter(exchange);
+        }
+
+        LimiteAdaptativo.Permiso permiso = limite.adquirir();
+        if (permiso == null) {
+            return rechazar(exchange.getResponse());
+        }
+        MarcaDownstream marca = new MarcaDownstream();
+        return chain.filter(exchange)
+                .doOnSuccess(vacio -> {
+                    if (esDescarte(exchange, marca)) {
+                        permiso.descarte();
+                    } else if (esMuestra(exchange, marca)) {
+                        permiso.exito();
+                    } else {
+                        permiso.ignorar();
+                    }
+                })
+                .doOnError(error -> {
+                    if (marca.saturado()) {
+                        permiso.descarte();
+                    } else {
+                        permiso.ignorar();
+                    }
+                })
+                .doOnCancel(permiso::ignorar)
+                .contextWrite(marca::escribir);
+    }
+
+    /**
+     * Una petición terminada es muestra del límite si respondió 2xx y llegó a un servicio downstream
+     */
+    boolean esMuestra(ServerWebExchange exchange, MarcaDownstream marca) {
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        boolean correcta = status == null || status.is2xxSuccessful();
+        return correcta && (clase(exchange.getRequest().getPath().pathWithinApplication().value()) == auth
+                || marca.respondido());
+    }
+
+    /**
+     * Una petición terminada es descarte si respondió 5xx tras saturarse un servicio downstream:
+     * timeout, conexión o 5xx del servicio, o rechazo local (503) por circuito abierto, bulkhead
+     * lleno o límite alcanzado. Un 200 degradado no cuenta: se sirvió sin el servicio caído
+     */
+    boolean esDescarte(ServerWebExchange exchange, MarcaDownstream marca) {
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        return marca.saturado() && status != null && status.is5xxServerError();
+    }
+
+    private LimiteAdaptativo clase(String ruta) {
+        if (ruta.startsWith("/api/auth/")) {
+            return auth;
+        }
+        if (ruta.equals("/api/clientes/lote")) {
+            return lote;
+        }
+        return ruta.startsWith("/api/clientes/") ? consultas : null;
+    }
+
+    private Mono<Void> rechazar(ServerHttpResponse response) {
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, retryAfter);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        DataBuffer cuerpo = response.bufferFactory().wrap(SATURADO);
+        return response.writeWith(Mono.just(cuerpo));
+    }
+}
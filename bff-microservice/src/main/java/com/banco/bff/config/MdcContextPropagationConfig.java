@@ -0,0 +1,52 @@
+package com.banco.bff.config;
+
+import io.micrometer.context.ContextRegistry;
+import io.micrometer.context.ThreadLocalAccessor;
+import org.slf4j.MDC;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Puente entre el contexto de Reactor y el MDC: con spring.reactor.context-propagation=auto
+ * Reactor restaura el trackingId que ReactiveTrackingFilter dejó en el contexto en cada salto
+ * de hilo y lo retira al terminar, sin MDC.put/MDC.remove en los operadores
+ */
+@Configuration
+public class MdcContextPropagationConfig {
+
+    static {
+        registrar();
+    }
+
+    /**
+     * Registrar el accessor del trackingId (idempotente: reemplaza al anterior con la misma clave)
+     */
+    public static void registrar() {
+        ContextRegistry.getInstance().registerThreadLocalAccessor(new MdcAccessor(ReactiveTrackingFilter.TRACKING_ID));
+    }
+
+    /**
+     * Expone una clave del MDC como ThreadLocal con el mismo nombre que la clave del contexto
+     */
+    record MdcAccessor(String clave) implements ThreadLocalAccessor<String> {
+
+        @Override
+        public Object key() {
+            return clave;
+        }
+
+        @Override
+        public String getValue() {
+            return MDC.get(clave);
+        }
+
+        @Override
+        public void setValue(String valor) {
+            MDC.put(clave, valor);
+        }
+
+        @Override
+        public void setValue() {
+            MDC.remove(clave);
+        }
+    }
+}
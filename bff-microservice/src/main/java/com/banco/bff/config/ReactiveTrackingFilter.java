@@ -1,5 +1,6 @@
 package com.banco.bff.config;
 
+import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
@@ -10,16 +11,27 @@ import reactor.util.context.Context;
 
 import java.util.UUID;
 
+/**
+ * Asigna el trackingId de la petición (recibido o generado), lo devuelve en la respuesta
+ * y lo deja en el contexto de Reactor para toda la cadena, incluida la seguridad
+ */
 @Component
-@Order(1)
+@Order(Ordered.HIGHEST_PRECEDENCE)
 public class ReactiveTrackingFilter implements WebFilter {
+
+    public static final String TRACKING_ID = "trackingId";
+    public static final String HEADER = "X-Tracking-Id";
+
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
-        String trackingId = exchange.getRequest().getHeaders().getFirst("X-Tracking-Id");
+        String trackingId = exchange.getRequest().getHeaders().getFirst(HEADER);
         if (trackingId == null || trackingId.isEmpty()) {
             trackingId = UUID.randomUUID().toString();
         }
+        exchange.getResponse().getHeaders().set(HEADER, trackingId);
+        exchange.getAttributes().put(TRACKING_ID, trackingId);
+
         return chain.filter(exchange)
-                .contextWrite(Context.of("trackingId", trackingId));
+                .contextWrite(Context.of(TRACKING_ID, trackingId));
     }
-}
\ No newline at end of file
+}
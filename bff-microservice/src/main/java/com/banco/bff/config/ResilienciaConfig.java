@@ -0,0 +1,67 @@
+package com.banco.bff.config;
+
+import com.banco.bff.client.ResilienciaDownstream;
+import com.banco.bff.concurrencia.LimiteAdaptativo;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Una política de resiliencia por servicio downstream. Bulkhead y circuit breaker se configuran
+ * en resilience4j.*.instances.{cliente,productos}; timeout adaptativo y hedging en
+ * bff.resiliencia.{cliente,productos}.*; el límite adaptativo de concurrencia en
+ * bff.concurrencia.{cliente,productos}.*
+ */
+@Configuration
+public class ResilienciaConfig {
+
+    public static final String CLIENTE = "cliente";
+    public static final String PRODUCTOS = "productos";
+
+    @Bean
+    public ResilienciaDownstream resilienciaCliente(
+            CircuitBreakerRegistry circuitBreakers,
+            BulkheadRegistry bulkheads,
+            MeterRegistry meterRegistry,
+            @Value("${bff.resiliencia.cliente.timeout-minimo:100ms}") Duration timeoutMinimo,
+            @Value("${bff.resiliencia.cliente.timeout-maximo:2s}") Duration timeoutMaximo,
+            @Value("${bff.resiliencia.cliente.multiplicador-timeout:3}") double multiplicadorTimeout,
+            @Value("${bff.resiliencia.cliente.hedging:false}") boolean hedging,
+            @Value("${bff.resiliencia.cliente.hedging-minimo:20ms}") Duration hedgingMinimo,
+            @Value("${bff.concurrencia.habilitado:true}") boolean limiteHabilitado,
+            @Value("${bff.concurrencia.cliente.inicial:50}") int limiteInicial,
+            @Value("${bff.concurrencia.cliente.maximo:500}") int limiteMaximo) {
+        LimiteAdaptativo limite = limiteHabilitado
+                ? new LimiteAdaptativo(CLIENTE, limiteInicial, 1, limiteMaximo, meterRegistry)
+                : null;
+        return new ResilienciaDownstream(CLIENTE, circuitBreakers.circuitBreaker(CLIENTE),
+                bulkheads.bulkhead(CLIENTE), limite, timeoutMinimo, timeoutMaximo, multiplicadorTimeout,
+                hedging, hedgingMinimo, meterRegistry);
+    }
+
+    @Bean
+    public ResilienciaDownstream resilienciaProductos(
+            CircuitBreakerRegistry circuitBreakers,
+            BulkheadRegistry bulkheads,
+            MeterRegistry meterRegistry,
+            @Value("${bff.resiliencia.productos.timeout-minimo:100ms}") Duration timeoutMinimo,
+            @Value("${bff.resiliencia.productos.timeout-maximo:2s}") Duration timeoutMaximo,
+            @Value("${bff.resiliencia.productos.multiplicador-timeout:3}") double multiplicadorTimeout,
+            @Value("${bff.resiliencia.productos.hedging:false}") boolean hedging,
+            @Value("${bff.resiliencia.productos.hedging-minimo:20ms}") Duration hedgingMinimo,
+            @Value("${bff.concurrencia.habilitado:true}") boolean limiteHabilitado,
+            @Value("${bff.concurrencia.productos.inicial:50}") int limiteInicial,
+            @Value("${bff.concurrencia.productos.maximo:500}") int limiteMaximo) {
+        LimiteAdaptativo limite = limiteHabilitado
+                ? new LimiteAdaptativo(PRODUCTOS, limiteInicial, 1, limiteMaximo, meterRegistry)
+                : null;
+        return new ResilienciaDownstream(PRODUCTOS, circuitBreakers.circuitBreaker(PRODUCTOS),
+                bulkheads.bulkhead(PRODUCTOS), limite, timeoutMinimo, timeoutMaximo, multiplicadorTimeout,
+                hedging, hedgingMinimo, meterRegistry);
+    }
+}
@@ -1,55 +1,76 @@
 package com.banco.bff.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.Customizer;
-import org.springframework.security.config.annotation.web.builders.HttpSecurity;
-import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.oauth2.jwt.JwtDecoder;
-import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
-import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
 
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 
 @Slf4j
 @Configuration
+@EnableWebFluxSecurity
 public class SecurityConfig {
 
     @Value("${jwt.secret}")
     private String jwtSecret;
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
 
-        http
-                .csrf(csrf -> csrf.disable())
-                .sessionManagement(session ->
-                        session.sessionCreationPolicy(SessionCreationPolicy.STATELESS)
-                )
-                .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/api/auth/**").permitAll()
-                        .requestMatchers(
+        return http
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                // Sin sesión: el JWT se valida en cada petición
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .authorizeExchange(auth -> auth
+                        .pathMatchers("/api/auth/**").permitAll()
+                        // Protegido por X-Cache-Token en CacheController
+                        .pathMatchers(HttpMethod.DELETE, "/api/cache/clientes/**", "/api/cache/clientes").permitAll()
+                        .pathMatchers(HttpMethod.POST, "/api/cache/clientes/invalidaciones").permitAll()
+                        // Solo el estado es público; métricas y prometheus exponen latencias, pools y
+                        // límites internos y requieren el mismo JWT que la API
+                        .pathMatchers("/actuator/health", "/actuator/health/**", "/actuator/info").permitAll()
+                        .pathMatchers(
                                 "/swagger-ui/**",
                                 "/swagger-ui.html",
+                                "/webjars/**",
                                 "/v3/api-docs/**"
                         ).permitAll()
-                        .anyRequest().authenticated()
+                        .anyExchange().authenticated()
                 )
                 .oauth2ResourceServer(oauth2 ->
                         oauth2.jwt(Customizer.withDefaults())
-                );
-
-        return http.build();
+                )
+                .build();
     }
 
     @Bean
-    public JwtDecoder jwtDecoder() {
+    public ReactiveJwtDecoder jwtDecoder(@Value("${bff.jwt.cache.enabled:true}") boolean cacheHabilitada,
+                                         @Value("${bff.jwt.cache.max-entries:10000}") long maxEntradas,
+                                         @Value("${bff.jwt.cache.max-ttl:5m}") Duration ttlMaximo,
+                                         MeterRegistry meterRegistry) {
         byte[] secretBytes = jwtSecret.getBytes(StandardCharsets.UTF_8);
         SecretKey secretKey = new SecretKeySpec(secretBytes, "HmacSHA256");
-        return NimbusJwtDecoder.withSecretKey(secretKey).build();
+        ReactiveJwtDecoder decoder = NimbusReactiveJwtDecoder.withSecretKey(secretKey).build();
+
+        log.info("Cache de tokens verificados habilitada: {} (maxEntradas={}, ttlMaximo={})",
+                cacheHabilitada, maxEntradas, ttlMaximo);
+        return cacheHabilitada
+                ? new CachingReactiveJwtDecoder(decoder, maxEntradas, ttlMaximo, meterRegistry)
+                : decoder;
     }
 }
@@ -4,39 +4,206 @@ import io.netty.channel.ChannelOption;
 import io.netty.handler.timeout.ReadTimeoutHandler;
 import io.netty.handler.timeout.WriteTimeoutHandler;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.Http2AllocationStrategy;
 import reactor.netty.http.client.HttpClient;
 import reactor.netty.resources.ConnectionProvider;
 
 import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 
+/**
+ * Un WebClient por servicio downstream, cada uno con su pool y su perfil de transporte en
+ * bff.transporte.{cliente,productos}.*: HTTP/1.1 o HTTP/2 en claro (h2c, varias peticiones
+ * multiplexadas por conexión), tamaño del pool, adquisición LIFO, desalojo en segundo plano y
+ * conexiones abiertas al arrancar
+ */
 @Slf4j
 @Configuration
 public class WebClientConfig {
 
+    private final List<Runnable> calentamientos = new CopyOnWriteArrayList<>();
+
+    /**
+     * Se parte del WebClient.Builder de Spring Boot para heredar la instrumentación
+     * de http.client.requests y la propagación del traceparent; el pool publica sus
+     * gauges reactor.netty.connection.provider.* con el nombre bff-cliente
+     */
     @Bean
-    public WebClient webClient() {
-        ConnectionProvider provider = ConnectionProvider.builder("bff-pool")
-                .maxConnections(500)
-                .maxIdleTime(Duration.ofSeconds(20))
-                .maxLifeTime(Duration.ofMinutes(5))
-                .pendingAcquireTimeout(Duration.ofSeconds(60))
+    public WebClient webClientCliente(
+            WebClient.Builder builder,
+            @Value("${cliente.service.url}") String url,
+            @Value("${bff.transporte.cliente.protocolo:http1}") String protocolo,
+            @Value("${bff.transporte.cliente.max-conexiones:500}") int maxConexiones,
+            @Value("${bff.transporte.cliente.h2c.max-conexiones:4}") int maxConexionesH2c,
+            @Value("${bff.transporte.cliente.h2c.max-streams:100}") int maxStreams,
+            @Value("${bff.transporte.cliente.max-ociosa:20s}") Duration maxOciosa,
+            @Value("${bff.transporte.cliente.max-vida:5m}") Duration maxVida,
+            @Value("${bff.transporte.cliente.lifo:true}") boolean lifo,
+            @Value("${bff.transporte.cliente.desalojo:30s}") Duration desalojo,
+            @Value("${bff.transporte.cliente.calentamiento:0}") int calentamiento) {
+        PerfilTransporte perfil = PerfilTransporte.de(protocolo, maxConexiones, maxConexionesH2c, maxStreams,
+                maxOciosa, maxVida, lifo, desalojo);
+        return webClient(builder, "bff-cliente", url, perfil, calentamiento);
+    }
+
+    /**
+     * Igual que webClientCliente, con el pool bff-productos
+     */
+    @Bean
+    public WebClient webClientProductos(
+            WebClient.Builder builder,
+            @Value("${productos.service.url}") String url,
+            @Value("${bff.transporte.productos.protocolo:http1}") String protocolo,
+            @Value("${bff.transporte.productos.max-conexiones:500}") int maxConexiones,
+            @Value("${bff.transporte.productos.h2c.max-conexiones:4}") int maxConexionesH2c,
+            @Value("${bff.transporte.productos.h2c.max-streams:100}") int maxStreams,
+            @Value("${bff.transporte.productos.max-ociosa:20s}") Duration maxOciosa,
+            @Value("${bff.transporte.productos.max-vida:5m}") Duration maxVida,
+            @Value("${bff.transporte.productos.lifo:true}") boolean lifo,
+            @Value("${bff.transporte.productos.desalojo:30s}") Duration desalojo,
+            @Value("${bff.transporte.productos.calentamiento:0}") int calentamiento) {
+        PerfilTransporte perfil = PerfilTransporte.de(protocolo, maxConexiones, maxConexionesH2c, maxStreams,
+                maxOciosa, maxVida, lifo, desalojo);
+        return webClient(builder, "bff-productos", url, perfil, calentamiento);
+    }
+
+    /**
+     * Abrir las conexiones de calentamiento cuando la aplicación ya está lista; si el servicio
+     * aún no responde solo se registra, la primera petición real abrirá la conexión
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void calentarConexiones() {
+        calentamientos.forEach(Runnable::run);
+    }
+
+    private WebClient webClient(WebClient.Builder builder, String pool, String url, PerfilTransporte perfil,
+                                int calentamiento) {
+        HttpClient httpClient = httpClient(pool, perfil);
+        // Event loop, resolver DNS y transporte nativo listos antes de la primera petición
+        httpClient.warmup().block();
+        if (calentamiento > 0) {
+            calentamientos.add(() -> calentar(httpClient, pool, url, calentamiento));
+        }
+        log.info("Transporte {}: {} hasta {} conexiones de {} streams (lifo={})", pool, perfil.protocolo(),
+                perfil.maxConexiones(), perfil.maxStreams(), perfil.lifo());
+
+        return builder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .filter(propagarTrackingId())
                 .build();
+    }
 
-        HttpClient httpClient = HttpClient.create(provider)
+    /**
+     * HttpClient de Reactor Netty con su propio pool según el perfil
+     */
+    public static HttpClient httpClient(String pool, PerfilTransporte perfil) {
+        ConnectionProvider.Builder provider = ConnectionProvider.builder(pool)
+                .maxConnections(perfil.maxConexiones())
+                .maxIdleTime(perfil.maxOciosa())
+                .maxLifeTime(perfil.maxVida())
+                .pendingAcquireTimeout(Duration.ofSeconds(60))
+                .metrics(true);
+        if (perfil.protocolo() == HttpProtocol.H2C) {
+            // Sin esta estrategia cada adquisición que llega antes del SETTINGS del servidor abre
+            // su propia conexión y el pool acaba con una conexión por petición, como en HTTP/1.1
+            provider.allocationStrategy(Http2AllocationStrategy.builder()
+                    .minConnections(1)
+                    .maxConnections(perfil.maxConexiones())
+                    .maxConcurrentStreams(perfil.maxStreams())
+                    .build());
+        }
+        if (perfil.lifo()) {
+            // La conexión más reciente está caliente; las del fondo caducan por maxIdleTime
+            provider.lifo();
+        }
+        if (!perfil.desalojo().isZero()) {
+            provider.evictInBackground(perfil.desalojo());
+        }
+
+        return HttpClient.create(provider.build())
+                .protocol(perfil.protocolo())
                 .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 10000)
                 .responseTimeout(Duration.ofSeconds(30))
                 .doOnConnected(conn ->
                         conn.addHandlerLast(new ReadTimeoutHandler(30, TimeUnit.SECONDS))
                                 .addHandlerLast(new WriteTimeoutHandler(30, TimeUnit.SECONDS))
                 );
+    }
 
-        return WebClient.builder()
-                .clientConnector(new ReactorClientHttpConnector(httpClient))
-                .build();
+    /**
+     * Lanzar N peticiones concurrentes al health del servicio para dejar N conexiones en el
+     * pool (con h2c basta una, el resto van como streams de la misma conexión)
+     */
+    private static void calentar(HttpClient httpClient, String pool, String url, int conexiones) {
+        Flux.range(0, conexiones)
+                .flatMap(i -> httpClient.get()
+                        .uri(url + "/actuator/health")
+                        .responseSingle((respuesta, cuerpo) -> cuerpo.then()), conexiones)
+                .then()
+                .subscribe(
+                        vacio -> { },
+                        error -> log.warn("No se pudo calentar el pool {}: {}", pool, error.toString()),
+                        () -> log.info("Pool {} calentado con {} peticiones", pool, conexiones));
+    }
+
+    /**
+     * Reenviar a los servicios downstream el X-Tracking-Id que ReactiveTrackingFilter
+     * dejó en el contexto de Reactor
+     */
+    static ExchangeFilterFunction propagarTrackingId() {
+        return (request, next) -> Mono.deferContextual(ctx -> {
+            String trackingId = ctx.getOrDefault(ReactiveTrackingFilter.TRACKING_ID, null);
+            if (trackingId == null || request.headers().containsKey(ReactiveTrackingFilter.HEADER)) {
+                return next.exchange(request);
+            }
+            return next.exchange(ClientRequest.from(request)
+                    .header(ReactiveTrackingFilter.HEADER, trackingId)
+                    .build());
+        });
+    }
+
+    /**
+     * Perfil de transporte de un servicio downstream; con HTTP/1.1 cada conexión lleva una
+     * petición a la vez (maxStreams = 1)
+     */
+    public record PerfilTransporte(HttpProtocol protocolo, int maxConexiones, int maxStreams, Duration maxOciosa,
+                                   Duration maxVida, boolean lifo, Duration desalojo) {
+
+        /**
+         * Crear el perfil a partir de las propiedades: con h2c se usan los límites h2c.*
+         */
+        public static PerfilTransporte de(String protocolo, int maxConexiones, int maxConexionesH2c, int maxStreams,
+                                          Duration maxOciosa, Duration maxVida, boolean lifo, Duration desalojo) {
+            HttpProtocol http = protocolo(protocolo);
+            return http == HttpProtocol.H2C
+                    ? new PerfilTransporte(http, maxConexionesH2c, maxStreams, maxOciosa, maxVida, lifo, desalojo)
+                    : new PerfilTransporte(http, maxConexiones, 1, maxOciosa, maxVida, lifo, desalojo);
+        }
+
+        /**
+         * Obtener el protocolo a partir de la propiedad: http1 o h2c (HTTP/2 sin TLS con
+         * conocimiento previo, sin upgrade)
+         */
+        public static HttpProtocol protocolo(String valor) {
+            return switch (valor.trim().toLowerCase()) {
+                case "http1", "http11" -> HttpProtocol.HTTP11;
+                case "h2c" -> HttpProtocol.H2C;
+                default -> throw new IllegalArgumentException("Protocolo de transporte no soportado: " + valor);
+            };
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,49 +1,66 @@
 package com.banco.bff.controller;
 
+import com.banco.bff.dto.ClienteProductoLoteItem;
+import com.banco.bff.dto.ClienteProductoLoteRequest;
+import com.banco.bff.dto.ClienteProductoLoteResponse;
 import com.banco.bff.dto.ClienteProductoResponseConTracking;
 import com.banco.bff.dto.auth.ErrorResponse;
 import com.banco.bff.exception.ClienteNotFoundException;
+import com.banco.bff.exception.LimiteConcurrenciaException;
+import com.banco.bff.config.ReactiveTrackingFilter;
 import com.banco.bff.service.BffService;
 import com.banco.bff.util.EncryptionUtil;
+import com.banco.comun.logging.CodigoHash;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import lombok.extern.slf4j.Slf4j;
-import org.jboss.logging.MDC;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.ErrorResponseException;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Mono;
-import reactor.util.context.Context;
 
-import java.util.UUID;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @RestController
 @RequestMapping("/api/clientes")
 public class BffController {
 
+    /** Una línea por petición con campos estructurados; se puede muestrear con logging.muestreo.loggers */
+    private static final Logger accesoLog = LoggerFactory.getLogger("com.banco.bff.acceso");
+
     private final BffService bffService;
     private final EncryptionUtil encryptionUtil;
+    private final int maxCodigosLote;
 
-    public BffController(BffService bffService, EncryptionUtil encryptionUtil) {
+    public BffController(BffService bffService,
+                         EncryptionUtil encryptionUtil,
+                         @Value("${bff.lote.max-codigos:1000}") int maxCodigosLote) {
         this.bffService = bffService;
         this.encryptionUtil = encryptionUtil;
+        this.maxCodigosLote = maxCodigosLote;
     }
 
     @GetMapping("/{codigoEncriptado}")
     public Mono<ResponseEntity<Object>> obtenerClienteConProductos(
             @PathVariable String codigoEncriptado,
-            @RequestHeader(value = "X-Tracking-Id", required = false) String trackingIdHeader) {
-
-        String trackingId = trackingIdHeader != null ? trackingIdHeader : UUID.randomUUID().toString();
-
-        MDC.put("trackingId", trackingId);
-        log.info("Tracking ID: {} - Solicitado cliente encriptado: {}", trackingId, codigoEncriptado);
+            @RequestAttribute(ReactiveTrackingFilter.TRACKING_ID) String trackingId) {
 
+        long inicio = System.nanoTime();
         String codigoPuro;
         try {
             codigoPuro = encryptionUtil.decrypt(codigoEncriptado);
         } catch (Exception e) {
             log.error("Tracking ID: {} - Error al desencriptar: {}", trackingId, e.getMessage());
-            MDC.clear();
             return Mono.just(ResponseEntity.badRequest()
                     .body(new ErrorResponse("error", "Error al desencriptar código")));
         }
@@ -53,19 +70,102 @@ public class BffController {
                         new ClienteProductoResponseConTracking(trackingId,
                                 response.getCliente(),
                                 response.getProductos(),
-                                response.getCantidadProductos())))
-                .onErrorResume(ClienteNotFoundException.class, e -> {
-                    log.error("Tracking ID: {} - Cliente no encontrado: {}", trackingId, e.getMessage());
-                    return Mono.just(ResponseEntity.status(404)
-                            .body(new ErrorResponse("error", e.getMessage())));
+                                response.getCantidadProductos(),
+                                response.getDegradado())))
+                .onErrorResume(ClienteNotFoundException.class, e -> Mono.just(ResponseEntity.status(404)
+                        .body(new ErrorResponse("error", e.getMessage()))))
+                .onErrorResume(BffController::sinCapacidad, e -> {
+                    log.warn("Tracking ID: {} - Cliente MS no disponible: {}", trackingId, e.getMessage());
+                    return Mono.just(ResponseEntity.status(503)
+                            .header(HttpHeaders.RETRY_AFTER, "1")
+                            .body(new ErrorResponse("error", "Servicio no disponible")));
                 })
                 .onErrorResume(Exception.class, e -> {
                     log.error("Tracking ID: {} - Error interno: {}", trackingId, e.getMessage());
                     return Mono.just(ResponseEntity.status(500)
                             .body(new ErrorResponse("error", "Error interno")));
                 })
-                .doFinally(signal -> MDC.clear())
-                .contextWrite(Context.of("trackingId", trackingId)); // <-- ¡IMPORTANTE!
+                .doOnNext(respuesta -> accesoLog.atInfo()
+                        .setMessage("GET /api/clientes/{codigo}")
+                        .addKeyValue("codigoClienteHash", () -> CodigoHash.de(codigoPuro))
+                        .addKeyValue("estado", respuesta.getStatusCode().value())
+                        .addKeyValue("latenciaMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio))
+                        .log());
+    }
+
+    @PostMapping("/lote")
+    public Mono<ResponseEntity<Object>> obtenerClientesConProductos(
+            @RequestBody ClienteProductoLoteRequest request,
+            @RequestAttribute(ReactiveTrackingFilter.TRACKING_ID) String trackingId) {
+
+        List<String> codigosEncriptados = request.getCodigosEncriptados();
+
+        if (codigosEncriptados == null || codigosEncriptados.isEmpty()) {
+            return Mono.just(ResponseEntity.badRequest()
+                    .body(new ErrorResponse("error", "Lista de códigos requerida")));
+        }
+        if (codigosEncriptados.size() > maxCodigosLote) {
+            return Mono.just(ResponseEntity.badRequest()
+                    .body(new ErrorResponse("error", "Máximo " + maxCodigosLote + " códigos por lote")));
+        }
+
+        long inicio = System.nanoTime();
+
+        // Los códigos que no se pueden desencriptar quedan fuera de la consulta y se reportan como ERROR
+        Map<String, String> codigosPuros = new HashMap<>();
+        for (String codigoEncriptado : new LinkedHashSet<>(codigosEncriptados)) {
+            try {
+                codigosPuros.put(codigoEncriptado, encryptionUtil.decrypt(codigoEncriptado));
+            } catch (Exception e) {
+                log.warn("Tracking ID: {} - Código no desencriptable en lote", trackingId);
+            }
+        }
+
+        return bffService.obtenerClientesConProductos(new ArrayList<>(new LinkedHashSet<>(codigosPuros.values())))
+                .collectMap(ClienteProductoLoteItem::getCodigo)
+                .<ResponseEntity<Object>>map(porCodigo -> {
+                    List<ClienteProductoLoteItem> resultados = codigosEncriptados.stream()
+                            .map(codigoEncriptado -> resultadoLote(codigoEncriptado,
+                                    porCodigo.get(codigosPuros.get(codigoEncriptado))))
+                            .toList();
+                    int exitosos = (int) resultados.stream()
+                            .filter(item -> ClienteProductoLoteItem.OK.equals(item.getEstado()))
+                            .count();
+
+                    return ResponseEntity.ok(new ClienteProductoLoteResponse(trackingId,
+                            resultados.size(), exitosos, resultados.size() - exitosos, resultados));
+                })
+                .onErrorResume(Exception.class, e -> {
+                    log.error("Tracking ID: {} - Error interno en lote: {}", trackingId, e.getMessage());
+                    return Mono.just(ResponseEntity.status(500)
+                            .body(new ErrorResponse("error", "Error interno")));
+                })
+                .doOnNext(respuesta -> accesoLog.atInfo()
+                        .setMessage("POST /api/clientes/lote")
+                        .addKeyValue("codigos", codigosEncriptados.size())
+                        .addKeyValue("estado", respuesta.getStatusCode().value())
+                        .addKeyValue("latenciaMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio))
+                        .log());
+    }
+
+    private ClienteProductoLoteItem resultadoLote(String codigoEncriptado, ClienteProductoLoteItem item) {
+        if (item == null) {
+            return ClienteProductoLoteItem.builder()
+                    .codigo(codigoEncriptado)
+                    .estado(ClienteProductoLoteItem.ERROR)
+                    .mensaje("Error al desencriptar código")
+                    .build();
+        }
+        return new ClienteProductoLoteItem(codigoEncriptado, item.getEstado(), item.getCliente(),
+                item.getProductos(), item.getCantidadProductos(), item.getDegradado(), item.getMensaje());
+    }
+
+    /**
+     * Circuito abierto, bulkhead lleno o límite de concurrencia: se rechazó sin llegar a llamar al servicio
+     */
+    private static boolean sinCapacidad(Throwable error) {
+        return error instanceof CallNotPermittedException || error instanceof BulkheadFullException
+                || error instanceof LimiteConcurrenciaException;
     }
 
     @GetMapping("/test/encrypt/{codigo}")
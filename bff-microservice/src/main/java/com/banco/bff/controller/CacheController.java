@@ -0,0 +1,110 @@
+package com.banco.bff.controller;
+
+import com.banco.bff.cache.ClienteProductoCache;
+import com.banco.bff.dto.auth.ErrorResponse;
+import com.banco.comun.logging.CodigoHash;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/cache")
+public class CacheController {
+
+    private static final int MAX_CODIGOS_INVALIDACION = 10_000;
+
+    private final ClienteProductoCache cache;
+    private final String invalidationToken;
+
+    public CacheController(ClienteProductoCache cache,
+                           @Value("${bff.cache.invalidation-token:}") String invalidationToken) {
+        this.cache = cache;
+        this.invalidationToken = invalidationToken;
+    }
+
+    /**
+     * Estadísticas de la cache (aciertos, fallos, desalojos)
+     */
+    @GetMapping("/estadisticas")
+    public ResponseEntity<Map<String, Object>> estadisticas() {
+        return ResponseEntity.ok(cache.estadisticas());
+    }
+
+    /**
+     * Invalidar un cliente. Lo invocan cliente-microservice y productos-microservice tras una escritura
+     */
+    @DeleteMapping("/clientes/{codigoCliente}")
+    public ResponseEntity<Object> invalidar(
+            @PathVariable String codigoCliente,
+            @RequestHeader(value = "X-Cache-Token", required = false) String token) {
+
+        if (!tokenValido(token)) {
+            log.atWarn()
+                    .setMessage("Invalidación rechazada")
+                    .addKeyValue("codigoClienteHash", () -> CodigoHash.de(codigoCliente))
+                    .log();
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(new ErrorResponse("error", "Token de invalidación inválido"));
+        }
+
+        cache.invalidar(codigoCliente);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Invalidar varios clientes en una sola llamada. La usa la importación en bloque de productos,
+     * una vez por lote, en lugar de una llamada por cliente
+     */
+    @PostMapping("/clientes/invalidaciones")
+    public ResponseEntity<Object> invalidarVarios(
+            @RequestBody List<String> codigosCliente,
+            @RequestHeader(value = "X-Cache-Token", required = false) String token) {
+
+        if (!tokenValido(token)) {
+            log.warn("Invalidación de {} clientes rechazada", codigosCliente.size());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(new ErrorResponse("error", "Token de invalidación inválido"));
+        }
+        if (codigosCliente.size() > MAX_CODIGOS_INVALIDACION) {
+            return ResponseEntity.badRequest()
+                    .body(new ErrorResponse("error", "Máximo " + MAX_CODIGOS_INVALIDACION + " clientes por invalidación"));
+        }
+
+        cache.invalidar(codigosCliente);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Invalidar la cache completa
+     */
+    @DeleteMapping("/clientes")
+    public ResponseEntity<Object> invalidarTodo(
+            @RequestHeader(value = "X-Cache-Token", required = false) String token) {
+
+        if (!tokenValido(token)) {
+            log.warn("Invalidación completa rechazada");
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(new ErrorResponse("error", "Token de invalidación inválido"));
+        }
+
+        cache.invalidarTodo();
+        return ResponseEntity.noContent().build();
+    }
+
+    private boolean tokenValido(String token) {
+        if (invalidationToken.isEmpty() || token == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(
+                invalidationToken.getBytes(StandardCharsets.UTF_8),
+                token.getBytes(StandardCharsets.UTF_8));
+    }
+}
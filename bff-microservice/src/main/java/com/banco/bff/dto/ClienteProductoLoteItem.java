@@ -0,0 +1,29 @@
+package com.banco.bff.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ClienteProductoLoteItem {
+
+    public static final String OK = "OK";
+    public static final String NO_ENCONTRADO = "NO_ENCONTRADO";
+    public static final String ERROR = "ERROR";
+
+    private String codigo;
+    private String estado;
+    private ClienteDTO cliente;
+    private List<ProductoDTO> productos;
+    private Integer cantidadProductos;
+    private Boolean degradado;
+    private String mensaje;
+}
@@ -0,0 +1,17 @@
+package com.banco.bff.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ClienteProductoLoteRequest {
+
+    private List<String> codigosEncriptados;
+}
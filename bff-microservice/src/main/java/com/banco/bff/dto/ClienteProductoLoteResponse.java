@@ -0,0 +1,23 @@
+package com.banco.bff.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ClienteProductoLoteResponse {
+
+    private String trackingId;
+    private Integer total;
+    private Integer exitosos;
+    private Integer fallidos;
+    private List<ClienteProductoLoteItem> resultados;
+}
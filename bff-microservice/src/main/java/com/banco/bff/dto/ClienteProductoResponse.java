@@ -17,4 +17,6 @@ public class ClienteProductoResponse {
     private com.banco.bff.dto.ClienteDTO cliente;
     private List<com.banco.bff.dto.ProductoDTO> productos;
     private Integer cantidadProductos;
+    /** true si Productos MS no respondió y la lista de productos va vacía */
+    private Boolean degradado;
 }
\ No newline at end of file
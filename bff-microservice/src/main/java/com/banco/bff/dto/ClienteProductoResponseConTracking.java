@@ -16,4 +16,5 @@ public class ClienteProductoResponseConTracking {
     private Object cliente;
     private Object productos;
     private Integer cantidadProductos;
+    private Boolean degradado;
 }
@@ -5,7 +5,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
-import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
@@ -17,7 +18,7 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(ClienteNotFoundException.class)
     public ResponseEntity<Map<String, Object>> handleClienteNotFoundException(
             ClienteNotFoundException ex,
-            WebRequest request) {
+            ServerWebExchange exchange) {
 
         log.error("Cliente no encontrado: {}", ex.getMessage());
 
@@ -26,15 +27,32 @@ public class GlobalExceptionHandler {
         body.put("status", HttpStatus.NOT_FOUND.value());
         body.put("error", "Cliente no encontrado");
         body.put("message", ex.getMessage());
-        body.put("path", request.getDescription(false).replace("uri=", ""));
+        body.put("path", exchange.getRequest().getPath().value());
 
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(body);
     }
 
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<Map<String, Object>> handleResponseStatusException(
+            ResponseStatusException ex,
+            ServerWebExchange exchange) {
+
+        log.warn("Petición rechazada: {} {}", ex.getStatusCode(), ex.getReason());
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("status", ex.getStatusCode().value());
+        body.put("error", ex.getReason());
+        body.put("message", ex.getMessage());
+        body.put("path", exchange.getRequest().getPath().value());
+
+        return ResponseEntity.status(ex.getStatusCode()).body(body);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, Object>> handleGenericException(
             Exception ex,
-            WebRequest request) {
+            ServerWebExchange exchange) {
 
         log.error("Error no esperado: {}", ex.getMessage(), ex);
 
@@ -43,7 +61,7 @@ public class GlobalExceptionHandler {
         body.put("status", HttpStatus.INTERNAL_SERVER_ERROR.value());
         body.put("error", "Error interno del servidor");
         body.put("message", "Ocurrió un error inesperado");
-        body.put("path", request.getDescription(false).replace("uri=", ""));
+        body.put("path", exchange.getRequest().getPath().value());
 
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(body);
     }
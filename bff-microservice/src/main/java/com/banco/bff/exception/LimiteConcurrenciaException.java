@@ -0,0 +1,8 @@
+package com.banco.bff.exception;
+
+public class LimiteConcurrenciaException extends RuntimeException {
+
+    public LimiteConcurrenciaException(String message) {
+        super(message);
+    }
+}
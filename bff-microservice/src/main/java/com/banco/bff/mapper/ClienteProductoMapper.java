@@ -12,6 +12,7 @@ import java.util.List;
 public interface ClienteProductoMapper {
 
     @Mapping(target = "cantidadProductos", expression = "java(productos.size())")
+    @Mapping(target = "degradado", ignore = true)
     ClienteProductoResponse toResponse(
             ClienteDTO cliente,
             List<ProductoDTO> productos
@@ -1,56 +1,209 @@
 package com.banco.bff.service;
 
+import com.banco.bff.cache.ClienteProductoCache;
 import com.banco.bff.client.ClienteClient;
 import com.banco.bff.client.ProductosClient;
 import com.banco.bff.dto.ClienteDTO;
+import com.banco.bff.dto.ClienteProductoLoteItem;
 import com.banco.bff.dto.ClienteProductoResponse;
 import com.banco.bff.dto.ProductoDTO;
 import com.banco.bff.exception.ClienteNotFoundException;
 import com.banco.bff.mapper.ClienteProductoMapper;
-import com.banco.bff.util.ReactiveMdcUtil;
+import com.banco.comun.logging.CodigoHash;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
 import lombok.extern.slf4j.Slf4j;
-import org.jboss.logging.MDC;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @Service
 @Slf4j
 public class BffService {
 
+    private static final String AGREGACION = "bff.agregacion";
+    private static final String RESULTADO_EXITO = "exito";
+    private static final String RESULTADO_DEGRADADO = "degradado";
+    private static final String RESULTADO_NO_ENCONTRADO = "no_encontrado";
+    private static final String RESULTADO_ERROR = "error";
+    private static final String RESULTADO_CANCELADO = "cancelado";
+
     private final ClienteClient clienteClient;
     private final ProductosClient productosClient;
     private final ClienteProductoMapper mapper;
+    private final ClienteProductoCache cache;
+    private final int tamanoSublote;
+    private final int concurrenciaLote;
+    private final boolean degradadoHabilitado;
+    private final ObservationRegistry observationRegistry;
 
     public BffService(ClienteClient clienteClient,
                       ProductosClient productosClient,
-                      ClienteProductoMapper mapper) {
+                      ClienteProductoMapper mapper,
+                      ClienteProductoCache cache,
+                      ObservationRegistry observationRegistry,
+                      @Value("${bff.lote.tamano-sublote:200}") int tamanoSublote,
+                      @Value("${bff.lote.concurrencia:4}") int concurrenciaLote,
+                      @Value("${bff.resiliencia.degradado:true}") boolean degradadoHabilitado) {
         this.clienteClient = clienteClient;
         this.productosClient = productosClient;
         this.mapper = mapper;
+        this.cache = cache;
+        this.tamanoSublote = tamanoSublote;
+        this.concurrenciaLote = concurrenciaLote;
+        this.degradadoHabilitado = degradadoHabilitado;
+        this.observationRegistry = observationRegistry;
     }
 
     public Mono<ClienteProductoResponse> obtenerClienteConProductos(String codigoCliente) {
+        return cache.obtener(codigoCliente, this::consultarServicios);
+    }
+
+    private Mono<ClienteProductoResponse> consultarServicios(String codigoCliente) {
         return Mono.deferContextual(ctx -> {
-            MDC.put("trackingId", ctx.getOrDefault("trackingId", ""));
-            log.info("BFF: Orquestando llamadas para cliente: {}", codigoCliente);
+            log.atDebug()
+                    .setMessage("BFF: Orquestando llamadas para cliente")
+                    .addKeyValue("codigoClienteHash", () -> CodigoHash.de(codigoCliente))
+                    .log();
+            Observation agregacion = iniciarAgregacion("individual", ctx.getOrDefault("trackingId", ""),
+                    ctx.getOrDefault(ObservationThreadLocalAccessor.KEY, null));
 
             Mono<ClienteDTO> clienteMono = clienteClient.obtenerClientePorCodigo(codigoCliente)
                     .switchIfEmpty(Mono.error(new ClienteNotFoundException("Cliente no encontrado: " + codigoCliente)));
 
-            Mono<List<ProductoDTO>> productosMono = productosClient.obtenerProductosPorCodigoCliente(codigoCliente)
-                    .collectList()
-                    .defaultIfEmpty(List.of());
+            Mono<Optional<List<ProductoDTO>>> productosMono = degradable(productosClient
+                    .obtenerProductosPorCodigoCliente(codigoCliente)
+                    .collectList());
 
             return Mono.zip(clienteMono, productosMono)
                     .map(tuple -> {
                         ClienteDTO cliente = tuple.getT1();
-                        List<ProductoDTO> productos = tuple.getT2();
-                        log.debug("Integrando respuesta. Cliente: {}, Productos: {}", cliente.getNombres(), productos.size());
-                        return mapper.toResponse(cliente, productos);
+                        List<ProductoDTO> productos = tuple.getT2().orElse(List.of());
+                        log.debug("Integrando respuesta. Productos: {}", productos.size());
+                        ClienteProductoResponse response = mapper.toResponse(cliente, productos);
+                        if (tuple.getT2().isEmpty()) {
+                            response.setDegradado(true);
+                        }
+                        return response;
                     })
-                    .doFinally(signal -> MDC.remove("trackingId"));
+                    .doOnSuccess(response -> detener(agregacion,
+                            Boolean.TRUE.equals(response.getDegradado()) ? RESULTADO_DEGRADADO : RESULTADO_EXITO, null))
+                    .doOnError(error -> detener(agregacion, resultado(error), error))
+                    .doOnCancel(() -> detener(agregacion, RESULTADO_CANCELADO, null))
+                    // Las llamadas downstream cuelgan como hijas del span de agregación
+                    .contextWrite(context -> context.put(ObservationThreadLocalAccessor.KEY, agregacion));
+        });
+    }
+
+    /**
+     * Agregar cliente + productos para varios códigos con una llamada por servicio y sublote.
+     * Un fallo downstream solo marca como ERROR los códigos de su sublote.
+     */
+    public Flux<ClienteProductoLoteItem> obtenerClientesConProductos(List<String> codigosCliente) {
+        return Flux.fromIterable(codigosCliente)
+                .distinct()
+                .buffer(tamanoSublote)
+                .flatMap(this::consultarSublote, concurrenciaLote);
+    }
+
+    private Flux<ClienteProductoLoteItem> consultarSublote(List<String> codigos) {
+        Mono<Map<String, ClienteDTO>> clientesMono = clienteClient.obtenerClientesPorCodigos(codigos)
+                .collectMap(ClienteDTO::getCodigoUnico);
+
+        Mono<Optional<Map<String, Collection<ProductoDTO>>>> productosMono = degradable(productosClient
+                .obtenerProductosPorCodigosCliente(codigos)
+                .collectMultimap(ProductoDTO::getCodigoCliente));
+
+        return Mono.deferContextual(ctx -> {
+                    Observation agregacion = iniciarAgregacion("sublote", ctx.getOrDefault("trackingId", ""),
+                            ctx.getOrDefault(ObservationThreadLocalAccessor.KEY, null));
+                    return Mono.zip(clientesMono, productosMono)
+                            .doOnSuccess(tuple -> detener(agregacion,
+                                    tuple.getT2().isPresent() ? RESULTADO_EXITO : RESULTADO_DEGRADADO, null))
+                            .doOnError(error -> detener(agregacion, resultado(error), error))
+                            .doOnCancel(() -> detener(agregacion, RESULTADO_CANCELADO, null))
+                            .contextWrite(context -> context.put(ObservationThreadLocalAccessor.KEY, agregacion));
+                })
+                .flatMapMany(tuple -> Flux.fromIterable(codigos)
+                        .map(codigo -> integrar(codigo, tuple.getT1().get(codigo),
+                                tuple.getT2().map(productos -> productos.get(codigo)), tuple.getT2().isEmpty())))
+                .onErrorResume(error -> {
+                    log.error("Error al consultar sublote de {} clientes: {}", codigos.size(), error.getMessage());
+                    return Flux.fromIterable(codigos)
+                            .map(codigo -> ClienteProductoLoteItem.builder()
+                                    .codigo(codigo)
+                                    .estado(ClienteProductoLoteItem.ERROR)
+                                    .mensaje("Error al consultar servicios")
+                                    .build());
+                });
+    }
+
+    private ClienteProductoLoteItem integrar(String codigo, ClienteDTO cliente,
+                                             Optional<Collection<ProductoDTO>> productos, boolean degradado) {
+        if (cliente == null) {
+            return ClienteProductoLoteItem.builder()
+                    .codigo(codigo)
+                    .estado(ClienteProductoLoteItem.NO_ENCONTRADO)
+                    .mensaje("Cliente no encontrado: " + codigo)
+                    .build();
+        }
+
+        ClienteProductoResponse response = mapper.toResponse(cliente,
+                productos.<List<ProductoDTO>>map(List::copyOf).orElse(List.of()));
+        return ClienteProductoLoteItem.builder()
+                .codigo(codigo)
+                .estado(ClienteProductoLoteItem.OK)
+                .cliente(response.getCliente())
+                .productos(response.getProductos())
+                .cantidadProductos(response.getCantidadProductos())
+                .degradado(degradado ? Boolean.TRUE : null)
+                .build();
+    }
+
+    /**
+     * Productos MS es prescindible: si falla (error, timeout, circuito abierto o bulkhead lleno)
+     * se responde igualmente con el cliente y Optional.empty() marca la respuesta como degradada
+     */
+    private <T> Mono<Optional<T>> degradable(Mono<T> productos) {
+        Mono<Optional<T>> resultado = productos.map(Optional::of);
+        if (!degradadoHabilitado) {
+            return resultado;
+        }
+        return resultado.onErrorResume(error -> {
+            log.warn("Productos MS no disponible, respuesta degradada: {}", error.toString());
+            return Mono.just(Optional.empty());
         });
     }
-}
\ No newline at end of file
+
+    /**
+     * Observación bff.agregacion (llamadas downstream en paralelo + integración): genera el span
+     * hijo de la petición HTTP y el timer con los tags operacion y resultado
+     */
+    private Observation iniciarAgregacion(String operacion, String trackingId, Observation padre) {
+        return Observation.createNotStarted(AGREGACION, observationRegistry)
+                .parentObservation(padre)
+                .contextualName("bff agregacion " + operacion)
+                .lowCardinalityKeyValue("operacion", operacion)
+                .highCardinalityKeyValue("tracking.id", trackingId)
+                .start();
+    }
+
+    private static void detener(Observation agregacion, String resultado, Throwable error) {
+        agregacion.lowCardinalityKeyValue("resultado", resultado);
+        if (error != null && RESULTADO_ERROR.equals(resultado)) {
+            agregacion.error(error);
+        }
+        agregacion.stop();
+    }
+
+    private static String resultado(Throwable error) {
+        return error instanceof ClienteNotFoundException ? RESULTADO_NO_ENCONTRADO : RESULTADO_ERROR;
+    }
+}
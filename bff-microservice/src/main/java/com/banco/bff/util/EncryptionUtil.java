@@ -5,35 +5,91 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Base64;
+import java.util.List;
 
+/**
+ * Cifrado de los códigos de cliente. Las claves se decodifican una sola vez y
+ * cada hilo (event loop de Netty) reutiliza sus {@link Cipher} y buffers.
+ * <p>
+ * Formatos aceptados por {@link #decrypt(String)}:
+ * <ul>
+ *   <li>Legado: {@code base64url(AES/ECB/PKCS5Padding)}, con {@code encryption.key}.</li>
+ *   <li>Autenticado: {@code <idClave>.base64url(iv ‖ cifrado ‖ tag)} con AES-GCM; el id de
+ *   la clave va también como AAD y permite rotar claves sin invalidar códigos emitidos.</li>
+ * </ul>
+ * {@link #encrypt(String)} usa GCM con {@code encryption.gcm.active-key-id} si está
+ * configurada y, si no, el formato legado.
+ */
 @Slf4j
 @Component
 public class EncryptionUtil {
 
-    @Value("${encryption.key}")
-    private String encryptionKey;
-
     private static final String ALGORITHM = "AES";
+    private static final String TRANSFORMACION_LEGADO = "AES/ECB/PKCS5Padding";
+    private static final String TRANSFORMACION_GCM = "AES/GCM/NoPadding";
+    private static final int IV_BYTES = 12;
+    private static final int TAG_BITS = 128;
+    private static final char SEPARADOR_VERSION = '.';
+    private static final int MAX_LONGITUD = 4096;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final byte[] BASE64_URL = new byte[128];
+
+    static {
+        Arrays.fill(BASE64_URL, (byte) -1);
+        String alfabeto = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        for (int i = 0; i < alfabeto.length(); i++) {
+            BASE64_URL[alfabeto.charAt(i)] = (byte) i;
+        }
+    }
+
+    private final SecretKeySpec claveLegado;
+    private final ClaveVersionada[] clavesGcm;
+    private final ClaveVersionada claveGcmActiva;
+    private final SecureRandom random = new SecureRandom();
+    private final ThreadLocal<Contexto> contexto = ThreadLocal.withInitial(this::crearContexto);
 
-    private SecretKeySpec getKey() {
-        byte[] keyBytes = Base64.getDecoder().decode(encryptionKey);
-        return new SecretKeySpec(keyBytes, ALGORITHM);
+    public EncryptionUtil(@Value("${encryption.key:}") String encryptionKey,
+                          @Value("${encryption.gcm.keys:}") String clavesGcm,
+                          @Value("${encryption.gcm.active-key-id:}") String claveGcmActiva) {
+        this.claveLegado = encryptionKey.isBlank() ? null : clave(encryptionKey.trim());
+        this.clavesGcm = parsearClaves(clavesGcm);
+        this.claveGcmActiva = claveGcmActiva.isBlank() ? null : Arrays.stream(this.clavesGcm)
+                .filter(c -> c.id().equals(claveGcmActiva.trim()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException(
+                        "encryption.gcm.active-key-id no existe en encryption.gcm.keys: " + claveGcmActiva));
+        if (this.claveLegado == null && this.claveGcmActiva == null) {
+            throw new IllegalStateException("Se requiere encryption.key o encryption.gcm.active-key-id");
+        }
     }
 
     public String encrypt(String plainText) {
         try {
-            Cipher cipher = Cipher.getInstance("AES");
-            cipher.init(Cipher.ENCRYPT_MODE, getKey());
-
-            byte[] encryptedBytes = cipher.doFinal(plainText.getBytes());
+            byte[] datos = plainText.getBytes(StandardCharsets.UTF_8);
+            if (claveGcmActiva == null) {
+                return ENCODER.encodeToString(contexto.get().cifradorLegado().doFinal(datos));
+            }
 
-            return Base64.getUrlEncoder()
-                    .withoutPadding()
-                    .encodeToString(encryptedBytes);
+            Cipher cipher = contexto.get().gcm();
+            byte[] iv = new byte[IV_BYTES];
+            random.nextBytes(iv);
+            cipher.init(Cipher.ENCRYPT_MODE, claveGcmActiva.clave(), new GCMParameterSpec(TAG_BITS, iv));
+            cipher.updateAAD(claveGcmActiva.aad());
+            byte[] salida = Arrays.copyOf(iv, IV_BYTES + cipher.getOutputSize(datos.length));
+            cipher.doFinal(datos, 0, datos.length, salida, IV_BYTES);
+            return claveGcmActiva.id() + SEPARADOR_VERSION + ENCODER.encodeToString(salida);
 
         } catch (Exception e) {
+            contexto.remove();
             log.error("Error al encriptar: {}", e.getMessage());
             throw new RuntimeException("Error en encriptación");
         }
@@ -41,19 +97,130 @@ public class EncryptionUtil {
 
     public String decrypt(String encryptedText) {
         try {
-            Cipher cipher = Cipher.getInstance("AES");
-            cipher.init(Cipher.DECRYPT_MODE, getKey());
+            if (encryptedText.length() > MAX_LONGITUD) {
+                throw new IllegalArgumentException("Texto cifrado demasiado largo");
+            }
+            Contexto ctx = contexto.get();
+            int separador = encryptedText.indexOf(SEPARADOR_VERSION);
+            int leidos = decodificar(encryptedText, separador + 1, ctx.entrada());
 
-            byte[] decodedBytes =
-                    Base64.getUrlDecoder().decode(encryptedText);
+            int escritos;
+            if (separador < 0) {
+                if (claveLegado == null) {
+                    throw new IllegalArgumentException("Formato legado deshabilitado");
+                }
+                escritos = ctx.descifradorLegado().doFinal(ctx.entrada(), 0, leidos, ctx.salida(), 0);
+            } else {
+                ClaveVersionada clave = buscarClave(encryptedText, separador);
+                if (leidos < IV_BYTES + TAG_BITS / 8) {
+                    throw new IllegalArgumentException("Texto cifrado incompleto");
+                }
+                ctx.gcm().init(Cipher.DECRYPT_MODE, clave.clave(),
+                        new GCMParameterSpec(TAG_BITS, ctx.entrada(), 0, IV_BYTES));
+                ctx.gcm().updateAAD(clave.aad());
+                escritos = ctx.gcm().doFinal(ctx.entrada(), IV_BYTES, leidos - IV_BYTES, ctx.salida(), 0);
+            }
 
-            byte[] decryptedBytes = cipher.doFinal(decodedBytes);
-
-            return new String(decryptedBytes);
+            return new String(ctx.salida(), 0, escritos, StandardCharsets.UTF_8);
 
         } catch (Exception e) {
+            contexto.remove();
             log.error("Error al desencriptar: {}", e.getMessage());
             throw new RuntimeException("Error en desencriptación");
         }
     }
+
+    private ClaveVersionada buscarClave(String texto, int longitudId) {
+        for (ClaveVersionada clave : clavesGcm) {
+            if (clave.id().length() == longitudId && texto.regionMatches(0, clave.id(), 0, longitudId)) {
+                return clave;
+            }
+        }
+        throw new IllegalArgumentException("Id de clave desconocido");
+    }
+
+    /**
+     * Decodificar Base64 URL directamente desde el String al buffer del hilo, sin copias intermedias
+     */
+    private static int decodificar(String texto, int desde, byte[] destino) {
+        int hasta = texto.length();
+        while (hasta > desde && texto.charAt(hasta - 1) == '=') {
+            hasta--;
+        }
+        if ((hasta - desde) % 4 == 1) {
+            throw new IllegalArgumentException("Longitud Base64 inválida");
+        }
+
+        int acumulado = 0;
+        int bits = 0;
+        int escritos = 0;
+        for (int i = desde; i < hasta; i++) {
+            char c = texto.charAt(i);
+            int valor = c < 128 ? BASE64_URL[c] : -1;
+            if (valor < 0) {
+                throw new IllegalArgumentException("Carácter Base64 inválido");
+            }
+            acumulado = (acumulado << 6) | valor;
+            bits += 6;
+            if (bits >= 8) {
+                bits -= 8;
+                destino[escritos++] = (byte) (acumulado >> bits);
+            }
+        }
+        return escritos;
+    }
+
+    private static ClaveVersionada[] parsearClaves(String configuracion) {
+        List<ClaveVersionada> claves = new ArrayList<>();
+        for (String entrada : configuracion.split(",")) {
+            if (entrada.isBlank()) {
+                continue;
+            }
+            int separador = entrada.indexOf(':');
+            String id = separador < 0 ? "" : entrada.substring(0, separador).trim();
+            if (!id.matches("[A-Za-z0-9_-]+")) {
+                throw new IllegalStateException("Id de clave GCM inválido en encryption.gcm.keys: " + entrada);
+            }
+            claves.add(new ClaveVersionada(id, clave(entrada.substring(separador + 1).trim()),
+                    id.getBytes(StandardCharsets.US_ASCII)));
+        }
+        return claves.toArray(ClaveVersionada[]::new);
+    }
+
+    private static SecretKeySpec clave(String base64) {
+        byte[] bytes = Base64.getDecoder().decode(base64);
+        if (bytes.length != 16 && bytes.length != 24 && bytes.length != 32) {
+            throw new IllegalStateException("La clave AES debe tener 16, 24 o 32 bytes");
+        }
+        return new SecretKeySpec(bytes, ALGORITHM);
+    }
+
+    private Contexto crearContexto() {
+        try {
+            Cipher descifradorLegado = null;
+            Cipher cifradorLegado = null;
+            if (claveLegado != null) {
+                descifradorLegado = Cipher.getInstance(TRANSFORMACION_LEGADO);
+                descifradorLegado.init(Cipher.DECRYPT_MODE, claveLegado);
+                cifradorLegado = Cipher.getInstance(TRANSFORMACION_LEGADO);
+                cifradorLegado.init(Cipher.ENCRYPT_MODE, claveLegado);
+            }
+            int capacidad = MAX_LONGITUD * 3 / 4;
+            return new Contexto(descifradorLegado, cifradorLegado, Cipher.getInstance(TRANSFORMACION_GCM),
+                    new byte[capacidad], new byte[capacidad]);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("No se pudo inicializar el cifrado", e);
+        }
+    }
+
+    private record ClaveVersionada(String id, SecretKeySpec clave, byte[] aad) {
+    }
+
+    /**
+     * Ciphers y buffers de un hilo. ECB no lleva IV, así que sus ciphers quedan
+     * inicializados; GCM se reinicializa en cada operación con el IV del mensaje.
+     */
+    private record Contexto(Cipher descifradorLegado, Cipher cifradorLegado, Cipher gcm,
+                            byte[] entrada, byte[] salida) {
+    }
 }
@@ -1,5 +1,6 @@
 package com.banco.bff.util;
 
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -7,20 +8,23 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
 
 @Slf4j
 @Component
 public class JwtUtil {
 
-    @Value("${jwt.secret:tuClaveSecretaMuyLargaParaJWT123456789012345678901234}")
-    private String jwtSecret;
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final long jwtExpiration;
 
-    @Value("${jwt.expiration:86400000}")
-    private long jwtExpiration;
-
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    public JwtUtil(@Value("${jwt.secret:tuClaveSecretaMuyLargaParaJWT123456789012345678901234}") String jwtSecret,
+                   @Value("${jwt.expiration:86400000}") long jwtExpiration) {
+        // Clave y parser inmutables y thread-safe: se construyen una sola vez
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
+        this.jwtExpiration = jwtExpiration;
     }
 
     public String generateToken(String username) {
@@ -31,7 +35,7 @@ public class JwtUtil {
                     .subject(username)
                     .issuedAt(new Date())
                     .expiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                    .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                    .signWith(signingKey, SignatureAlgorithm.HS256)
                     .compact();
 
             log.debug("JWT generado exitosamente");
@@ -46,10 +50,7 @@ public class JwtUtil {
         try {
             log.debug("Validando JWT token");
 
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
+            parser.parseSignedClaims(token);
 
             return true;
         } catch (Exception e) {
@@ -60,10 +61,7 @@ public class JwtUtil {
 
     public String getUsernameFromToken(String token) {
         try {
-            return Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token)
+            return parser.parseSignedClaims(token)
                     .getPayload()
                     .getSubject();
         } catch (Exception e) {
@@ -0,0 +1,130 @@
+package com.banco.bff.cache;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.banco.bff.dto.ClienteDTO;
+import com.banco.bff.dto.ClienteProductoResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.util.context.Context;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ClienteProductoCacheTest {
+
+    private ClienteProductoCache cache;
+    private AtomicInteger cargas;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ClienteProductoCache(true, Duration.ofSeconds(30), 1_048_576, new SimpleMeterRegistry());
+        cargas = new AtomicInteger();
+    }
+
+    private Mono<ClienteProductoResponse> cargar(String codigo) {
+        return Mono.fromSupplier(() -> {
+            cargas.incrementAndGet();
+            ClienteDTO cliente = new ClienteDTO(1L, codigo, "Juan", "Pérez", "CC", "12345678", "ACTIVO");
+            return new ClienteProductoResponse(cliente, List.of(), 0, null);
+        });
+    }
+
+    @Test
+    void obtener_cuandoHayAcierto_noDeberiaCargarDeNuevo() {
+        StepVerifier.create(cache.obtener("CLI001", this::cargar)).expectNextCount(1).verifyComplete();
+        StepVerifier.create(cache.obtener("CLI001", this::cargar)).expectNextCount(1).verifyComplete();
+
+        assertEquals(1, cargas.get());
+        assertEquals(1L, cache.estadisticas().get("aciertos"));
+    }
+
+    @Test
+    void obtener_peticionesConcurrentes_deberianCompartirLaCarga() {
+        Mono<ClienteProductoResponse> lenta = cache.obtener("CLI001",
+                codigo -> cargar(codigo).delayElement(Duration.ofMillis(100)));
+        Mono<ClienteProductoResponse> concurrente = cache.obtener("CLI001", this::cargar);
+
+        StepVerifier.create(Mono.zip(lenta, concurrente))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        assertEquals(1, cargas.get());
+    }
+
+    @Test
+    void obtener_peticionesConcurrentes_deberianCargarConElContextoDeLaPrimera() {
+        List<String> contextosDeCarga = new CopyOnWriteArrayList<>();
+        Function<String, Mono<ClienteProductoResponse>> cargador = codigo -> Mono.deferContextual(ctx -> {
+            contextosDeCarga.add(ctx.get("trackingId"));
+            return cargar(codigo).delayElement(Duration.ofMillis(100));
+        });
+        ListAppender<ILoggingEvent> registros = new ListAppender<>();
+        registros.start();
+        Logger logger = (Logger) LoggerFactory.getLogger(ClienteProductoCache.class);
+        logger.addAppender(registros);
+        Level nivel = logger.getLevel();
+        logger.setLevel(Level.DEBUG);
+        try {
+            Mono<ClienteProductoResponse> primera = cache.obtener("CLI001", cargador)
+                    .contextWrite(Context.of("trackingId", "primera"));
+            Mono<ClienteProductoResponse> segunda = cache.obtener("CLI001", cargador)
+                    .contextWrite(Context.of("trackingId", "segunda"));
+
+            StepVerifier.create(Mono.zip(primera, segunda))
+                    .expectNextCount(1)
+                    .verifyComplete();
+        } finally {
+            logger.detachAppender(registros);
+            logger.setLevel(nivel);
+        }
+
+        assertEquals(List.of("primera"), contextosDeCarga);
+        assertEquals(1, registros.list.stream()
+                .filter(evento -> evento.getMessage().equals("Esperando la carga en curso de otra petición"))
+                .count());
+    }
+
+    @Test
+    void invalidar_deberiaForzarNuevaCarga() {
+        StepVerifier.create(cache.obtener("CLI001", this::cargar)).expectNextCount(1).verifyComplete();
+        cache.invalidar("CLI001");
+        StepVerifier.create(cache.obtener("CLI001", this::cargar)).expectNextCount(1).verifyComplete();
+
+        assertEquals(2, cargas.get());
+    }
+
+    @Test
+    void invalidarVarios_deberiaForzarNuevaCargaSoloDeEsosClientes() {
+        StepVerifier.create(cache.obtener("CLI001", this::cargar)).expectNextCount(1).verifyComplete();
+        StepVerifier.create(cache.obtener("CLI002", this::cargar)).expectNextCount(1).verifyComplete();
+        StepVerifier.create(cache.obtener("CLI003", this::cargar)).expectNextCount(1).verifyComplete();
+        cache.invalidar(List.of("CLI001", "CLI002"));
+        StepVerifier.create(cache.obtener("CLI001", this::cargar)).expectNextCount(1).verifyComplete();
+        StepVerifier.create(cache.obtener("CLI002", this::cargar)).expectNextCount(1).verifyComplete();
+        StepVerifier.create(cache.obtener("CLI003", this::cargar)).expectNextCount(1).verifyComplete();
+
+        assertEquals(5, cargas.get());
+    }
+
+    @Test
+    void obtener_cuandoLaCargaFalla_noDeberiaCachearElError() {
+        StepVerifier.create(cache.obtener("CLI001", codigo -> Mono.error(new IllegalStateException("caído"))))
+                .expectError(IllegalStateException.class)
+                .verify();
+        StepVerifier.create(cache.obtener("CLI001", this::cargar)).expectNextCount(1).verifyComplete();
+
+        assertEquals(1, cargas.get());
+    }
+}
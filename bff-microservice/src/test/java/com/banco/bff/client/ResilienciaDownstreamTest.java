@@ -0,0 +1,292 @@
+package com.banco.bff.client;
+
+import com.banco.bff.concurrencia.LimiteAdaptativo;
+import com.banco.bff.concurrencia.MarcaDownstream;
+import com.banco.bff.exception.LimiteConcurrenciaException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResilienciaDownstreamTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private CircuitBreaker circuitBreaker;
+    private LimiteAdaptativo limite;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        limite = new LimiteAdaptativo("productos", 50, 1, 500, meterRegistry);
+        circuitBreaker = CircuitBreaker.of("productos", CircuitBreakerConfig.custom()
+                .slidingWindowSize(10)
+                .minimumNumberOfCalls(5)
+                .failureRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofMinutes(1))
+                .recordException(new FalloDownstream())
+                .build());
+    }
+
+    private ResilienciaDownstream resiliencia(boolean hedging, int maxConcurrentes) {
+        Bulkhead bulkhead = Bulkhead.of("productos", BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentes)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        // Sin intervalo de refresco: timeout y hedging se recalculan en cada llamada
+        return new ResilienciaDownstream("productos", circuitBreaker, bulkhead, limite, Duration.ofMillis(100),
+                Duration.ofMillis(500), 3, hedging, Duration.ofMillis(20), Duration.ZERO, meterRegistry);
+    }
+
+    private static void registrarMuestras(ResilienciaDownstream resiliencia) {
+        IntStream.range(0, 50).forEach(i -> resiliencia.proteger(() -> Mono.just("ok")).block());
+    }
+
+    @Test
+    void proteger_sinMuestras_deberiaUsarTimeoutMaximo() {
+        ResilienciaDownstream resiliencia = resiliencia(false, 10);
+
+        assertEquals(Duration.ofMillis(500), resiliencia.timeout());
+        StepVerifier.create(resiliencia.proteger(() -> Mono.delay(Duration.ofSeconds(5)).thenReturn("tarde")))
+                .expectError(TimeoutException.class)
+                .verify(Duration.ofSeconds(2));
+    }
+
+    @Test
+    void proteger_conLatenciasBajas_deberiaAjustarTimeoutAlMinimo() {
+        ResilienciaDownstream resiliencia = resiliencia(false, 10);
+        registrarMuestras(resiliencia);
+
+        assertEquals(Duration.ofMillis(100), resiliencia.timeout());
+        assertNull(resiliencia.retrasoHedging());
+    }
+
+    @Test
+    void proteger_conHedging_deberiaResponderConElSegundoIntento() {
+        ResilienciaDownstream resiliencia = resiliencia(true, 10);
+        registrarMuestras(resiliencia);
+        AtomicInteger intentos = new AtomicInteger();
+
+        StepVerifier.create(resiliencia.proteger(() -> intentos.incrementAndGet() == 1
+                        ? Mono.never()
+                        : Mono.just("segundo")))
+                .expectNext("segundo")
+                .verifyComplete();
+
+        assertEquals(Duration.ofMillis(20), resiliencia.retrasoHedging());
+        assertEquals(2, intentos.get());
+        assertEquals(1.0, meterRegistry.get("bff.downstream.hedging").counter().count());
+    }
+
+    @Test
+    void proteger_hedgeRechazadoPorElBulkhead_deberiaResponderConElPrimero() {
+        ResilienciaDownstream resiliencia = resiliencia(true, 1);
+        registrarMuestras(resiliencia);
+        AtomicInteger intentos = new AtomicInteger();
+
+        // El primero ocupa el único hueco del bulkhead y responde después de lanzarse el hedge
+        StepVerifier.create(resiliencia.proteger(() -> intentos.incrementAndGet() == 1
+                        ? Mono.delay(Duration.ofMillis(60)).thenReturn("primero")
+                        : Mono.just("segundo")))
+                .expectNext("primero")
+                .verifyComplete();
+
+        assertEquals(1, intentos.get());
+        assertEquals(1.0, meterRegistry.get("bff.downstream.hedging").counter().count());
+    }
+
+    @Test
+    void proteger_hedgeRechazadoPorElLimite_deberiaResponderConElPrimero() {
+        limite = new LimiteAdaptativo("productos", 1, 1, 1, meterRegistry);
+        ResilienciaDownstream resiliencia = resiliencia(true, 10);
+        registrarMuestras(resiliencia);
+
+        StepVerifier.create(resiliencia.proteger(() -> Mono.delay(Duration.ofMillis(60)).thenReturn("primero")))
+                .expectNext("primero")
+                .verifyComplete();
+
+        assertEquals(0, limite.enVuelo());
+    }
+
+    @Test
+    void proteger_fallanLosDosIntentos_deberiaPropagarElErrorDelPrimero() {
+        ResilienciaDownstream resiliencia = resiliencia(true, 1);
+        registrarMuestras(resiliencia);
+
+        StepVerifier.create(resiliencia.proteger(() -> Mono.delay(Duration.ofMillis(60))
+                        .then(Mono.error(WebClientResponseException.create(HttpStatus.NOT_FOUND.value(),
+                                "Not Found", null, null, null)))))
+                .expectError(WebClientResponseException.NotFound.class)
+                .verify();
+    }
+
+    @Test
+    void proteger_respuestaVaciaConHedging_deberiaCompletarVacio() {
+        ResilienciaDownstream resiliencia = resiliencia(true, 10);
+        registrarMuestras(resiliencia);
+        AtomicInteger intentos = new AtomicInteger();
+
+        StepVerifier.create(resiliencia.proteger(() -> {
+                    intentos.incrementAndGet();
+                    return Mono.<String>empty();
+                }))
+                .verifyComplete();
+
+        assertEquals(1, intentos.get());
+    }
+
+    @Test
+    void proteger_respuestaCorrecta_deberiaMarcarLaPeticionDeEntrada() {
+        MarcaDownstream marca = new MarcaDownstream();
+
+        StepVerifier.create(resiliencia(false, 10).proteger(() -> Mono.just("ok")).contextWrite(marca::escribir))
+                .expectNext("ok")
+                .verifyComplete();
+
+        assertTrue(marca.respondido());
+    }
+
+    @Test
+    void proteger_error_noDeberiaMarcarLaPeticionDeEntrada() {
+        MarcaDownstream marca = new MarcaDownstream();
+        WebClientResponseException noEncontrado = WebClientResponseException.create(
+                HttpStatus.NOT_FOUND.value(), "Not Found", null, null, null);
+
+        StepVerifier.create(resiliencia(false, 10).proteger(() -> Mono.<String>error(noEncontrado))
+                        .contextWrite(marca::escribir))
+                .expectError(WebClientResponseException.NotFound.class)
+                .verify();
+
+        assertFalse(marca.respondido());
+        assertFalse(marca.saturado());
+    }
+
+    @Test
+    void proteger_falloDelServicio_deberiaMarcarLaPeticionComoSaturada() {
+        MarcaDownstream marca = new MarcaDownstream();
+        WebClientResponseException noDisponible = WebClientResponseException.create(
+                HttpStatus.SERVICE_UNAVAILABLE.value(), "Service Unavailable", null, null, null);
+
+        StepVerifier.create(resiliencia(false, 10).proteger(() -> Mono.<String>error(noDisponible))
+                        .contextWrite(marca::escribir))
+                .expectError(WebClientResponseException.ServiceUnavailable.class)
+                .verify();
+
+        assertFalse(marca.respondido());
+        assertTrue(marca.saturado());
+    }
+
+    @Test
+    void proteger_timeout_deberiaMarcarLaPeticionComoSaturada() {
+        MarcaDownstream marca = new MarcaDownstream();
+
+        StepVerifier.create(resiliencia(false, 10).proteger(() -> Mono.<String>never())
+                        .contextWrite(marca::escribir))
+                .expectError(TimeoutException.class)
+                .verify(Duration.ofSeconds(5));
+
+        assertTrue(marca.saturado());
+    }
+
+    @Test
+    void protegerLote_bulkheadLleno_deberiaMarcarLaPeticionComoSaturada() {
+        ResilienciaDownstream resiliencia = resiliencia(false, 0);
+        MarcaDownstream marca = new MarcaDownstream();
+
+        StepVerifier.create(resiliencia.protegerLote(Flux.just("a")).contextWrite(marca::escribir))
+                .expectError(BulkheadFullException.class)
+                .verify();
+
+        assertTrue(marca.saturado());
+    }
+
+    @Test
+    void protegerLote_completado_deberiaMarcarLaPeticionDeEntrada() {
+        MarcaDownstream marca = new MarcaDownstream();
+
+        StepVerifier.create(resiliencia(false, 10).protegerLote(Flux.just("a", "b")).contextWrite(marca::escribir))
+                .expectNext("a", "b")
+                .verifyComplete();
+
+        assertTrue(marca.respondido());
+    }
+
+    @Test
+    void proteger_circuitoAbierto_deberiaFallarSinLlamar() {
+        ResilienciaDownstream resiliencia = resiliencia(false, 10);
+        AtomicInteger llamadas = new AtomicInteger();
+        IntStream.range(0, 5).forEach(i -> StepVerifier.create(resiliencia.proteger(() -> {
+                    llamadas.incrementAndGet();
+                    return Mono.error(WebClientResponseException.create(HttpStatus.SERVICE_UNAVAILABLE.value(),
+                            "Service Unavailable", null, null, null));
+                }))
+                .expectError(WebClientResponseException.class)
+                .verify());
+
+        StepVerifier.create(resiliencia.proteger(() -> {
+                    llamadas.incrementAndGet();
+                    return Mono.just("ok");
+                }))
+                .expectError(CallNotPermittedException.class)
+                .verify();
+        assertEquals(5, llamadas.get());
+    }
+
+    @Test
+    void proteger_respuestas4xx_noDeberianAbrirElCircuito() {
+        ResilienciaDownstream resiliencia = resiliencia(false, 10);
+        IntStream.range(0, 10).forEach(i -> StepVerifier.create(resiliencia.proteger(() ->
+                        Mono.error(WebClientResponseException.create(HttpStatus.NOT_FOUND.value(),
+                                "Not Found", null, null, null))))
+                .expectError(WebClientResponseException.NotFound.class)
+                .verify());
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void proteger_bulkheadLleno_deberiaRechazarSinContarComoFallo() {
+        ResilienciaDownstream resiliencia = resiliencia(false, 1);
+        resiliencia.proteger(Mono::never).subscribe(valor -> { }, error -> { });
+
+        StepVerifier.create(resiliencia.proteger(() -> Mono.just("ok")))
+                .expectError(BulkheadFullException.class)
+                .verify();
+        assertEquals(0, circuitBreaker.getMetrics().getNumberOfFailedCalls());
+        assertFalse(new FalloDownstream().test(BulkheadFullException.createBulkheadFullException(
+                Bulkhead.ofDefaults("otro"))));
+        assertTrue(new FalloDownstream().test(new TimeoutException()));
+    }
+
+    @Test
+    void proteger_limiteDeConcurrenciaAlcanzado_deberiaRechazarSinAbrirElCircuito() {
+        limite = new LimiteAdaptativo("productos", 1, 1, 1, meterRegistry);
+        ResilienciaDownstream resiliencia = resiliencia(false, 10);
+        resiliencia.proteger(Mono::never).subscribe(valor -> { }, error -> { });
+
+        StepVerifier.create(resiliencia.proteger(() -> Mono.just("ok")))
+                .expectError(LimiteConcurrenciaException.class)
+                .verify();
+        assertEquals(0, circuitBreaker.getMetrics().getNumberOfFailedCalls());
+        assertEquals(1, limite.enVuelo());
+    }
+}
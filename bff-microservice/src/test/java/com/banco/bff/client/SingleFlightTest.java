@@ -0,0 +1,96 @@
+package com.banco.bff.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SingleFlightTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SingleFlight singleFlight;
+    private AtomicInteger llamadas;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        singleFlight = new SingleFlight(meterRegistry);
+        llamadas = new AtomicInteger();
+    }
+
+    private Mono<String> llamadaLenta() {
+        return Mono.fromSupplier(() -> "respuesta-" + llamadas.incrementAndGet())
+                .delayElement(Duration.ofMillis(100));
+    }
+
+    @Test
+    void ejecutar_llamadasConcurrentes_deberianCompartirUnaSola() {
+        Flux<String> concurrentes = Flux.range(0, 10)
+                .flatMap(i -> singleFlight.ejecutar("cliente", "/api/clientes/CLI001", this::llamadaLenta));
+
+        StepVerifier.create(concurrentes)
+                .expectNextCount(10)
+                .verifyComplete();
+
+        assertEquals(1, llamadas.get());
+        assertEquals(9.0, meterRegistry.get("bff.singleflight.llamadas")
+                .tag("resultado", "coalescida").counter().count());
+    }
+
+    @Test
+    void constructor_deberiaRegistrarLosContadoresAntesDeLaPrimeraLlamada() {
+        assertEquals(4, meterRegistry.find("bff.singleflight.llamadas").counters().size());
+
+        StepVerifier.create(singleFlight.ejecutar("productos", "productos:CLI001", this::llamadaLenta))
+                .expectNext("respuesta-1")
+                .verifyComplete();
+
+        assertEquals(4, meterRegistry.find("bff.singleflight.llamadas").counters().size());
+        assertEquals(1.0, meterRegistry.get("bff.singleflight.llamadas")
+                .tag("servicio", "productos").tag("resultado", "ejecutada").counter().count());
+    }
+
+    @Test
+    void ejecutar_trasCompletar_deberiaLlamarDeNuevo() {
+        StepVerifier.create(singleFlight.ejecutar("cliente", "/api/clientes/CLI001", this::llamadaLenta))
+                .expectNext("respuesta-1")
+                .verifyComplete();
+        StepVerifier.create(singleFlight.ejecutar("cliente", "/api/clientes/CLI001", this::llamadaLenta))
+                .expectNext("respuesta-2")
+                .verifyComplete();
+
+        assertEquals(2, llamadas.get());
+    }
+
+    @Test
+    void ejecutar_desdeLaRespuestaAnterior_noDeberiaUnirseALaLlamadaTerminada() {
+        // El suscriptor vuelve a pedir la misma clave al recibir la respuesta, antes de que
+        // la llamada compartida haya propagado su señal terminal
+        Mono<String> encadenada = singleFlight.ejecutar("cliente", "/api/clientes/CLI001", this::llamadaLenta)
+                .flatMap(respuesta -> singleFlight.ejecutar("cliente", "/api/clientes/CLI001", this::llamadaLenta));
+
+        StepVerifier.create(encadenada)
+                .expectNext("respuesta-2")
+                .verifyComplete();
+
+        assertEquals(2, llamadas.get());
+    }
+
+    @Test
+    void ejecutar_clavesDistintas_noDeberianCompartirse() {
+        StepVerifier.create(Mono.zip(
+                        singleFlight.ejecutar("cliente", "/api/clientes/CLI001", this::llamadaLenta),
+                        singleFlight.ejecutar("cliente", "/api/clientes/CLI002", this::llamadaLenta)))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        assertEquals(2, llamadas.get());
+    }
+}
@@ -0,0 +1,159 @@
+package com.banco.bff.concurrencia;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LimiteAdaptativoTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    /**
+     * Adquiere todos los huecos del límite y los libera tras esperar la latencia indicada
+     */
+    private static void ronda(LimiteAdaptativo limite, long latenciaNanos, boolean descarte) {
+        List<LimiteAdaptativo.Permiso> permisos = new ArrayList<>();
+        LimiteAdaptativo.Permiso permiso;
+        while ((permiso = limite.adquirir()) != null) {
+            permisos.add(permiso);
+        }
+        LockSupport.parkNanos(latenciaNanos);
+        permisos.forEach(p -> {
+            if (descarte) {
+                p.descarte();
+            } else {
+                p.exito();
+            }
+        });
+    }
+
+    @Test
+    void adquirir_porEncimaDelLimite_deberiaRechazar() {
+        LimiteAdaptativo limite = new LimiteAdaptativo("prueba", 2, 1, 10, Duration.ZERO, meterRegistry);
+
+        assertNotNull(limite.adquirir());
+        assertNotNull(limite.adquirir());
+        assertNull(limite.adquirir());
+        assertEquals(2, limite.enVuelo());
+        assertEquals(1.0, meterRegistry.get("bff.concurrencia.rechazadas").counter().count());
+    }
+
+    @Test
+    void permiso_liberadoDosVeces_deberiaDescontarUnaSolaVez() {
+        LimiteAdaptativo limite = new LimiteAdaptativo("prueba", 2, 1, 10, Duration.ZERO, meterRegistry);
+        LimiteAdaptativo.Permiso permiso = limite.adquirir();
+
+        permiso.exito();
+        permiso.ignorar();
+
+        assertEquals(0, limite.enVuelo());
+    }
+
+    @Test
+    void muestra_conLatenciaEstable_deberiaSubirElLimite() {
+        LimiteAdaptativo limite = new LimiteAdaptativo("prueba", 10, 1, 100, Duration.ZERO, meterRegistry);
+
+        for (int i = 0; i < 5; i++) {
+            ronda(limite, 1_000_000, false);
+        }
+
+        assertTrue(limite.limite() > 10, "límite: " + limite.limite());
+    }
+
+    @Test
+    void muestra_conLatenciaCreciente_deberiaBajarElLimite() {
+        LimiteAdaptativo limite = new LimiteAdaptativo("prueba", 50, 1, 100, Duration.ZERO, meterRegistry);
+        for (int i = 0; i < 3; i++) {
+            ronda(limite, 1_000_000, false);
+        }
+        int inicial = limite.limite();
+
+        ronda(limite, 20_000_000, false);
+
+        assertTrue(limite.limite() < inicial, "límite: " + limite.limite() + ", inicial: " + inicial);
+    }
+
+    @Test
+    void muestra_trasUnaVentanaCasiInstantanea_noDeberiaQuedarAnclada() {
+        LimiteAdaptativo limite = new LimiteAdaptativo("prueba", 20, 1, 100, Duration.ZERO, meterRegistry);
+        for (int i = 0; i < 5; i++) {
+            ronda(limite, 5_000_000, false);
+        }
+        // Un 401 o un acierto de cache que se colara como muestra: rtt de microsegundos
+        ronda(limite, 0, false);
+        int trasLaVentanaRapida = limite.limite();
+
+        for (int i = 0; i < 5; i++) {
+            ronda(limite, 5_000_000, false);
+        }
+
+        assertTrue(limite.limite() > trasLaVentanaRapida,
+                "límite: " + limite.limite() + ", tras la ventana rápida: " + trasLaVentanaRapida);
+    }
+
+    @Test
+    void muestra_conDescartes_deberiaBajarHastaElMinimo() {
+        LimiteAdaptativo limite = new LimiteAdaptativo("prueba", 20, 2, 100, Duration.ZERO, meterRegistry);
+
+        for (int i = 0; i < 50; i++) {
+            ronda(limite, 0, true);
+        }
+
+        assertEquals(2, limite.limite());
+    }
+
+    @Test
+    void muestra_desdeVariosHilos_deberiaLiberarTodosLosHuecosYRespetarLosTopes() throws Exception {
+        LimiteAdaptativo limite = new LimiteAdaptativo("prueba", 20, 2, 40, Duration.ZERO, meterRegistry);
+        int hilos = 8;
+        CountDownLatch salida = new CountDownLatch(1);
+        ExecutorService ejecutor = Executors.newFixedThreadPool(hilos);
+        try {
+            for (int h = 0; h < hilos; h++) {
+                int hilo = h;
+                ejecutor.submit(() -> {
+                    salida.await();
+                    for (int i = 0; i < 5_000; i++) {
+                        LimiteAdaptativo.Permiso permiso = limite.adquirir();
+                        if (permiso == null) {
+                            continue;
+                        }
+                        if ((i + hilo) % 50 == 0) {
+                            permiso.descarte();
+                        } else {
+                            permiso.exito();
+                        }
+                    }
+                    return null;
+                });
+            }
+            salida.countDown();
+            ejecutor.shutdown();
+            assertTrue(ejecutor.awaitTermination(30, TimeUnit.SECONDS));
+        } finally {
+            ejecutor.shutdownNow();
+        }
+
+        assertEquals(0, limite.enVuelo());
+        assertTrue(limite.limite() >= 2 && limite.limite() <= 40, "límite: " + limite.limite());
+    }
+}
@@ -0,0 +1,111 @@
+package com.banco.bff.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CachingReactiveJwtDecoderTest {
+
+    private static final Instant INICIO = Instant.parse("2026-01-01T10:00:00Z");
+
+    private RelojAjustable reloj;
+    private AtomicInteger verificaciones;
+    private CachingReactiveJwtDecoder decoder;
+
+    @BeforeEach
+    void setUp() {
+        reloj = new RelojAjustable(INICIO);
+        verificaciones = new AtomicInteger();
+        ReactiveJwtDecoder delegate = token -> {
+            verificaciones.incrementAndGet();
+            if (token.startsWith("invalido")) {
+                return Mono.error(new BadJwtException("Firma inválida"));
+            }
+            return Mono.just(Jwt.withTokenValue(token)
+                    .header("alg", "HS256")
+                    .subject("testuser")
+                    .issuedAt(INICIO)
+                    .expiresAt(INICIO.plusSeconds(60))
+                    .build());
+        };
+        decoder = new CachingReactiveJwtDecoder(delegate, 100, Duration.ofMinutes(5),
+                new SimpleMeterRegistry(), reloj);
+    }
+
+    @Test
+    void decode_tokenRepetido_noDeberiaVerificarDeNuevo() {
+        StepVerifier.create(decoder.decode("token-a")).expectNextCount(1).verifyComplete();
+        StepVerifier.create(decoder.decode("token-a"))
+                .expectNextMatches(jwt -> "testuser".equals(jwt.getSubject()))
+                .verifyComplete();
+
+        assertEquals(1, verificaciones.get());
+    }
+
+    @Test
+    void decode_tokensDistintos_deberianVerificarseCadaUno() {
+        StepVerifier.create(decoder.decode("token-a")).expectNextCount(1).verifyComplete();
+        StepVerifier.create(decoder.decode("token-b")).expectNextCount(1).verifyComplete();
+
+        assertEquals(2, verificaciones.get());
+    }
+
+    @Test
+    void decode_trasExpirar_deberiaDelegarDeNuevo() {
+        StepVerifier.create(decoder.decode("token-a")).expectNextCount(1).verifyComplete();
+        reloj.avanzar(Duration.ofSeconds(61));
+        StepVerifier.create(decoder.decode("token-a")).expectNextCount(1).verifyComplete();
+
+        assertEquals(2, verificaciones.get());
+    }
+
+    @Test
+    void decode_tokenRechazado_noDeberiaCachearse() {
+        StepVerifier.create(decoder.decode("invalido")).expectError(BadJwtException.class).verify();
+        StepVerifier.create(decoder.decode("invalido")).expectError(BadJwtException.class).verify();
+
+        assertEquals(2, verificaciones.get());
+    }
+
+    private static class RelojAjustable extends Clock {
+
+        private Instant ahora;
+
+        RelojAjustable(Instant ahora) {
+            this.ahora = ahora;
+        }
+
+        void avanzar(Duration duracion) {
+            ahora = ahora.plus(duracion);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return ahora;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.banco.bff.config;
+
+import com.banco.bff.concurrencia.MarcaDownstream;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+import reactor.util.context.Context;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LimiteConcurrenciaFilterTest {
+
+    private LimiteConcurrenciaFilter filtro;
+    private Sinks.Empty<Void> pendiente;
+    private WebFilterChain cadenaPendiente;
+
+    @BeforeEach
+    void setUp() {
+        filtro = new LimiteConcurrenciaFilter(new SimpleMeterRegistry(), true, Duration.ofSeconds(2),
+                1, 1, 1, 1, 1, 1);
+        pendiente = Sinks.empty();
+        cadenaPendiente = exchange -> pendiente.asMono();
+    }
+
+    private static MockServerWebExchange peticion(String ruta) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(ruta));
+    }
+
+    @Test
+    void filter_limiteAlcanzado_deberiaResponder503ConRetryAfter() {
+        filtro.filter(peticion("/api/clientes/abc"), cadenaPendiente).subscribe();
+
+        MockServerWebExchange rechazada = peticion("/api/clientes/def");
+        StepVerifier.create(filtro.filter(rechazada, exchange -> Mono.empty())).verifyComplete();
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, rechazada.getResponse().getStatusCode());
+        assertEquals("2", rechazada.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void filter_clasesDistintas_noDeberianCompartirLimite() {
+        filtro.filter(peticion("/api/clientes/abc"), cadenaPendiente).subscribe();
+
+        MockServerWebExchange login = peticion("/api/auth/login");
+        StepVerifier.create(filtro.filter(login, exchange -> Mono.empty())).verifyComplete();
+        MockServerWebExchange lote = peticion("/api/clientes/lote");
+        StepVerifier.create(filtro.filter(lote, exchange -> Mono.empty())).verifyComplete();
+
+        assertNull(login.getResponse().getStatusCode());
+        assertNull(lote.getResponse().getStatusCode());
+    }
+
+    @Test
+    void filter_deshabilitado_noDeberiaCrearLimitesNiRechazar() {
+        SimpleMeterRegistry registro = new SimpleMeterRegistry();
+        LimiteConcurrenciaFilter deshabilitado = new LimiteConcurrenciaFilter(registro, false,
+                Duration.ofSeconds(2), 1, 1, 1, 1, 1, 1);
+        deshabilitado.filter(peticion("/api/clientes/abc"), cadenaPendiente).subscribe();
+
+        MockServerWebExchange segunda = peticion("/api/clientes/def");
+        StepVerifier.create(deshabilitado.filter(segunda, exchange -> Mono.empty())).verifyComplete();
+
+        assertNull(segunda.getResponse().getStatusCode());
+        assertTrue(registro.getMeters().isEmpty());
+    }
+
+    @Test
+    void filter_alTerminar_deberiaLiberarElHueco() {
+        filtro.filter(peticion("/api/clientes/abc"), cadenaPendiente).subscribe();
+        pendiente.tryEmitEmpty();
+
+        MockServerWebExchange siguiente = peticion("/api/clientes/def");
+        StepVerifier.create(filtro.filter(siguiente, exchange -> Mono.empty())).verifyComplete();
+
+        assertNull(siguiente.getResponse().getStatusCode());
+    }
+
+    @Test
+    void filter_rutasNoLimitadas_noDeberianRechazarse() {
+        filtro.filter(peticion("/api/clientes/abc"), cadenaPendiente).subscribe();
+        filtro.filter(peticion("/actuator/health"), cadenaPendiente).subscribe();
+
+        MockServerWebExchange health = peticion("/actuator/health");
+        StepVerifier.create(filtro.filter(health, exchange -> Mono.empty())).verifyComplete();
+
+        assertNull(health.getResponse().getStatusCode());
+    }
+
+    @Test
+    void esDescarte_503o504TrasSaturarseElDownstream_deberiaBajarElLimite() {
+        MockServerWebExchange sinCapacidad = peticion("/api/clientes/abc");
+        sinCapacidad.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        MockServerWebExchange timeout = peticion("/api/clientes/lote");
+        timeout.getResponse().setStatusCode(HttpStatus.GATEWAY_TIMEOUT);
+
+        assertTrue(filtro.esDescarte(sinCapacidad, saturada()));
+        assertTrue(filtro.esDescarte(timeout, saturada()));
+        assertFalse(filtro.esMuestra(sinCapacidad, saturada()));
+    }
+
+    @Test
+    void esDescarte_sinSaturacionODegradada_noDeberiaBajarElLimite() {
+        MockServerWebExchange errorInterno = peticion("/api/clientes/abc");
+        errorInterno.getResponse().setStatusCode(HttpStatus.INTERNAL_SERVER_ERROR);
+        MockServerWebExchange degradada = peticion("/api/clientes/abc");
+        degradada.getResponse().setStatusCode(HttpStatus.OK);
+
+        assertFalse(filtro.esDescarte(errorInterno, marcada()));
+        assertFalse(filtro.esDescarte(degradada, saturada()));
+    }
+
+    private static MarcaDownstream saturada() {
+        MarcaDownstream marca = new MarcaDownstream();
+        MarcaDownstream.marcarSaturado(marca.escribir(Context.empty()));
+        return marca;
+    }
+
+    private static MarcaDownstream marcada() {
+        MarcaDownstream marca = new MarcaDownstream();
+        MarcaDownstream.marcar(marca.escribir(Context.empty()));
+        return marca;
+    }
+
+    @Test
+    void esMuestra_respuestaDeDownstream_deberiaAlimentarElLimite() {
+        MockServerWebExchange consulta = peticion("/api/clientes/abc");
+        consulta.getResponse().setStatusCode(HttpStatus.OK);
+
+        assertTrue(filtro.esMuestra(consulta, marcada()));
+    }
+
+    @Test
+    void esMuestra_respuestasResueltasEnElBff_noDeberianAlimentarElLimite() {
+        MockServerWebExchange noAutorizada = peticion("/api/clientes/abc");
+        noAutorizada.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+        MockServerWebExchange aciertoDeCache = peticion("/api/clientes/abc");
+        aciertoDeCache.getResponse().setStatusCode(HttpStatus.OK);
+
+        assertFalse(filtro.esMuestra(noAutorizada, marcada()));
+        assertFalse(filtro.esMuestra(aciertoDeCache, new MarcaDownstream()));
+    }
+
+    @Test
+    void esMuestra_loginCorrecto_deberiaAlimentarElLimiteSinDownstream() {
+        MockServerWebExchange login = peticion("/api/auth/login");
+        login.getResponse().setStatusCode(HttpStatus.OK);
+
+        assertTrue(filtro.esMuestra(login, new MarcaDownstream()));
+    }
+}
@@ -0,0 +1,85 @@
+package com.banco.bff.config;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Hooks;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+import reactor.util.context.Context;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MdcContextPropagationTest {
+
+    private static final int PETICIONES = 500;
+
+    @BeforeAll
+    static void habilitarPropagacion() {
+        MdcContextPropagationConfig.registrar();
+        Hooks.enableAutomaticContextPropagation();
+    }
+
+    @AfterAll
+    static void deshabilitarPropagacion() {
+        Hooks.disableAutomaticContextPropagation();
+    }
+
+    /**
+     * Simula una petición del BFF: dos llamadas "downstream" en schedulers distintos, zip e
+     * integración; en cada paso se lee el MDC del hilo que entrega la señal
+     */
+    private Mono<List<String>> peticion(String trackingId) {
+        Mono<String> cliente = Mono.delay(Duration.ofMillis(ThreadLocalRandom.current().nextInt(5)))
+                .map(tick -> MDC.get(ReactiveTrackingFilter.TRACKING_ID));
+        Mono<String> productos = Mono.fromCallable(() -> MDC.get(ReactiveTrackingFilter.TRACKING_ID))
+                .subscribeOn(Schedulers.boundedElastic());
+
+        return Mono.zip(cliente, productos)
+                .publishOn(Schedulers.parallel())
+                .map(tuple -> List.of(tuple.getT1(), tuple.getT2(), MDC.get(ReactiveTrackingFilter.TRACKING_ID)))
+                .contextWrite(Context.of(ReactiveTrackingFilter.TRACKING_ID, trackingId));
+    }
+
+    @Test
+    void peticionesConcurrentes_noDeberianVerTrackingIdAjeno() {
+        Flux<Boolean> resultados = Flux.range(0, PETICIONES)
+                .flatMap(i -> {
+                    String trackingId = "tracking-" + i;
+                    return peticion(trackingId)
+                            .map(vistos -> vistos.stream().allMatch(trackingId::equals));
+                }, 64);
+
+        StepVerifier.create(resultados.all(Boolean::booleanValue))
+                .expectNext(true)
+                .verifyComplete();
+    }
+
+    @Test
+    void alTerminar_noDeberiaQuedarTrackingIdEnElHilo() {
+        List<String> restantes = Flux.range(0, PETICIONES)
+                .flatMap(i -> peticion("tracking-" + i), 64)
+                .then(Mono.fromCallable(() -> String.valueOf(MDC.get(ReactiveTrackingFilter.TRACKING_ID))))
+                .flux()
+                .concatWith(Flux.range(0, Schedulers.DEFAULT_POOL_SIZE)
+                        .parallel()
+                        .runOn(Schedulers.parallel())
+                        .map(i -> String.valueOf(MDC.get(ReactiveTrackingFilter.TRACKING_ID)))
+                        .sequential())
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        assertTrue(restantes != null && !restantes.isEmpty());
+        restantes.forEach(valor -> assertEquals("null", valor));
+        assertNull(MDC.get(ReactiveTrackingFilter.TRACKING_ID));
+    }
+}
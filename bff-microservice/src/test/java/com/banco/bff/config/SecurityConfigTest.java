@@ -0,0 +1,53 @@
+package com.banco.bff.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+
+/**
+ * Endpoints de actuator e invalidación de cache con la configuración de seguridad real: el estado
+ * es público, las métricas piden JWT y la invalidación solo el X-Cache-Token
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "bff.cache.invalidation-token=token-de-prueba")
+class SecurityConfigTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void health_sinToken_deberiaSerPublico() {
+        webTestClient.get().uri("/actuator/health")
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    @Test
+    void prometheusYMetrics_sinToken_deberianRetornar401() {
+        webTestClient.get().uri("/actuator/prometheus")
+                .exchange()
+                .expectStatus().isUnauthorized();
+        webTestClient.get().uri("/actuator/metrics")
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    @Test
+    void invalidaciones_sinJwt_deberianAceptarSoloElTokenDeCache() {
+        webTestClient.post().uri("/api/cache/clientes/invalidaciones")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(List.of("CLI001", "CLI002"))
+                .exchange()
+                .expectStatus().isForbidden();
+        webTestClient.post().uri("/api/cache/clientes/invalidaciones")
+                .header("X-Cache-Token", "token-de-prueba")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(List.of("CLI001", "CLI002"))
+                .exchange()
+                .expectStatus().isNoContent();
+    }
+}
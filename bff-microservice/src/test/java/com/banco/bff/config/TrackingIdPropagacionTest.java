@@ -0,0 +1,142 @@
+package com.banco.bff.config;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.banco.bff.dto.ClienteDTO;
+import com.banco.bff.util.EncryptionUtil;
+import com.banco.bff.util.JwtUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Petición real por ReactiveTrackingFilter → BffController → WebClient contra cliente y productos
+ * simulados: el trackingId llega a los servicios downstream en X-Tracking-Id y está en el MDC del
+ * log de acceso, que se escribe en el hilo del WebClient y no en el de la petición
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class TrackingIdPropagacionTest {
+
+    private static final Map<String, String> recibidos = new ConcurrentHashMap<>();
+    private static DisposableServer downstream;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private EncryptionUtil encryptionUtil;
+
+    private ListAppender<ILoggingEvent> acceso;
+
+    @BeforeAll
+    static void arrancarDownstream() throws Exception {
+        String cliente = new ObjectMapper().writeValueAsString(
+                new ClienteDTO(1L, "CLI777", "Juan", "Pérez", "CC", "1234567890", "ACTIVO"));
+        downstream = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .route(rutas -> rutas
+                        .get("/cliente/api/clientes/{codigo}", (peticion, respuesta) -> {
+                            recibidos.put("cliente", peticion.requestHeaders().get(ReactiveTrackingFilter.HEADER, ""));
+                            return respuesta.header("Content-Type", "application/json")
+                                    .sendString(Mono.just(cliente), StandardCharsets.UTF_8);
+                        })
+                        .get("/productos/api/productos/cliente/{codigo}", (peticion, respuesta) -> {
+                            recibidos.put("productos", peticion.requestHeaders().get(ReactiveTrackingFilter.HEADER, ""));
+                            return respuesta.header("Content-Type", "application/json")
+                                    .sendString(Mono.just("[]"));
+                        }))
+                .bindNow();
+    }
+
+    @AfterAll
+    static void detenerDownstream() {
+        downstream.disposeNow();
+    }
+
+    @DynamicPropertySource
+    static void urlsDownstream(DynamicPropertyRegistry registry) {
+        registry.add("cliente.service.url", () -> "http://127.0.0.1:" + downstream.port() + "/cliente");
+        registry.add("productos.service.url", () -> "http://127.0.0.1:" + downstream.port() + "/productos");
+        registry.add("bff.cache.enabled", () -> "false");
+    }
+
+    @BeforeEach
+    void capturarAcceso() {
+        recibidos.clear();
+        acceso = new ListAppender<>();
+        acceso.start();
+        ((Logger) LoggerFactory.getLogger("com.banco.bff.acceso")).addAppender(acceso);
+    }
+
+    @AfterEach
+    void liberarAcceso() {
+        ((Logger) LoggerFactory.getLogger("com.banco.bff.acceso")).detachAppender(acceso);
+    }
+
+    private WebTestClient.ResponseSpec consultar(String trackingId) {
+        WebTestClient.RequestHeadersSpec<?> peticion = webTestClient.get()
+                .uri("/api/clientes/{codigo}", encryptionUtil.encrypt("CLI777"))
+                .headers(headers -> headers.setBearerAuth(jwtUtil.generateToken("tracking-test")));
+        if (trackingId != null) {
+            peticion = peticion.header(ReactiveTrackingFilter.HEADER, trackingId);
+        }
+        return peticion.exchange().expectStatus().isOk();
+    }
+
+    private String trackingIdDelAcceso() {
+        List<ILoggingEvent> eventos = acceso.list;
+        assertEquals(1, eventos.size());
+        return eventos.get(0).getMDCPropertyMap().get(ReactiveTrackingFilter.TRACKING_ID);
+    }
+
+    @Test
+    void trackingIdRecibido_deberiaLlegarADownstreamYAlMdc() {
+        consultar("tracking-propagacion-1")
+                .expectHeader().valueEquals(ReactiveTrackingFilter.HEADER, "tracking-propagacion-1")
+                .expectBody().jsonPath("$.trackingId").isEqualTo("tracking-propagacion-1");
+
+        assertEquals("tracking-propagacion-1", recibidos.get("cliente"));
+        assertEquals("tracking-propagacion-1", recibidos.get("productos"));
+        assertEquals("tracking-propagacion-1", trackingIdDelAcceso());
+    }
+
+    @Test
+    void sinTrackingId_elGeneradoDeberiaSerElMismoEnRespuestaDownstreamYMdc() {
+        String generado = consultar(null)
+                .returnResult(String.class)
+                .getResponseHeaders()
+                .getFirst(ReactiveTrackingFilter.HEADER);
+
+        assertNotNull(generado);
+        assertFalse(generado.isEmpty());
+        assertEquals(generado, recibidos.get("cliente"));
+        assertEquals(generado, recibidos.get("productos"));
+        assertEquals(generado, trackingIdDelAcceso());
+    }
+}
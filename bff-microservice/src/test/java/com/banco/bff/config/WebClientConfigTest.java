@@ -0,0 +1,80 @@
+package com.banco.bff.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.test.StepVerifier;
+import reactor.util.context.Context;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class WebClientConfigTest {
+
+    private AtomicReference<ClientRequest> enviada;
+    private WebClient webClient;
+
+    @BeforeEach
+    void setUp() {
+        enviada = new AtomicReference<>();
+        webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    enviada.set(request);
+                    return Mono.just(ClientResponse.create(HttpStatus.OK).build());
+                })
+                .filter(WebClientConfig.propagarTrackingId())
+                .build();
+    }
+
+    @Test
+    void propagarTrackingId_conTrackingEnContexto_deberiaEnviarCabecera() {
+        StepVerifier.create(webClient.get().uri("http://cliente/api/clientes/CLI001")
+                        .retrieve()
+                        .toBodilessEntity()
+                        .contextWrite(Context.of(ReactiveTrackingFilter.TRACKING_ID, "abc-123")))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        assertEquals("abc-123", enviada.get().headers().getFirst(ReactiveTrackingFilter.HEADER));
+    }
+
+    @Test
+    void propagarTrackingId_sinTrackingEnContexto_noDeberiaEnviarCabecera() {
+        StepVerifier.create(webClient.get().uri("http://cliente/api/clientes/CLI001")
+                        .retrieve()
+                        .toBodilessEntity())
+                .expectNextCount(1)
+                .verifyComplete();
+
+        assertNull(enviada.get().headers().getFirst(ReactiveTrackingFilter.HEADER));
+    }
+
+    @Test
+    void httpClient_perfilH2c_deberiaUsarHttp2SinTls() {
+        WebClientConfig.PerfilTransporte perfil = WebClientConfig.PerfilTransporte.de("h2c", 500, 4, 100,
+                Duration.ofSeconds(20), Duration.ofMinutes(5), true, Duration.ofSeconds(30));
+
+        HttpClient httpClient = WebClientConfig.httpClient("prueba-h2c", perfil);
+
+        assertArrayEquals(new HttpProtocol[]{HttpProtocol.H2C}, httpClient.configuration().protocols());
+        assertEquals(4, perfil.maxConexiones());
+        assertEquals(100, perfil.maxStreams());
+    }
+
+    @Test
+    void protocolo_desconocido_deberiaFallar() {
+        assertEquals(HttpProtocol.HTTP11, WebClientConfig.PerfilTransporte.protocolo("http1"));
+        assertThrows(IllegalArgumentException.class, () -> WebClientConfig.PerfilTransporte.protocolo("h3"));
+    }
+}
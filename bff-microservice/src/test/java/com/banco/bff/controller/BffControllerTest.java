@@ -2,12 +2,15 @@ package com.banco.bff.controller;
 
 import com.banco.bff.SecurityTestConfig;
 import com.banco.bff.dto.ClienteDTO;
+import com.banco.bff.dto.ClienteProductoLoteItem;
+import com.banco.bff.dto.ClienteProductoLoteRequest;
 import com.banco.bff.dto.ClienteProductoResponse;
 import com.banco.bff.dto.ProductoDTO;
 import com.banco.bff.exception.ClienteNotFoundException;
 import com.banco.bff.service.BffService;
 import com.banco.bff.util.EncryptionUtil;
 import com.banco.bff.util.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,16 +18,18 @@ import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
 
 @WebFluxTest(BffController.class)
-@Import(SecurityTestConfig.class) // <- Opcional: importar configuración de seguridad de prueba
+@Import({SecurityTestConfig.class, SimpleMeterRegistry.class}) // Métricas para LimiteConcurrenciaFilter
 class BffControllerTest {
 
     @Autowired
@@ -61,7 +66,7 @@ class BffControllerTest {
         List<ProductoDTO> productos = List.of(
                 new ProductoDTO(1L, "CLI001", "Cuenta Ahorros", "Ahorros Plus", BigDecimal.valueOf(5000), "ACTIVO")
         );
-        ClienteProductoResponse serviceResponse = new ClienteProductoResponse(clienteDTO, productos, 1);
+        ClienteProductoResponse serviceResponse = new ClienteProductoResponse(clienteDTO, productos, 1, null);
 
         when(encryptionUtil.decrypt(codigoEncriptado)).thenReturn(codigoPuro);
         when(bffService.obtenerClienteConProductos(codigoPuro)).thenReturn(Mono.just(serviceResponse));
@@ -97,4 +102,33 @@ class BffControllerTest {
                 .expectBody()
                 .jsonPath("$.status").isEqualTo("error");
     }
-}
\ No newline at end of file
+
+    @Test
+    void obtenerClientesConProductos_lote_deberiaReportarResultadoPorCodigo() {
+        ClienteDTO clienteDTO = new ClienteDTO(1L, "CLI001", "Juan", "Pérez", "CC", "12345678", "ACTIVO");
+
+        when(encryptionUtil.decrypt("enc1")).thenReturn("CLI001");
+        doThrow(new RuntimeException("Error en desencriptación")).when(encryptionUtil).decrypt("invalido");
+        when(bffService.obtenerClientesConProductos(List.of("CLI001"))).thenReturn(Flux.just(
+                ClienteProductoLoteItem.builder()
+                        .codigo("CLI001")
+                        .estado(ClienteProductoLoteItem.OK)
+                        .cliente(clienteDTO)
+                        .productos(List.of())
+                        .cantidadProductos(0)
+                        .build()));
+
+        webTestClient.post()
+                .uri("/api/clientes/lote")
+                .header("Authorization", validToken)
+                .bodyValue(new ClienteProductoLoteRequest(List.of("enc1", "invalido")))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.total").isEqualTo(2)
+                .jsonPath("$.exitosos").isEqualTo(1)
+                .jsonPath("$.resultados[0].codigo").isEqualTo("enc1")
+                .jsonPath("$.resultados[0].cliente.codigoUnico").isEqualTo("CLI001")
+                .jsonPath("$.resultados[1].estado").isEqualTo(ClienteProductoLoteItem.ERROR);
+    }
+}
@@ -1,15 +1,20 @@
 package com.banco.bff.service;
 
+import com.banco.bff.cache.ClienteProductoCache;
 import com.banco.bff.client.ClienteClient;
 import com.banco.bff.client.ProductosClient;
 import com.banco.bff.dto.ClienteDTO;
+import com.banco.bff.dto.ClienteProductoLoteItem;
 import com.banco.bff.dto.ClienteProductoResponse;
 import com.banco.bff.dto.ProductoDTO;
 import com.banco.bff.exception.ClienteNotFoundException;
 import com.banco.bff.mapper.ClienteProductoMapper;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import reactor.core.publisher.Flux;
@@ -17,9 +22,16 @@ import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,9 +46,18 @@ class BffServiceTest {
     @Mock
     private ClienteProductoMapper mapper;
 
-    @InjectMocks
+    private SimpleMeterRegistry meterRegistry;
     private BffService bffService;
 
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ObservationRegistry observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig().observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+        ClienteProductoCache cache = new ClienteProductoCache(true, Duration.ofSeconds(30), 1_048_576, new SimpleMeterRegistry());
+        bffService = new BffService(clienteClient, productosClient, mapper, cache, observationRegistry, 2, 4, true);
+    }
+
     @Test
     void obtenerClienteConProductos_cuandoExiste_deberiaRetornarRespuesta() {
         String codigoCliente = "CLI001";
@@ -44,7 +65,7 @@ class BffServiceTest {
         List<ProductoDTO> productos = List.of(
                 new ProductoDTO(1L, "CLI001", "Cuenta Ahorros", "Ahorros Plus", BigDecimal.valueOf(5000), "ACTIVO")
         );
-        ClienteProductoResponse expectedResponse = new ClienteProductoResponse(clienteDTO, productos, 1);
+        ClienteProductoResponse expectedResponse = new ClienteProductoResponse(clienteDTO, productos, 1, null);
 
         when(clienteClient.obtenerClientePorCodigo(codigoCliente)).thenReturn(Mono.just(clienteDTO));
         when(productosClient.obtenerProductosPorCodigoCliente(codigoCliente)).thenReturn(Flux.fromIterable(productos));
@@ -53,6 +74,9 @@ class BffServiceTest {
         StepVerifier.create(bffService.obtenerClienteConProductos(codigoCliente))
                 .expectNext(expectedResponse)
                 .verifyComplete();
+
+        assertEquals(1, meterRegistry.get("bff.agregacion")
+                .tags("operacion", "individual", "resultado", "exito").timer().count());
     }
 
     @Test
@@ -66,5 +90,96 @@ class BffServiceTest {
         StepVerifier.create(bffService.obtenerClienteConProductos(codigoCliente))
                 .expectError(ClienteNotFoundException.class)
                 .verify();
+
+        assertEquals(1, meterRegistry.get("bff.agregacion")
+                .tags("operacion", "individual", "resultado", "no_encontrado").timer().count());
+    }
+
+    @Test
+    void obtenerClienteConProductos_segundaLlamada_deberiaUsarCache() {
+        String codigoCliente = "CLI002";
+        ClienteDTO clienteDTO = new ClienteDTO(2L, "CLI002", "Ana", "Gómez", "CC", "87654321", "ACTIVO");
+        ClienteProductoResponse expectedResponse = new ClienteProductoResponse(clienteDTO, List.of(), 0, null);
+
+        when(clienteClient.obtenerClientePorCodigo(codigoCliente)).thenReturn(Mono.just(clienteDTO));
+        when(productosClient.obtenerProductosPorCodigoCliente(codigoCliente)).thenReturn(Flux.empty());
+        when(mapper.toResponse(clienteDTO, List.of())).thenReturn(expectedResponse);
+
+        StepVerifier.create(bffService.obtenerClienteConProductos(codigoCliente))
+                .expectNext(expectedResponse)
+                .verifyComplete();
+        StepVerifier.create(bffService.obtenerClienteConProductos(codigoCliente))
+                .expectNext(expectedResponse)
+                .verifyComplete();
+
+        verify(clienteClient, times(1)).obtenerClientePorCodigo(codigoCliente);
+        verify(productosClient, times(1)).obtenerProductosPorCodigoCliente(codigoCliente);
+    }
+
+    @Test
+    void obtenerClientesConProductos_deberiaAgruparPorSubloteYReportarCadaCodigo() {
+        ClienteDTO cli1 = new ClienteDTO(1L, "CLI001", "Juan", "Pérez", "CC", "12345678", "ACTIVO");
+        ClienteDTO cli3 = new ClienteDTO(3L, "CLI003", "Luis", "Díaz", "CC", "11111111", "ACTIVO");
+        ProductoDTO producto = new ProductoDTO(1L, "CLI001", "Cuenta Ahorros", "Ahorros Plus", BigDecimal.valueOf(5000), "ACTIVO");
+
+        when(clienteClient.obtenerClientesPorCodigos(List.of("CLI001", "CLI002"))).thenReturn(Flux.just(cli1));
+        when(productosClient.obtenerProductosPorCodigosCliente(List.of("CLI001", "CLI002"))).thenReturn(Flux.just(producto));
+        when(clienteClient.obtenerClientesPorCodigos(List.of("CLI003"))).thenReturn(Flux.just(cli3));
+        when(productosClient.obtenerProductosPorCodigosCliente(List.of("CLI003")))
+                .thenReturn(Flux.error(new IllegalStateException("Productos MS caído")));
+        when(mapper.toResponse(any(ClienteDTO.class), anyList()))
+                .thenAnswer(inv -> new ClienteProductoResponse(inv.getArgument(0), inv.getArgument(1),
+                        ((List<?>) inv.getArgument(1)).size(), null));
+
+        StepVerifier.create(bffService.obtenerClientesConProductos(List.of("CLI001", "CLI002", "CLI003", "CLI001"))
+                        .collectMap(ClienteProductoLoteItem::getCodigo))
+                .assertNext(porCodigo -> {
+                    assertEquals(3, porCodigo.size());
+                    assertEquals(ClienteProductoLoteItem.OK, porCodigo.get("CLI001").getEstado());
+                    assertEquals(1, porCodigo.get("CLI001").getCantidadProductos());
+                    assertEquals(ClienteProductoLoteItem.NO_ENCONTRADO, porCodigo.get("CLI002").getEstado());
+                    assertEquals(ClienteProductoLoteItem.OK, porCodigo.get("CLI003").getEstado());
+                    assertEquals(0, porCodigo.get("CLI003").getCantidadProductos());
+                    assertTrue(porCodigo.get("CLI003").getDegradado());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void obtenerClientesConProductos_fallaClienteMs_deberiaReportarErrorDelSublote() {
+        when(clienteClient.obtenerClientesPorCodigos(List.of("CLI001")))
+                .thenReturn(Flux.error(new IllegalStateException("Cliente MS caído")));
+        when(productosClient.obtenerProductosPorCodigosCliente(List.of("CLI001"))).thenReturn(Flux.empty());
+
+        StepVerifier.create(bffService.obtenerClientesConProductos(List.of("CLI001")))
+                .assertNext(item -> assertEquals(ClienteProductoLoteItem.ERROR, item.getEstado()))
+                .verifyComplete();
+    }
+
+    @Test
+    void obtenerClienteConProductos_fallaProductosMs_deberiaResponderDegradadoSinCachear() {
+        String codigoCliente = "CLI004";
+        ClienteDTO clienteDTO = new ClienteDTO(4L, "CLI004", "Eva", "Ruiz", "CC", "22222222", "ACTIVO");
+
+        when(clienteClient.obtenerClientePorCodigo(codigoCliente)).thenReturn(Mono.just(clienteDTO));
+        when(productosClient.obtenerProductosPorCodigoCliente(codigoCliente))
+                .thenReturn(Flux.error(new IllegalStateException("Productos MS caído")));
+        when(mapper.toResponse(clienteDTO, List.of()))
+                .thenAnswer(inv -> new ClienteProductoResponse(clienteDTO, List.of(), 0, null));
+
+        StepVerifier.create(bffService.obtenerClienteConProductos(codigoCliente))
+                .assertNext(response -> {
+                    assertEquals(clienteDTO, response.getCliente());
+                    assertEquals(0, response.getCantidadProductos());
+                    assertTrue(response.getDegradado());
+                })
+                .verifyComplete();
+        StepVerifier.create(bffService.obtenerClienteConProductos(codigoCliente))
+                .assertNext(response -> assertTrue(response.getDegradado()))
+                .verifyComplete();
+
+        verify(productosClient, times(2)).obtenerProductosPorCodigoCliente(codigoCliente);
+        assertEquals(2, meterRegistry.get("bff.agregacion")
+                .tags("operacion", "individual", "resultado", "degradado").timer().count());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,113 @@
+package com.banco.bff.util;
+
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EncryptionUtilTest {
+
+    private static final String CLAVE = "MTIzNDU2Nzg5MDEyMzQ1Njc4OTAxMjM0NTY3ODkwMTI=";
+    private static final String CLAVE_K1 = "AAECAwQFBgcICQoLDA0ODxAREhMUFRYXGBkaGxwdHh8=";
+    private static final String CLAVE_K2 = "ICEiIyQlJicoKSorLC0uLzAxMjM0NTY3ODk6Ozw9Pj8=";
+
+    /**
+     * Cifrado tal como lo hacía la versión anterior, para comprobar compatibilidad
+     */
+    private static String cifrarComoAntes(String texto) throws Exception {
+        Cipher cipher = Cipher.getInstance("AES");
+        cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(Base64.getDecoder().decode(CLAVE), "AES"));
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(cipher.doFinal(texto.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void decrypt_codigoEmitidoPorLaVersionAnterior_deberiaSerCompatible() throws Exception {
+        EncryptionUtil util = new EncryptionUtil(CLAVE, "", "");
+
+        assertEquals("CLI001", util.decrypt(cifrarComoAntes("CLI001")));
+        assertEquals(cifrarComoAntes("CLI001"), util.encrypt("CLI001"));
+    }
+
+    @Test
+    void encrypt_conClaveGcmActiva_deberiaEmitirIdDeClaveYDescifrar() {
+        EncryptionUtil util = new EncryptionUtil(CLAVE, "k1:" + CLAVE_K1, "k1");
+
+        String cifrado = util.encrypt("CLI001");
+
+        assertTrue(cifrado.startsWith("k1."));
+        assertNotEquals(cifrado, util.encrypt("CLI001"));
+        assertEquals("CLI001", util.decrypt(cifrado));
+    }
+
+    @Test
+    void decrypt_trasRotarClave_deberiaAceptarCodigosDeLaClaveAnterior() throws Exception {
+        String emitidoConK1 = new EncryptionUtil(CLAVE, "k1:" + CLAVE_K1, "k1").encrypt("CLI001");
+        EncryptionUtil rotado = new EncryptionUtil(CLAVE, "k1:" + CLAVE_K1 + ",k2:" + CLAVE_K2, "k2");
+
+        assertEquals("CLI001", rotado.decrypt(emitidoConK1));
+        assertTrue(rotado.encrypt("CLI001").startsWith("k2."));
+        assertEquals("CLI002", rotado.decrypt(cifrarComoAntes("CLI002")));
+    }
+
+    @Test
+    void decrypt_codigoGcmAlterado_deberiaFallar() {
+        EncryptionUtil util = new EncryptionUtil(CLAVE, "k1:" + CLAVE_K1 + ",k2:" + CLAVE_K2, "k1");
+        String cifrado = util.encrypt("CLI001");
+        char original = cifrado.charAt(20);
+        String alterado = cifrado.substring(0, 20) + (original == 'A' ? 'B' : 'A') + cifrado.substring(21);
+
+        assertThrows(RuntimeException.class, () -> util.decrypt(alterado));
+        assertThrows(RuntimeException.class, () -> util.decrypt("k2" + cifrado.substring(2)));
+        assertThrows(RuntimeException.class, () -> util.decrypt("k9" + cifrado.substring(2)));
+        assertEquals("CLI001", util.decrypt(cifrado));
+    }
+
+    @Test
+    void decrypt_textoInvalido_deberiaFallarSinAfectarLlamadasPosteriores() throws Exception {
+        EncryptionUtil util = new EncryptionUtil(CLAVE, "", "");
+
+        assertThrows(RuntimeException.class, () -> util.decrypt("no es base64!"));
+        assertThrows(RuntimeException.class, () -> util.decrypt("AAAA"));
+        assertEquals("CLI001", util.decrypt(cifrarComoAntes("CLI001")));
+    }
+
+    @Test
+    void decrypt_desdeVariosHilos_deberiaSerSeguro() throws Exception {
+        EncryptionUtil util = new EncryptionUtil(CLAVE, "k1:" + CLAVE_K1, "k1");
+        List<String> codigos = IntStream.range(0, 200).mapToObj(i -> "CLI" + i).toList();
+        List<String> cifrados = codigos.stream().map(util::encrypt).toList();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<String>> tareas = IntStream.range(0, 2000)
+                    .mapToObj(i -> (Callable<String>) () -> util.decrypt(cifrados.get(i % cifrados.size())))
+                    .toList();
+            List<Future<String>> resultados = executor.invokeAll(tareas);
+            for (int i = 0; i < resultados.size(); i++) {
+                assertEquals(codigos.get(i % codigos.size()), resultados.get(i).get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void constructor_claveActivaInexistente_deberiaFallar() {
+        assertThrows(IllegalStateException.class, () -> new EncryptionUtil(CLAVE, "k1:" + CLAVE_K1, "k2"));
+        assertThrows(IllegalStateException.class, () -> new EncryptionUtil("", "", ""));
+    }
+}
@@ -0,0 +1,57 @@
+// Escalado de concurrencia con y sin hilos virtuales (spring.threads.virtual.enabled).
+// Recorre niveles crecientes de usuarios concurrentes y reporta p99 y throughput por nivel.
+// Ejecutar una vez con el servicio arrancado con VIRTUAL_THREADS_ENABLED=false y otra con true (Java 21):
+//
+//   k6 run -e MODO=plataforma loadtest/escalado-concurrencia.js
+//   k6 run -e MODO=virtual    loadtest/escalado-concurrencia.js
+//
+// La ruta por defecto consulta la base de datos en cada petición (no pasa por la cache de segundo nivel).
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8082/cliente';
+const RUTA = __ENV.RUTA || '/api/clientes/pagina?tamano=50';
+const MODO = __ENV.MODO || 'plataforma';
+const NIVELES = (__ENV.NIVELES || '50,200,800,3200').split(',').map((n) => parseInt(n, 10));
+const DURACION_NIVEL = parseInt(__ENV.DURACION_NIVEL || '60', 10);
+
+const scenarios = {};
+const thresholds = {};
+NIVELES.forEach((vus, i) => {
+    scenarios[`nivel_${vus}`] = {
+        executor: 'constant-vus',
+        vus,
+        duration: `${DURACION_NIVEL}s`,
+        startTime: `${i * DURACION_NIVEL}s`,
+        tags: { nivel: String(vus) },
+    };
+    // Umbrales vacíos: solo sirven para que k6 calcule las métricas de cada nivel
+    thresholds[`http_req_duration{nivel:${vus}}`] = [];
+    thresholds[`http_reqs{nivel:${vus}}`] = [];
+    thresholds[`http_req_failed{nivel:${vus}}`] = [];
+});
+
+export const options = {
+    scenarios,
+    thresholds,
+    summaryTrendStats: ['avg', 'p(50)', 'p(99)', 'max'],
+};
+
+export default function () {
+    const res = http.get(`${BASE_URL}${RUTA}`);
+    check(res, { 'status 200': (r) => r.status === 200 });
+}
+
+export function handleSummary(data) {
+    const niveles = NIVELES.map((vus) => ({
+        concurrencia: vus,
+        p99: data.metrics[`http_req_duration{nivel:${vus}}`].values['p(99)'],
+        throughput: data.metrics[`http_reqs{nivel:${vus}}`].values.count / DURACION_NIVEL,
+        errores: data.metrics[`http_req_failed{nivel:${vus}}`].values.rate,
+    }));
+    const resultado = JSON.stringify({ modo: MODO, niveles }, null, 2);
+    return {
+        stdout: resultado + '\n',
+        [`loadtest/escalado-${MODO}.json`]: resultado,
+    };
+}
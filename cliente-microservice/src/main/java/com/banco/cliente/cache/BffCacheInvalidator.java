@@ -0,0 +1,57 @@
+package com.banco.cliente.cache;
+
+import com.banco.comun.logging.CodigoHash;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.client.RestClient;
+
+/**
+ * Invalida la near-cache del BFF cuando un cliente cambia.
+ * Solo se ejecuta tras el commit y nunca hace fallar la escritura.
+ */
+@Slf4j
+@Component
+public class BffCacheInvalidator {
+
+    private final RestClient restClient;
+    private final String invalidationUrl;
+    private final String invalidationToken;
+
+    public BffCacheInvalidator(RestClient.Builder builder,
+                               @Value("${bff.cache.invalidation-url:}") String invalidationUrl,
+                               @Value("${bff.cache.invalidation-token:}") String invalidationToken) {
+        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
+        factory.setConnectTimeout(1000);
+        factory.setReadTimeout(2000);
+
+        this.restClient = builder.requestFactory(factory).build();
+        this.invalidationUrl = invalidationUrl;
+        this.invalidationToken = invalidationToken;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onClienteModificado(ClienteModificadoEvent event) {
+        if (invalidationUrl.isEmpty()) {
+            return;
+        }
+
+        try {
+            restClient.delete()
+                    .uri(invalidationUrl + "/clientes/{codigo}", event.getCodigoUnico())
+                    .header("X-Cache-Token", invalidationToken)
+                    .retrieve()
+                    .toBodilessEntity();
+            log.atDebug()
+                    .setMessage("Cache del BFF invalidada")
+                    .addKeyValue("codigoClienteHash", () -> CodigoHash.de(event.getCodigoUnico()))
+                    .log();
+        } catch (Exception e) {
+            log.warn("No se pudo invalidar la cache del BFF para cliente {}: {}",
+                    event.getCodigoUnico(), e.getMessage());
+        }
+    }
+}
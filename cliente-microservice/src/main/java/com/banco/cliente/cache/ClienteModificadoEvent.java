@@ -0,0 +1,14 @@
+package com.banco.cliente.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Evento publicado al crear, actualizar o eliminar un cliente
+ */
+@Getter
+@AllArgsConstructor
+public class ClienteModificadoEvent {
+
+    private final String codigoUnico;
+}
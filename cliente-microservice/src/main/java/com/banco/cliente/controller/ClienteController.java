@@ -1,8 +1,15 @@
 package com.banco.cliente.controller;
 
 import com.banco.cliente.dto.ClienteDTO;
+import com.banco.cliente.dto.PaginaResponse;
 import com.banco.cliente.dto.ClienteRequest;
+import com.banco.cliente.dto.ImportacionResponse;
+import com.banco.cliente.dto.ResultadoPorClave;
 import com.banco.cliente.services.ClienteService;
+import com.banco.cliente.services.ImportacionClienteService;
+import com.banco.comun.logging.CodigoHash;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -11,10 +18,22 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 @Slf4j
 @RestController
@@ -22,10 +41,22 @@ import java.util.List;
 @Tag(name = "Clientes", description = "API para gestionar información de clientes")
 public class ClienteController {
 
+    /** Una línea por petición con campos estructurados; se puede muestrear con logging.muestreo.loggers */
+    private static final Logger accesoLog = LoggerFactory.getLogger("com.banco.cliente.acceso");
+
     private final ClienteService clienteService;
+    private final ImportacionClienteService importacionService;
+    private final ObjectMapper objectMapper;
+    private final int tamanoLoteExportacion;
 
-    public ClienteController(ClienteService clienteService) {
+    public ClienteController(ClienteService clienteService,
+                             ImportacionClienteService importacionService,
+                             ObjectMapper objectMapper,
+                             @Value("${exportacion.tamano-lote:1000}") int tamanoLoteExportacion) {
         this.clienteService = clienteService;
+        this.importacionService = importacionService;
+        this.objectMapper = objectMapper;
+        this.tamanoLoteExportacion = tamanoLoteExportacion;
     }
 
     /**
@@ -45,11 +76,65 @@ public class ClienteController {
             @Parameter(description = "Código único del cliente")
             @PathVariable String codigoUnico) {
 
-        log.info("GET /api/clientes/{} - Solicitado", codigoUnico);
+        long inicio = System.nanoTime();
         ClienteDTO cliente = clienteService.obtenerPorCodigoUnico(codigoUnico);
+        accesoLog.atInfo()
+                .setMessage("GET /api/clientes/{codigoUnico}")
+                .addKeyValue("codigoClienteHash", () -> CodigoHash.de(codigoUnico))
+                .addKeyValue("latenciaMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio))
+                .log();
         return ResponseEntity.ok(cliente);
     }
 
+    /**
+     * Obtener varios clientes por código único
+     */
+    @PostMapping("/lote")
+    @Operation(
+            summary = "Obtener clientes por lote de códigos",
+            description = "Retorna los clientes encontrados para los códigos únicos enviados; los inexistentes se omiten"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Clientes encontrados"),
+            @ApiResponse(responseCode = "400", description = "Lote demasiado grande")
+    })
+    public ResponseEntity<List<ClienteDTO>> obtenerPorCodigosUnicos(
+            @RequestBody List<String> codigosUnicos) {
+
+        long inicio = System.nanoTime();
+        List<ClienteDTO> clientes = clienteService.obtenerPorCodigosUnicos(codigosUnicos);
+        accesoLog.atInfo()
+                .setMessage("POST /api/clientes/lote")
+                .addKeyValue("codigos", codigosUnicos.size())
+                .addKeyValue("encontrados", clientes.size())
+                .addKeyValue("latenciaMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio))
+                .log();
+        return ResponseEntity.ok(clientes);
+    }
+
+    /**
+     * Obtener varios clientes por código único en NDJSON: una línea por código pedido, escrita en
+     * cuanto se lee su bloque
+     */
+    @PostMapping(value = "/lote", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+            summary = "Obtener clientes por lote de códigos en NDJSON",
+            description = "Hasta consulta-lote.max-claves-ndjson códigos, consultados en bloques de consulta-lote.max-claves. "
+                    + "Una línea {clave, resultados} por código en el orden pedido, sin repetidos; resultados vacío si no existe"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Clientes agrupados por código único"),
+            @ApiResponse(responseCode = "400", description = "Lote demasiado grande")
+    })
+    public ResponseEntity<StreamingResponseBody> obtenerPorCodigosUnicosNdjson(
+            @RequestBody List<String> codigosUnicos) {
+
+        List<List<String>> bloques = clienteService.bloquesDeCodigos(codigosUnicos);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> escribirPorCodigo(out, bloques));
+    }
+
     /**
      * Obtener cliente por ID
      */
@@ -76,22 +161,94 @@ public class ClienteController {
     }
 
     /**
-     * Crear nuevo cliente
+     * Obtener clientes paginados por cursor
+     */
+    @GetMapping("/pagina")
+    @Operation(
+            summary = "Obtener clientes paginados",
+            description = "Paginación por cursor: enviar el siguienteCursor de la respuesta anterior para continuar"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página obtenida"),
+            @ApiResponse(responseCode = "400", description = "Cursor o tamaño inválido")
+    })
+    public ResponseEntity<PaginaResponse<ClienteDTO>> obtenerPagina(
+            @Parameter(description = "Cursor devuelto por la página anterior")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Cantidad de elementos por página")
+            @RequestParam(required = false) Integer tamano) {
+
+        log.info("GET /api/clientes/pagina - tamaño: {}", tamano);
+        return ResponseEntity.ok(clienteService.obtenerPaginaPorCursor(cursor, tamano));
+    }
+
+    /**
+     * Exportar todos los clientes como NDJSON (una línea JSON por registro)
+     */
+    @GetMapping(value = "/exportar", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+            summary = "Exportar clientes en NDJSON",
+            description = "Recorre la tabla por páginas de id y escribe cada página al terminar de leerla"
+    )
+    public ResponseEntity<StreamingResponseBody> exportarNdjson() {
+        log.info("GET /api/clientes/exportar - NDJSON");
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> exportar(out, "", "\n"));
+    }
+
+    /**
+     * Exportar todos los clientes como Server-Sent Events
+     */
+    @GetMapping(value = "/exportar", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Exportar clientes como Server-Sent Events")
+    public ResponseEntity<StreamingResponseBody> exportarSse() {
+        log.info("GET /api/clientes/exportar - SSE");
+        return ResponseEntity.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .body(out -> exportar(out, "data: ", "\n\n"));
+    }
+
+    /**
+     * Crear nuevo cliente; con Idempotency-Key los reintentos no repiten el alta
      */
     @PostMapping
     @Operation(summary = "Crear nuevo cliente")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "201", description = "Cliente creado exitosamente"),
-            @ApiResponse(responseCode = "400", description = "Datos inválidos")
+            @ApiResponse(responseCode = "201", description = "Cliente creado exitosamente (o ya creado con la misma Idempotency-Key)"),
+            @ApiResponse(responseCode = "400", description = "Datos inválidos, código o documento duplicado")
     })
     public ResponseEntity<ClienteDTO> crear(
-            @RequestBody ClienteRequest request) {
+            @RequestBody ClienteRequest request,
+            @Parameter(description = "Clave del cliente HTTP para reintentar el alta sin duplicarla (máximo 100 caracteres)")
+            @RequestHeader(value = "Idempotency-Key", required = false) String claveIdempotencia) {
 
         log.info("POST /api/clientes - Creando nuevo cliente");
-        ClienteDTO cliente = clienteService.crear(request);
+        ClienteDTO cliente = clienteService.crear(request, claveIdempotencia);
         return ResponseEntity.status(HttpStatus.CREATED).body(cliente);
     }
 
+    /**
+     * Importar clientes en bloque desde CSV (con cabecera) o NDJSON; el cuerpo se lee en streaming
+     */
+    @PostMapping(value = "/importar", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(
+            summary = "Importar clientes en bloque",
+            description = "Una fila por línea con codigoUnico, nombres, apellidos, tipoDocumento y numeroDocumento. "
+                    + "Las filas inválidas o duplicadas no detienen la importación y se reportan con su número de línea"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Importación terminada, con el detalle de filas rechazadas"),
+            @ApiResponse(responseCode = "400", description = "Cabecera CSV inválida")
+    })
+    public ResponseEntity<ImportacionResponse> importar(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType tipo,
+            InputStream cuerpo) throws IOException {
+
+        log.info("POST /api/clientes/importar - Importando clientes ({})", tipo);
+        return ResponseEntity.ok(importacionService.importar(cuerpo, tipo));
+    }
+
     /**
      * Actualizar cliente
      */
@@ -130,4 +287,49 @@ public class ClienteController {
     public ResponseEntity<String> health() {
         return ResponseEntity.ok("Cliente Microservice está funcionando");
     }
+
+    private void escribirPorCodigo(OutputStream out, List<List<String>> bloques) throws IOException {
+        // Un bloque en memoria a la vez, como en exportar; la conexión a BD se libera antes de escribirlo
+        long inicio = System.nanoTime();
+        int codigos = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.setRootValueSeparator(null);
+            for (List<String> bloque : bloques) {
+                Map<String, List<ClienteDTO>> porCodigo = clienteService.obtenerPorCodigosUnicos(bloque).stream()
+                        .collect(Collectors.groupingBy(ClienteDTO::getCodigoUnico));
+                for (String codigo : bloque) {
+                    generator.writeObject(new ResultadoPorClave<>(codigo, porCodigo.getOrDefault(codigo, List.of())));
+                    generator.writeRaw("\n");
+                }
+                generator.flush();
+                codigos += bloque.size();
+            }
+        }
+        accesoLog.atInfo()
+                .setMessage("POST /api/clientes/lote (NDJSON)")
+                .addKeyValue("codigos", codigos)
+                .addKeyValue("latenciaMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio))
+                .log();
+    }
+
+    private void exportar(OutputStream out, String prefijo, String sufijo) throws IOException {
+        // Solo una página vive en memoria; la conexión a BD se libera antes de escribirla
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.setRootValueSeparator(null);
+            long ultimoId = 0L;
+            List<ClienteDTO> pagina;
+            do {
+                pagina = clienteService.obtenerPagina(ultimoId, tamanoLoteExportacion);
+                for (ClienteDTO dto : pagina) {
+                    generator.writeRaw(prefijo);
+                    generator.writeObject(dto);
+                    generator.writeRaw(sufijo);
+                }
+                generator.flush();
+                if (!pagina.isEmpty()) {
+                    ultimoId = pagina.get(pagina.size() - 1).getId();
+                }
+            } while (pagina.size() == tamanoLoteExportacion);
+        }
+    }
 }
\ No newline at end of file
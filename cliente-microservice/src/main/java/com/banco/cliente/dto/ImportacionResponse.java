@@ -0,0 +1,33 @@
+package com.banco.cliente.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Resultado de una importación en bloque: totales y los primeros errores por línea
+ * (rechazadas cuenta todos, aunque errores esté acotado)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportacionResponse {
+
+    private long procesadas;
+    private long insertadas;
+    private long rechazadas;
+    private long duracionMs;
+    private List<ErrorImportacion> errores;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ErrorImportacion {
+        private long linea;
+        private String mensaje;
+    }
+}
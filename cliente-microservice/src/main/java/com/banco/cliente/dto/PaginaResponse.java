@@ -0,0 +1,21 @@
+package com.banco.cliente.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PaginaResponse<T> {
+
+    private List<T> items;
+    private Integer tamano;
+    private String siguienteCursor;
+}
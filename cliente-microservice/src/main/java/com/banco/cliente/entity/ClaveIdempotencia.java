@@ -0,0 +1,62 @@
+package com.banco.cliente.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+import java.time.LocalDateTime;
+
+/**
+ * Idempotency-Key de un alta de cliente ya ejecutada: un reintento con la misma clave devuelve el
+ * cliente creado en lugar de volver a insertarlo
+ */
+@Entity
+@Table(name = "claves_idempotencia")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ClaveIdempotencia implements Persistable<String> {
+
+    @Id
+    private String clave;
+
+    @Column(name = "cliente_id", nullable = false)
+    private Long clienteId;
+
+    @Column(name = "codigo_unico", nullable = false)
+    private String codigoUnico;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * La clave la asigna el cliente: sin esto save() haría merge y un SELECT antes del INSERT
+     */
+    @Transient
+    @Builder.Default
+    private boolean nueva = true;
+
+    @Override
+    public String getId() {
+        return clave;
+    }
+
+    @Override
+    public boolean isNew() {
+        return nueva;
+    }
+
+    @PostLoad
+    @PostPersist
+    void marcarExistente() {
+        nueva = false;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
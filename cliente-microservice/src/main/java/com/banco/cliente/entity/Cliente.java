@@ -5,21 +5,37 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "clientes")
+// Mismos nombres que en V1: el alta se apoya en ellas y traduce la violación al 400 correspondiente
+@Table(name = "clientes", uniqueConstraints = {
+        @UniqueConstraint(name = Cliente.UK_CODIGO_UNICO, columnNames = "codigo_unico"),
+        @UniqueConstraint(name = Cliente.UK_NUMERO_DOCUMENTO, columnNames = "numero_documento")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "clientes")
+@NaturalIdCache(region = "clientes-codigo")
 public class Cliente {
 
+    public static final String UK_CODIGO_UNICO = "uk_clientes_codigo_unico";
+    public static final String UK_NUMERO_DOCUMENTO = "uk_clientes_numero_documento";
+
+    // Secuencia de V3 en bloques de 50: un nextval cada 50 filas y los INSERT se agrupan en batches
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "clientes_seq")
+    @SequenceGenerator(name = "clientes_seq", sequenceName = "clientes_seq", allocationSize = 50)
     private Long id;
 
-    @Column(unique = true, nullable = false)
+    @NaturalId
+    @Column(name = "codigo_unico", nullable = false)
     private String codigoUnico;
 
     @Column(nullable = false)
@@ -31,7 +47,7 @@ public class Cliente {
     @Column(name = "tipo_documento", nullable = false)
     private String tipoDocumento;
 
-    @Column(name = "numero_documento", unique = true, nullable = false)
+    @Column(name = "numero_documento", nullable = false)
     private String numeroDocumento;
 
     @Column(nullable = false)
@@ -0,0 +1,19 @@
+package com.banco.cliente.repository;
+
+import com.banco.cliente.entity.ClaveIdempotencia;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+
+@Repository
+public interface ClaveIdempotenciaRepository extends JpaRepository<ClaveIdempotencia, String> {
+
+    /**
+     * Borra en una sola sentencia las claves creadas antes del límite
+     */
+    @Modifying
+    @Query("delete from ClaveIdempotencia c where c.createdAt < :limite")
+    int eliminarAnterioresA(LocalDateTime limite);
+}
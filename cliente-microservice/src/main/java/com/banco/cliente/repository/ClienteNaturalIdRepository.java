@@ -0,0 +1,12 @@
+package com.banco.cliente.repository;
+
+import com.banco.cliente.entity.Cliente;
+import java.util.Optional;
+
+public interface ClienteNaturalIdRepository {
+
+    /**
+     * Busca un cliente por código único usando la cache de natural-id de Hibernate
+     */
+    Optional<Cliente> buscarPorCodigoUnico(String codigoUnico);
+}
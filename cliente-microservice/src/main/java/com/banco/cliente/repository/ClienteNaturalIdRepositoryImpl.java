@@ -0,0 +1,21 @@
+package com.banco.cliente.repository;
+
+import com.banco.cliente.entity.Cliente;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import java.util.Optional;
+
+public class ClienteNaturalIdRepositoryImpl implements ClienteNaturalIdRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Cliente> buscarPorCodigoUnico(String codigoUnico) {
+        // codigoUnico -> id sale de la región "clientes-codigo" y la entidad de "clientes"
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Cliente.class)
+                .loadOptional(codigoUnico);
+    }
+}
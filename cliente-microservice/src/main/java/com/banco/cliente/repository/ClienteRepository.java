@@ -1,20 +1,55 @@
 package com.banco.cliente.repository;
 
+import com.banco.cliente.dto.ClienteDTO;
 import com.banco.cliente.entity.Cliente;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.NativeQuery;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
-import java.util.Optional;
+import java.util.List;
 
+/**
+ * Las lecturas de listas devuelven el DTO directamente desde la consulta (constructor en JPQL),
+ * sin entidades gestionadas ni snapshot para dirty checking. La lectura por código único sigue
+ * cargando la entidad porque sale de la cache de natural-id.
+ */
 @Repository
-public interface ClienteRepository extends JpaRepository<Cliente, Long> {
+public interface ClienteRepository extends JpaRepository<Cliente, Long>, ClienteNaturalIdRepository {
+
+    String DTO = "select new com.banco.cliente.dto.ClienteDTO("
+            + "c.id, c.codigoUnico, c.nombres, c.apellidos, c.tipoDocumento, c.numeroDocumento, c.estado) "
+            + "from Cliente c ";
+
+    /**
+     * Fetch size de las lecturas que se devuelven como lista: el resultado se materializa entero,
+     * así que se trae en un solo viaje (0 = todas las filas en PostgreSQL)
+     */
+    String FETCH_SIZE_LISTA = "0";
+
+    /**
+     * Busca los clientes de varios códigos únicos en una sola consulta. Los códigos viajan como un
+     * único parámetro array (= ANY): la sentencia es la misma para cualquier cantidad de claves y
+     * PostgreSQL reutiliza su plan, mientras que un IN genera una sentencia distinta por tamaño
+     */
+    @NativeQuery("select id, codigo_unico, nombres, apellidos, tipo_documento, numero_documento, estado "
+            + "from clientes where codigo_unico = any(:codigosUnicos)")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = FETCH_SIZE_LISTA))
+    List<ClienteDTO> findDtoByCodigoUnicoIn(String[] codigosUnicos);
 
     /**
-     * Busca un cliente por código único
+     * Página de clientes con id mayor al indicado (keyset), ordenada por id
      */
-    Optional<Cliente> findByCodigoUnico(String codigoUnico);
+    @Query(DTO + "where c.id > :id order by c.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = FETCH_SIZE_LISTA))
+    List<ClienteDTO> findDtoByIdGreaterThan(Long id, Limit limit);
 
     /**
-     * Busca un cliente por número de documento
+     * Todos los clientes
      */
-    Optional<Cliente> findByNumeroDocumento(String numeroDocumento);
-}
\ No newline at end of file
+    @Query(DTO)
+    List<ClienteDTO> findAllDto();
+}
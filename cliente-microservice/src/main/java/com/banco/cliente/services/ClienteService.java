@@ -1,36 +1,87 @@
 package com.banco.cliente.services;
 
+import com.banco.cliente.cache.ClienteModificadoEvent;
 import com.banco.cliente.dto.ClienteDTO;
+import com.banco.cliente.dto.PaginaResponse;
 import com.banco.cliente.dto.ClienteRequest;
+import com.banco.cliente.entity.ClaveIdempotencia;
 import com.banco.cliente.entity.Cliente;
 import com.banco.cliente.exception.ClienteNotFoundException;
+import com.banco.cliente.repository.ClaveIdempotenciaRepository;
 import com.banco.cliente.repository.ClienteRepository;
+import com.banco.comun.logging.CodigoHash;
+import com.banco.cliente.util.CursorUtil;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.Optional;
 
 @Slf4j
 @Service
-@Transactional
 public class ClienteService {
 
+    private static final int MAX_LONGITUD_CLAVE = 100;
+
     private final ClienteRepository clienteRepository;
+    private final ClaveIdempotenciaRepository claveIdempotenciaRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transaccion;
+    private final int maxClavesLote;
+    private final int maxClavesNdjson;
+    private final int tamanoPaginaDefecto;
+    private final int tamanoPaginaMaximo;
+    private final Duration ttlIdempotencia;
 
-    public ClienteService(ClienteRepository clienteRepository) {
+    public ClienteService(ClienteRepository clienteRepository,
+                          ClaveIdempotenciaRepository claveIdempotenciaRepository,
+                          ApplicationEventPublisher eventPublisher,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${consulta-lote.max-claves:1000}") int maxClavesLote,
+                          @Value("${consulta-lote.max-claves-ndjson:5000}") int maxClavesNdjson,
+                          @Value("${paginacion.tamano-defecto:50}") int tamanoPaginaDefecto,
+                          @Value("${paginacion.tamano-maximo:500}") int tamanoPaginaMaximo,
+                          @Value("${idempotencia.ttl:24h}") Duration ttlIdempotencia) {
         this.clienteRepository = clienteRepository;
+        this.claveIdempotenciaRepository = claveIdempotenciaRepository;
+        this.eventPublisher = eventPublisher;
+        this.transaccion = new TransactionTemplate(transactionManager);
+        this.maxClavesLote = maxClavesLote;
+        this.maxClavesNdjson = maxClavesNdjson;
+        this.tamanoPaginaDefecto = tamanoPaginaDefecto;
+        this.tamanoPaginaMaximo = tamanoPaginaMaximo;
+        this.ttlIdempotencia = ttlIdempotencia;
     }
 
     /**
      * Obtener cliente por código único
      */
+    @Transactional(readOnly = true)
     public ClienteDTO obtenerPorCodigoUnico(String codigoUnico) {
-        log.info("Buscando cliente con código: {}", codigoUnico);
+        log.atDebug()
+                .setMessage("Buscando cliente")
+                .addKeyValue("codigoClienteHash", () -> CodigoHash.de(codigoUnico))
+                .log();
 
-        Cliente cliente = clienteRepository.findByCodigoUnico(codigoUnico)
+        Cliente cliente = clienteRepository.buscarPorCodigoUnico(codigoUnico)
                 .orElseThrow(() -> {
-                    log.error("Cliente no encontrado: {}", codigoUnico);
+                    log.atWarn()
+                            .setMessage("Cliente no encontrado")
+                            .addKeyValue("codigoClienteHash", () -> CodigoHash.de(codigoUnico))
+                            .log();
                     return new ClienteNotFoundException("Cliente no encontrado con código: " + codigoUnico);
                 });
 
@@ -41,6 +92,7 @@ public class ClienteService {
     /**
      * Obtener cliente por ID
      */
+    @Transactional(readOnly = true)
     public ClienteDTO obtenerPorId(Long id) {
         log.info("Buscando cliente con ID: {}", id);
 
@@ -53,6 +105,94 @@ public class ClienteService {
         return mapToDTO(cliente);
     }
 
+    /**
+     * Obtener clientes por varios códigos únicos
+     */
+    @Transactional(readOnly = true)
+    public List<ClienteDTO> obtenerPorCodigosUnicos(List<String> codigosUnicos) {
+        if (codigosUnicos == null || codigosUnicos.isEmpty()) {
+            return List.of();
+        }
+        if (codigosUnicos.size() > maxClavesLote) {
+            throw new IllegalArgumentException("Máximo " + maxClavesLote + " códigos por consulta");
+        }
+        if (hayCodigoVacio(codigosUnicos)) {
+            throw new IllegalArgumentException("Los códigos no pueden ser nulos ni estar vacíos");
+        }
+
+        log.debug("Buscando {} clientes por código", codigosUnicos.size());
+        List<ClienteDTO> clientes = clienteRepository.findDtoByCodigoUnicoIn(codigosUnicos.toArray(String[]::new));
+        log.debug("Clientes encontrados: {}", clientes.size());
+
+        return clientes;
+    }
+
+    /**
+     * Repartir los códigos de una consulta por lote en NDJSON (hasta consulta-lote.max-claves-ndjson,
+     * sin repetidos y en el orden pedido) en bloques de consulta-lote.max-claves, uno por consulta
+     */
+    public List<List<String>> bloquesDeCodigos(List<String> codigos) {
+        if (codigos == null || codigos.isEmpty()) {
+            return List.of();
+        }
+        if (codigos.size() > maxClavesNdjson) {
+            throw new IllegalArgumentException("Máximo " + maxClavesNdjson + " códigos por consulta");
+        }
+        if (hayCodigoVacio(codigos)) {
+            throw new IllegalArgumentException("Los códigos no pueden ser nulos ni estar vacíos");
+        }
+
+        List<String> unicos = List.copyOf(new LinkedHashSet<>(codigos));
+        List<List<String>> bloques = new ArrayList<>();
+        for (int desde = 0; desde < unicos.size(); desde += maxClavesLote) {
+            bloques.add(unicos.subList(desde, Math.min(desde + maxClavesLote, unicos.size())));
+        }
+        return bloques;
+    }
+
+    /**
+     * Si la consulta por lote trae alguna clave nula o en blanco, que se rechaza con 400
+     */
+    private static boolean hayCodigoVacio(List<String> codigos) {
+        return codigos.stream().anyMatch(codigo -> codigo == null || codigo.isBlank());
+    }
+
+    /**
+     * Obtener una página de clientes posteriores a un id (keyset). Cada página usa su propia transacción
+     */
+    @Transactional(readOnly = true)
+    public List<ClienteDTO> obtenerPagina(Long despuesDeId, int tamano) {
+        log.debug("Obteniendo página de clientes después de id: {}", despuesDeId);
+
+        return clienteRepository.findDtoByIdGreaterThan(despuesDeId, Limit.of(tamano));
+    }
+
+    /**
+     * Obtener una página de clientes a partir de un cursor opaco.
+     * El costo es el mismo para cualquier página porque se busca por id, sin OFFSET
+     */
+    @Transactional(readOnly = true)
+    public PaginaResponse<ClienteDTO> obtenerPaginaPorCursor(String cursor, Integer tamano) {
+        int tamanoPagina = tamano == null ? tamanoPaginaDefecto : tamano;
+        if (tamanoPagina < 1 || tamanoPagina > tamanoPaginaMaximo) {
+            throw new IllegalArgumentException("El tamaño de página debe estar entre 1 y " + tamanoPaginaMaximo);
+        }
+
+        // Se pide un elemento extra para saber si existe una página siguiente
+        List<ClienteDTO> items = obtenerPagina(CursorUtil.decodificar(cursor), tamanoPagina + 1);
+        String siguienteCursor = null;
+        if (items.size() > tamanoPagina) {
+            items = items.subList(0, tamanoPagina);
+            siguienteCursor = CursorUtil.codificar(items.get(tamanoPagina - 1).getId());
+        }
+
+        return PaginaResponse.<ClienteDTO>builder()
+                .items(items)
+                .tamano(items.size())
+                .siguienteCursor(siguienteCursor)
+                .build();
+    }
+
     /**
      * Obtener todos los clientes
      */
@@ -60,30 +200,46 @@ public class ClienteService {
     public List<ClienteDTO> obtenerTodos() {
         log.info("Obteniendo todos los clientes");
 
-        List<Cliente> clientes = clienteRepository.findAll();
+        List<ClienteDTO> clientes = clienteRepository.findAllDto();
         log.debug("Total de clientes encontrados: {}", clientes.size());
 
-        return clientes.stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+        return clientes;
     }
 
     /**
-     * Crear nuevo cliente
+     * Crear nuevo cliente. Los duplicados los detectan las restricciones únicas en el propio INSERT:
+     * un solo viaje a la base y sin carrera entre la comprobación y el alta. Con claveIdempotencia,
+     * un reintento con la misma clave devuelve el cliente ya creado sin repetir el alta, también
+     * cuando llega a la vez que la petición original
      */
-    public ClienteDTO crear(ClienteRequest request) {
+    public ClienteDTO crear(ClienteRequest request, String claveIdempotencia) {
         log.info("Creando nuevo cliente: {} {}", request.getNombres(), request.getApellidos());
 
-        // Validar que no exista otro cliente con el mismo código único
-        if (clienteRepository.findByCodigoUnico(request.getCodigoUnico()).isPresent()) {
-            log.error("Ya existe un cliente con código: {}", request.getCodigoUnico());
-            throw new IllegalArgumentException("Ya existe un cliente con este código único");
+        try {
+            return transaccion.execute(estado -> crearEnTransaccion(request, claveIdempotencia));
+        } catch (DataIntegrityViolationException e) {
+            if (claveIdempotencia != null) {
+                // Dos reintentos concurrentes no ven la clave y el perdedor choca con el INSERT del
+                // ganador, que ya hizo commit: tras el rollback se relee la clave y se devuelve su alta
+                Optional<ClienteDTO> altaConcurrente = transaccion.execute(
+                        estado -> buscarAltaPrevia(claveIdempotencia, request));
+                if (altaConcurrente.isPresent()) {
+                    log.info("Alta ejecutada por una petición concurrente con la misma clave de idempotencia, cliente ID: {}",
+                            altaConcurrente.get().getId());
+                    return altaConcurrente.get();
+                }
+            }
+            throw duplicado(e, request);
         }
+    }
 
-        // Validar que no exista otro cliente con el mismo documento
-        if (clienteRepository.findByNumeroDocumento(request.getNumeroDocumento()).isPresent()) {
-            log.error("Ya existe un cliente con documento: {}", request.getNumeroDocumento());
-            throw new IllegalArgumentException("Ya existe un cliente con este número de documento");
+    private ClienteDTO crearEnTransaccion(ClienteRequest request, String claveIdempotencia) {
+        if (claveIdempotencia != null) {
+            Optional<ClienteDTO> altaPrevia = buscarAltaPrevia(claveIdempotencia, request);
+            if (altaPrevia.isPresent()) {
+                log.info("Alta ya ejecutada con la misma clave de idempotencia, cliente ID: {}", altaPrevia.get().getId());
+                return altaPrevia.get();
+            }
         }
 
         Cliente cliente = Cliente.builder()
@@ -95,15 +251,112 @@ public class ClienteService {
                 .estado("ACTIVO")
                 .build();
 
-        Cliente clienteGuardado = clienteRepository.save(cliente);
+        // flush aquí: con ids por secuencia el INSERT se haría al hacer commit, y la violación de
+        // una restricción única debe llegar a crear como DataIntegrityViolationException
+        Cliente clienteGuardado = clienteRepository.saveAndFlush(cliente);
+        if (claveIdempotencia != null) {
+            claveIdempotenciaRepository.saveAndFlush(ClaveIdempotencia.builder()
+                    .clave(claveIdempotencia)
+                    .clienteId(clienteGuardado.getId())
+                    .codigoUnico(clienteGuardado.getCodigoUnico())
+                    .build());
+        }
+
         log.info("Cliente creado exitosamente con ID: {}", clienteGuardado.getId());
+        eventPublisher.publishEvent(new ClienteModificadoEvent(clienteGuardado.getCodigoUnico()));
 
         return mapToDTO(clienteGuardado);
     }
 
+    /**
+     * Cliente creado antes con la misma clave de idempotencia. Una clave caducada, o cuyo cliente
+     * ya no existe, se borra y el alta se ejecuta de nuevo
+     */
+    private Optional<ClienteDTO> buscarAltaPrevia(String claveIdempotencia, ClienteRequest request) {
+        if (claveIdempotencia.isBlank() || claveIdempotencia.length() > MAX_LONGITUD_CLAVE) {
+            throw new IllegalArgumentException("La clave de idempotencia debe tener entre 1 y "
+                    + MAX_LONGITUD_CLAVE + " caracteres");
+        }
+
+        Optional<ClaveIdempotencia> previa = claveIdempotenciaRepository.findById(claveIdempotencia);
+        if (previa.isEmpty()) {
+            return Optional.empty();
+        }
+
+        ClaveIdempotencia clave = previa.get();
+        if (!clave.getCodigoUnico().equals(request.getCodigoUnico())) {
+            log.error("Clave de idempotencia reutilizada para otro cliente: {}", claveIdempotencia);
+            throw new IllegalArgumentException("La clave de idempotencia ya se usó para otro cliente");
+        }
+
+        Optional<Cliente> cliente = clave.getCreatedAt().isBefore(LocalDateTime.now().minus(ttlIdempotencia))
+                ? Optional.empty()
+                : clienteRepository.findById(clave.getClienteId());
+        if (cliente.isEmpty()) {
+            // Los borrados se ejecutan después de los INSERT al hacer flush: se fuerza ahora
+            claveIdempotenciaRepository.delete(clave);
+            claveIdempotenciaRepository.flush();
+        }
+        return cliente.map(this::mapToDTO);
+    }
+
+    /**
+     * Traducir la violación de una restricción única al mismo 400 que devolvía la validación previa
+     */
+    private static RuntimeException duplicado(DataIntegrityViolationException e, ClienteRequest request) {
+        String mensaje = mensajeDuplicado(e);
+        if (mensaje == null) {
+            return e;
+        }
+        log.atWarn()
+                .setMessage(mensaje)
+                .addKeyValue("codigoClienteHash", () -> CodigoHash.de(request.getCodigoUnico()))
+                .addKeyValue("numeroDocumentoHash", () -> CodigoHash.de(request.getNumeroDocumento()))
+                .log();
+        return new IllegalArgumentException(mensaje);
+    }
+
+    /**
+     * Mensaje de error si la excepción es la violación de una restricción única de clientes (o de
+     * las claves de idempotencia); null en otro caso
+     */
+    static String mensajeDuplicado(Throwable e) {
+        String restriccion = nombreRestriccion(e);
+        if (restriccion.contains(Cliente.UK_CODIGO_UNICO)) {
+            return "Ya existe un cliente con este código único";
+        }
+        if (restriccion.contains(Cliente.UK_NUMERO_DOCUMENTO)) {
+            return "Ya existe un cliente con este número de documento";
+        }
+        if (restriccion.contains("claves_idempotencia")) {
+            return "Hay otra alta en curso con esta clave de idempotencia";
+        }
+        return null;
+    }
+
+    private static String nombreRestriccion(Throwable e) {
+        for (Throwable causa = e; causa != null; causa = causa.getCause()) {
+            if (causa instanceof ConstraintViolationException violacion && violacion.getConstraintName() != null) {
+                return violacion.getConstraintName().toLowerCase(Locale.ROOT);
+            }
+        }
+        return "";
+    }
+
+    /**
+     * Purgar en una sola sentencia las claves de idempotencia caducadas
+     */
+    @Scheduled(fixedDelayString = "${idempotencia.purga:1h}", initialDelayString = "${idempotencia.purga:1h}")
+    @Transactional
+    public void purgarClavesIdempotencia() {
+        int borradas = claveIdempotenciaRepository.eliminarAnterioresA(LocalDateTime.now().minus(ttlIdempotencia));
+        log.debug("Claves de idempotencia caducadas eliminadas: {}", borradas);
+    }
+
     /**
      * Actualizar cliente
      */
+    @Transactional
     public ClienteDTO actualizar(Long id, ClienteRequest request) {
         log.info("Actualizando cliente con ID: {}", id);
 
@@ -116,6 +369,7 @@ public class ClienteService {
 
         Cliente clienteActualizado = clienteRepository.save(cliente);
         log.info("Cliente actualizado exitosamente: {}", id);
+        eventPublisher.publishEvent(new ClienteModificadoEvent(clienteActualizado.getCodigoUnico()));
 
         return mapToDTO(clienteActualizado);
     }
@@ -123,16 +377,19 @@ public class ClienteService {
     /**
      * Eliminar cliente
      */
+    @Transactional
     public void eliminar(Long id) {
         log.info("Eliminando cliente con ID: {}", id);
 
-        if (!clienteRepository.existsById(id)) {
-            log.error("Cliente no encontrado: {}", id);
-            throw new ClienteNotFoundException("Cliente no encontrado con ID: " + id);
-        }
+        Cliente cliente = clienteRepository.findById(id)
+                .orElseThrow(() -> {
+                    log.error("Cliente no encontrado: {}", id);
+                    return new ClienteNotFoundException("Cliente no encontrado con ID: " + id);
+                });
 
-        clienteRepository.deleteById(id);
+        clienteRepository.delete(cliente);
         log.info("Cliente eliminado exitosamente: {}", id);
+        eventPublisher.publishEvent(new ClienteModificadoEvent(cliente.getCodigoUnico()));
     }
 
     private ClienteDTO mapToDTO(Cliente cliente) {
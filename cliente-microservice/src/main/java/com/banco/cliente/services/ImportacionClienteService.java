@@ -0,0 +1,228 @@
+package com.banco.cliente.services;
+
+import com.banco.cliente.dto.ClienteRequest;
+import com.banco.cliente.dto.ImportacionResponse;
+import com.banco.cliente.entity.Cliente;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Importación en bloque de clientes desde CSV (con cabecera) o NDJSON, una fila por línea.
+ * El cuerpo se lee en streaming y se guarda en lotes de importacion.tamano-lote filas, cada uno en
+ * su propia transacción y en un solo batch JDBC (ids por secuencia en bloques de 50). Si un lote
+ * falla (por ejemplo, un código o documento ya existente) se repite fila a fila para guardar las
+ * correctas y reportar las que no con el mismo mensaje que el alta individual.
+ */
+@Slf4j
+@Service
+public class ImportacionClienteService {
+
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    private static final Set<String> COLUMNAS = Set.of(
+            "codigoUnico", "nombres", "apellidos", "tipoDocumento", "numeroDocumento");
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transaccion;
+    private final ObjectReader lectorJson;
+    private final CsvMapper csvMapper = new CsvMapper();
+    private final int tamanoLote;
+    private final int maxErrores;
+
+    public ImportacionClienteService(EntityManager entityManager,
+                                    PlatformTransactionManager transactionManager,
+                                    ObjectMapper objectMapper,
+                                    @Value("${importacion.tamano-lote:1000}") int tamanoLote,
+                                    @Value("${importacion.max-errores:1000}") int maxErrores) {
+        this.entityManager = entityManager;
+        this.transaccion = new TransactionTemplate(transactionManager);
+        this.lectorJson = objectMapper.readerFor(ClienteRequest.class);
+        this.tamanoLote = tamanoLote;
+        this.maxErrores = maxErrores;
+    }
+
+    /**
+     * Importar los clientes del cuerpo; los errores de una fila no detienen la importación
+     */
+    public ImportacionResponse importar(InputStream cuerpo, MediaType tipo) throws IOException {
+        long inicio = System.nanoTime();
+        Resultado resultado = new Resultado(maxErrores);
+        BufferedReader lector = new BufferedReader(new InputStreamReader(cuerpo, StandardCharsets.UTF_8), 1 << 16);
+
+        long linea = 0;
+        ObjectReader lectorFila = lectorJson;
+        if (TEXT_CSV.isCompatibleWith(tipo)) {
+            lectorFila = lectorCsv(lector.readLine());
+            linea++;
+        }
+
+        List<Fila> lote = new ArrayList<>(tamanoLote);
+        String texto;
+        while ((texto = lector.readLine()) != null) {
+            linea++;
+            if (texto.isBlank()) {
+                continue;
+            }
+            resultado.procesadas++;
+            try {
+                lote.add(new Fila(linea, validar(lectorFila.readValue(texto))));
+            } catch (JsonProcessingException e) {
+                resultado.rechazar(linea, "Fila mal formada: " + e.getOriginalMessage());
+            } catch (IllegalArgumentException e) {
+                resultado.rechazar(linea, e.getMessage());
+            }
+            if (lote.size() == tamanoLote) {
+                guardar(lote, resultado);
+                lote.clear();
+            }
+        }
+        if (!lote.isEmpty()) {
+            guardar(lote, resultado);
+        }
+
+        ImportacionResponse respuesta = resultado.respuesta((System.nanoTime() - inicio) / 1_000_000);
+        log.info("Importación de clientes: {} procesadas, {} insertadas, {} rechazadas en {} ms",
+                respuesta.getProcesadas(), respuesta.getInsertadas(), respuesta.getRechazadas(), respuesta.getDuracionMs());
+        return respuesta;
+    }
+
+    /**
+     * Lector de filas CSV con las columnas de la cabecera, que deben ser campos de ClienteRequest
+     */
+    private ObjectReader lectorCsv(String cabecera) {
+        if (cabecera == null || cabecera.isBlank()) {
+            throw new IllegalArgumentException("El CSV debe empezar con una cabecera: " + String.join(",", COLUMNAS));
+        }
+        CsvSchema.Builder esquema = CsvSchema.builder();
+        for (String columna : cabecera.split(",")) {
+            String nombre = columna.trim();
+            if (!COLUMNAS.contains(nombre)) {
+                throw new IllegalArgumentException("Columna desconocida en la cabecera: " + nombre);
+            }
+            esquema.addColumn(nombre);
+        }
+        return csvMapper.readerFor(ClienteRequest.class).with(esquema.build());
+    }
+
+    private static ClienteRequest validar(ClienteRequest request) {
+        requerido(request.getCodigoUnico(), "codigoUnico");
+        requerido(request.getNombres(), "nombres");
+        requerido(request.getApellidos(), "apellidos");
+        requerido(request.getTipoDocumento(), "tipoDocumento");
+        requerido(request.getNumeroDocumento(), "numeroDocumento");
+        return request;
+    }
+
+    private static void requerido(String valor, String campo) {
+        if (valor == null || valor.isBlank()) {
+            throw new IllegalArgumentException(campo + " es obligatorio");
+        }
+    }
+
+    /**
+     * Guardar un lote en una transacción; si falla, repetir fila a fila para aislar las que fallan
+     */
+    private void guardar(List<Fila> lote, Resultado resultado) {
+        try {
+            transaccion.executeWithoutResult(estado -> persistir(lote));
+            resultado.insertadas += lote.size();
+            return;
+        } catch (PersistenceException | DataAccessException e) {
+            log.debug("Lote de {} clientes rechazado, se reintenta fila a fila: {}", lote.size(), e.getMessage());
+        }
+
+        for (Fila fila : lote) {
+            try {
+                transaccion.executeWithoutResult(estado -> persistir(List.of(fila)));
+                resultado.insertadas++;
+            } catch (PersistenceException | DataAccessException e) {
+                String duplicado = ClienteService.mensajeDuplicado(e);
+                resultado.rechazar(fila.linea(), duplicado != null ? duplicado
+                        : "Error al guardar: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            }
+        }
+    }
+
+    private void persistir(List<Fila> filas) {
+        Session sesion = entityManager.unwrap(Session.class);
+        sesion.setJdbcBatchSize(tamanoLote);
+        // Sin poblar la cache de segundo nivel con cada cliente importado
+        sesion.setCacheMode(CacheMode.IGNORE);
+
+        for (Fila fila : filas) {
+            ClienteRequest request = fila.request();
+            entityManager.persist(Cliente.builder()
+                    .codigoUnico(request.getCodigoUnico())
+                    .nombres(request.getNombres())
+                    .apellidos(request.getApellidos())
+                    .tipoDocumento(request.getTipoDocumento())
+                    .numeroDocumento(request.getNumeroDocumento())
+                    .estado("ACTIVO")
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        // Sin invalidar la cache del BFF: solo se insertan clientes nuevos, que no pueden estar en
+        // ella (no guarda los 404), y serían una llamada HTTP en serie por fila importada
+    }
+
+    private record Fila(long linea, ClienteRequest request) {
+    }
+
+    private static final class Resultado {
+
+        private final int maxErrores;
+        private final List<ImportacionResponse.ErrorImportacion> errores = new ArrayList<>();
+        private long procesadas;
+        private long insertadas;
+        private long rechazadas;
+
+        private Resultado(int maxErrores) {
+            this.maxErrores = maxErrores;
+        }
+
+        private void rechazar(long linea, String mensaje) {
+            rechazadas++;
+            if (errores.size() < maxErrores) {
+                errores.add(new ImportacionResponse.ErrorImportacion(linea, mensaje));
+            }
+        }
+
+        private ImportacionResponse respuesta(long duracionMs) {
+            // Los errores al guardar un lote se conocen después de los de validación de sus filas
+            errores.sort(Comparator.comparingLong(ImportacionResponse.ErrorImportacion::getLinea));
+            return ImportacionResponse.builder()
+                    .procesadas(procesadas)
+                    .insertadas(insertadas)
+                    .rechazadas(rechazadas)
+                    .duracionMs(duracionMs)
+                    .errores(errores)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+-- Esquema que generaba ddl-auto=update; las bases ya existentes lo toman como baseline
+CREATE TABLE IF NOT EXISTS clientes (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    codigo_unico     VARCHAR(255) NOT NULL,
+    nombres          VARCHAR(255) NOT NULL,
+    apellidos        VARCHAR(255) NOT NULL,
+    tipo_documento   VARCHAR(255) NOT NULL,
+    numero_documento VARCHAR(255) NOT NULL,
+    estado           VARCHAR(255) NOT NULL,
+    created_at       TIMESTAMP(6),
+    CONSTRAINT uk_clientes_codigo_unico UNIQUE (codigo_unico),
+    CONSTRAINT uk_clientes_numero_documento UNIQUE (numero_documento)
+);
@@ -0,0 +1,9 @@
+-- Idempotency-Key de las altas de clientes; se purgan pasado idempotencia.ttl
+CREATE TABLE IF NOT EXISTS claves_idempotencia (
+    clave        VARCHAR(100) PRIMARY KEY,
+    cliente_id   BIGINT       NOT NULL REFERENCES clientes (id) ON DELETE CASCADE,
+    codigo_unico VARCHAR(255) NOT NULL,
+    created_at   TIMESTAMP(6) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_claves_idempotencia_created_at ON claves_idempotencia (created_at);
@@ -0,0 +1,7 @@
+-- Ids por secuencia en bloques de 50 (optimizador pooled de Hibernate): con IDENTITY cada INSERT
+-- tiene que devolver su id y Hibernate no puede agruparlos en batches JDBC.
+-- El valor de la secuencia es el extremo superior de cada bloque, de ahí el + 50
+ALTER TABLE clientes ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE IF NOT EXISTS clientes_seq INCREMENT BY 50 OWNED BY clientes.id;
+SELECT setval('clientes_seq', (SELECT COALESCE(max(id), 0) FROM clientes) + 50, false);
+ALTER TABLE clientes ALTER COLUMN id SET DEFAULT nextval('clientes_seq');
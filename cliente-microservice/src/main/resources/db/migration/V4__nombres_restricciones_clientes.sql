@@ -0,0 +1,29 @@
+-- Una base creada por ddl-auto=update se tomó como baseline en V1 y conserva los nombres que
+-- Hibernate generó para sus restricciones únicas. El alta y la importación reconocen los
+-- duplicados por el nombre de la restricción: se renombran a los de V1, o se crean si faltan
+DO $$
+DECLARE
+    esperada RECORD;
+    actual   TEXT;
+BEGIN
+    FOR esperada IN
+        SELECT * FROM (VALUES ('codigo_unico', 'uk_clientes_codigo_unico'),
+                              ('numero_documento', 'uk_clientes_numero_documento')) AS v (columna, nombre)
+    LOOP
+        SELECT c.conname INTO actual
+        FROM pg_constraint c
+        JOIN pg_attribute a ON a.attrelid = c.conrelid AND a.attnum = c.conkey[1]
+        WHERE c.conrelid = 'clientes'::regclass
+          AND c.contype = 'u'
+          AND cardinality(c.conkey) = 1
+          AND a.attname = esperada.columna
+        ORDER BY c.conname = esperada.nombre DESC
+        LIMIT 1;
+
+        IF actual IS NULL THEN
+            EXECUTE format('ALTER TABLE clientes ADD CONSTRAINT %I UNIQUE (%I)', esperada.nombre, esperada.columna);
+        ELSIF actual <> esperada.nombre THEN
+            EXECUTE format('ALTER TABLE clientes RENAME CONSTRAINT %I TO %I', actual, esperada.nombre);
+        END IF;
+    END LOOP;
+END $$;
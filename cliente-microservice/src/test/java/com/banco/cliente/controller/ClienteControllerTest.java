@@ -0,0 +1,206 @@
+package com.banco.cliente.controller;
+
+import com.banco.cliente.util.CursorUtil;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Páginas de exportación de 2 filas para que el streaming cruce varias
+@SpringBootTest(properties = "exportacion.tamano-lote=2")
+@AutoConfigureMockMvc
+class ClienteControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private static String unico(String prefijo) {
+        return prefijo + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    private static MockHttpServletRequestBuilder alta(String codigo, String documento) {
+        return post("/api/clientes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"codigoUnico":"%s","nombres":"Ana","apellidos":"Torres","tipoDocumento":"DNI","numeroDocumento":"%s"}
+                        """.formatted(codigo, documento));
+    }
+
+    @Test
+    void crear_reintentoConLaMismaClave_deberiaResponder201ConElClienteExistente() throws Exception {
+        String codigo = unico("CLI");
+        String documento = unico("DOC");
+        String clave = unico("clave-");
+
+        String id = mockMvc.perform(alta(codigo, documento).header("Idempotency-Key", clave))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString().replaceAll(".*\"id\":(\\d+).*", "$1");
+
+        mockMvc.perform(alta(codigo, documento).header("Idempotency-Key", clave))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(Long.parseLong(id)))
+                .andExpect(jsonPath("$.codigoUnico").value(codigo));
+    }
+
+    @Test
+    void crear_mismaClaveConOtroCodigo_deberiaResponder400() throws Exception {
+        String clave = unico("clave-");
+        mockMvc.perform(alta(unico("CLI"), unico("DOC")).header("Idempotency-Key", clave))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(alta(unico("CLI"), unico("DOC")).header("Idempotency-Key", clave))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("La clave de idempotencia ya se usó para otro cliente"));
+    }
+
+    @Test
+    void crear_codigoDuplicado_deberiaResponder400() throws Exception {
+        String codigo = unico("CLI");
+        mockMvc.perform(alta(codigo, unico("DOC"))).andExpect(status().isCreated());
+
+        mockMvc.perform(alta(codigo, unico("DOC")))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Ya existe un cliente con este código único"));
+    }
+
+    @Test
+    void crear_documentoDuplicado_deberiaResponder400() throws Exception {
+        String documento = unico("DOC");
+        mockMvc.perform(alta(unico("CLI"), documento)).andExpect(status().isCreated());
+
+        mockMvc.perform(alta(unico("CLI"), documento))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Ya existe un cliente con este número de documento"));
+    }
+
+    @Test
+    void obtenerPagina_recorridoPorCursor_deberiaDevolverCadaClienteUnaVezConClavesIguales() throws Exception {
+        // Cinco clientes con el mismo nombre y apellidos: solo el id los distingue en el orden
+        List<Long> creados = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            String cuerpo = mockMvc.perform(alta(unico("CLI"), unico("DOC")))
+                    .andExpect(status().isCreated())
+                    .andReturn().getResponse().getContentAsString();
+            creados.add(objectMapper.readTree(cuerpo).get("id").asLong());
+        }
+
+        List<Long> leidos = new ArrayList<>();
+        String cursor = CursorUtil.codificar(creados.get(0) - 1);
+        while (cursor != null && (leidos.isEmpty() || leidos.get(leidos.size() - 1) < creados.get(4))) {
+            JsonNode pagina = objectMapper.readTree(mockMvc.perform(get("/api/clientes/pagina")
+                            .param("cursor", cursor)
+                            .param("tamano", "2"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            assertTrue(pagina.get("items").size() <= 2);
+            pagina.get("items").forEach(item -> leidos.add(item.get("id").asLong()));
+            cursor = pagina.hasNonNull("siguienteCursor") ? pagina.get("siguienteCursor").asText() : null;
+        }
+
+        assertEquals(creados, leidos.subList(0, 5));
+    }
+
+    @Test
+    void obtenerPagina_cursorManipuladoOTamanoInvalido_deberiaResponder400() throws Exception {
+        mockMvc.perform(get("/api/clientes/pagina").param("cursor", "no-es-base64!"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Cursor inválido"));
+        // "id:-1" en base64url
+        mockMvc.perform(get("/api/clientes/pagina").param("cursor", "aWQ6LTE"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Cursor inválido"));
+        mockMvc.perform(get("/api/clientes/pagina").param("tamano", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private String exportar(MediaType tipo) throws Exception {
+        MvcResult inicio = mockMvc.perform(get("/api/clientes/exportar").accept(tipo))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(inicio))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(tipo))
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    @Test
+    void exportarNdjson_deberiaEscribirUnaLineaJsonPorFilaEnOrdenDeId() throws Exception {
+        String codigo = unico("EXP");
+        mockMvc.perform(alta(codigo, unico("DOC"))).andExpect(status().isCreated());
+        int filas = jdbcTemplate.queryForObject("select count(*) from clientes", Integer.class);
+
+        String cuerpo = exportar(MediaType.APPLICATION_NDJSON);
+
+        assertTrue(cuerpo.endsWith("\n"));
+        String[] lineas = cuerpo.split("\n");
+        assertEquals(filas, lineas.length);
+        long idAnterior = 0;
+        boolean encontrado = false;
+        for (String linea : lineas) {
+            JsonNode cliente = objectMapper.readTree(linea);
+            assertTrue(cliente.isObject(), linea);
+            assertTrue(cliente.get("id").asLong() > idAnterior, linea);
+            idAnterior = cliente.get("id").asLong();
+            encontrado |= codigo.equals(cliente.path("codigoUnico").asText());
+        }
+        assertTrue(encontrado);
+    }
+
+    @Test
+    void exportarSse_deberiaEscribirUnEventoDataPorFila() throws Exception {
+        String codigo = unico("EXP");
+        mockMvc.perform(alta(codigo, unico("DOC"))).andExpect(status().isCreated());
+        int filas = jdbcTemplate.queryForObject("select count(*) from clientes", Integer.class);
+
+        String cuerpo = exportar(MediaType.TEXT_EVENT_STREAM);
+
+        assertTrue(cuerpo.endsWith("\n\n"));
+        String[] eventos = cuerpo.split("\n\n");
+        assertEquals(filas, eventos.length);
+        for (String evento : eventos) {
+            assertTrue(evento.startsWith("data: {"), evento);
+            objectMapper.readTree(evento.substring("data: ".length()));
+        }
+    }
+
+    @Test
+    void lote_codigoNuloOEnBlanco_deberiaRetornar400EnJsonYNdjson() throws Exception {
+        for (String cuerpo : List.of("[\"A\", null]", "[\"A\", \" \"]")) {
+            for (MediaType formato : List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_NDJSON)) {
+                mockMvc.perform(post("/api/clientes/lote")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .accept(formato)
+                                .content(cuerpo))
+                        .andExpect(status().isBadRequest())
+                        .andExpect(jsonPath("$.message").value("Los códigos no pueden ser nulos ni estar vacíos"));
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.banco.cliente.repository;
+
+import com.banco.cliente.dto.ClienteDTO;
+import com.banco.cliente.entity.Cliente;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Las proyecciones a DTO (constructor en JPQL y la nativa con = any) devuelven lo mismo que
+ * cargar las entidades y mapearlas, como se hacía antes
+ */
+@SpringBootTest
+class ClienteRepositoryTest {
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transaccion;
+
+    private final String prefijo = "DTO" + UUID.randomUUID().toString().substring(0, 6);
+
+    @BeforeEach
+    void setUp() {
+        clienteRepository.saveAllAndFlush(List.of(
+                cliente("A", "Ana María", "Torres Núñez", "DNI", "ACTIVO"),
+                cliente("B", "Luis", "O'Brien", "CE", "INACTIVO"),
+                cliente("C", "Ana María", "Torres Núñez", "PASAPORTE", "ACTIVO")));
+    }
+
+    private Cliente cliente(String sufijo, String nombres, String apellidos, String tipoDocumento, String estado) {
+        return Cliente.builder()
+                .codigoUnico(prefijo + sufijo)
+                .nombres(nombres)
+                .apellidos(apellidos)
+                .tipoDocumento(tipoDocumento)
+                .numeroDocumento("DOC" + prefijo + sufijo)
+                .estado(estado)
+                .build();
+    }
+
+    /**
+     * El camino anterior: entidades gestionadas mapeadas como en ClienteService.mapToDTO
+     */
+    private List<ClienteDTO> entidades(String jpql, Object... parametros) {
+        return transaccion.execute(estado -> {
+            var consulta = entityManager.createQuery(jpql, Cliente.class);
+            for (int i = 0; i < parametros.length; i++) {
+                consulta.setParameter(i + 1, parametros[i]);
+            }
+            return consulta.getResultList().stream()
+                    .map(cliente -> ClienteDTO.builder()
+                            .id(cliente.getId())
+                            .codigoUnico(cliente.getCodigoUnico())
+                            .nombres(cliente.getNombres())
+                            .apellidos(cliente.getApellidos())
+                            .tipoDocumento(cliente.getTipoDocumento())
+                            .numeroDocumento(cliente.getNumeroDocumento())
+                            .estado(cliente.getEstado())
+                            .build())
+                    .toList();
+        });
+    }
+
+    @Test
+    void findDtoByCodigoUnicoIn_deberiaCoincidirConLasEntidadesMapeadas() {
+        List<ClienteDTO> esperados = entidades("from Cliente c where c.codigoUnico in ?1 order by c.id",
+                List.of(prefijo + "A", prefijo + "B", prefijo + "X"));
+
+        assertEquals(2, esperados.size());
+        assertEquals(esperados, clienteRepository.findDtoByCodigoUnicoIn(new String[]{prefijo + "A", prefijo + "B", prefijo + "X"})
+                .stream().sorted(Comparator.comparing(ClienteDTO::getId)).toList());
+    }
+
+    @Test
+    void findDtoByIdGreaterThanYFindAllDto_deberianCoincidirConLasEntidadesMapeadas() {
+        long desde = entidades("from Cliente c where c.codigoUnico = ?1", prefijo + "A").get(0).getId() - 1;
+
+        assertEquals(entidades("from Cliente c where c.id > ?1 order by c.id limit 2", desde),
+                clienteRepository.findDtoByIdGreaterThan(desde, Limit.of(2)));
+        assertEquals(entidades("from Cliente c order by c.id"),
+                clienteRepository.findAllDto().stream().sorted(Comparator.comparing(ClienteDTO::getId)).toList());
+    }
+}
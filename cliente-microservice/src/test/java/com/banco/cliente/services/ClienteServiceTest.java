@@ -0,0 +1,312 @@
+package com.banco.cliente.services;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.banco.cliente.dto.ClienteDTO;
+import com.banco.cliente.dto.ClienteRequest;
+import com.banco.cliente.entity.Cliente;
+import com.banco.cliente.exception.ClienteNotFoundException;
+import com.banco.cliente.repository.ClaveIdempotenciaRepository;
+import com.banco.cliente.repository.ClienteRepository;
+import com.banco.comun.logging.CodigoHash;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.NaturalIdStatistics;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.KeyValuePair;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class ClienteServiceTest {
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ClaveIdempotenciaRepository claveIdempotenciaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transaccion;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private static ClienteRequest request(String codigo, String documento) {
+        return ClienteRequest.builder()
+                .codigoUnico(codigo)
+                .nombres("Ana")
+                .apellidos("Torres")
+                .tipoDocumento("DNI")
+                .numeroDocumento(documento)
+                .build();
+    }
+
+    private static String unico(String prefijo) {
+        return prefijo + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @Test
+    void crear_mismaClaveIdempotencia_deberiaDevolverElClienteCreado() {
+        String clave = unico("clave-");
+        ClienteRequest request = request(unico("CLI"), unico("DOC"));
+
+        ClienteDTO creado = clienteService.crear(request, clave);
+        ClienteDTO reintento = clienteService.crear(request, clave);
+
+        assertEquals(creado, reintento);
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "select count(*) from clientes where codigo_unico = ?", Integer.class, request.getCodigoUnico()));
+    }
+
+    @Test
+    void crear_reintentoConcurrente_deberiaDevolverElAltaDelGanador() throws Exception {
+        String clave = unico("clave-");
+        ClienteRequest request = request(unico("CLI"), unico("DOC"));
+        CountDownLatch insertado = new CountDownLatch(1);
+        CountDownLatch confirmar = new CountDownLatch(1);
+        ExecutorService ejecutor = Executors.newFixedThreadPool(2);
+        try {
+            // El ganador inserta y no hace commit hasta que el perdedor ya ha consultado la clave
+            Future<ClienteDTO> ganador = ejecutor.submit(() -> transaccion.execute(estado -> {
+                ClienteDTO creado = clienteService.crear(request, clave);
+                insertado.countDown();
+                await(confirmar);
+                return creado;
+            }));
+            assertTrue(insertado.await(10, TimeUnit.SECONDS));
+
+            ejecutor.submit(() -> {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(300));
+                confirmar.countDown();
+            });
+            ClienteDTO perdedor = clienteService.crear(request, clave);
+
+            assertEquals(ganador.get(10, TimeUnit.SECONDS), perdedor);
+        } finally {
+            confirmar.countDown();
+            ejecutor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    void crear_claveCaducada_deberiaPurgarlaYEjecutarElAltaDeNuevo() {
+        String clave = unico("clave-");
+        ClienteRequest request = request(unico("CLI"), unico("DOC"));
+        clienteService.crear(request, clave);
+        jdbcTemplate.update("update claves_idempotencia set created_at = ? where clave = ?",
+                LocalDateTime.now().minusDays(2), clave);
+
+        // El alta se repite y choca con el cliente que ya existe
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> clienteService.crear(request, clave));
+
+        assertEquals("Ya existe un cliente con este código único", error.getMessage());
+        assertFalse(claveIdempotenciaRepository.existsById(clave));
+    }
+
+    @Test
+    void crear_claveCaducadaDeUnClienteBorrado_deberiaCrearloDeNuevo() {
+        String clave = unico("clave-");
+        ClienteRequest request = request(unico("CLI"), unico("DOC"));
+        ClienteDTO anterior = clienteService.crear(request, clave);
+        jdbcTemplate.update("update claves_idempotencia set created_at = ? where clave = ?",
+                LocalDateTime.now().minusDays(2), clave);
+        jdbcTemplate.update("delete from clientes where id = ?", anterior.getId());
+
+        ClienteDTO nuevo = clienteService.crear(request, clave);
+
+        assertTrue(nuevo.getId() > anterior.getId());
+        assertTrue(claveIdempotenciaRepository.existsById(clave));
+    }
+
+    @Test
+    void purgarClavesIdempotencia_deberiaBorrarSoloLasCaducadas() {
+        String caducada = unico("clave-");
+        String vigente = unico("clave-");
+        clienteService.crear(request(unico("CLI"), unico("DOC")), caducada);
+        clienteService.crear(request(unico("CLI"), unico("DOC")), vigente);
+        jdbcTemplate.update("update claves_idempotencia set created_at = ? where clave = ?",
+                LocalDateTime.now().minusDays(2), caducada);
+
+        clienteService.purgarClavesIdempotencia();
+
+        assertFalse(claveIdempotenciaRepository.existsById(caducada));
+        assertTrue(claveIdempotenciaRepository.existsById(vigente));
+    }
+
+    @Test
+    void crear_claveReutilizadaParaOtroCliente_deberiaRechazarse() {
+        String clave = unico("clave-");
+        clienteService.crear(request(unico("CLI"), unico("DOC")), clave);
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> clienteService.crear(request(unico("CLI"), unico("DOC")), clave));
+
+        assertEquals("La clave de idempotencia ya se usó para otro cliente", error.getMessage());
+    }
+
+    @Test
+    void crear_documentoDuplicado_deberiaRechazarseSinCrearNada() {
+        String documento = unico("DOC");
+        clienteService.crear(request(unico("CLI"), documento), null);
+        long antes = clienteRepository.count();
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> clienteService.crear(request(unico("CLI"), documento), null));
+
+        assertEquals("Ya existe un cliente con este número de documento", error.getMessage());
+        assertEquals(antes, clienteRepository.count());
+    }
+
+    @Test
+    void obtenerPorCodigoUnico_noExiste_deberiaRegistrarSoloElSeudonimo() {
+        String codigo = unico("CLI");
+
+        List<ILoggingEvent> eventos = registros(() -> assertThrows(ClienteNotFoundException.class,
+                () -> clienteService.obtenerPorCodigoUnico(codigo)));
+
+        ILoggingEvent noEncontrado = eventos.stream()
+                .filter(evento -> evento.getMessage().equals("Cliente no encontrado"))
+                .findFirst().orElseThrow();
+        assertEquals("WARN", noEncontrado.getLevel().toString());
+        assertEquals(CodigoHash.de(codigo), valores(noEncontrado).get("codigoClienteHash"));
+        assertSinDatoEnClaro(eventos, codigo);
+    }
+
+    @Test
+    void crear_documentoDuplicado_deberiaRegistrarSoloSeudonimos() {
+        String documento = unico("DOC");
+        clienteService.crear(request(unico("CLI"), documento), null);
+        String codigo = unico("CLI");
+
+        List<ILoggingEvent> eventos = registros(() -> assertThrows(IllegalArgumentException.class,
+                () -> clienteService.crear(request(codigo, documento), null)));
+
+        ILoggingEvent duplicado = eventos.stream()
+                .filter(evento -> evento.getMessage().equals("Ya existe un cliente con este número de documento"))
+                .findFirst().orElseThrow();
+        assertEquals(CodigoHash.de(codigo), valores(duplicado).get("codigoClienteHash"));
+        assertEquals(CodigoHash.de(documento), valores(duplicado).get("numeroDocumentoHash"));
+        assertSinDatoEnClaro(eventos, codigo);
+        assertSinDatoEnClaro(eventos, documento);
+    }
+
+    /**
+     * Eventos de log de ClienteService emitidos mientras corre la acción
+     */
+    private static List<ILoggingEvent> registros(Runnable accion) {
+        Logger logger = (Logger) LoggerFactory.getLogger(ClienteService.class);
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        logger.addAppender(appender);
+        try {
+            accion.run();
+        } finally {
+            logger.detachAppender(appender);
+        }
+        return appender.list;
+    }
+
+    private static Map<String, Object> valores(ILoggingEvent evento) {
+        return evento.getKeyValuePairs().stream().collect(Collectors.toMap(par -> par.key, par -> par.value));
+    }
+
+    private static void assertSinDatoEnClaro(List<ILoggingEvent> eventos, String dato) {
+        for (ILoggingEvent evento : eventos) {
+            assertFalse(evento.getFormattedMessage().contains(dato), evento.getFormattedMessage());
+            if (evento.getKeyValuePairs() != null) {
+                for (KeyValuePair par : evento.getKeyValuePairs()) {
+                    assertFalse(String.valueOf(par.value).contains(dato), par.toString());
+                }
+            }
+        }
+    }
+
+    private SessionFactory sessionFactory() {
+        return entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    private NaturalIdStatistics estadisticasPorCodigo() {
+        return sessionFactory().getStatistics().getNaturalIdStatistics(Cliente.class.getName());
+    }
+
+    @Test
+    void obtenerPorCodigoUnico_segundaLectura_deberiaResolverElCodigoDesdeLaCache() {
+        ClienteDTO creado = clienteService.crear(request(unico("CLI"), unico("DOC")), null);
+
+        clienteService.obtenerPorCodigoUnico(creado.getCodigoUnico());
+        long consultas = estadisticasPorCodigo().getExecutionCount();
+        clienteService.obtenerPorCodigoUnico(creado.getCodigoUnico());
+
+        // codigoUnico -> id sale de "clientes-codigo" sin volver a la base
+        assertEquals(consultas, estadisticasPorCodigo().getExecutionCount());
+        assertTrue(sessionFactory().getCache().containsEntity(Cliente.class, creado.getId()));
+    }
+
+    @Test
+    void actualizar_deberiaReemplazarElClienteCacheado() {
+        ClienteDTO creado = clienteService.crear(request(unico("CLI"), unico("DOC")), null);
+        clienteService.obtenerPorCodigoUnico(creado.getCodigoUnico());
+
+        clienteService.actualizar(creado.getId(), ClienteRequest.builder()
+                .nombres("Lucía")
+                .apellidos("Ramos")
+                .tipoDocumento("CE")
+                .build());
+
+        ClienteDTO leido = clienteService.obtenerPorCodigoUnico(creado.getCodigoUnico());
+        assertEquals("Lucía", leido.getNombres());
+        assertEquals("Ramos", leido.getApellidos());
+        assertEquals("CE", leido.getTipoDocumento());
+    }
+
+    @Test
+    void eliminar_deberiaInvalidarElNaturalIdCacheado() {
+        ClienteDTO creado = clienteService.crear(request(unico("CLI"), unico("DOC")), null);
+        clienteService.obtenerPorCodigoUnico(creado.getCodigoUnico());
+        clienteService.obtenerPorCodigoUnico(creado.getCodigoUnico());
+
+        clienteService.eliminar(creado.getId());
+        long aciertos = estadisticasPorCodigo().getCacheHitCount();
+
+        // La entrada de natural-id ya no resuelve el código: se consulta la base y no lo encuentra
+        assertThrows(ClienteNotFoundException.class, () -> clienteService.obtenerPorCodigoUnico(creado.getCodigoUnico()));
+        assertEquals(aciertos, estadisticasPorCodigo().getCacheHitCount());
+    }
+}
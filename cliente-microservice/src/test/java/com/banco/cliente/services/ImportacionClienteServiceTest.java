@@ -0,0 +1,208 @@
+package com.banco.cliente.services;
+
+import com.banco.cliente.cache.ClienteModificadoEvent;
+import com.banco.cliente.dto.ClienteRequest;
+import com.banco.cliente.dto.ImportacionResponse;
+import com.banco.cliente.entity.Cliente;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.SequenceGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@RecordApplicationEvents
+class ImportacionClienteServiceTest {
+
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private ApplicationEvents eventos;
+
+    private final String prefijo = "IMP" + UUID.randomUUID().toString().substring(0, 6);
+
+    private ImportacionClienteService servicio(int tamanoLote, int maxErrores) {
+        return new ImportacionClienteService(entityManager, transactionManager, objectMapper, tamanoLote, maxErrores);
+    }
+
+    private static ImportacionResponse importar(ImportacionClienteService servicio, String cuerpo, MediaType tipo)
+            throws IOException {
+        return servicio.importar(new ByteArrayInputStream(cuerpo.getBytes(StandardCharsets.UTF_8)), tipo);
+    }
+
+    private String filaCsv(int i) {
+        return prefijo + i + ",Ana,Torres,DNI,D" + prefijo + i;
+    }
+
+    private int importados() {
+        return jdbcTemplate.queryForObject("select count(*) from clientes where codigo_unico like ?",
+                Integer.class, prefijo + "%");
+    }
+
+    @Test
+    void importar_csvConCabecera_deberiaInsertarCadaFila() throws IOException {
+        String csv = "codigoUnico,nombres,apellidos,tipoDocumento,numeroDocumento\n"
+                + IntStream.range(0, 5).mapToObj(this::filaCsv).collect(Collectors.joining("\n"));
+
+        ImportacionResponse respuesta = importar(servicio(2, 10), csv, TEXT_CSV);
+
+        assertEquals(5, respuesta.getProcesadas());
+        assertEquals(5, respuesta.getInsertadas());
+        assertEquals(0, respuesta.getRechazadas());
+        assertEquals(5, importados());
+    }
+
+    @Test
+    void importar_csvConColumnasEnOtroOrden_deberiaUsarLaCabecera() throws IOException {
+        String csv = "numeroDocumento,codigoUnico,tipoDocumento,apellidos,nombres\n"
+                + "D" + prefijo + ",\"" + prefijo + "\",DNI,Torres,Ana\n";
+
+        importar(servicio(10, 10), csv, TEXT_CSV);
+
+        assertEquals("D" + prefijo, jdbcTemplate.queryForObject(
+                "select numero_documento from clientes where codigo_unico = ?", String.class, prefijo));
+    }
+
+    @Test
+    void importar_csvConColumnaDesconocida_deberiaRechazarLaImportacion() {
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> importar(servicio(10, 10), "codigoUnico,edad\n" + prefijo + ",30\n", TEXT_CSV));
+
+        assertEquals("Columna desconocida en la cabecera: edad", error.getMessage());
+    }
+
+    @Test
+    void importar_ndjson_deberiaInsertarCadaLineaIgnorandoLasVacias() throws IOException {
+        String ndjson = """
+                {"codigoUnico":"%1$s1","nombres":"Ana","apellidos":"Torres","tipoDocumento":"DNI","numeroDocumento":"D%1$s1"}
+
+                {"codigoUnico":"%1$s2","nombres":"Luis","apellidos":"Rojas","tipoDocumento":"DNI","numeroDocumento":"D%1$s2"}
+                """.formatted(prefijo);
+
+        ImportacionResponse respuesta = importar(servicio(10, 10), ndjson, MediaType.APPLICATION_NDJSON);
+
+        assertEquals(2, respuesta.getProcesadas());
+        assertEquals(2, respuesta.getInsertadas());
+        assertEquals(2, importados());
+    }
+
+    @Test
+    void importar_filaMalFormadaYCampoObligatorio_deberianReportarseConSuLinea() throws IOException {
+        String ndjson = """
+                {"codigoUnico":"%1$s1","nombres":"Ana","apellidos":"Torres","tipoDocumento":"DNI","numeroDocumento":"D%1$s1"}
+                {"codigoUnico":"%1$s2","nombres":
+                {"codigoUnico":"%1$s3","nombres":"Luis","apellidos":"Rojas","tipoDocumento":"DNI"}
+                """.formatted(prefijo);
+
+        ImportacionResponse respuesta = importar(servicio(10, 10), ndjson, MediaType.APPLICATION_NDJSON);
+
+        assertEquals(3, respuesta.getProcesadas());
+        assertEquals(1, respuesta.getInsertadas());
+        assertEquals(2, respuesta.getRechazadas());
+        assertEquals(2, respuesta.getErrores().get(0).getLinea());
+        assertTrue(respuesta.getErrores().get(0).getMensaje().startsWith("Fila mal formada"));
+        assertEquals(new ImportacionResponse.ErrorImportacion(3, "numeroDocumento es obligatorio"),
+                respuesta.getErrores().get(1));
+    }
+
+    @Test
+    void importar_loteConDuplicado_deberiaReintentarFilaAFilaYReportarLaLinea() throws IOException {
+        String existente = prefijo + "X";
+        clienteService.crear(new ClienteRequest(existente, "Ana", "Torres", "DNI", "D" + existente), null);
+        // Cabecera en la línea 1; el duplicado de código en la 3 y el de documento en la 5
+        String csv = "codigoUnico,nombres,apellidos,tipoDocumento,numeroDocumento\n"
+                + filaCsv(1) + "\n"
+                + existente + ",Ana,Torres,DNI,OTRO" + prefijo + "\n"
+                + filaCsv(2) + "\n"
+                + prefijo + "9,Ana,Torres,DNI,D" + existente + "\n";
+
+        ImportacionResponse respuesta = importar(servicio(10, 10), csv, TEXT_CSV);
+
+        assertEquals(4, respuesta.getProcesadas());
+        assertEquals(2, respuesta.getInsertadas());
+        assertEquals(List.of(
+                new ImportacionResponse.ErrorImportacion(3, "Ya existe un cliente con este código único"),
+                new ImportacionResponse.ErrorImportacion(5, "Ya existe un cliente con este número de documento")),
+                respuesta.getErrores());
+        assertEquals(3, importados());
+    }
+
+    @Test
+    void importar_masErroresQueElMaximo_deberiaContarlosTodosYDetallarSoloLosPrimeros() throws IOException {
+        String csv = "codigoUnico,nombres,apellidos,tipoDocumento,numeroDocumento\n"
+                + IntStream.range(0, 5).mapToObj(i -> prefijo + i + ",Ana,,DNI,D" + i).collect(Collectors.joining("\n"));
+
+        ImportacionResponse respuesta = importar(servicio(10, 2), csv, TEXT_CSV);
+
+        assertEquals(5, respuesta.getRechazadas());
+        assertEquals(2, respuesta.getErrores().size());
+        assertEquals(2, respuesta.getErrores().get(0).getLinea());
+        assertEquals(3, respuesta.getErrores().get(1).getLinea());
+    }
+
+    @Test
+    void importar_clientesNuevos_noDeberiaInvalidarLaCacheDelBff() throws IOException {
+        String csv = "codigoUnico,nombres,apellidos,tipoDocumento,numeroDocumento\n" + filaCsv(1) + "\n";
+
+        importar(servicio(10, 10), csv, TEXT_CSV);
+
+        assertEquals(0, eventos.stream(ClienteModificadoEvent.class).count());
+    }
+
+    @Test
+    void importar_idsPorSecuencia_deberianSalirEnBloquesDeLaMigracion() throws Exception {
+        String csv = "codigoUnico,nombres,apellidos,tipoDocumento,numeroDocumento\n"
+                + IntStream.range(0, 60).mapToObj(this::filaCsv).collect(Collectors.joining("\n"));
+
+        importar(servicio(100, 10), csv, TEXT_CSV);
+
+        // Un nextval cada allocationSize filas: los ids de un lote son consecutivos
+        List<Long> ids = jdbcTemplate.queryForList(
+                "select id from clientes where codigo_unico like ? order by id", Long.class, prefijo + "%");
+        assertEquals(60, ids.size());
+        assertEquals(59, ids.get(59) - ids.get(0));
+
+        // El allocationSize de la entidad tiene que coincidir con el INCREMENT BY de V3
+        int allocationSize = Cliente.class.getDeclaredField("id").getAnnotation(SequenceGenerator.class).allocationSize();
+        String v3 = new ClassPathResource("db/migration/V3__secuencia_clientes.sql").getContentAsString(StandardCharsets.UTF_8);
+        Matcher incremento = Pattern.compile("INCREMENT BY (\\d+)").matcher(v3);
+        assertTrue(incremento.find());
+        assertEquals(allocationSize, Integer.parseInt(incremento.group(1)));
+    }
+}
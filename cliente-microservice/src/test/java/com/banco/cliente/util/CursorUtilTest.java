@@ -0,0 +1,39 @@
+package com.banco.cliente.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CursorUtilTest {
+
+    private static String base64(String valor) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void codificarYDecodificar_deberiaDevolverElMismoId() {
+        assertEquals(0L, CursorUtil.decodificar(CursorUtil.codificar(0L)));
+        assertEquals(42L, CursorUtil.decodificar(CursorUtil.codificar(42L)));
+        assertEquals(Long.MAX_VALUE, CursorUtil.decodificar(CursorUtil.codificar(Long.MAX_VALUE)));
+    }
+
+    @Test
+    void decodificar_sinCursor_deberiaEmpezarDesdeElPrincipio() {
+        assertEquals(0L, CursorUtil.decodificar(null));
+        assertEquals(0L, CursorUtil.decodificar(" "));
+    }
+
+    @Test
+    void decodificar_cursorManipulado_deberiaLanzarIllegalArgumentException() {
+        // No es base64, no lleva el prefijo, el id no es un número o es negativo
+        for (String cursor : new String[]{"no-es-base64!", base64("42"), base64("id:abc"), base64("id:-1"), base64("id:")}) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                    () -> CursorUtil.decodificar(cursor), cursor);
+            assertEquals("Cursor inválido", e.getMessage());
+        }
+    }
+}
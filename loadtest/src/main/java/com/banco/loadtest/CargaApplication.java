@@ -0,0 +1,112 @@
+package com.banco.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Prueba de carga extremo a extremo sin infraestructura externa: arranca cliente,
+ * productos y BFF desde sus jars con el perfil {@code loadtest} (H2 en memoria),
+ * siembra los datos, genera tráfico de modelo abierto contra
+ * {@code GET /bff/api/clientes/{codigoEncriptado}} y deja el resultado en JSON.
+ */
+public final class CargaApplication {
+
+    private static final Duration ARRANQUE_MAXIMO = Duration.ofMinutes(3);
+
+    private CargaApplication() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Configuracion config = Configuracion.desdeArgumentos(args);
+        ObjectMapper json = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        Path directorio = config.resultado();
+        Files.createDirectories(directorio);
+
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(2))
+                .executor(executor)
+                .build();
+
+        String urlCliente = "http://localhost:" + config.puertoCliente() + "/cliente";
+        String urlProductos = "http://localhost:" + config.puertoProductos() + "/productos";
+        List<String> argsBff = new ArrayList<>(config.argsBff());
+        argsBff.add("--cliente.service.url=" + urlCliente);
+        argsBff.add("--productos.service.url=" + urlProductos);
+
+        List<Path> h2 = List.of(ServicioLocal.jar(config.raiz(), "loadtest", "h2-*.jar"));
+        Path logs = directorio.resolve("logs");
+        int codigoSalida = 0;
+        try (ServicioLocal cliente = ServicioLocal.arrancar("cliente",
+                     ServicioLocal.jar(config.raiz(), "cliente-microservice", "cliente-microservice-*.jar"), h2,
+                     config.puertoCliente(), "/cliente", config.jvmOpts(), config.argsCliente(), logs);
+             ServicioLocal productos = ServicioLocal.arrancar("productos",
+                     ServicioLocal.jar(config.raiz(), "productos-microservice", "productos-microservice-*-exec.jar"), h2,
+                     config.puertoProductos(), "/productos", config.jvmOpts(), config.argsProductos(), logs);
+             ServicioLocal bff = ServicioLocal.arrancar("bff",
+                     ServicioLocal.jar(config.raiz(), "bff-microservice", "bff-microservice-*-exec.jar"), List.of(),
+                     config.puertoBff(), "/bff", config.jvmOpts(), argsBff, logs)) {
+
+            cliente.esperarDisponible(http, ARRANQUE_MAXIMO);
+            productos.esperarDisponible(http, ARRANQUE_MAXIMO);
+            bff.esperarDisponible(http, ARRANQUE_MAXIMO);
+
+            Sembrador sembrador = new Sembrador(http, json);
+            System.out.printf("Sembrando %d clientes con %d productos cada uno...%n",
+                    config.clientes(), config.productosPorCliente());
+            List<String> codigos = sembrador.sembrar(cliente.urlBase(), productos.urlBase(),
+                    config.clientes(), config.productosPorCliente());
+            String token = sembrador.login(bff.urlBase());
+            List<String> cifrados = sembrador.cifrar(bff.urlBase(), token, codigos);
+
+            GeneradorCarga generador = new GeneradorCarga(http, bff.urlBase(), token, cifrados,
+                    config.timeout(), config.maxEnVuelo());
+            if (!config.calentamiento().isZero()) {
+                System.out.printf("Calentamiento: %d req/s durante %ds%n",
+                        config.tasa(), config.calentamiento().toSeconds());
+                generador.ejecutar(config.tasa(), config.calentamiento());
+            }
+            System.out.printf("Medición: %d req/s durante %ds%n", config.tasa(), config.duracion().toSeconds());
+            Resultado resultado = generador.ejecutar(config.tasa(), config.duracion());
+
+            Map<String, Object> informe = new LinkedHashMap<>();
+            informe.put("fecha", LocalDateTime.now().toString());
+            informe.put("clientes", config.clientes());
+            informe.put("productosPorCliente", config.productosPorCliente());
+            informe.put("jvmOpts", config.jvmOpts());
+            informe.put("resultado", resultado);
+
+            Path archivo = directorio.resolve("carga-"
+                    + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json");
+            json.writeValue(archivo.toFile(), informe);
+            System.out.println(json.writeValueAsString(resultado));
+            System.out.println("Resultado guardado en " + archivo);
+            if (resultado.tasaErrores() > config.maxTasaErrores()) {
+                System.err.printf("Tasa de errores %.4f supera el máximo %.4f%n",
+                        resultado.tasaErrores(), config.maxTasaErrores());
+                codigoSalida = 1;
+            }
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
+            codigoSalida = 2;
+        } finally {
+            executor.shutdownNow();
+        }
+        System.exit(codigoSalida);
+    }
+}
@@ -0,0 +1,82 @@
+package com.banco.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Opciones del arnés, en formato {@code --clave=valor}
+ */
+record Configuracion(
+        Path raiz,
+        int clientes,
+        int productosPorCliente,
+        int tasa,
+        Duration calentamiento,
+        Duration duracion,
+        int maxEnVuelo,
+        Duration timeout,
+        double maxTasaErrores,
+        int puertoBff,
+        int puertoCliente,
+        int puertoProductos,
+        List<String> jvmOpts,
+        List<String> argsBff,
+        List<String> argsCliente,
+        List<String> argsProductos,
+        Path resultado) {
+
+    static Configuracion desdeArgumentos(String[] args) {
+        Map<String, String> opciones = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Argumento inválido (se espera --clave=valor): " + arg);
+            }
+            int separador = arg.indexOf('=');
+            opciones.put(arg.substring(2, separador), arg.substring(separador + 1));
+        }
+
+        Path raiz = Path.of(opciones.getOrDefault("raiz", ".")).toAbsolutePath().normalize();
+        Configuracion configuracion = new Configuracion(
+                raiz,
+                entero(opciones, "clientes", 1000),
+                entero(opciones, "productos", 5),
+                entero(opciones, "tasa", 500),
+                Duration.ofSeconds(entero(opciones, "calentamiento", 30)),
+                Duration.ofSeconds(entero(opciones, "duracion", 120)),
+                entero(opciones, "max-en-vuelo", 2000),
+                Duration.ofMillis(entero(opciones, "timeout-ms", 5000)),
+                Double.parseDouble(opciones.getOrDefault("max-tasa-errores", "0.01")),
+                entero(opciones, "puerto-bff", 18081),
+                entero(opciones, "puerto-cliente", 18082),
+                entero(opciones, "puerto-productos", 18083),
+                lista(opciones, "jvm-opts", "-Xms512m -Xmx512m"),
+                lista(opciones, "args-bff", ""),
+                lista(opciones, "args-cliente", ""),
+                lista(opciones, "args-productos", ""),
+                opciones.containsKey("resultado")
+                        ? Path.of(opciones.get("resultado"))
+                        : raiz.resolve("loadtest/target/resultados"));
+
+        opciones.keySet().removeAll(List.of("raiz", "clientes", "productos", "tasa", "calentamiento", "duracion",
+                "max-en-vuelo", "timeout-ms", "max-tasa-errores", "puerto-bff", "puerto-cliente", "puerto-productos",
+                "jvm-opts", "args-bff", "args-cliente", "args-productos", "resultado"));
+        if (!opciones.isEmpty()) {
+            throw new IllegalArgumentException("Opciones desconocidas: " + opciones.keySet());
+        }
+        return configuracion;
+    }
+
+    private static int entero(Map<String, String> opciones, String clave, int defecto) {
+        String valor = opciones.get(clave);
+        return valor == null ? defecto : Integer.parseInt(valor.trim());
+    }
+
+    private static List<String> lista(Map<String, String> opciones, String clave, String defecto) {
+        String valor = opciones.getOrDefault(clave, defecto).trim();
+        return valor.isEmpty() ? List.of() : Arrays.asList(valor.split("\\s+"));
+    }
+}
@@ -0,0 +1,135 @@
+package com.banco.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Carga de modelo abierto: las peticiones salen a tasa constante sin esperar a
+ * las anteriores, como llegan los usuarios reales. La latencia se mide desde el
+ * instante en que cada petición debía salir, así que un servicio saturado no
+ * frena al generador ni esconde su cola.
+ */
+final class GeneradorCarga {
+
+    private static final long MAX_LATENCIA_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private final HttpClient http;
+    private final List<HttpRequest> peticiones;
+    private final int maxEnVuelo;
+
+    GeneradorCarga(HttpClient http, String urlBff, String token, List<String> codigosCifrados,
+                   Duration timeout, int maxEnVuelo) {
+        this.http = http;
+        this.maxEnVuelo = maxEnVuelo;
+        this.peticiones = codigosCifrados.stream()
+                .map(codigo -> HttpRequest.newBuilder(URI.create(urlBff + "/api/clientes/"
+                                + URLEncoder.encode(codigo, StandardCharsets.UTF_8)))
+                        .header("Authorization", "Bearer " + token)
+                        .timeout(timeout)
+                        .GET()
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Enviar peticiones a la tasa indicada durante la duración indicada
+     */
+    Resultado ejecutar(int tasa, Duration duracion) throws InterruptedException {
+        Histogram latencias = new ConcurrentHistogram(MAX_LATENCIA_MICROS, 3);
+        Histogram latenciasExitosas = new ConcurrentHistogram(MAX_LATENCIA_MICROS, 3);
+        Map<String, LongAdder> errores = new ConcurrentHashMap<>();
+        LongAdder exitosas = new LongAdder();
+        LongAdder completadas = new LongAdder();
+        AtomicInteger enVuelo = new AtomicInteger();
+
+        long intervalo = TimeUnit.SECONDS.toNanos(1) / tasa;
+        long total = duracion.toNanos() / intervalo;
+        long inicio = System.nanoTime();
+
+        for (long i = 0; i < total; i++) {
+            long programado = inicio + i * intervalo;
+            long espera;
+            while ((espera = programado - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(espera);
+            }
+
+            if (enVuelo.get() >= maxEnVuelo) {
+                // El servicio no da abasto: se cuenta como error en vez de retrasar el envío
+                errores.computeIfAbsent("saturacion-cliente", k -> new LongAdder()).increment();
+                continue;
+            }
+            enVuelo.incrementAndGet();
+            HttpRequest peticion = peticiones.get(ThreadLocalRandom.current().nextInt(peticiones.size()));
+            http.sendAsync(peticion, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((respuesta, error) -> {
+                        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - programado);
+                        latencias.recordValue(Math.min(micros, MAX_LATENCIA_MICROS));
+                        completadas.increment();
+                        if (error != null) {
+                            String tipo = error.getCause() instanceof HttpTimeoutException ? "timeout"
+                                    : (error.getCause() != null ? error.getCause() : error).getClass().getSimpleName();
+                            errores.computeIfAbsent(tipo, k -> new LongAdder()).increment();
+                        } else if (respuesta.statusCode() == 200) {
+                            exitosas.increment();
+                            latenciasExitosas.recordValue(Math.min(micros, MAX_LATENCIA_MICROS));
+                        } else {
+                            errores.computeIfAbsent("http-" + respuesta.statusCode(), k -> new LongAdder()).increment();
+                        }
+                        enVuelo.decrementAndGet();
+                    });
+        }
+
+        while (enVuelo.get() > 0) {
+            Thread.sleep(10);
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+
+        Map<String, Long> resumenErrores = new TreeMap<>();
+        errores.forEach((tipo, contador) -> resumenErrores.put(tipo, contador.sum()));
+        long totalErrores = resumenErrores.values().stream().mapToLong(Long::longValue).sum();
+
+        return new Resultado(
+                tasa,
+                segundos,
+                total,
+                completadas.sum(),
+                exitosas.sum(),
+                exitosas.sum() / segundos,
+                total == 0 ? 0 : (double) totalErrores / total,
+                resumenErrores,
+                latencias(latencias),
+                latencias(latenciasExitosas));
+    }
+
+    private static Resultado.Latencias latencias(Histogram histograma) {
+        return new Resultado.Latencias(
+                ms(histograma.getValueAtPercentile(50)),
+                ms(histograma.getValueAtPercentile(90)),
+                ms(histograma.getValueAtPercentile(99)),
+                ms(histograma.getValueAtPercentile(99.9)),
+                ms(histograma.getMaxValue()),
+                histograma.getMean() / 1000.0);
+    }
+
+    private static double ms(long micros) {
+        return micros / 1000.0;
+    }
+}
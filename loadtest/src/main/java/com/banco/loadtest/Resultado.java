@@ -0,0 +1,26 @@
+package com.banco.loadtest;
+
+import java.util.Map;
+
+/**
+ * Resultado de una fase de carga, serializado a JSON
+ */
+record Resultado(
+        double tasaObjetivo,
+        double duracionSegundos,
+        long programadas,
+        long completadas,
+        long exitosas,
+        double throughput,
+        double tasaErrores,
+        Map<String, Long> errores,
+        Latencias latenciasMs,
+        Latencias latenciasExitosasMs) {
+
+    /**
+     * Latencias medidas desde el instante programado de cada petición (sin omisión coordinada);
+     * latenciasExitosasMs solo cuenta las respuestas 200, las admitidas cuando el BFF rechaza con 503
+     */
+    record Latencias(double p50, double p90, double p99, double p999, double max, double media) {
+    }
+}
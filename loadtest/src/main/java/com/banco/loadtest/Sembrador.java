@@ -0,0 +1,163 @@
+package com.banco.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Siembra los datos de la prueba a través de las APIs de los servicios
+ */
+final class Sembrador {
+
+    private static final int CONCURRENCIA = 64;
+    private static final int REINTENTOS_503 = 30;
+    private static final String[] TIPOS = {"CUENTA_AHORROS", "CUENTA_CORRIENTE", "TARJETA_CREDITO", "PRESTAMO"};
+
+    private final HttpClient http;
+    private final ObjectMapper json;
+
+    Sembrador(HttpClient http, ObjectMapper json) {
+        this.http = http;
+        this.json = json;
+    }
+
+    /**
+     * Crear N clientes con M productos cada uno y devolver sus códigos
+     */
+    List<String> sembrar(String urlCliente, String urlProductos, int clientes, int productosPorCliente) {
+        List<String> codigos = IntStream.rangeClosed(1, clientes)
+                .mapToObj(i -> String.format("LT%07d", i))
+                .toList();
+
+        enParalelo(codigos, codigo -> {
+            CompletableFuture<String> cadena = crear(urlCliente + "/api/clientes", Map.of(
+                    "codigoUnico", codigo,
+                    "nombres", "Cliente",
+                    "apellidos", "Carga " + codigo,
+                    "tipoDocumento", "CC",
+                    "numeroDocumento", "9" + codigo.substring(2)));
+            for (int i = 0; i < productosPorCliente; i++) {
+                Map<String, Object> producto = Map.of(
+                        "codigoCliente", codigo,
+                        "tipoProducto", TIPOS[i % TIPOS.length],
+                        "nombre", "Producto " + (i + 1),
+                        "saldo", BigDecimal.valueOf(100_000L * (i + 1), 2));
+                cadena = cadena.thenCompose(ignorado -> crear(urlProductos + "/api/productos", producto));
+            }
+            return cadena;
+        });
+        return codigos;
+    }
+
+    /**
+     * Obtener un JWT del BFF
+     */
+    String login(String urlBff) {
+        HttpRequest login = HttpRequest.newBuilder(URI.create(urlBff + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(cuerpo(Map.of("username", "loadtest", "password", "loadtest"))))
+                .build();
+        HttpResponse<String> respuesta = http.sendAsync(login, HttpResponse.BodyHandlers.ofString()).join();
+        if (respuesta.statusCode() != 200) {
+            throw new IllegalStateException("Login fallido en el BFF: HTTP " + respuesta.statusCode());
+        }
+        try {
+            return json.readTree(respuesta.body()).path("access_token").asText();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Respuesta de login inválida", e);
+        }
+    }
+
+    /**
+     * Cifrar los códigos con el endpoint del BFF, que usa la misma clave que la petición medida
+     */
+    List<String> cifrar(String urlBff, String token, List<String> codigos) {
+        return enParalelo(codigos, codigo -> {
+            HttpRequest peticion = HttpRequest.newBuilder(URI.create(urlBff + "/api/clientes/test/encrypt/"
+                            + URLEncoder.encode(codigo, StandardCharsets.UTF_8)))
+                    .header("Authorization", "Bearer " + token)
+                    .build();
+            return conReintentos(peticion, REINTENTOS_503)
+                    .thenApply(respuesta -> cuerpoSiExito(respuesta, 200));
+        });
+    }
+
+    /**
+     * Enviar una petición reintentando los 503 del límite de concurrencia del BFF tras el
+     * Retry-After indicado más un jitter, para no volver todos a la vez
+     */
+    private CompletableFuture<HttpResponse<String>> conReintentos(HttpRequest peticion, int reintentos) {
+        return http.sendAsync(peticion, HttpResponse.BodyHandlers.ofString())
+                .thenCompose(respuesta -> {
+                    if (respuesta.statusCode() != 503 || reintentos == 0) {
+                        return CompletableFuture.completedFuture(respuesta);
+                    }
+                    long espera = TimeUnit.SECONDS.toMillis(respuesta.headers().firstValueAsLong("Retry-After").orElse(1))
+                            + ThreadLocalRandom.current().nextLong(1000);
+                    Executor diferido = CompletableFuture.delayedExecutor(espera, TimeUnit.MILLISECONDS);
+                    return CompletableFuture.supplyAsync(() -> peticion, diferido)
+                            .thenCompose(mismaPeticion -> conReintentos(mismaPeticion, reintentos - 1));
+                });
+    }
+
+    private CompletableFuture<String> crear(String url, Map<String, ?> datos) {
+        HttpRequest peticion = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(cuerpo(datos)))
+                .build();
+        return http.sendAsync(peticion, HttpResponse.BodyHandlers.ofString())
+                .thenApply(respuesta -> cuerpoSiExito(respuesta, 201));
+    }
+
+    private static String cuerpoSiExito(HttpResponse<String> respuesta, int esperado) {
+        if (respuesta.statusCode() != esperado) {
+            throw new IllegalStateException(respuesta.request().method() + " " + respuesta.uri()
+                    + " respondió HTTP " + respuesta.statusCode() + ": " + respuesta.body());
+        }
+        return respuesta.body();
+    }
+
+    private String cuerpo(Map<String, ?> datos) {
+        try {
+            return json.writeValueAsString(datos);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Ejecutar una tarea asíncrona por entrada con concurrencia acotada, conservando el orden
+     */
+    private static <T> List<T> enParalelo(List<String> entradas, Function<String, CompletableFuture<T>> tarea) {
+        Semaphore permisos = new Semaphore(CONCURRENCIA);
+        List<CompletableFuture<T>> pendientes = new ArrayList<>(entradas.size());
+        for (String entrada : entradas) {
+            permisos.acquireUninterruptibly();
+            pendientes.add(tarea.apply(entrada).whenComplete((resultado, error) -> permisos.release()));
+        }
+        try {
+            CompletableFuture.allOf(pendientes.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("Error preparando datos: " + e.getCause().getMessage(), e.getCause());
+        }
+        return pendientes.stream().map(CompletableFuture::join).toList();
+    }
+}
@@ -0,0 +1,129 @@
+package com.banco.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Un microservicio arrancado como proceso hijo a partir de su jar de Spring Boot
+ */
+final class ServicioLocal implements AutoCloseable {
+
+    private static final String PROPERTIES_LAUNCHER = "org.springframework.boot.loader.launch.PropertiesLauncher";
+
+    private final String nombre;
+    private final Process proceso;
+    private final String urlBase;
+    private final Path log;
+
+    private ServicioLocal(String nombre, Process proceso, String urlBase, Path log) {
+        this.nombre = nombre;
+        this.proceso = proceso;
+        this.urlBase = urlBase;
+        this.log = log;
+    }
+
+    /**
+     * Arrancar el jar con el perfil loadtest en el puerto y context path indicados. Los jars de
+     * {@code extras} (el driver H2, que no va empaquetado) se añaden al classpath con el
+     * PropertiesLauncher de Spring Boot
+     */
+    static ServicioLocal arrancar(String nombre, Path jar, List<Path> extras, int puerto, String contextPath,
+                                  List<String> jvmOpts, List<String> args, Path directorioLogs) throws IOException {
+        List<String> comando = new ArrayList<>();
+        comando.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        comando.addAll(jvmOpts);
+        if (extras.isEmpty()) {
+            comando.add("-jar");
+            comando.add(jar.toString());
+        } else {
+            comando.add("-Dloader.path=" + String.join(",", extras.stream().map(Path::toString).toList()));
+            comando.add("-cp");
+            comando.add(jar.toString());
+            comando.add(PROPERTIES_LAUNCHER);
+        }
+        comando.add("--spring.profiles.active=loadtest");
+        comando.add("--server.port=" + puerto);
+        comando.add("--logging.level.com.banco=WARN");
+        comando.addAll(args);
+
+        Files.createDirectories(directorioLogs);
+        Path log = directorioLogs.resolve(nombre + ".log");
+        Process proceso = new ProcessBuilder(comando)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+
+        System.out.printf("Arrancando %s (pid %d, log %s)%n", nombre, proceso.pid(), log);
+        return new ServicioLocal(nombre, proceso, "http://localhost:" + puerto + contextPath, log);
+    }
+
+    /**
+     * Localizar el jar ejecutable de un módulo ya empaquetado con {@code mvn package}
+     */
+    static Path jar(Path raiz, String modulo, String patron) throws IOException {
+        Path target = raiz.resolve(modulo).resolve("target");
+        if (Files.isDirectory(target)) {
+            try (DirectoryStream<Path> jars = Files.newDirectoryStream(target, patron)) {
+                Iterator<Path> iterador = jars.iterator();
+                if (iterador.hasNext()) {
+                    return iterador.next();
+                }
+            }
+        }
+        throw new IOException("No se encontró " + patron + " en " + target + "; ejecutar antes mvn package -DskipTests");
+    }
+
+    /**
+     * Esperar a que /actuator/health responda 200
+     */
+    void esperarDisponible(HttpClient http, Duration timeout) throws InterruptedException {
+        long limite = System.nanoTime() + timeout.toNanos();
+        HttpRequest health = HttpRequest.newBuilder(URI.create(urlBase + "/actuator/health"))
+                .timeout(Duration.ofSeconds(2))
+                .build();
+
+        while (System.nanoTime() < limite) {
+            if (!proceso.isAlive()) {
+                throw new IllegalStateException(nombre + " terminó al arrancar; revisar " + log);
+            }
+            try {
+                if (http.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    System.out.printf("%s disponible en %s%n", nombre, urlBase);
+                    return;
+                }
+            } catch (IOException e) {
+                // Todavía arrancando
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException(nombre + " no respondió en " + timeout + "; revisar " + log);
+    }
+
+    String urlBase() {
+        return urlBase;
+    }
+
+    @Override
+    public void close() {
+        proceso.destroy();
+        try {
+            if (!proceso.waitFor(20, TimeUnit.SECONDS)) {
+                proceso.destroyForcibly();
+            }
+        } catch (InterruptedException e) {
+            proceso.destroyForcibly();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
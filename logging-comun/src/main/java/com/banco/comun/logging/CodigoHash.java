@@ -0,0 +1,63 @@
+package com.banco.comun.logging;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.HexFormat;
+
+/**
+ * Seudónimo estable de un código de cliente para los logs (16 primeros hex de su HMAC-SHA256):
+ * permite correlacionar líneas sin escribir el código. Con la clave de logging.codigo-hash.secreto
+ * el mismo código da el mismo seudónimo en los tres servicios; sin ella se usa una clave aleatoria
+ * por proceso y el seudónimo solo sirve dentro del proceso. Sin la clave no se puede recorrer el
+ * espacio de códigos para revertirlo, como sí ocurre con un hash sin clave.
+ */
+public final class CodigoHash {
+
+    private static final String ALGORITMO = "HmacSHA256";
+    private static final int BYTES = 8;
+
+    private static volatile ThreadLocal<Mac> hmac = conClave(claveAleatoria());
+
+    private CodigoHash() {
+    }
+
+    public static String de(String codigo) {
+        if (codigo == null) {
+            return "";
+        }
+        byte[] digest = hmac.get().doFinal(codigo.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest, 0, BYTES);
+    }
+
+    /**
+     * Fijar la clave compartida; los Mac de cada hilo se vuelven a crear con ella
+     */
+    public static void configurar(byte[] clave) {
+        if (clave == null || clave.length == 0) {
+            throw new IllegalArgumentException("La clave del seudónimo no puede estar vacía");
+        }
+        hmac = conClave(clave.clone());
+    }
+
+    private static ThreadLocal<Mac> conClave(byte[] clave) {
+        SecretKeySpec especificacion = new SecretKeySpec(clave, ALGORITMO);
+        return ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(ALGORITMO);
+                mac.init(especificacion);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(ALGORITMO + " no disponible", e);
+            }
+        });
+    }
+
+    private static byte[] claveAleatoria() {
+        byte[] clave = new byte[32];
+        new SecureRandom().nextBytes(clave);
+        return clave;
+    }
+}
@@ -0,0 +1,24 @@
+package com.banco.comun.logging;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Carga en CodigoHash la clave de logging.codigo-hash.secreto al arrancar cada servicio
+ */
+@Slf4j
+@AutoConfiguration
+public class CodigoHashAutoConfiguration {
+
+    public CodigoHashAutoConfiguration(@Value("${logging.codigo-hash.secreto:}") String secreto) {
+        if (secreto.isBlank()) {
+            log.warn("logging.codigo-hash.secreto sin definir: los seudónimos de código no se podrán "
+                    + "correlacionar entre servicios ni entre reinicios");
+            return;
+        }
+        CodigoHash.configurar(secreto.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,35 @@
+package com.banco.comun.logging;
+
+import org.slf4j.MDC;
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.Map;
+
+/**
+ * Copia el MDC al hilo que ejecuta tareas asíncronas (exportaciones en streaming),
+ * sea de plataforma o virtual. Spring Boot lo aplica al executor de la aplicación.
+ */
+public class MdcTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        Map<String, String> contexto = MDC.getCopyOfContextMap();
+        return () -> {
+            Map<String, String> anterior = MDC.getCopyOfContextMap();
+            if (contexto == null) {
+                MDC.clear();
+            } else {
+                MDC.setContextMap(contexto);
+            }
+            try {
+                runnable.run();
+            } finally {
+                if (anterior == null) {
+                    MDC.clear();
+                } else {
+                    MDC.setContextMap(anterior);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,56 @@
+package com.banco.comun.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Muestreo por logger de las líneas INFO/DEBUG del camino caliente: de cada logger configurado
+ * (formato {@code nombre:N,otro:M}) deja pasar uno de cada N eventos. WARN, ERROR y los eventos
+ * con excepción pasan siempre. Se decide antes de formatear, así que los descartados no asignan
+ * nada; las llamadas a isXxxEnabled() llegan sin mensaje y no cuentan.
+ */
+public class MuestreoTurboFilter extends TurboFilter {
+
+    private Map<String, Muestreo> muestreos = Map.of();
+
+    public void setLoggers(String loggers) {
+        Map<String, Muestreo> configurados = new HashMap<>();
+        for (String entrada : loggers.split(",")) {
+            String limpia = entrada.trim();
+            if (limpia.isEmpty()) {
+                continue;
+            }
+            int separador = limpia.lastIndexOf(':');
+            if (separador <= 0) {
+                throw new IllegalArgumentException("Muestreo inválido (se espera logger:N): " + limpia);
+            }
+            int cadaN = Integer.parseInt(limpia.substring(separador + 1).trim());
+            if (cadaN > 1) {
+                configurados.put(limpia.substring(0, separador).trim(), new Muestreo(cadaN, new AtomicLong()));
+            }
+        }
+        this.muestreos = Map.copyOf(configurados);
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (format == null || t != null || level.levelInt > Level.INFO_INT) {
+            return FilterReply.NEUTRAL;
+        }
+        Muestreo muestreo = muestreos.get(logger.getName());
+        if (muestreo == null) {
+            return FilterReply.NEUTRAL;
+        }
+        return muestreo.contador().getAndIncrement() % muestreo.cadaN() == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private record Muestreo(int cadaN, AtomicLong contador) {
+    }
+}
@@ -1,4 +1,4 @@
-package com.banco.bff.config;
+package com.banco.comun.logging;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -6,17 +6,21 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.MDC;
 import org.springframework.core.annotation.Order;
-import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.UUID;
 
-@Component
+/**
+ * Propaga el X-Tracking-Id recibido (o genera uno) al MDC durante la petición.
+ * Funciona igual con hilos de plataforma y con hilos virtuales: el MDC es por hilo
+ * y se limpia siempre al terminar. Lo registra TrazabilidadServletAutoConfiguration.
+ */
 @Order(1)
 public class TrackingFilter extends OncePerRequestFilter {
 
-    private static final String TRACKING_ID = "trackingId";
+    public static final String TRACKING_ID = "trackingId";
+    public static final String HEADER = "X-Tracking-Id";
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -24,10 +28,13 @@ public class TrackingFilter extends OncePerRequestFilter {
                                     FilterChain filterChain)
             throws ServletException, IOException {
 
-        String trackingId = UUID.randomUUID().toString();
+        String trackingId = request.getHeader(HEADER);
+        if (trackingId == null || trackingId.isBlank()) {
+            trackingId = UUID.randomUUID().toString();
+        }
 
         MDC.put(TRACKING_ID, trackingId);
-        response.setHeader("X-Tracking-Id", trackingId);
+        response.setHeader(HEADER, trackingId);
 
         try {
             filterChain.doFilter(request, response);
@@ -0,0 +1,46 @@
+package com.banco.comun.logging;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * trackingId en el MDC de los servicios servlet (cliente y productos sin el perfil reactive),
+ * también en sus tareas asíncronas, y el monitor de pinning cuando corren con hilos virtuales.
+ * El BFF (WebFlux) lleva el trackingId en el contexto de Reactor y no usa nada de esto.
+ */
+@AutoConfiguration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class TrazabilidadServletAutoConfiguration {
+
+    @Bean
+    public TrackingFilter trackingFilter() {
+        return new TrackingFilter();
+    }
+
+    @Bean
+    public MdcTaskDecorator mdcTaskDecorator() {
+        return new MdcTaskDecorator();
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterRegistry.class)
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    static class PinningConfiguration {
+
+        @Bean
+        public VirtualThreadPinningMonitor virtualThreadPinningMonitor(
+                @Value("${virtual-threads.pinning.umbral:20ms}") Duration umbral,
+                MeterRegistry meterRegistry) {
+            return new VirtualThreadPinningMonitor(umbral, meterRegistry);
+        }
+    }
+}
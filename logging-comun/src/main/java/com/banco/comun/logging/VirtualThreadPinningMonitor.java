@@ -0,0 +1,76 @@
+package com.banco.comun.logging;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Con hilos virtuales activos, escucha el evento JFR jdk.VirtualThreadPinned y registra
+ * dónde un hilo virtual bloqueó a su carrier (synchronized, código nativo) más allá del umbral.
+ * Cada evento se acumula en el timer jvm.threads.virtual.pinned.
+ */
+@Slf4j
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final String EVENTO = "jdk.VirtualThreadPinned";
+    private static final int MARCOS = 8;
+
+    private final Duration umbral;
+    private final Timer pinned;
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(Duration umbral, MeterRegistry meterRegistry) {
+        this.umbral = umbral;
+        this.pinned = Timer.builder("jvm.threads.virtual.pinned")
+                .description("Tiempo que un hilo virtual mantuvo bloqueado a su carrier")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public synchronized void start() {
+        stream = new RecordingStream();
+        stream.enable(EVENTO).withThreshold(umbral).withStackTrace();
+        stream.onEvent(EVENTO, this::registrar);
+        stream.startAsync();
+        log.info("Monitor de pinning de hilos virtuales activo (umbral={})", umbral);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return stream != null;
+    }
+
+    private void registrar(RecordedEvent evento) {
+        pinned.record(evento.getDuration());
+        log.warn("Hilo virtual fijado a su carrier durante {} ms en:\n{}",
+                evento.getDuration().toMillis(), pila(evento));
+    }
+
+    private static String pila(RecordedEvent evento) {
+        if (evento.getStackTrace() == null) {
+            return "\t(sin stack trace)";
+        }
+        List<RecordedFrame> marcos = evento.getStackTrace().getFrames();
+        return marcos.stream()
+                .limit(MARCOS)
+                .map(marco -> "\tat " + marco.getMethod().getType().getName() + "."
+                        + marco.getMethod().getName() + ":" + marco.getLineNumber())
+                .collect(Collectors.joining("\n"));
+    }
+}
@@ -0,0 +1,46 @@
+package com.banco.comun.logging;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CodigoHashTest {
+
+    @Test
+    void de_mismaClave_deberiaDarElMismoSeudonimoEnCualquierHilo() throws Exception {
+        CodigoHash.configurar("secreto-compartido".getBytes(StandardCharsets.UTF_8));
+        String seudonimo = CodigoHash.de("CLI001");
+
+        String[] enOtroHilo = new String[1];
+        Thread hilo = new Thread(() -> enOtroHilo[0] = CodigoHash.de("CLI001"));
+        hilo.start();
+        hilo.join();
+
+        assertEquals(16, seudonimo.length());
+        assertEquals(seudonimo, enOtroHilo[0]);
+        assertNotEquals(seudonimo, CodigoHash.de("CLI002"));
+    }
+
+    @Test
+    void de_otraClave_deberiaCambiarElSeudonimo() {
+        CodigoHash.configurar("clave-a".getBytes(StandardCharsets.UTF_8));
+        String conA = CodigoHash.de("CLI001");
+        CodigoHash.configurar("clave-b".getBytes(StandardCharsets.UTF_8));
+
+        assertNotEquals(conA, CodigoHash.de("CLI001"));
+    }
+
+    @Test
+    void de_nulo_deberiaDarVacio() {
+        assertEquals("", CodigoHash.de(null));
+    }
+
+    @Test
+    void configurar_claveVacia_deberiaFallar() {
+        assertThrows(IllegalArgumentException.class, () -> CodigoHash.configurar(new byte[0]));
+    }
+}
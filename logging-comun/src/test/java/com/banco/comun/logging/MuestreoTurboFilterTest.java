@@ -0,0 +1,64 @@
+package com.banco.comun.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MuestreoTurboFilterTest {
+
+    private MuestreoTurboFilter filtro;
+    private Logger acceso;
+    private Logger otro;
+
+    @BeforeEach
+    void setUp() {
+        LoggerContext contexto = new LoggerContext();
+        acceso = contexto.getLogger("com.banco.bff.acceso");
+        otro = contexto.getLogger("com.banco.bff.service.BffService");
+        filtro = new MuestreoTurboFilter();
+        filtro.setLoggers("com.banco.bff.acceso:10, com.banco.bff.uno:1");
+    }
+
+    @Test
+    void decide_loggerMuestreado_deberiaDejarPasarUnoDeCadaN() {
+        long aceptados = IntStream.range(0, 100)
+                .mapToObj(i -> filtro.decide(null, acceso, Level.INFO, "GET", null, null))
+                .filter(FilterReply.NEUTRAL::equals)
+                .count();
+
+        assertEquals(10, aceptados);
+    }
+
+    @Test
+    void decide_warnOExcepcion_deberiaPasarSiempre() {
+        IntStream.range(0, 20).forEach(i -> {
+            assertEquals(FilterReply.NEUTRAL, filtro.decide(null, acceso, Level.WARN, "GET", null, null));
+            assertEquals(FilterReply.NEUTRAL,
+                    filtro.decide(null, acceso, Level.INFO, "GET", null, new IllegalStateException()));
+        });
+    }
+
+    @Test
+    void decide_sinMensajeOLoggerNoConfigurado_noDeberiaContar() {
+        IntStream.range(0, 20).forEach(i -> {
+            assertEquals(FilterReply.NEUTRAL, filtro.decide(null, acceso, Level.INFO, null, null, null));
+            assertEquals(FilterReply.NEUTRAL, filtro.decide(null, otro, Level.INFO, "GET", null, null));
+        });
+
+        assertEquals(FilterReply.NEUTRAL, filtro.decide(null, acceso, Level.INFO, "GET", null, null));
+        assertEquals(FilterReply.DENY, filtro.decide(null, acceso, Level.INFO, "GET", null, null));
+    }
+
+    @Test
+    void setLoggers_entradaInvalida_deberiaLanzarExcepcion() {
+        assertThrows(IllegalArgumentException.class, () -> filtro.setLoggers("com.banco.bff.acceso"));
+    }
+}
@@ -0,0 +1,111 @@
+package com.banco.comun.logging;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * El trackingId de la petición en el MDC del hilo que la atiende y de la tarea asíncrona que lanza
+ * (como una exportación en streaming), con hilos de plataforma y con hilos virtuales
+ */
+class TrackingFilterTest {
+
+    private record Observado(String enPeticion, String enTarea, boolean peticionVirtual, boolean tareaVirtual,
+                             boolean mismoHilo, String alTerminar, String cabecera) {
+    }
+
+    private static boolean esVirtual(Thread hilo) {
+        try {
+            return (boolean) Thread.class.getMethod("isVirtual").invoke(hilo);
+        } catch (NoSuchMethodException e) {
+            return false;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static SimpleAsyncTaskExecutor ejecutor(boolean virtuales) {
+        SimpleAsyncTaskExecutor ejecutor = new SimpleAsyncTaskExecutor("trazabilidad-");
+        ejecutor.setVirtualThreads(virtuales);
+        return ejecutor;
+    }
+
+    /**
+     * Atender una petición en un hilo de "peticiones" que lanza una tarea en "tareas" con MdcTaskDecorator
+     */
+    private static Observado atender(SimpleAsyncTaskExecutor peticiones, SimpleAsyncTaskExecutor tareas,
+                                     String trackingId) throws Exception {
+        tareas.setTaskDecorator(new MdcTaskDecorator());
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/clientes/exportar");
+        if (trackingId != null) {
+            request.addHeader(TrackingFilter.HEADER, trackingId);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        Future<Observado> atendida = peticiones.submit(() -> {
+            Object[] dentro = new Object[4];
+            new TrackingFilter().doFilter(request, response, (req, res) -> {
+                Thread hiloPeticion = Thread.currentThread();
+                dentro[0] = MDC.get(TrackingFilter.TRACKING_ID);
+                dentro[1] = esVirtual(hiloPeticion);
+                try {
+                    Object[] tarea = tareas.submit(() -> new Object[]{
+                            MDC.get(TrackingFilter.TRACKING_ID),
+                            esVirtual(Thread.currentThread()),
+                            Thread.currentThread() == hiloPeticion}).get();
+                    dentro[2] = tarea;
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            Object[] tarea = (Object[]) dentro[2];
+            return new Observado((String) dentro[0], (String) tarea[0], (boolean) dentro[1], (boolean) tarea[1],
+                    (boolean) tarea[2], MDC.get(TrackingFilter.TRACKING_ID), response.getHeader(TrackingFilter.HEADER));
+        });
+        return atendida.get();
+    }
+
+    @Test
+    void doFilter_hilosDePlataforma_deberiaLlevarElTrackingIdALaTareaAsincrona() throws Exception {
+        Observado observado = atender(ejecutor(false), ejecutor(false), "tracking-plataforma");
+
+        assertEquals("tracking-plataforma", observado.enPeticion());
+        assertEquals("tracking-plataforma", observado.enTarea());
+        assertEquals(false, observado.mismoHilo());
+        assertNull(observado.alTerminar());
+        assertEquals("tracking-plataforma", observado.cabecera());
+    }
+
+    @Test
+    void doFilter_hilosVirtuales_deberiaLlevarElTrackingIdALaTareaAsincrona() throws Exception {
+        assumeTrue(Runtime.version().feature() >= 21, "Los hilos virtuales necesitan Java 21");
+
+        Observado observado = atender(ejecutor(true), ejecutor(true), "tracking-virtual");
+
+        assertEquals(true, observado.peticionVirtual());
+        assertEquals(true, observado.tareaVirtual());
+        assertEquals("tracking-virtual", observado.enPeticion());
+        assertEquals("tracking-virtual", observado.enTarea());
+        assertEquals(false, observado.mismoHilo());
+        assertNull(observado.alTerminar());
+    }
+
+    @Test
+    void doFilter_sinCabecera_deberiaGenerarUnTrackingIdYDevolverloEnLaRespuesta() throws Exception {
+        Observado observado = atender(ejecutor(false), ejecutor(false), null);
+
+        assertEquals(36, observado.enPeticion().length());
+        assertEquals(observado.enPeticion(), observado.enTarea());
+        assertEquals(observado.enPeticion(), observado.cabecera());
+        assertNotEquals("", observado.cabecera());
+    }
+}
@@ -0,0 +1,51 @@
+package com.banco.comun.logging;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ReactiveWebApplicationContextRunner;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class TrazabilidadServletAutoConfigurationTest {
+
+    private final WebApplicationContextRunner servlet = new WebApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(TrazabilidadServletAutoConfiguration.class))
+            .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+            // Como en la aplicación: "20ms" se convierte a Duration
+            .withInitializer(contexto -> contexto.getBeanFactory()
+                    .setConversionService(ApplicationConversionService.getSharedInstance()));
+
+    @Test
+    void servlet_deberiaRegistrarFiltroYDecoradorSinMonitorDePinning() {
+        servlet.run(contexto -> {
+            assertThat(contexto).hasSingleBean(TrackingFilter.class);
+            assertThat(contexto).hasSingleBean(MdcTaskDecorator.class);
+            assertThat(contexto).doesNotHaveBean(VirtualThreadPinningMonitor.class);
+        });
+    }
+
+    @Test
+    void servletConHilosVirtuales_deberiaRegistrarElMonitorDePinning() {
+        assumeTrue(Runtime.version().feature() >= 21, "Los hilos virtuales necesitan Java 21");
+
+        servlet.withPropertyValues("spring.threads.virtual.enabled=true", "virtual-threads.pinning.umbral=5ms")
+                .run(contexto -> assertThat(contexto).hasSingleBean(VirtualThreadPinningMonitor.class));
+    }
+
+    @Test
+    void reactivo_noDeberiaRegistrarNada() {
+        new ReactiveWebApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(TrazabilidadServletAutoConfiguration.class))
+                .withPropertyValues("spring.threads.virtual.enabled=true")
+                .run(contexto -> {
+                    assertThat(contexto).doesNotHaveBean(TrackingFilter.class);
+                    assertThat(contexto).doesNotHaveBean(MdcTaskDecorator.class);
+                    assertThat(contexto).doesNotHaveBean(VirtualThreadPinningMonitor.class);
+                });
+    }
+}
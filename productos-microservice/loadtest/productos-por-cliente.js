@@ -0,0 +1,45 @@
+// Prueba de carga de GET /api/productos/cliente/{codigoCliente} con 5000 conexiones concurrentes.
+// Ejecutar la misma prueba contra el modo servlet y el perfil "reactive" y comparar
+// http_req_duration p(99) e http_reqs (throughput) del resumen de k6:
+//
+//   k6 run -e BASE_URL=http://localhost:8083/productos -e MODO=servlet  loadtest/productos-por-cliente.js
+//   k6 run -e BASE_URL=http://localhost:8083/productos -e MODO=reactive loadtest/productos-por-cliente.js
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8083/productos';
+const CLIENTES = parseInt(__ENV.CLIENTES || '1000', 10);
+
+export const options = {
+    scenarios: {
+        conexiones: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: '30s', target: parseInt(__ENV.VUS || '5000', 10) },
+                { duration: __ENV.DURACION || '2m', target: parseInt(__ENV.VUS || '5000', 10) },
+                { duration: '15s', target: 0 },
+            ],
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+    tags: { modo: __ENV.MODO || 'servlet' },
+};
+
+export default function () {
+    const codigo = `CLI${String(Math.floor(Math.random() * CLIENTES) + 1).padStart(3, '0')}`;
+    const res = http.get(`${BASE_URL}/api/productos/cliente/${codigo}`);
+    check(res, { 'status 200': (r) => r.status === 200 });
+}
+
+export function handleSummary(data) {
+    return {
+        stdout: JSON.stringify({
+            modo: __ENV.MODO || 'servlet',
+            p99: data.metrics.http_req_duration.values['p(99)'],
+            throughput: data.metrics.http_reqs.values.rate,
+            errores: data.metrics.http_req_failed.values.rate,
+        }, null, 2) + '\n',
+        [`loadtest/resultado-${__ENV.MODO || 'servlet'}.json`]: JSON.stringify(data, null, 2),
+    };
+}
@@ -0,0 +1,93 @@
+package com.banco.productos.cache;
+
+import com.banco.comun.logging.CodigoHash;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.client.RestClient;
+
+import java.util.List;
+
+/**
+ * Invalida la near-cache del BFF cuando cambian los productos de un cliente.
+ * Solo se ejecuta tras el commit y nunca hace fallar la escritura.
+ * En el perfil "reactive" no hay transacción JPA y se ejecuta al publicar el evento.
+ */
+@Slf4j
+@Component
+public class BffCacheInvalidator {
+
+    private static final int MAX_CODIGOS_POR_LLAMADA = 1000;
+
+    private final RestClient restClient;
+    private final String invalidationUrl;
+    private final String invalidationToken;
+
+    public BffCacheInvalidator(ObjectProvider<RestClient.Builder> builder,
+                               @Value("${bff.cache.invalidation-url:}") String invalidationUrl,
+                               @Value("${bff.cache.invalidation-token:}") String invalidationToken) {
+        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
+        factory.setConnectTimeout(1000);
+        factory.setReadTimeout(2000);
+
+        this.restClient = builder.getIfAvailable(RestClient::builder).requestFactory(factory).build();
+        this.invalidationUrl = invalidationUrl;
+        this.invalidationToken = invalidationToken;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductoModificado(ProductoModificadoEvent event) {
+        if (invalidationUrl.isEmpty()) {
+            return;
+        }
+
+        try {
+            restClient.delete()
+                    .uri(invalidationUrl + "/clientes/{codigo}", event.getCodigoCliente())
+                    .header("X-Cache-Token", invalidationToken)
+                    .retrieve()
+                    .toBodilessEntity();
+            log.atDebug()
+                    .setMessage("Cache del BFF invalidada")
+                    .addKeyValue("codigoClienteHash", () -> CodigoHash.de(event.getCodigoCliente()))
+                    .log();
+        } catch (Exception e) {
+            log.warn("No se pudo invalidar la cache del BFF para cliente {}: {}",
+                    event.getCodigoCliente(), e.getMessage());
+        }
+    }
+
+    /**
+     * Un lote de la importación ya confirmado: una llamada por bloque de hasta
+     * MAX_CODIGOS_POR_LLAMADA clientes en lugar de una por cliente
+     */
+    @EventListener
+    public void onProductosImportados(ProductosImportadosEvent event) {
+        if (invalidationUrl.isEmpty()) {
+            return;
+        }
+
+        List<String> codigos = List.copyOf(event.getCodigosCliente());
+        for (int desde = 0; desde < codigos.size(); desde += MAX_CODIGOS_POR_LLAMADA) {
+            List<String> bloque = codigos.subList(desde, Math.min(desde + MAX_CODIGOS_POR_LLAMADA, codigos.size()));
+            try {
+                restClient.post()
+                        .uri(invalidationUrl + "/clientes/invalidaciones")
+                        .header("X-Cache-Token", invalidationToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(bloque)
+                        .retrieve()
+                        .toBodilessEntity();
+                log.debug("Cache del BFF invalidada para {} clientes", bloque.size());
+            } catch (Exception e) {
+                log.warn("No se pudo invalidar la cache del BFF para {} clientes: {}", bloque.size(), e.getMessage());
+            }
+        }
+    }
+}
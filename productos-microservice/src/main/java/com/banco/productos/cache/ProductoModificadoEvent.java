@@ -0,0 +1,14 @@
+package com.banco.productos.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Evento publicado al crear, actualizar o eliminar un producto
+ */
+@Getter
+@AllArgsConstructor
+public class ProductoModificadoEvent {
+
+    private final String codigoCliente;
+}
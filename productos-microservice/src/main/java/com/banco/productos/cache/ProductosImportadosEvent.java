@@ -0,0 +1,17 @@
+package com.banco.productos.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Collection;
+
+/**
+ * Evento publicado tras confirmar un lote de la importación en bloque, con los clientes que
+ * recibieron productos
+ */
+@Getter
+@AllArgsConstructor
+public class ProductosImportadosEvent {
+
+    private final Collection<String> codigosCliente;
+}
@@ -0,0 +1,20 @@
+package com.banco.productos.config;
+
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Con Tomcat y Netty en el classpath Spring Boot elige Tomcat también para WebFlux;
+ * el perfil "reactive" fuerza Netty (event loop, sin pool de hilos por petición)
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveServerConfig {
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
@@ -1,29 +1,62 @@
 package com.banco.productos.controller;
 
+import com.banco.productos.dto.ImportacionResponse;
 import com.banco.productos.dto.ProductoDTO;
+import com.banco.productos.dto.PaginaResponse;
 import com.banco.productos.dto.ProductoRequest;
+import com.banco.productos.dto.ResultadoPorClave;
+import com.banco.productos.service.ImportacionProductoService;
 import com.banco.productos.service.ProductoService;
+import com.banco.comun.logging.CodigoHash;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.*;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 @Slf4j
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/productos")
 @Tag(name = "Productos", description = "API para gestionar productos financieros")
 public class ProductoController {
 
+    /** Una línea por petición con campos estructurados; se puede muestrear con logging.muestreo.loggers */
+    private static final Logger accesoLog = LoggerFactory.getLogger("com.banco.productos.acceso");
+
     private final ProductoService productoService;
+    private final ImportacionProductoService importacionService;
+    private final ObjectMapper objectMapper;
+    private final int tamanoLoteExportacion;
 
-    public ProductoController(ProductoService productoService) {
+    public ProductoController(ProductoService productoService,
+                             ImportacionProductoService importacionService,
+                             ObjectMapper objectMapper,
+                             @Value("${exportacion.tamano-lote:1000}") int tamanoLoteExportacion) {
         this.productoService = productoService;
+        this.importacionService = importacionService;
+        this.objectMapper = objectMapper;
+        this.tamanoLoteExportacion = tamanoLoteExportacion;
     }
 
     /**
@@ -42,11 +75,66 @@ public class ProductoController {
             @Parameter(description = "Código único del cliente")
             @PathVariable String codigoCliente) {
 
-        log.info("GET /api/productos/cliente/{} - Solicitado", codigoCliente);
+        long inicio = System.nanoTime();
         List<ProductoDTO> productos = productoService.obtenerPorCodigoCliente(codigoCliente);
+        accesoLog.atInfo()
+                .setMessage("GET /api/productos/cliente/{codigoCliente}")
+                .addKeyValue("codigoClienteHash", () -> CodigoHash.de(codigoCliente))
+                .addKeyValue("productos", productos.size())
+                .addKeyValue("latenciaMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio))
+                .log();
+        return ResponseEntity.ok(productos);
+    }
+
+    /**
+     * Obtener productos de varios clientes
+     */
+    @PostMapping("/clientes/lote")
+    @Operation(
+            summary = "Obtener productos de un lote de clientes",
+            description = "Retorna en una sola lista los productos de todos los códigos de cliente enviados"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Productos encontrados"),
+            @ApiResponse(responseCode = "400", description = "Lote demasiado grande")
+    })
+    public ResponseEntity<List<ProductoDTO>> obtenerPorCodigosCliente(
+            @RequestBody List<String> codigosCliente) {
+
+        long inicio = System.nanoTime();
+        List<ProductoDTO> productos = productoService.obtenerPorCodigosCliente(codigosCliente);
+        accesoLog.atInfo()
+                .setMessage("POST /api/productos/clientes/lote")
+                .addKeyValue("codigos", codigosCliente.size())
+                .addKeyValue("productos", productos.size())
+                .addKeyValue("latenciaMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio))
+                .log();
         return ResponseEntity.ok(productos);
     }
 
+    /**
+     * Obtener productos de varios clientes en NDJSON: una línea por código pedido con sus productos,
+     * escrita en cuanto se lee su bloque
+     */
+    @PostMapping(value = "/clientes/lote", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+            summary = "Obtener productos de un lote de clientes en NDJSON",
+            description = "Hasta consulta-lote.max-claves-ndjson códigos, consultados en bloques de consulta-lote.max-claves. "
+                    + "Una línea {clave, resultados} por código en el orden pedido, sin repetidos"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Productos agrupados por código de cliente"),
+            @ApiResponse(responseCode = "400", description = "Lote demasiado grande")
+    })
+    public ResponseEntity<StreamingResponseBody> obtenerPorCodigosClienteNdjson(
+            @RequestBody List<String> codigosCliente) {
+
+        List<List<String>> bloques = productoService.bloquesDeCodigos(codigosCliente);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> escribirPorCodigo(out, bloques));
+    }
+
     /**
      * Obtener producto por ID
      */
@@ -72,6 +160,55 @@ public class ProductoController {
         return ResponseEntity.ok(productos);
     }
 
+    /**
+     * Obtener productos paginados por cursor
+     */
+    @GetMapping("/pagina")
+    @Operation(
+            summary = "Obtener productos paginados",
+            description = "Paginación por cursor: enviar el siguienteCursor de la respuesta anterior para continuar"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página obtenida"),
+            @ApiResponse(responseCode = "400", description = "Cursor o tamaño inválido")
+    })
+    public ResponseEntity<PaginaResponse<ProductoDTO>> obtenerPagina(
+            @Parameter(description = "Cursor devuelto por la página anterior")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Cantidad de elementos por página")
+            @RequestParam(required = false) Integer tamano) {
+
+        log.info("GET /api/productos/pagina - tamaño: {}", tamano);
+        return ResponseEntity.ok(productoService.obtenerPaginaPorCursor(cursor, tamano));
+    }
+
+    /**
+     * Exportar todos los productos como NDJSON (una línea JSON por registro)
+     */
+    @GetMapping(value = "/exportar", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+            summary = "Exportar productos en NDJSON",
+            description = "Recorre la tabla por páginas de id y escribe cada página al terminar de leerla"
+    )
+    public ResponseEntity<StreamingResponseBody> exportarNdjson() {
+        log.info("GET /api/productos/exportar - NDJSON");
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> exportar(out, "", "\n"));
+    }
+
+    /**
+     * Exportar todos los productos como Server-Sent Events
+     */
+    @GetMapping(value = "/exportar", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Exportar productos como Server-Sent Events")
+    public ResponseEntity<StreamingResponseBody> exportarSse() {
+        log.info("GET /api/productos/exportar - SSE");
+        return ResponseEntity.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .body(out -> exportar(out, "data: ", "\n\n"));
+    }
+
     /**
      * Crear nuevo producto
      */
@@ -89,6 +226,27 @@ public class ProductoController {
         return ResponseEntity.status(HttpStatus.CREATED).body(producto);
     }
 
+    /**
+     * Importar productos en bloque desde CSV (con cabecera) o NDJSON; el cuerpo se lee en streaming
+     */
+    @PostMapping(value = "/importar", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(
+            summary = "Importar productos en bloque",
+            description = "Una fila por línea con codigoCliente, tipoProducto, nombre y saldo. Las filas inválidas "
+                    + "no detienen la importación y se reportan con su número de línea"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Importación terminada, con el detalle de filas rechazadas"),
+            @ApiResponse(responseCode = "400", description = "Cabecera CSV inválida")
+    })
+    public ResponseEntity<ImportacionResponse> importar(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType tipo,
+            InputStream cuerpo) throws IOException {
+
+        log.info("POST /api/productos/importar - Importando productos ({})", tipo);
+        return ResponseEntity.ok(importacionService.importar(cuerpo, tipo));
+    }
+
     /**
      * Actualizar producto
      */
@@ -127,4 +285,49 @@ public class ProductoController {
     public ResponseEntity<String> health() {
         return ResponseEntity.ok("Productos Microservice está funcionando");
     }
+
+    private void escribirPorCodigo(OutputStream out, List<List<String>> bloques) throws IOException {
+        // Un bloque en memoria a la vez, como en exportar; la conexión a BD se libera antes de escribirlo
+        long inicio = System.nanoTime();
+        int codigos = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.setRootValueSeparator(null);
+            for (List<String> bloque : bloques) {
+                Map<String, List<ProductoDTO>> porCodigo = productoService.obtenerPorCodigosCliente(bloque).stream()
+                        .collect(Collectors.groupingBy(ProductoDTO::getCodigoCliente));
+                for (String codigo : bloque) {
+                    generator.writeObject(new ResultadoPorClave<>(codigo, porCodigo.getOrDefault(codigo, List.of())));
+                    generator.writeRaw("\n");
+                }
+                generator.flush();
+                codigos += bloque.size();
+            }
+        }
+        accesoLog.atInfo()
+                .setMessage("POST /api/productos/clientes/lote (NDJSON)")
+                .addKeyValue("codigos", codigos)
+                .addKeyValue("latenciaMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio))
+                .log();
+    }
+
+    private void exportar(OutputStream out, String prefijo, String sufijo) throws IOException {
+        // Solo una página vive en memoria; la conexión a BD se libera antes de escribirla
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.setRootValueSeparator(null);
+            long ultimoId = 0L;
+            List<ProductoDTO> pagina;
+            do {
+                pagina = productoService.obtenerPagina(ultimoId, tamanoLoteExportacion);
+                for (ProductoDTO dto : pagina) {
+                    generator.writeRaw(prefijo);
+                    generator.writeObject(dto);
+                    generator.writeRaw(sufijo);
+                }
+                generator.flush();
+                if (!pagina.isEmpty()) {
+                    ultimoId = pagina.get(pagina.size() - 1).getId();
+                }
+            } while (pagina.size() == tamanoLoteExportacion);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,191 @@
+package com.banco.productos.controller;
+
+import com.banco.productos.dto.PaginaResponse;
+import com.banco.productos.dto.ProductoDTO;
+import com.banco.productos.dto.ProductoRequest;
+import com.banco.productos.dto.ResultadoPorClave;
+import com.banco.productos.service.ProductoReactiveService;
+import com.banco.comun.logging.CodigoHash;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mismo contrato que {@link ProductoController} servido por WebFlux + R2DBC (perfil "reactive")
+ */
+@Slf4j
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/productos")
+@Tag(name = "Productos", description = "API para gestionar productos financieros")
+public class ProductoReactiveController {
+
+    /** Una línea por petición con campos estructurados; se puede muestrear con logging.muestreo.loggers */
+    private static final Logger accesoLog = LoggerFactory.getLogger("com.banco.productos.acceso");
+
+    private final ProductoReactiveService productoService;
+    private final int tamanoLoteExportacion;
+
+    public ProductoReactiveController(ProductoReactiveService productoService,
+                                      @Value("${exportacion.tamano-lote:1000}") int tamanoLoteExportacion) {
+        this.productoService = productoService;
+        this.tamanoLoteExportacion = tamanoLoteExportacion;
+    }
+
+    /**
+     * Obtener productos de un cliente
+     */
+    @GetMapping("/cliente/{codigoCliente}")
+    @Operation(summary = "Obtener productos de un cliente")
+    public Flux<ProductoDTO> obtenerPorCodigoCliente(
+            @Parameter(description = "Código único del cliente")
+            @PathVariable String codigoCliente) {
+
+        long inicio = System.nanoTime();
+        return productoService.obtenerPorCodigoCliente(codigoCliente)
+                .doOnComplete(() -> accesoLog.atInfo()
+                        .setMessage("GET /api/productos/cliente/{codigoCliente}")
+                        .addKeyValue("codigoClienteHash", () -> CodigoHash.de(codigoCliente))
+                        .addKeyValue("latenciaMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio))
+                        .log());
+    }
+
+    /**
+     * Obtener productos de varios clientes
+     */
+    @PostMapping("/clientes/lote")
+    @Operation(summary = "Obtener productos de un lote de clientes")
+    public Flux<ProductoDTO> obtenerPorCodigosCliente(@RequestBody List<String> codigosCliente) {
+        long inicio = System.nanoTime();
+        return productoService.obtenerPorCodigosCliente(codigosCliente)
+                .doOnComplete(() -> accesoLog.atInfo()
+                        .setMessage("POST /api/productos/clientes/lote")
+                        .addKeyValue("codigos", codigosCliente.size())
+                        .addKeyValue("latenciaMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio))
+                        .log());
+    }
+
+    /**
+     * Obtener productos de varios clientes en NDJSON, una línea por código pedido con sus productos
+     */
+    @PostMapping(value = "/clientes/lote", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Obtener productos de un lote de clientes en NDJSON")
+    public Flux<ResultadoPorClave<ProductoDTO>> obtenerPorCodigosClienteNdjson(@RequestBody List<String> codigosCliente) {
+        long inicio = System.nanoTime();
+        return productoService.obtenerPorCodigosClienteAgrupados(codigosCliente)
+                .doOnComplete(() -> accesoLog.atInfo()
+                        .setMessage("POST /api/productos/clientes/lote (NDJSON)")
+                        .addKeyValue("codigos", codigosCliente.size())
+                        .addKeyValue("latenciaMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio))
+                        .log());
+    }
+
+    /**
+     * Obtener producto por ID
+     */
+    @GetMapping("/id/{id}")
+    @Operation(summary = "Obtener producto por ID")
+    public Mono<ProductoDTO> obtenerPorId(
+            @Parameter(description = "ID del producto")
+            @PathVariable Long id) {
+
+        log.info("GET /api/productos/id/{} - Solicitado", id);
+        return productoService.obtenerPorId(id);
+    }
+
+    /**
+     * Obtener todos los productos
+     */
+    @GetMapping
+    @Operation(summary = "Obtener todos los productos")
+    public Flux<ProductoDTO> obtenerTodos() {
+        log.info("GET /api/productos - Obteniendo lista completa");
+        return productoService.obtenerTodos();
+    }
+
+    /**
+     * Obtener productos paginados por cursor
+     */
+    @GetMapping("/pagina")
+    @Operation(summary = "Obtener productos paginados")
+    public Mono<PaginaResponse<ProductoDTO>> obtenerPagina(
+            @Parameter(description = "Cursor devuelto por la página anterior")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Cantidad de elementos por página")
+            @RequestParam(required = false) Integer tamano) {
+
+        log.info("GET /api/productos/pagina - tamaño: {}", tamano);
+        return productoService.obtenerPaginaPorCursor(cursor, tamano);
+    }
+
+    /**
+     * Exportar todos los productos como NDJSON o Server-Sent Events según el Accept
+     */
+    @GetMapping(value = "/exportar", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    @Operation(summary = "Exportar productos en NDJSON o SSE")
+    public Flux<ProductoDTO> exportar() {
+        log.info("GET /api/productos/exportar");
+        return productoService.exportar(tamanoLoteExportacion);
+    }
+
+    /**
+     * Crear nuevo producto
+     */
+    @PostMapping
+    @Operation(summary = "Crear nuevo producto")
+    public Mono<ResponseEntity<ProductoDTO>> crear(@RequestBody ProductoRequest request) {
+        log.info("POST /api/productos - Creando nuevo producto");
+        return productoService.crear(request)
+                .map(producto -> ResponseEntity.status(HttpStatus.CREATED).body(producto));
+    }
+
+    /**
+     * Actualizar producto
+     */
+    @PutMapping("/{id}")
+    @Operation(summary = "Actualizar producto")
+    public Mono<ProductoDTO> actualizar(
+            @Parameter(description = "ID del producto")
+            @PathVariable Long id,
+            @RequestBody ProductoRequest request) {
+
+        log.info("PUT /api/productos/{} - Actualizando", id);
+        return productoService.actualizar(id, request);
+    }
+
+    /**
+     * Eliminar producto
+     */
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Eliminar producto")
+    public Mono<ResponseEntity<Void>> eliminar(
+            @Parameter(description = "ID del producto")
+            @PathVariable Long id) {
+
+        log.info("DELETE /api/productos/{} - Eliminando", id);
+        return productoService.eliminar(id)
+                .thenReturn(ResponseEntity.noContent().build());
+    }
+
+    /**
+     * Health check
+     */
+    @GetMapping("/health/check")
+    @Operation(summary = "Verificar salud del servicio")
+    public Mono<String> health() {
+        return Mono.just("Productos Microservice está funcionando");
+    }
+}
@@ -0,0 +1,20 @@
+package com.banco.productos.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Una línea de la consulta por lote en NDJSON: la clave pedida y lo encontrado para ella
+ * (lista vacía si no hay nada)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoPorClave<T> {
+
+    private String clave;
+    private List<T> resultados;
+}
@@ -5,19 +5,26 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "productos")
+// El índice real (con INCLUDE de las columnas del DTO) lo crea Flyway; aquí queda para ddl-auto en H2
+@Table(name = "productos", indexes = @Index(name = "idx_productos_codigo_cliente_estado",
+        columnList = "codigo_cliente, estado"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "productos")
 public class Producto {
 
+    // Secuencia de V3 en bloques de 50: un nextval cada 50 filas y los INSERT se agrupan en batches
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "productos_seq")
+    @SequenceGenerator(name = "productos_seq", sequenceName = "productos_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "codigo_cliente", nullable = false)
@@ -0,0 +1,40 @@
+package com.banco.productos.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Mapeo R2DBC de la tabla productos para el perfil "reactive"
+ */
+@Table("productos")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductoR2dbc {
+
+    @Id
+    private Long id;
+
+    @Column("codigo_cliente")
+    private String codigoCliente;
+
+    @Column("tipo_producto")
+    private String tipoProducto;
+
+    private String nombre;
+
+    private BigDecimal saldo;
+
+    private String estado;
+
+    @Column("created_at")
+    private LocalDateTime createdAt;
+}
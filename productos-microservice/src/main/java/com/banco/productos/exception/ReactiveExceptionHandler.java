@@ -0,0 +1,62 @@
+package com.banco.productos.exception;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ServerWebExchange;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Mismas respuestas de error que {@link GlobalExceptionHandler} para el perfil "reactive"
+ */
+@Slf4j
+@Profile("reactive")
+@RestControllerAdvice
+public class ReactiveExceptionHandler {
+
+    @ExceptionHandler(ProductoNotFoundException.class)
+    public ResponseEntity<Map<String, Object>> handleProductoNotFoundException(
+            ProductoNotFoundException ex,
+            ServerWebExchange exchange) {
+
+        log.error("Producto no encontrado: {}", ex.getMessage());
+        return respuesta(HttpStatus.NOT_FOUND, "Producto no encontrado", ex.getMessage(), exchange);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, Object>> handleIllegalArgumentException(
+            IllegalArgumentException ex,
+            ServerWebExchange exchange) {
+
+        log.error("Argumento inválido: {}", ex.getMessage());
+        return respuesta(HttpStatus.BAD_REQUEST, "Solicitud inválida", ex.getMessage(), exchange);
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<Map<String, Object>> handleGenericException(
+            Exception ex,
+            ServerWebExchange exchange) {
+
+        log.error("Error no esperado: {}", ex.getMessage(), ex);
+        return respuesta(HttpStatus.INTERNAL_SERVER_ERROR, "Error interno del servidor",
+                "Ocurrió un error inesperado", exchange);
+    }
+
+    private ResponseEntity<Map<String, Object>> respuesta(HttpStatus status, String error, String message,
+                                                          ServerWebExchange exchange) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("status", status.value());
+        body.put("error", error);
+        body.put("message", message);
+        body.put("path", exchange.getRequest().getPath().value());
+
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+}
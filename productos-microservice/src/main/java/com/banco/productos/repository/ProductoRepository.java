@@ -1,15 +1,67 @@
 package com.banco.productos.repository;
 
+import com.banco.productos.dto.ProductoDTO;
 import com.banco.productos.entity.Producto;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.NativeQuery;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 
+/**
+ * Las lecturas devuelven el DTO directamente desde la consulta (constructor en JPQL): no se crean
+ * entidades gestionadas, no hay snapshot para dirty checking ni entradas en el contexto de
+ * persistencia, y no se lee created_at. Con el índice cubriente de V2 la consulta por cliente
+ * es un index-only scan.
+ */
 @Repository
 public interface ProductoRepository extends JpaRepository<Producto, Long> {
 
+    String DTO = "select new com.banco.productos.dto.ProductoDTO("
+            + "p.id, p.codigoCliente, p.tipoProducto, p.nombre, p.saldo, p.estado) from Producto p ";
+
+    /**
+     * Fetch size de las lecturas que se devuelven como lista: el resultado se materializa entero de
+     * todas formas, así que se trae en un solo viaje (0 = todas las filas en PostgreSQL) en lugar de
+     * en bloques de hibernate.jdbc.fetch_size, pensado para las exportaciones
+     */
+    String FETCH_SIZE_LISTA = "0";
+
+    /**
+     * Busca todos los productos de un cliente (resultado en cache de consultas)
+     */
+    @Query(DTO + "where p.codigoCliente = :codigoCliente")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "productos-por-cliente"),
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = FETCH_SIZE_LISTA)
+    })
+    List<ProductoDTO> findDtoByCodigoCliente(String codigoCliente);
+
+    /**
+     * Busca los productos de varios clientes en una sola consulta. Los códigos viajan como un único
+     * parámetro array (= ANY): la sentencia es la misma para cualquier cantidad de claves y
+     * PostgreSQL reutiliza su plan, mientras que un IN genera una sentencia distinta por tamaño
+     */
+    @NativeQuery("select id, codigo_cliente, tipo_producto, nombre, saldo, estado "
+            + "from productos where codigo_cliente = any(:codigosCliente)")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = FETCH_SIZE_LISTA))
+    List<ProductoDTO> findDtoByCodigoClienteIn(String[] codigosCliente);
+
+    /**
+     * Página de productos con id mayor al indicado (keyset), ordenada por id
+     */
+    @Query(DTO + "where p.id > :id order by p.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = FETCH_SIZE_LISTA))
+    List<ProductoDTO> findDtoByIdGreaterThan(Long id, Limit limit);
+
     /**
-     * Busca todos los productos de un cliente
+     * Todos los productos
      */
-    List<Producto> findByCodigoCliente(String codigoCliente);
-}
\ No newline at end of file
+    @Query(DTO)
+    List<ProductoDTO> findAllDto();
+}
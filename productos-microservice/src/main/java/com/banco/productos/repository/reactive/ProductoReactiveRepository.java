@@ -0,0 +1,29 @@
+package com.banco.productos.repository.reactive;
+
+import com.banco.productos.entity.ProductoR2dbc;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+@Repository
+public interface ProductoReactiveRepository extends R2dbcRepository<ProductoR2dbc, Long> {
+
+    /**
+     * Busca todos los productos de un cliente
+     */
+    Flux<ProductoR2dbc> findByCodigoCliente(String codigoCliente);
+
+    /**
+     * Busca los productos de varios clientes en una sola consulta, con los códigos como un único
+     * parámetro array (= ANY) en lugar de un IN con un parámetro por código
+     */
+    @Query("SELECT * FROM productos WHERE codigo_cliente = ANY(:codigosCliente)")
+    Flux<ProductoR2dbc> findByCodigoClienteIn(String[] codigosCliente);
+
+    /**
+     * Busca la siguiente página de productos por id (keyset), sin OFFSET
+     */
+    @Query("SELECT * FROM productos WHERE id > :despuesDeId ORDER BY id LIMIT :limite")
+    Flux<ProductoR2dbc> findPagina(Long despuesDeId, int limite);
+}
@@ -0,0 +1,265 @@
+package com.banco.productos.service;
+
+import com.banco.productos.cache.ProductosImportadosEvent;
+import com.banco.productos.dto.ImportacionResponse;
+import com.banco.productos.dto.ProductoRequest;
+import com.banco.productos.entity.Producto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Importación en bloque de productos desde CSV (con cabecera) o NDJSON, una fila por línea.
+ * El cuerpo se lee en streaming y se guarda en lotes de importacion.tamano-lote filas, cada uno en
+ * su propia transacción y en un solo batch JDBC (ids por secuencia en bloques de 50). Si un lote
+ * falla se repite fila a fila para guardar las correctas y reportar las que no.
+ */
+@Slf4j
+@Service
+@Profile("!reactive")
+public class ImportacionProductoService {
+
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    private static final Set<String> COLUMNAS = Set.of("codigoCliente", "tipoProducto", "nombre", "saldo");
+
+    /**
+     * Clientes acumulados de lotes confirmados antes de invalidar la cache del BFF
+     */
+    private static final int INVALIDACION_MAX_CLIENTES = 1000;
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transaccion;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectReader lectorJson;
+    private final CsvMapper csvMapper = new CsvMapper();
+    private final int tamanoLote;
+    private final int maxErrores;
+
+    public ImportacionProductoService(EntityManager entityManager,
+                                      PlatformTransactionManager transactionManager,
+                                      ApplicationEventPublisher eventPublisher,
+                                      ObjectMapper objectMapper,
+                                      @Value("${importacion.tamano-lote:1000}") int tamanoLote,
+                                      @Value("${importacion.max-errores:1000}") int maxErrores) {
+        this.entityManager = entityManager;
+        this.transaccion = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.lectorJson = objectMapper.readerFor(ProductoRequest.class);
+        this.tamanoLote = tamanoLote;
+        this.maxErrores = maxErrores;
+    }
+
+    /**
+     * Importar los productos del cuerpo; los errores de una fila no detienen la importación
+     */
+    public ImportacionResponse importar(InputStream cuerpo, MediaType tipo) throws IOException {
+        long inicio = System.nanoTime();
+        Resultado resultado = new Resultado(maxErrores);
+        BufferedReader lector = new BufferedReader(new InputStreamReader(cuerpo, StandardCharsets.UTF_8), 1 << 16);
+
+        long linea = 0;
+        ObjectReader lectorFila = lectorJson;
+        if (TEXT_CSV.isCompatibleWith(tipo)) {
+            lectorFila = lectorCsv(lector.readLine());
+            linea++;
+        }
+
+        List<Fila> lote = new ArrayList<>(tamanoLote);
+        Set<String> pendientes = new LinkedHashSet<>();
+        try {
+            String texto;
+            while ((texto = lector.readLine()) != null) {
+                linea++;
+                if (texto.isBlank()) {
+                    continue;
+                }
+                resultado.procesadas++;
+                try {
+                    lote.add(new Fila(linea, validar(lectorFila.readValue(texto))));
+                } catch (JsonProcessingException e) {
+                    resultado.rechazar(linea, "Fila mal formada: " + e.getOriginalMessage());
+                } catch (IllegalArgumentException e) {
+                    resultado.rechazar(linea, e.getMessage());
+                }
+                if (lote.size() == tamanoLote) {
+                    guardar(lote, resultado, pendientes);
+                    lote.clear();
+                }
+            }
+            if (!lote.isEmpty()) {
+                guardar(lote, resultado, pendientes);
+            }
+        } finally {
+            // Los lotes ya confirmados se invalidan aunque la lectura del cuerpo se corte
+            invalidar(pendientes);
+        }
+
+        ImportacionResponse respuesta = resultado.respuesta((System.nanoTime() - inicio) / 1_000_000);
+        log.info("Importación de productos: {} procesadas, {} insertadas, {} rechazadas en {} ms",
+                respuesta.getProcesadas(), respuesta.getInsertadas(), respuesta.getRechazadas(), respuesta.getDuracionMs());
+        return respuesta;
+    }
+
+    /**
+     * Lector de filas CSV con las columnas de la cabecera, que deben ser campos de ProductoRequest
+     */
+    private ObjectReader lectorCsv(String cabecera) {
+        if (cabecera == null || cabecera.isBlank()) {
+            throw new IllegalArgumentException("El CSV debe empezar con una cabecera: " + String.join(",", COLUMNAS));
+        }
+        CsvSchema.Builder esquema = CsvSchema.builder();
+        for (String columna : cabecera.split(",")) {
+            String nombre = columna.trim();
+            if (!COLUMNAS.contains(nombre)) {
+                throw new IllegalArgumentException("Columna desconocida en la cabecera: " + nombre);
+            }
+            esquema.addColumn(nombre);
+        }
+        return csvMapper.readerFor(ProductoRequest.class).with(esquema.build());
+    }
+
+    private static ProductoRequest validar(ProductoRequest request) {
+        requerido(request.getCodigoCliente(), "codigoCliente");
+        requerido(request.getTipoProducto(), "tipoProducto");
+        requerido(request.getNombre(), "nombre");
+        if (request.getSaldo() == null) {
+            throw new IllegalArgumentException("saldo es obligatorio");
+        }
+        return request;
+    }
+
+    private static void requerido(String valor, String campo) {
+        if (valor == null || valor.isBlank()) {
+            throw new IllegalArgumentException(campo + " es obligatorio");
+        }
+    }
+
+    /**
+     * Guardar un lote en una transacción; si falla, repetir fila a fila para aislar las que fallan
+     */
+    private void guardar(List<Fila> lote, Resultado resultado, Set<String> pendientes) {
+        try {
+            transaccion.executeWithoutResult(estado -> persistir(lote));
+            resultado.insertadas += lote.size();
+            acumular(lote, pendientes);
+            return;
+        } catch (PersistenceException | DataAccessException e) {
+            log.debug("Lote de {} productos rechazado, se reintenta fila a fila: {}", lote.size(), e.getMessage());
+        }
+
+        List<Fila> guardadas = new ArrayList<>(lote.size());
+        for (Fila fila : lote) {
+            try {
+                transaccion.executeWithoutResult(estado -> persistir(List.of(fila)));
+                resultado.insertadas++;
+                guardadas.add(fila);
+            } catch (PersistenceException | DataAccessException e) {
+                resultado.rechazar(fila.linea(), "Error al guardar: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            }
+        }
+        acumular(guardadas, pendientes);
+    }
+
+    /**
+     * Acumular los clientes de las filas confirmadas e invalidarlos en la cache del BFF cada
+     * INVALIDACION_MAX_CLIENTES clientes sin repetir: una llamada HTTP en serie por cliente, o
+     * incluso por lote, pesa en una importación grande (véase "Importación en bloque" en el README)
+     */
+    private void acumular(List<Fila> guardadas, Set<String> pendientes) {
+        guardadas.forEach(fila -> pendientes.add(fila.request().getCodigoCliente()));
+        if (pendientes.size() >= INVALIDACION_MAX_CLIENTES) {
+            invalidar(pendientes);
+        }
+    }
+
+    private void invalidar(Set<String> pendientes) {
+        if (pendientes.isEmpty()) {
+            return;
+        }
+        eventPublisher.publishEvent(new ProductosImportadosEvent(List.copyOf(pendientes)));
+        pendientes.clear();
+    }
+
+    private void persistir(List<Fila> filas) {
+        Session sesion = entityManager.unwrap(Session.class);
+        sesion.setJdbcBatchSize(tamanoLote);
+        // Sin poblar la cache de segundo nivel con cada producto importado
+        sesion.setCacheMode(CacheMode.IGNORE);
+
+        for (Fila fila : filas) {
+            ProductoRequest request = fila.request();
+            entityManager.persist(Producto.builder()
+                    .codigoCliente(request.getCodigoCliente())
+                    .tipoProducto(request.getTipoProducto())
+                    .nombre(request.getNombre())
+                    .saldo(request.getSaldo())
+                    .estado("ACTIVO")
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private record Fila(long linea, ProductoRequest request) {
+    }
+
+    private static final class Resultado {
+
+        private final int maxErrores;
+        private final List<ImportacionResponse.ErrorImportacion> errores = new ArrayList<>();
+        private long procesadas;
+        private long insertadas;
+        private long rechazadas;
+
+        private Resultado(int maxErrores) {
+            this.maxErrores = maxErrores;
+        }
+
+        private void rechazar(long linea, String mensaje) {
+            rechazadas++;
+            if (errores.size() < maxErrores) {
+                errores.add(new ImportacionResponse.ErrorImportacion(linea, mensaje));
+            }
+        }
+
+        private ImportacionResponse respuesta(long duracionMs) {
+            // Los errores al guardar un lote se conocen después de los de validación de sus filas
+            errores.sort(Comparator.comparingLong(ImportacionResponse.ErrorImportacion::getLinea));
+            return ImportacionResponse.builder()
+                    .procesadas(procesadas)
+                    .insertadas(insertadas)
+                    .rechazadas(rechazadas)
+                    .duracionMs(duracionMs)
+                    .errores(errores)
+                    .build();
+        }
+    }
+}
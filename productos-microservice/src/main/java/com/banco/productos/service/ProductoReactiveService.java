@@ -0,0 +1,264 @@
+package com.banco.productos.service;
+
+import com.banco.productos.cache.ProductoModificadoEvent;
+import com.banco.productos.dto.PaginaResponse;
+import com.banco.productos.dto.ProductoDTO;
+import com.banco.productos.dto.ProductoRequest;
+import com.banco.productos.dto.ResultadoPorClave;
+import com.banco.productos.entity.ProductoR2dbc;
+import com.banco.productos.exception.ProductoNotFoundException;
+import com.banco.productos.repository.reactive.ProductoReactiveRepository;
+import com.banco.comun.logging.CodigoHash;
+import com.banco.productos.util.CursorUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Misma lógica que {@link ProductoService} sobre R2DBC, sin bloquear hilos del event loop
+ */
+@Slf4j
+@Service
+@Profile("reactive")
+public class ProductoReactiveService {
+
+    private final ProductoReactiveRepository productoRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxClavesLote;
+    private final int maxClavesNdjson;
+    private final int tamanoPaginaDefecto;
+    private final int tamanoPaginaMaximo;
+
+    public ProductoReactiveService(ProductoReactiveRepository productoRepository,
+                                   ApplicationEventPublisher eventPublisher,
+                                   @Value("${consulta-lote.max-claves:1000}") int maxClavesLote,
+                                   @Value("${consulta-lote.max-claves-ndjson:5000}") int maxClavesNdjson,
+                                   @Value("${paginacion.tamano-defecto:50}") int tamanoPaginaDefecto,
+                                   @Value("${paginacion.tamano-maximo:500}") int tamanoPaginaMaximo) {
+        this.productoRepository = productoRepository;
+        this.eventPublisher = eventPublisher;
+        this.maxClavesLote = maxClavesLote;
+        this.maxClavesNdjson = maxClavesNdjson;
+        this.tamanoPaginaDefecto = tamanoPaginaDefecto;
+        this.tamanoPaginaMaximo = tamanoPaginaMaximo;
+    }
+
+    /**
+     * Obtener productos de un cliente
+     */
+    public Flux<ProductoDTO> obtenerPorCodigoCliente(String codigoCliente) {
+        log.atDebug()
+                .setMessage("Buscando productos")
+                .addKeyValue("codigoClienteHash", () -> CodigoHash.de(codigoCliente))
+                .log();
+        return productoRepository.findByCodigoCliente(codigoCliente)
+                .map(this::mapToDTO);
+    }
+
+    /**
+     * Obtener productos de varios clientes
+     */
+    public Flux<ProductoDTO> obtenerPorCodigosCliente(List<String> codigosCliente) {
+        if (codigosCliente == null || codigosCliente.isEmpty()) {
+            return Flux.empty();
+        }
+        if (codigosCliente.size() > maxClavesLote) {
+            return Flux.error(new IllegalArgumentException("Máximo " + maxClavesLote + " códigos por consulta"));
+        }
+        if (hayCodigoVacio(codigosCliente)) {
+            return Flux.error(new IllegalArgumentException("Los códigos no pueden ser nulos ni estar vacíos"));
+        }
+
+        log.debug("Buscando productos para {} clientes", codigosCliente.size());
+        return productoRepository.findByCodigoClienteIn(codigosCliente.toArray(String[]::new))
+                .map(this::mapToDTO);
+    }
+
+    /**
+     * Obtener productos de varios clientes agrupados por código, en el orden pedido y sin repetidos:
+     * hasta consulta-lote.max-claves-ndjson códigos, consultados en bloques de consulta-lote.max-claves.
+     * Cada bloque se emite al terminar de leerlo
+     */
+    public Flux<ResultadoPorClave<ProductoDTO>> obtenerPorCodigosClienteAgrupados(List<String> codigosCliente) {
+        if (codigosCliente == null || codigosCliente.isEmpty()) {
+            return Flux.empty();
+        }
+        if (codigosCliente.size() > maxClavesNdjson) {
+            return Flux.error(new IllegalArgumentException("Máximo " + maxClavesNdjson + " códigos por consulta"));
+        }
+        if (hayCodigoVacio(codigosCliente)) {
+            return Flux.error(new IllegalArgumentException("Los códigos no pueden ser nulos ni estar vacíos"));
+        }
+
+        return Flux.fromIterable(new LinkedHashSet<>(codigosCliente))
+                .buffer(maxClavesLote)
+                .concatMap(bloque -> productoRepository.findByCodigoClienteIn(bloque.toArray(String[]::new))
+                        .map(this::mapToDTO)
+                        .collectMultimap(ProductoDTO::getCodigoCliente)
+                        .flatMapIterable(porCodigo -> bloque.stream()
+                                .map(codigo -> new ResultadoPorClave<>(codigo,
+                                        List.copyOf(porCodigo.getOrDefault(codigo, List.of()))))
+                                .toList()));
+    }
+
+    /**
+     * Si la consulta por lote trae alguna clave nula o en blanco, que se rechaza con 400
+     */
+    private static boolean hayCodigoVacio(List<String> codigos) {
+        return codigos.stream().anyMatch(codigo -> codigo == null || codigo.isBlank());
+    }
+
+    /**
+     * Obtener producto por ID
+     */
+    public Mono<ProductoDTO> obtenerPorId(Long id) {
+        log.info("Buscando producto con ID: {}", id);
+        return buscar(id).map(this::mapToDTO);
+    }
+
+    /**
+     * Obtener una página de productos posteriores a un id (keyset)
+     */
+    public Flux<ProductoDTO> obtenerPagina(Long despuesDeId, int tamano) {
+        log.debug("Obteniendo página de productos después de id: {}", despuesDeId);
+        return productoRepository.findPagina(despuesDeId, tamano)
+                .map(this::mapToDTO);
+    }
+
+    /**
+     * Obtener una página de productos a partir de un cursor opaco
+     */
+    public Mono<PaginaResponse<ProductoDTO>> obtenerPaginaPorCursor(String cursor, Integer tamano) {
+        int tamanoPagina = tamano == null ? tamanoPaginaDefecto : tamano;
+        if (tamanoPagina < 1 || tamanoPagina > tamanoPaginaMaximo) {
+            return Mono.error(new IllegalArgumentException(
+                    "El tamaño de página debe estar entre 1 y " + tamanoPaginaMaximo));
+        }
+
+        // Se pide un elemento extra para saber si existe una página siguiente
+        return Mono.fromCallable(() -> CursorUtil.decodificar(cursor))
+                .flatMap(despuesDeId -> obtenerPagina(despuesDeId, tamanoPagina + 1).collectList())
+                .map(items -> {
+                    String siguienteCursor = null;
+                    if (items.size() > tamanoPagina) {
+                        items = items.subList(0, tamanoPagina);
+                        siguienteCursor = CursorUtil.codificar(items.get(tamanoPagina - 1).getId());
+                    }
+                    return PaginaResponse.<ProductoDTO>builder()
+                            .items(items)
+                            .tamano(items.size())
+                            .siguienteCursor(siguienteCursor)
+                            .build();
+                });
+    }
+
+    /**
+     * Recorrer todos los productos por páginas de id. La siguiente página se consulta
+     * solo cuando el cliente ha consumido la anterior (backpressure)
+     */
+    public Flux<ProductoDTO> exportar(int tamanoLote) {
+        return obtenerPagina(0L, tamanoLote).collectList()
+                .expand(pagina -> pagina.size() < tamanoLote
+                        ? Mono.empty()
+                        : obtenerPagina(pagina.get(pagina.size() - 1).getId(), tamanoLote).collectList())
+                .flatMapIterable(Function.identity());
+    }
+
+    /**
+     * Obtener todos los productos
+     */
+    public Flux<ProductoDTO> obtenerTodos() {
+        log.info("Obteniendo todos los productos");
+        return productoRepository.findAll()
+                .map(this::mapToDTO);
+    }
+
+    /**
+     * Crear nuevo producto
+     */
+    public Mono<ProductoDTO> crear(ProductoRequest request) {
+        log.info("Creando nuevo producto: {} para cliente: {}",
+                request.getNombre(), request.getCodigoCliente());
+
+        ProductoR2dbc producto = ProductoR2dbc.builder()
+                .codigoCliente(request.getCodigoCliente())
+                .tipoProducto(request.getTipoProducto())
+                .nombre(request.getNombre())
+                .saldo(request.getSaldo())
+                .estado("ACTIVO")
+                .createdAt(LocalDateTime.now())
+                .build();
+
+        return productoRepository.save(producto)
+                .doOnNext(guardado -> log.info("Producto creado exitosamente con ID: {}", guardado.getId()))
+                .flatMap(this::notificarModificacion)
+                .map(this::mapToDTO);
+    }
+
+    /**
+     * Actualizar producto
+     */
+    public Mono<ProductoDTO> actualizar(Long id, ProductoRequest request) {
+        log.info("Actualizando producto con ID: {}", id);
+
+        return buscar(id)
+                .flatMap(producto -> {
+                    producto.setNombre(request.getNombre());
+                    producto.setTipoProducto(request.getTipoProducto());
+                    producto.setSaldo(request.getSaldo());
+                    return productoRepository.save(producto);
+                })
+                .doOnNext(actualizado -> log.info("Producto actualizado exitosamente: {}", id))
+                .flatMap(this::notificarModificacion)
+                .map(this::mapToDTO);
+    }
+
+    /**
+     * Eliminar producto
+     */
+    public Mono<Void> eliminar(Long id) {
+        log.info("Eliminando producto con ID: {}", id);
+
+        return buscar(id)
+                .flatMap(producto -> productoRepository.delete(producto).thenReturn(producto))
+                .doOnNext(eliminado -> log.info("Producto eliminado exitosamente: {}", id))
+                .flatMap(this::notificarModificacion)
+                .then();
+    }
+
+    private Mono<ProductoR2dbc> buscar(Long id) {
+        return productoRepository.findById(id)
+                .switchIfEmpty(Mono.defer(() -> {
+                    log.error("Producto no encontrado: {}", id);
+                    return Mono.error(new ProductoNotFoundException("Producto no encontrado con ID: " + id));
+                }));
+    }
+
+    private Mono<ProductoR2dbc> notificarModificacion(ProductoR2dbc producto) {
+        // El invalidador de cache hace una llamada HTTP bloqueante: fuera del event loop
+        return Mono.fromRunnable(() -> eventPublisher.publishEvent(
+                        new ProductoModificadoEvent(producto.getCodigoCliente())))
+                .subscribeOn(Schedulers.boundedElastic())
+                .thenReturn(producto);
+    }
+
+    private ProductoDTO mapToDTO(ProductoR2dbc producto) {
+        return ProductoDTO.builder()
+                .id(producto.getId())
+                .codigoCliente(producto.getCodigoCliente())
+                .tipoProducto(producto.getTipoProducto())
+                .nombre(producto.getNombre())
+                .saldo(producto.getSaldo())
+                .estado(producto.getEstado())
+                .build();
+    }
+}
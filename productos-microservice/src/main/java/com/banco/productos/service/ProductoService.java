@@ -1,25 +1,51 @@
 package com.banco.productos.service;
 
+import com.banco.productos.cache.ProductoModificadoEvent;
 import com.banco.productos.dto.ProductoDTO;
+import com.banco.productos.dto.PaginaResponse;
 import com.banco.productos.dto.ProductoRequest;
 import com.banco.productos.entity.Producto;
 import com.banco.productos.exception.ProductoNotFoundException;
 import com.banco.productos.repository.ProductoRepository;
+import com.banco.comun.logging.CodigoHash;
+import com.banco.productos.util.CursorUtil;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Service
+@Profile("!reactive")
 @Transactional
 public class ProductoService {
 
     private final ProductoRepository productoRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxClavesLote;
+    private final int maxClavesNdjson;
+    private final int tamanoPaginaDefecto;
+    private final int tamanoPaginaMaximo;
 
-    public ProductoService(ProductoRepository productoRepository) {
+    public ProductoService(ProductoRepository productoRepository,
+                           ApplicationEventPublisher eventPublisher,
+                           @Value("${consulta-lote.max-claves:1000}") int maxClavesLote,
+                           @Value("${consulta-lote.max-claves-ndjson:5000}") int maxClavesNdjson,
+                           @Value("${paginacion.tamano-defecto:50}") int tamanoPaginaDefecto,
+                           @Value("${paginacion.tamano-maximo:500}") int tamanoPaginaMaximo) {
         this.productoRepository = productoRepository;
+        this.eventPublisher = eventPublisher;
+        this.maxClavesLote = maxClavesLote;
+        this.maxClavesNdjson = maxClavesNdjson;
+        this.tamanoPaginaDefecto = tamanoPaginaDefecto;
+        this.tamanoPaginaMaximo = tamanoPaginaMaximo;
     }
 
     /**
@@ -27,14 +53,68 @@ public class ProductoService {
      */
     @Transactional(readOnly = true)
     public List<ProductoDTO> obtenerPorCodigoCliente(String codigoCliente) {
-        log.info("Buscando productos para cliente: {}", codigoCliente);
+        log.atDebug()
+                .setMessage("Buscando productos")
+                .addKeyValue("codigoClienteHash", () -> CodigoHash.de(codigoCliente))
+                .log();
 
-        List<Producto> productos = productoRepository.findByCodigoCliente(codigoCliente);
+        List<ProductoDTO> productos = productoRepository.findDtoByCodigoCliente(codigoCliente);
         log.debug("Productos encontrados: {}", productos.size());
 
-        return productos.stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+        return productos;
+    }
+
+    /**
+     * Obtener productos de varios clientes
+     */
+    @Transactional(readOnly = true)
+    public List<ProductoDTO> obtenerPorCodigosCliente(List<String> codigosCliente) {
+        if (codigosCliente == null || codigosCliente.isEmpty()) {
+            return List.of();
+        }
+        if (codigosCliente.size() > maxClavesLote) {
+            throw new IllegalArgumentException("Máximo " + maxClavesLote + " códigos por consulta");
+        }
+        if (hayCodigoVacio(codigosCliente)) {
+            throw new IllegalArgumentException("Los códigos no pueden ser nulos ni estar vacíos");
+        }
+
+        log.debug("Buscando productos para {} clientes", codigosCliente.size());
+        List<ProductoDTO> productos = productoRepository.findDtoByCodigoClienteIn(codigosCliente.toArray(String[]::new));
+        log.debug("Productos encontrados: {}", productos.size());
+
+        return productos;
+    }
+
+    /**
+     * Repartir los códigos de una consulta por lote en NDJSON (hasta consulta-lote.max-claves-ndjson,
+     * sin repetidos y en el orden pedido) en bloques de consulta-lote.max-claves, uno por consulta
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<List<String>> bloquesDeCodigos(List<String> codigos) {
+        if (codigos == null || codigos.isEmpty()) {
+            return List.of();
+        }
+        if (codigos.size() > maxClavesNdjson) {
+            throw new IllegalArgumentException("Máximo " + maxClavesNdjson + " códigos por consulta");
+        }
+        if (hayCodigoVacio(codigos)) {
+            throw new IllegalArgumentException("Los códigos no pueden ser nulos ni estar vacíos");
+        }
+
+        List<String> unicos = List.copyOf(new LinkedHashSet<>(codigos));
+        List<List<String>> bloques = new ArrayList<>();
+        for (int desde = 0; desde < unicos.size(); desde += maxClavesLote) {
+            bloques.add(unicos.subList(desde, Math.min(desde + maxClavesLote, unicos.size())));
+        }
+        return bloques;
+    }
+
+    /**
+     * Si la consulta por lote trae alguna clave nula o en blanco, que se rechaza con 400
+     */
+    private static boolean hayCodigoVacio(List<String> codigos) {
+        return codigos.stream().anyMatch(codigo -> codigo == null || codigo.isBlank());
     }
 
     /**
@@ -53,6 +133,42 @@ public class ProductoService {
         return mapToDTO(producto);
     }
 
+    /**
+     * Obtener una página de productos posteriores a un id (keyset). Cada página usa su propia transacción
+     */
+    @Transactional(readOnly = true)
+    public List<ProductoDTO> obtenerPagina(Long despuesDeId, int tamano) {
+        log.debug("Obteniendo página de productos después de id: {}", despuesDeId);
+
+        return productoRepository.findDtoByIdGreaterThan(despuesDeId, Limit.of(tamano));
+    }
+
+    /**
+     * Obtener una página de productos a partir de un cursor opaco.
+     * El costo es el mismo para cualquier página porque se busca por id, sin OFFSET
+     */
+    @Transactional(readOnly = true)
+    public PaginaResponse<ProductoDTO> obtenerPaginaPorCursor(String cursor, Integer tamano) {
+        int tamanoPagina = tamano == null ? tamanoPaginaDefecto : tamano;
+        if (tamanoPagina < 1 || tamanoPagina > tamanoPaginaMaximo) {
+            throw new IllegalArgumentException("El tamaño de página debe estar entre 1 y " + tamanoPaginaMaximo);
+        }
+
+        // Se pide un elemento extra para saber si existe una página siguiente
+        List<ProductoDTO> items = obtenerPagina(CursorUtil.decodificar(cursor), tamanoPagina + 1);
+        String siguienteCursor = null;
+        if (items.size() > tamanoPagina) {
+            items = items.subList(0, tamanoPagina);
+            siguienteCursor = CursorUtil.codificar(items.get(tamanoPagina - 1).getId());
+        }
+
+        return PaginaResponse.<ProductoDTO>builder()
+                .items(items)
+                .tamano(items.size())
+                .siguienteCursor(siguienteCursor)
+                .build();
+    }
+
     /**
      * Obtener todos los productos
      */
@@ -60,20 +176,21 @@ public class ProductoService {
     public List<ProductoDTO> obtenerTodos() {
         log.info("Obteniendo todos los productos");
 
-        List<Producto> productos = productoRepository.findAll();
+        List<ProductoDTO> productos = productoRepository.findAllDto();
         log.debug("Total de productos encontrados: {}", productos.size());
 
-        return productos.stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+        return productos;
     }
 
     /**
      * Crear nuevo producto
      */
     public ProductoDTO crear(ProductoRequest request) {
-        log.info("Creando nuevo producto: {} para cliente: {}",
-                request.getNombre(), request.getCodigoCliente());
+        log.atInfo()
+                .setMessage("Creando nuevo producto")
+                .addKeyValue("nombre", request.getNombre())
+                .addKeyValue("codigoClienteHash", () -> CodigoHash.de(request.getCodigoCliente()))
+                .log();
 
         Producto producto = Producto.builder()
                 .codigoCliente(request.getCodigoCliente())
@@ -85,6 +202,7 @@ public class ProductoService {
 
         Producto productoGuardado = productoRepository.save(producto);
         log.info("Producto creado exitosamente con ID: {}", productoGuardado.getId());
+        eventPublisher.publishEvent(new ProductoModificadoEvent(productoGuardado.getCodigoCliente()));
 
         return mapToDTO(productoGuardado);
     }
@@ -104,6 +222,7 @@ public class ProductoService {
 
         Producto productoActualizado = productoRepository.save(producto);
         log.info("Producto actualizado exitosamente: {}", id);
+        eventPublisher.publishEvent(new ProductoModificadoEvent(productoActualizado.getCodigoCliente()));
 
         return mapToDTO(productoActualizado);
     }
@@ -114,13 +233,15 @@ public class ProductoService {
     public void eliminar(Long id) {
         log.info("Eliminando producto con ID: {}", id);
 
-        if (!productoRepository.existsById(id)) {
-            log.error("Producto no encontrado: {}", id);
-            throw new ProductoNotFoundException("Producto no encontrado con ID: " + id);
-        }
+        Producto producto = productoRepository.findById(id)
+                .orElseThrow(() -> {
+                    log.error("Producto no encontrado: {}", id);
+                    return new ProductoNotFoundException("Producto no encontrado con ID: " + id);
+                });
 
-        productoRepository.deleteById(id);
+        productoRepository.delete(producto);
         log.info("Producto eliminado exitosamente: {}", id);
+        eventPublisher.publishEvent(new ProductoModificadoEvent(producto.getCodigoCliente()));
     }
     private ProductoDTO mapToDTO(Producto producto) {
         return ProductoDTO.builder()
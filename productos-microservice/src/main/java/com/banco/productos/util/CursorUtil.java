@@ -0,0 +1,40 @@
+package com.banco.productos.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Codifica la posición de una página (último id leído) como token opaco
+ */
+public final class CursorUtil {
+
+    private static final String PREFIJO = "id:";
+
+    private CursorUtil() {
+    }
+
+    public static String codificar(Long ultimoId) {
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString((PREFIJO + ultimoId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static long decodificar(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!valor.startsWith(PREFIJO)) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            long ultimoId = Long.parseLong(valor.substring(PREFIJO.length()));
+            if (ultimoId < 0) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            return ultimoId;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+-- Esquema que generaba ddl-auto=update; las bases ya existentes lo toman como baseline
+CREATE TABLE IF NOT EXISTS productos (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    codigo_cliente VARCHAR(255) NOT NULL,
+    tipo_producto  VARCHAR(255) NOT NULL,
+    nombre         VARCHAR(255) NOT NULL,
+    saldo          NUMERIC(38, 2) NOT NULL,
+    estado         VARCHAR(255) NOT NULL,
+    created_at     TIMESTAMP(6)
+);
@@ -0,0 +1,9 @@
+-- Camino caliente del BFF: productos de un cliente (findByCodigoCliente, findByCodigoClienteIn).
+-- Índice de cobertura: con las columnas del DTO en INCLUDE la consulta por cliente se resuelve
+-- con un index-only scan, sin leer la tabla. CONCURRENTLY no bloquea escrituras en bases ya
+-- pobladas (por eso la migración no va en transacción, ver el .conf). Si un intento anterior
+-- falló, el índice quedó INVALID: se elimina antes de volver a crearlo.
+DROP INDEX CONCURRENTLY IF EXISTS idx_productos_codigo_cliente_estado;
+CREATE INDEX CONCURRENTLY idx_productos_codigo_cliente_estado
+    ON productos (codigo_cliente, estado)
+    INCLUDE (id, tipo_producto, nombre, saldo);
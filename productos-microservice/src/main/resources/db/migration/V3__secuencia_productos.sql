@@ -0,0 +1,8 @@
+-- Ids por secuencia en bloques de 50 (optimizador pooled de Hibernate): con IDENTITY cada INSERT
+-- tiene que devolver su id y Hibernate no puede agruparlos en batches JDBC.
+-- El valor de la secuencia es el extremo superior de cada bloque, de ahí el + 50
+ALTER TABLE productos ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE IF NOT EXISTS productos_seq INCREMENT BY 50 OWNED BY productos.id;
+SELECT setval('productos_seq', (SELECT COALESCE(max(id), 0) FROM productos) + 50, false);
+-- Los INSERT sin id (modo reactivo, cargas SQL) siguen funcionando con la misma secuencia
+ALTER TABLE productos ALTER COLUMN id SET DEFAULT nextval('productos_seq');
@@ -0,0 +1,145 @@
+package com.banco.productos;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.configuration.FluentConfiguration;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.StringJoiner;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Planes de las consultas calientes contra un PostgreSQL real con las migraciones de Flyway y
+ * EXPLAIN_FILAS productos (10M por defecto, cinco por cliente). Solo corre con
+ * EXPLAIN_DATASOURCE_URL apuntando a una base dedicada, p. ej.
+ * {@code EXPLAIN_DATASOURCE_URL=jdbc:postgresql://localhost:5432/productos_explain mvn test -Dtest=ProductoIndicesExplainTest}
+ */
+@EnabledIfEnvironmentVariable(named = "EXPLAIN_DATASOURCE_URL", matches = ".+")
+class ProductoIndicesExplainTest {
+
+    private static final String INDICE = "idx_productos_codigo_cliente_estado";
+    private static final String COLUMNAS_DTO = "id, codigo_cliente, tipo_producto, nombre, saldo, estado";
+
+    private static String url;
+    private static String usuario;
+    private static String clave;
+
+    @BeforeAll
+    static void prepararDatos() throws SQLException {
+        url = System.getenv("EXPLAIN_DATASOURCE_URL");
+        usuario = System.getenv().getOrDefault("EXPLAIN_DATASOURCE_USERNAME", "postgres");
+        clave = System.getenv().getOrDefault("EXPLAIN_DATASOURCE_PASSWORD", "");
+        long filas = Long.parseLong(System.getenv().getOrDefault("EXPLAIN_FILAS", "10000000"));
+
+        // Primero solo la tabla: cargar con el índice ya creado es mucho más lento, y así la
+        // migración del índice corre sobre una tabla poblada, como en producción
+        flyway().target("1").load().migrate();
+
+        try (Connection conexion = conectar(); Statement sentencia = conexion.createStatement()) {
+            long existentes = contar(sentencia);
+            if (existentes < filas) {
+                sentencia.executeUpdate("INSERT INTO productos (codigo_cliente, tipo_producto, nombre, saldo, estado, created_at) "
+                        + "SELECT 'CLI' || lpad((g / 5)::text, 8, '0'), 'CUENTA_AHORROS', 'Producto ' || g, "
+                        + "(g % 100000) / 100.0, CASE WHEN g % 10 = 0 THEN 'INACTIVO' ELSE 'ACTIVO' END, now() "
+                        + "FROM generate_series(" + (existentes + 1) + ", " + filas + ") g");
+            }
+        }
+
+        flyway().load().migrate();
+
+        try (Connection conexion = conectar(); Statement sentencia = conexion.createStatement()) {
+            // El index-only scan depende del mapa de visibilidad y de estadísticas al día
+            sentencia.execute("VACUUM ANALYZE productos");
+        }
+    }
+
+    /**
+     * Misma configuración que la aplicación: sin bloqueo transaccional, que dejaría esperando
+     * para siempre al CREATE INDEX CONCURRENTLY
+     */
+    private static FluentConfiguration flyway() {
+        return Flyway.configure()
+                .dataSource(url, usuario, clave)
+                .configuration(Map.of("flyway.postgresql.transactional.lock", "false"));
+    }
+
+    private static Connection conectar() throws SQLException {
+        return DriverManager.getConnection(url, usuario, clave);
+    }
+
+    private static long contar(Statement sentencia) throws SQLException {
+        try (ResultSet resultado = sentencia.executeQuery("SELECT count(*) FROM productos")) {
+            resultado.next();
+            return resultado.getLong(1);
+        }
+    }
+
+    /**
+     * Plan real (EXPLAIN ANALYZE) de la consulta con los parámetros indicados; un String[] viaja
+     * como un único parámetro array, igual que en ProductoRepository.findDtoByCodigoClienteIn
+     */
+    private static String plan(String sql, Object... parametros) throws SQLException {
+        try (Connection conexion = conectar();
+             PreparedStatement explain = conexion.prepareStatement("EXPLAIN (ANALYZE, BUFFERS) " + sql)) {
+            for (int i = 0; i < parametros.length; i++) {
+                if (parametros[i] instanceof String[] codigos) {
+                    explain.setArray(i + 1, conexion.createArrayOf("varchar", codigos));
+                } else {
+                    explain.setString(i + 1, (String) parametros[i]);
+                }
+            }
+            StringJoiner plan = new StringJoiner("\n");
+            try (ResultSet resultado = explain.executeQuery()) {
+                while (resultado.next()) {
+                    plan.add(resultado.getString(1));
+                }
+            }
+            return plan.toString();
+        }
+    }
+
+    @Test
+    void productosPorCliente_columnasDelDto_deberiaSerIndexOnlyScan() throws SQLException {
+        String plan = plan("SELECT " + COLUMNAS_DTO + " FROM productos WHERE codigo_cliente = ?", "CLI00123456");
+
+        assertTrue(plan.contains("Index Only Scan using " + INDICE), plan);
+        assertFalse(plan.contains("Seq Scan"), plan);
+    }
+
+    @Test
+    void productosPorCliente_activos_deberiaSerIndexOnlyScan() throws SQLException {
+        String plan = plan("SELECT " + COLUMNAS_DTO + " FROM productos WHERE codigo_cliente = ? AND estado = ?",
+                "CLI00123456", "ACTIVO");
+
+        assertTrue(plan.contains("Index Only Scan using " + INDICE), plan);
+    }
+
+    @Test
+    void productosDeVariosClientes_deberiaSerIndexOnlyScan() throws SQLException {
+        String plan = plan("SELECT " + COLUMNAS_DTO + " FROM productos WHERE codigo_cliente = any(?)",
+                (Object) new String[]{"CLI00000001", "CLI00999999", "CLI01999998"});
+
+        assertTrue(plan.contains("Index Only Scan using " + INDICE), plan);
+        assertFalse(plan.contains("Seq Scan"), plan);
+    }
+
+    @Test
+    void productosPorCliente_entidadCompleta_deberiaUsarElIndice() throws SQLException {
+        // La entidad lee también created_at, que no está en el índice: index scan, nunca seq scan
+        String plan = plan("SELECT " + COLUMNAS_DTO + ", created_at FROM productos WHERE codigo_cliente = ?",
+                "CLI00123456");
+
+        assertTrue(plan.contains("using " + INDICE), plan);
+        assertFalse(plan.contains("Seq Scan"), plan);
+    }
+}
@@ -0,0 +1,127 @@
+package com.banco.productos;
+
+import com.banco.productos.dto.ProductoDTO;
+import com.banco.productos.dto.ProductoRequest;
+import com.banco.productos.dto.ResultadoPorClave;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Perfil "reactive" contra H2 en memoria vía R2DBC, sin PostgreSQL
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.r2dbc.url=r2dbc:h2:mem:///productos;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password=",
+        "spring.sql.init.mode=always",
+        "spring.sql.init.schema-locations=classpath:schema-reactive.sql"
+})
+@ActiveProfiles("reactive")
+class ProductosReactiveApplicationTests {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void crearYConsultarPorCliente() {
+        ProductoRequest request = new ProductoRequest("CLI001", "AHORRO", "Cuenta de ahorros", new BigDecimal("100.00"));
+
+        webTestClient.post().uri("/api/productos")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(ProductoDTO.class)
+                .value(producto -> assertNotNull(producto.getId()));
+
+        webTestClient.get().uri("/api/productos/cliente/CLI001")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ProductoDTO.class)
+                .hasSize(1);
+    }
+
+    @Test
+    void loteDeClientes_json_yNdjsonAgrupadoPorCodigo() {
+        for (String codigo : List.of("CLI101", "CLI101", "CLI102")) {
+            webTestClient.post().uri("/api/productos")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(new ProductoRequest(codigo, "AHORRO", "Cuenta", BigDecimal.TEN))
+                    .exchange()
+                    .expectStatus().isCreated();
+        }
+        List<String> codigos = List.of("CLI102", "CLI999", "CLI101", "CLI102");
+
+        // Sin Accept sigue respondiendo la lista JSON que consume el BFF
+        webTestClient.post().uri("/api/productos/clientes/lote")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(codigos)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ProductoDTO.class)
+                .hasSize(3);
+
+        List<ResultadoPorClave<ProductoDTO>> lineas = webTestClient.post().uri("/api/productos/clientes/lote")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue(codigos)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(new ParameterizedTypeReference<ResultadoPorClave<ProductoDTO>>() { })
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertNotNull(lineas);
+        assertEquals(List.of("CLI102", "CLI999", "CLI101"), lineas.stream().map(ResultadoPorClave::getClave).toList());
+        assertEquals(List.of(1, 0, 2), lineas.stream().map(linea -> linea.getResultados().size()).toList());
+    }
+
+    @Test
+    void loteDeClientesNdjson_demasiadosCodigos_deberiaRetornar400EnJson() {
+        List<String> codigos = IntStream.rangeClosed(0, 5000).mapToObj(i -> "CLI" + i).toList();
+
+        webTestClient.post().uri("/api/productos/clientes/lote")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue(codigos)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Máximo 5000 códigos por consulta");
+    }
+
+    @Test
+    void loteDeClientes_codigoNulo_deberiaRetornar400EnJsonYNdjson() {
+        for (MediaType formato : List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_NDJSON)) {
+            webTestClient.post().uri("/api/productos/clientes/lote")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .accept(formato)
+                    .bodyValue("[\"CLI101\", null]")
+                    .exchange()
+                    .expectStatus().isBadRequest()
+                    .expectBody()
+                    .jsonPath("$.message").isEqualTo("Los códigos no pueden ser nulos ni estar vacíos");
+        }
+    }
+
+    @Test
+    void obtenerPorId_inexistente_deberiaRetornar404() {
+        webTestClient.get().uri("/api/productos/id/999999")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Producto no encontrado");
+    }
+}
@@ -0,0 +1,71 @@
+package com.banco.productos.cache;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BffCacheInvalidatorTest {
+
+    private HttpServer bff;
+    private final List<String> peticiones = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        bff = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        bff.createContext("/bff/api/cache", intercambio -> {
+            String cuerpo = new String(intercambio.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            peticiones.add(intercambio.getRequestMethod() + " " + intercambio.getRequestURI().getPath() + " "
+                    + intercambio.getRequestHeaders().getFirst("X-Cache-Token") + " " + cuerpo);
+            intercambio.sendResponseHeaders(204, -1);
+            intercambio.close();
+        });
+        bff.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        bff.stop(0);
+    }
+
+    private BffCacheInvalidator invalidador() {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("restClientBuilder", RestClient.builder());
+        String url = "http://127.0.0.1:" + bff.getAddress().getPort() + "/bff/api/cache";
+        return new BffCacheInvalidator(beans.getBeanProvider(RestClient.Builder.class), url, "secreto");
+    }
+
+    @Test
+    void onProductosImportados_deberiaEnviarUnaLlamadaPorBloqueDeMilClientes() {
+        List<String> codigos = IntStream.range(0, 2500).mapToObj(i -> "CLI" + i).toList();
+
+        invalidador().onProductosImportados(new ProductosImportadosEvent(codigos));
+
+        assertEquals(3, peticiones.size());
+        peticiones.forEach(peticion ->
+                assertTrue(peticion.startsWith("POST /bff/api/cache/clientes/invalidaciones secreto ["), peticion));
+        assertTrue(peticiones.get(0).contains("\"CLI0\"") && peticiones.get(0).contains("\"CLI999\""));
+        assertTrue(peticiones.get(2).contains("\"CLI2000\"") && peticiones.get(2).contains("\"CLI2499\""));
+    }
+
+    @Test
+    void onProductosImportados_sinUrl_noDeberiaLlamar() {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        new BffCacheInvalidator(beans.getBeanProvider(RestClient.Builder.class), "", "")
+                .onProductosImportados(new ProductosImportadosEvent(List.of("CLI1")));
+
+        assertEquals(0, peticiones.size());
+    }
+}
@@ -0,0 +1,154 @@
+package com.banco.productos.controller;
+
+import com.banco.productos.util.CursorUtil;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Páginas de exportación de 2 filas para que el streaming cruce varias
+@SpringBootTest(properties = "exportacion.tamano-lote=2")
+@AutoConfigureMockMvc
+class ProductoControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final String codigoCliente = "PAG" + UUID.randomUUID().toString().substring(0, 8);
+
+    private long crearProducto() throws Exception {
+        String cuerpo = mockMvc.perform(post("/api/productos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"codigoCliente":"%s","tipoProducto":"CUENTA_AHORROS","nombre":"Ahorro","saldo":10.00}
+                                """.formatted(codigoCliente)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(cuerpo).get("id").asLong();
+    }
+
+    @Test
+    void obtenerPagina_recorridoPorCursor_deberiaDevolverCadaProductoUnaVezConClavesIguales() throws Exception {
+        // Cinco productos del mismo cliente, tipo, nombre y saldo: solo el id los distingue en el orden
+        List<Long> creados = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            creados.add(crearProducto());
+        }
+
+        List<Long> leidos = new ArrayList<>();
+        String cursor = CursorUtil.codificar(creados.get(0) - 1);
+        while (cursor != null && (leidos.isEmpty() || leidos.get(leidos.size() - 1) < creados.get(4))) {
+            JsonNode pagina = objectMapper.readTree(mockMvc.perform(get("/api/productos/pagina")
+                            .param("cursor", cursor)
+                            .param("tamano", "2"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            assertTrue(pagina.get("items").size() <= 2);
+            pagina.get("items").forEach(item -> leidos.add(item.get("id").asLong()));
+            cursor = pagina.hasNonNull("siguienteCursor") ? pagina.get("siguienteCursor").asText() : null;
+        }
+
+        assertEquals(creados, leidos.subList(0, 5));
+    }
+
+    @Test
+    void obtenerPagina_cursorManipuladoOTamanoInvalido_deberiaResponder400() throws Exception {
+        mockMvc.perform(get("/api/productos/pagina").param("cursor", "no-es-base64!"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Cursor inválido"));
+        // "id:-1" en base64url
+        mockMvc.perform(get("/api/productos/pagina").param("cursor", "aWQ6LTE"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Cursor inválido"));
+        mockMvc.perform(get("/api/productos/pagina").param("tamano", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private String exportar(MediaType tipo) throws Exception {
+        MvcResult inicio = mockMvc.perform(get("/api/productos/exportar").accept(tipo))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(inicio))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(tipo))
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    @Test
+    void exportarNdjson_deberiaEscribirUnaLineaJsonPorFilaEnOrdenDeId() throws Exception {
+        crearProducto();
+        int filas = jdbcTemplate.queryForObject("select count(*) from productos", Integer.class);
+
+        String cuerpo = exportar(MediaType.APPLICATION_NDJSON);
+
+        assertTrue(cuerpo.endsWith("\n"));
+        String[] lineas = cuerpo.split("\n");
+        assertEquals(filas, lineas.length);
+        long idAnterior = 0;
+        boolean encontrado = false;
+        for (String linea : lineas) {
+            JsonNode producto = objectMapper.readTree(linea);
+            assertTrue(producto.isObject(), linea);
+            assertTrue(producto.get("id").asLong() > idAnterior, linea);
+            idAnterior = producto.get("id").asLong();
+            encontrado |= codigoCliente.equals(producto.path("codigoCliente").asText());
+        }
+        assertTrue(encontrado);
+    }
+
+    @Test
+    void exportarSse_deberiaEscribirUnEventoDataPorFila() throws Exception {
+        crearProducto();
+        int filas = jdbcTemplate.queryForObject("select count(*) from productos", Integer.class);
+
+        String cuerpo = exportar(MediaType.TEXT_EVENT_STREAM);
+
+        assertTrue(cuerpo.endsWith("\n\n"));
+        String[] eventos = cuerpo.split("\n\n");
+        assertEquals(filas, eventos.length);
+        for (String evento : eventos) {
+            assertTrue(evento.startsWith("data: {"), evento);
+            objectMapper.readTree(evento.substring("data: ".length()));
+        }
+    }
+
+    @Test
+    void lote_codigoNuloOEnBlanco_deberiaRetornar400EnJsonYNdjson() throws Exception {
+        for (String cuerpo : List.of("[\"A\", null]", "[\"A\", \" \"]")) {
+            for (MediaType formato : List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_NDJSON)) {
+                mockMvc.perform(post("/api/productos/clientes/lote")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .accept(formato)
+                                .content(cuerpo))
+                        .andExpect(status().isBadRequest())
+                        .andExpect(jsonPath("$.message").value("Los códigos no pueden ser nulos ni estar vacíos"));
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.banco.productos.repository;
+
+import com.banco.productos.dto.ProductoDTO;
+import com.banco.productos.entity.Producto;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Las proyecciones a DTO (constructor en JPQL y la nativa con = any) devuelven lo mismo que
+ * cargar las entidades y mapearlas, como se hacía antes
+ */
+@SpringBootTest
+class ProductoRepositoryTest {
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transaccion;
+
+    private final String prefijo = "DTO" + UUID.randomUUID().toString().substring(0, 6);
+
+    @BeforeEach
+    void setUp() {
+        productoRepository.saveAllAndFlush(List.of(
+                producto(prefijo + "A", "CUENTA_AHORROS", "Ahorro", "1500.50", "ACTIVO"),
+                producto(prefijo + "A", "TARJETA_CREDITO", "Visa", "0.00", "BLOQUEADO"),
+                producto(prefijo + "B", "CUENTA_CORRIENTE", "Corriente ñandú", "-20.75", "ACTIVO"),
+                producto(prefijo + "C", "CUENTA_AHORROS", "Ahorro", "99999999.99", "ACTIVO")));
+    }
+
+    private static Producto producto(String codigoCliente, String tipo, String nombre, String saldo, String estado) {
+        return Producto.builder()
+                .codigoCliente(codigoCliente)
+                .tipoProducto(tipo)
+                .nombre(nombre)
+                .saldo(new BigDecimal(saldo))
+                .estado(estado)
+                .build();
+    }
+
+    /**
+     * El camino anterior: entidades gestionadas mapeadas como en ProductoService.mapToDTO
+     */
+    private List<ProductoDTO> entidades(String jpql, Object... parametros) {
+        return transaccion.execute(estado -> {
+            var consulta = entityManager.createQuery(jpql, Producto.class);
+            for (int i = 0; i < parametros.length; i++) {
+                consulta.setParameter(i + 1, parametros[i]);
+            }
+            return consulta.getResultList().stream()
+                    .map(producto -> ProductoDTO.builder()
+                            .id(producto.getId())
+                            .codigoCliente(producto.getCodigoCliente())
+                            .tipoProducto(producto.getTipoProducto())
+                            .nombre(producto.getNombre())
+                            .saldo(producto.getSaldo())
+                            .estado(producto.getEstado())
+                            .build())
+                    .toList();
+        });
+    }
+
+    private static List<ProductoDTO> porId(List<ProductoDTO> productos) {
+        return productos.stream().sorted(Comparator.comparing(ProductoDTO::getId)).toList();
+    }
+
+    @Test
+    void findDtoByCodigoCliente_deberiaCoincidirConLasEntidadesMapeadas() {
+        List<ProductoDTO> esperados = entidades("from Producto p where p.codigoCliente = ?1 order by p.id", prefijo + "A");
+
+        assertEquals(2, esperados.size());
+        assertEquals(esperados, porId(productoRepository.findDtoByCodigoCliente(prefijo + "A")));
+    }
+
+    @Test
+    void findDtoByCodigoClienteIn_deberiaCoincidirConLasEntidadesMapeadas() {
+        List<ProductoDTO> esperados = entidades("from Producto p where p.codigoCliente in ?1 order by p.id",
+                List.of(prefijo + "A", prefijo + "B", prefijo + "X"));
+
+        assertEquals(3, esperados.size());
+        assertEquals(esperados, porId(productoRepository.findDtoByCodigoClienteIn(
+                new String[]{prefijo + "A", prefijo + "B", prefijo + "X"})));
+    }
+
+    @Test
+    void findDtoByIdGreaterThanYFindAllDto_deberianCoincidirConLasEntidadesMapeadas() {
+        long desde = entidades("from Producto p where p.codigoCliente = ?1", prefijo + "A").stream()
+                .mapToLong(ProductoDTO::getId).min().orElseThrow() - 1;
+
+        assertEquals(entidades("from Producto p where p.id > ?1 order by p.id limit 3", desde),
+                productoRepository.findDtoByIdGreaterThan(desde, Limit.of(3)));
+        assertEquals(entidades("from Producto p order by p.id"), porId(productoRepository.findAllDto()));
+    }
+}
@@ -0,0 +1,216 @@
+package com.banco.productos.service;
+
+import com.banco.productos.cache.ProductoModificadoEvent;
+import com.banco.productos.cache.ProductosImportadosEvent;
+import com.banco.productos.dto.ImportacionResponse;
+import com.banco.productos.entity.Producto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.SequenceGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@RecordApplicationEvents
+class ImportacionProductoServiceTest {
+
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+    private static final String CABECERA = "codigoCliente,tipoProducto,nombre,saldo\n";
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEvents eventos;
+
+    private final String prefijo = "IMP" + UUID.randomUUID().toString().substring(0, 6);
+
+    private ImportacionProductoService servicio(int tamanoLote, int maxErrores) {
+        return new ImportacionProductoService(entityManager, transactionManager, eventPublisher, objectMapper,
+                tamanoLote, maxErrores);
+    }
+
+    private static ImportacionResponse importar(ImportacionProductoService servicio, String cuerpo, MediaType tipo)
+            throws IOException {
+        return servicio.importar(new ByteArrayInputStream(cuerpo.getBytes(StandardCharsets.UTF_8)), tipo);
+    }
+
+    private int importados() {
+        return jdbcTemplate.queryForObject("select count(*) from productos where codigo_cliente like ?",
+                Integer.class, prefijo + "%");
+    }
+
+    @Test
+    void importar_csvConCabecera_deberiaInsertarCadaFila() throws IOException {
+        String csv = CABECERA + IntStream.range(0, 5)
+                .mapToObj(i -> prefijo + (i % 2) + ",CUENTA_AHORROS,Ahorro " + i + ",1500.50")
+                .collect(Collectors.joining("\n"));
+
+        ImportacionResponse respuesta = importar(servicio(2, 10), csv, TEXT_CSV);
+
+        assertEquals(5, respuesta.getProcesadas());
+        assertEquals(5, respuesta.getInsertadas());
+        assertEquals(5, importados());
+        assertEquals(new BigDecimal("1500.50"), jdbcTemplate.queryForObject(
+                "select saldo from productos where codigo_cliente = ? and nombre = 'Ahorro 0'", BigDecimal.class, prefijo + "0"));
+    }
+
+    @Test
+    void importar_ndjson_deberiaInsertarCadaLinea() throws IOException {
+        String ndjson = """
+                {"codigoCliente":"%1$s","tipoProducto":"TARJETA","nombre":"Visa","saldo":10}
+                {"codigoCliente":"%1$s","tipoProducto":"CUENTA","nombre":"Ahorro","saldo":20.25}
+                """.formatted(prefijo);
+
+        ImportacionResponse respuesta = importar(servicio(10, 10), ndjson, MediaType.APPLICATION_NDJSON);
+
+        assertEquals(2, respuesta.getInsertadas());
+        assertEquals(2, importados());
+    }
+
+    @Test
+    void importar_filaMalFormadaYCampoObligatorio_deberianReportarseConSuLinea() throws IOException {
+        String csv = CABECERA
+                + prefijo + ",CUENTA,Ahorro,no-es-un-numero\n"
+                + prefijo + ",CUENTA,,10\n"
+                + prefijo + ",CUENTA,Ahorro,10\n";
+
+        ImportacionResponse respuesta = importar(servicio(10, 10), csv, TEXT_CSV);
+
+        assertEquals(3, respuesta.getProcesadas());
+        assertEquals(1, respuesta.getInsertadas());
+        assertEquals(2, respuesta.getErrores().get(0).getLinea());
+        assertTrue(respuesta.getErrores().get(0).getMensaje().startsWith("Fila mal formada"));
+        assertEquals(new ImportacionResponse.ErrorImportacion(3, "nombre es obligatorio"), respuesta.getErrores().get(1));
+    }
+
+    @Test
+    void importar_loteQueFallaAlGuardar_deberiaReintentarFilaAFilaYReportarLaLinea() throws IOException {
+        // El nombre supera el VARCHAR(255): pasa la validación y lo rechaza la base al guardar el lote
+        String csv = CABECERA
+                + prefijo + ",CUENTA,Ahorro,10\n"
+                + prefijo + ",CUENTA," + "x".repeat(300) + ",10\n"
+                + prefijo + ",CUENTA,Corriente,10\n";
+
+        ImportacionResponse respuesta = importar(servicio(10, 10), csv, TEXT_CSV);
+
+        assertEquals(2, respuesta.getInsertadas());
+        assertEquals(1, respuesta.getRechazadas());
+        assertEquals(3, respuesta.getErrores().get(0).getLinea());
+        assertTrue(respuesta.getErrores().get(0).getMensaje().startsWith("Error al guardar"));
+        assertEquals(2, importados());
+    }
+
+    @Test
+    void importar_masErroresQueElMaximo_deberiaContarlosTodosYDetallarSoloLosPrimeros() throws IOException {
+        String csv = CABECERA + IntStream.range(0, 5)
+                .mapToObj(i -> prefijo + ",CUENTA,Ahorro,")
+                .collect(Collectors.joining("\n"));
+
+        ImportacionResponse respuesta = importar(servicio(10, 2), csv, TEXT_CSV);
+
+        assertEquals(5, respuesta.getRechazadas());
+        assertEquals(List.of(
+                new ImportacionResponse.ErrorImportacion(2, "saldo es obligatorio"),
+                new ImportacionResponse.ErrorImportacion(3, "saldo es obligatorio")), respuesta.getErrores());
+    }
+
+    @Test
+    void importar_pocosClientes_deberiaInvalidarLaCacheDelBffUnaSolaVezAlFinal() throws IOException {
+        String csv = CABECERA + IntStream.range(0, 6)
+                .mapToObj(i -> prefijo + (i % 2) + ",CUENTA,Ahorro " + i + ",10")
+                .collect(Collectors.joining("\n"));
+
+        importar(servicio(3, 10), csv, TEXT_CSV);
+
+        List<ProductosImportadosEvent> invalidaciones = eventos.stream(ProductosImportadosEvent.class).toList();
+        assertEquals(1, invalidaciones.size());
+        assertEquals(List.of(prefijo + "0", prefijo + "1"), List.copyOf(invalidaciones.get(0).getCodigosCliente()));
+        assertEquals(0, eventos.stream(ProductoModificadoEvent.class).count());
+    }
+
+    @Test
+    void importar_muchosClientes_deberiaInvalidarCadaMilClientesSinRepetir() throws IOException {
+        // 2500 clientes distintos con dos productos cada uno, en lotes de 1000 filas
+        String csv = CABECERA + IntStream.range(0, 5000)
+                .mapToObj(i -> prefijo + "-" + (i / 2) + ",CUENTA,Ahorro,10")
+                .collect(Collectors.joining("\n"));
+
+        importar(servicio(1000, 10), csv, TEXT_CSV);
+
+        List<ProductosImportadosEvent> invalidaciones = eventos.stream(ProductosImportadosEvent.class).toList();
+        assertEquals(List.of(1000, 1000, 500),
+                invalidaciones.stream().map(evento -> evento.getCodigosCliente().size()).toList());
+        assertEquals(2500, invalidaciones.stream()
+                .flatMap(evento -> evento.getCodigosCliente().stream()).distinct().count());
+    }
+
+    @Test
+    void importar_loteReintentadoFilaAFila_deberiaInvalidarSoloLosClientesGuardados() throws IOException {
+        String csv = CABECERA
+                + prefijo + "A,CUENTA,Ahorro,10\n"
+                + prefijo + "B,CUENTA," + "x".repeat(300) + ",10\n";
+
+        importar(servicio(10, 10), csv, TEXT_CSV);
+
+        List<ProductosImportadosEvent> invalidaciones = eventos.stream(ProductosImportadosEvent.class).toList();
+        assertEquals(1, invalidaciones.size());
+        assertEquals(List.of(prefijo + "A"), List.copyOf(invalidaciones.get(0).getCodigosCliente()));
+    }
+
+    @Test
+    void importar_idsPorSecuencia_deberianSalirEnBloquesDeLaMigracion() throws Exception {
+        String csv = CABECERA + IntStream.range(0, 60)
+                .mapToObj(i -> prefijo + ",CUENTA,Ahorro " + i + ",10")
+                .collect(Collectors.joining("\n"));
+
+        importar(servicio(100, 10), csv, TEXT_CSV);
+
+        // Un nextval cada allocationSize filas: los ids de un lote son consecutivos
+        List<Long> ids = jdbcTemplate.queryForList(
+                "select id from productos where codigo_cliente = ? order by id", Long.class, prefijo);
+        assertEquals(60, ids.size());
+        assertEquals(59, ids.get(59) - ids.get(0));
+
+        // El allocationSize de la entidad tiene que coincidir con el INCREMENT BY de V3
+        int allocationSize = Producto.class.getDeclaredField("id").getAnnotation(SequenceGenerator.class).allocationSize();
+        String v3 = new ClassPathResource("db/migration/V3__secuencia_productos.sql").getContentAsString(StandardCharsets.UTF_8);
+        Matcher incremento = Pattern.compile("INCREMENT BY (\\d+)").matcher(v3);
+        assertTrue(incremento.find());
+        assertEquals(allocationSize, Integer.parseInt(incremento.group(1)));
+    }
+}
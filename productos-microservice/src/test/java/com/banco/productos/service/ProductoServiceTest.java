@@ -0,0 +1,74 @@
+package com.banco.productos.service;
+
+import com.banco.productos.dto.ProductoDTO;
+import com.banco.productos.dto.ProductoRequest;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class ProductoServiceTest {
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final String codigoCliente = "CACHE" + UUID.randomUUID().toString().substring(0, 8);
+
+    private CacheRegionStatistics regionPorCliente() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics()
+                .getQueryRegionStatistics("productos-por-cliente");
+    }
+
+    private ProductoDTO crear(String nombre, String saldo) {
+        return productoService.crear(new ProductoRequest(codigoCliente, "CUENTA_AHORROS", nombre, new BigDecimal(saldo)));
+    }
+
+    @Test
+    void obtenerPorCodigoCliente_segundaLectura_deberiaSalirDeLaCacheDeConsultas() {
+        crear("Ahorro", "10.00");
+
+        productoService.obtenerPorCodigoCliente(codigoCliente);
+        long aciertos = regionPorCliente().getHitCount();
+        List<ProductoDTO> productos = productoService.obtenerPorCodigoCliente(codigoCliente);
+
+        assertEquals(aciertos + 1, regionPorCliente().getHitCount());
+        assertEquals(1, productos.size());
+    }
+
+    @Test
+    void actualizarYEliminar_deberianInvalidarLosProductosCacheadosDelCliente() {
+        ProductoDTO ahorro = crear("Ahorro", "10.00");
+        ProductoDTO corriente = crear("Corriente", "20.00");
+        productoService.obtenerPorCodigoCliente(codigoCliente);
+        productoService.obtenerPorCodigoCliente(codigoCliente);
+
+        productoService.actualizar(ahorro.getId(),
+                new ProductoRequest(codigoCliente, "CUENTA_AHORROS", "Ahorro plus", new BigDecimal("99.00")));
+        long aciertos = regionPorCliente().getHitCount();
+        List<ProductoDTO> trasActualizar = productoService.obtenerPorCodigoCliente(codigoCliente);
+
+        // La escritura en productos deja obsoleta la consulta cacheada: se vuelve a leer de la base
+        assertEquals(aciertos, regionPorCliente().getHitCount());
+        ProductoDTO actualizado = trasActualizar.stream()
+                .filter(producto -> producto.getId().equals(ahorro.getId())).findFirst().orElseThrow();
+        assertEquals("Ahorro plus", actualizado.getNombre());
+        assertEquals(0, new BigDecimal("99.00").compareTo(actualizado.getSaldo()));
+
+        productoService.eliminar(corriente.getId());
+        List<ProductoDTO> trasEliminar = productoService.obtenerPorCodigoCliente(codigoCliente);
+
+        assertEquals(List.of(ahorro.getId()), trasEliminar.stream().map(ProductoDTO::getId).toList());
+    }
+}